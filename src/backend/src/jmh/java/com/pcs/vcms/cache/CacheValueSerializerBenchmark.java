@@ -0,0 +1,163 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.dto.BerthAllocationDTO;
+import com.pcs.vcms.dto.ClearanceDTO;
+import com.pcs.vcms.dto.PreArrivalNotificationDTO;
+import com.pcs.vcms.dto.ServiceBookingDTO;
+import com.pcs.vcms.dto.VesselCallDTO;
+import com.pcs.vcms.entity.BerthAllocation.BerthAllocationStatus;
+import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.entity.Clearance.ClearanceType;
+import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
+import com.pcs.vcms.entity.ServiceBooking.ServiceType;
+import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the cached DTOs per value format.
+ * <p>
+ * {@code jdk} is the former {@code RedisCacheManager} default and only runs for values that
+ * implement {@link Serializable}; {@code smile} never compresses and {@code smile-lz4}
+ * compresses from 256 bytes. The serialized size of every value is printed once per trial.
+ * Run with {@code ./gradlew jmh}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheValueSerializerBenchmark {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 11, 15, 6, 30);
+
+    @Param({"jdk", "smile", "smile-lz4"})
+    public String format;
+
+    @Param({"vesselCall", "clearance", "serviceBooking", "preArrivalNotification", "berthAllocation",
+            "clearanceList"})
+    public String value;
+
+    private RedisSerializer<Object> serializer;
+    private Object sample;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        sample = sample(value);
+        if ("jdk".equals(format) && !(sample instanceof Serializable)) {
+            throw new IllegalStateException(value + " does not implement Serializable");
+        }
+        serializer = switch (format) {
+            case "jdk" -> new JdkSerializationRedisSerializer();
+            case "smile" -> new CacheValueSerializer(1, 0, new SimpleMeterRegistry());
+            case "smile-lz4" -> new CacheValueSerializer(1, 256, new SimpleMeterRegistry());
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        serialized = serializer.serialize(sample);
+        System.out.printf("%n%s %s: %d bytes per entry%n", format, value, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(sample);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    private static Object sample(String value) {
+        return switch (value) {
+            case "vesselCall" -> VesselCallDTO.builder()
+                    .id(41_227L)
+                    .vesselId(9_114L)
+                    .vesselName("MSC Aurora")
+                    .imoNumber("IMO9321483")
+                    .callSign("ABC1234")
+                    .status(VesselCallStatus.ARRIVED)
+                    .eta(NOW)
+                    .etd(NOW.plusDays(2))
+                    .ata(NOW.plusHours(1))
+                    .createdAt(NOW.minusDays(5))
+                    .updatedAt(NOW.plusHours(1))
+                    .version(4)
+                    .build();
+            case "clearance" -> clearance(88_301L);
+            case "serviceBooking" -> ServiceBookingDTO.builder()
+                    .id(55_012L)
+                    .vesselCallId(41_227L)
+                    .vesselName("MSC Aurora")
+                    .serviceType(ServiceType.PILOTAGE)
+                    .status(ServiceStatus.CONFIRMED)
+                    .quantity(2)
+                    .serviceTime(NOW.plusHours(3))
+                    .remarks("Two pilots required for the inner channel")
+                    .createdAt(NOW.minusDays(1))
+                    .updatedAt(NOW.minusHours(2))
+                    .build();
+            case "preArrivalNotification" -> PreArrivalNotificationDTO.builder()
+                    .id(7_731L)
+                    .vesselCallId(41_227L)
+                    .submittedBy("agent-a")
+                    .cargoDetails("1,840 TEU general cargo; 62 reefer units; 14 IMDG class 3 containers")
+                    .crewList("Master J. Larsen; C/O P. Moreau; C/E A. Novak; 18 ratings")
+                    .submittedAt(NOW.minusDays(2))
+                    .build();
+            case "berthAllocation" -> BerthAllocationDTO.builder()
+                    .id(12_904L)
+                    .vesselCallId(41_227L)
+                    .vesselName("MSC Aurora")
+                    .berthId(7L)
+                    .berthName("Container Terminal North 3")
+                    .startTime(NOW.plusHours(2))
+                    .endTime(NOW.plusDays(2))
+                    .status(BerthAllocationStatus.SCHEDULED)
+                    .createdAt(NOW.minusDays(3))
+                    .updatedAt(NOW.minusDays(1))
+                    .build();
+            case "clearanceList" -> {
+                List<ClearanceDTO> clearances = new ArrayList<>();
+                for (long id = 1; id <= 5; id++) {
+                    clearances.add(clearance(88_300L + id));
+                }
+                yield clearances;
+            }
+            default -> throw new IllegalArgumentException("Unknown value " + value);
+        };
+    }
+
+    private static ClearanceDTO clearance(long id) {
+        return ClearanceDTO.builder()
+                .id(id)
+                .vesselCallId(41_227L)
+                .vesselName("MSC Aurora")
+                .type(ClearanceType.CUSTOMS)
+                .status(ClearanceStatus.IN_PROGRESS)
+                .referenceNumber("CUS-2023-" + id)
+                .submittedBy("agent-a")
+                .remarks("Awaiting cargo manifest review")
+                .submittedAt(NOW.minusHours(6))
+                .validUntil(NOW.plusDays(30))
+                .createdAt(NOW.minusHours(6))
+                .updatedAt(NOW.minusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.pcs.vcms.audit;
+
+/**
+ * Immutable audit record of a business operation.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class AuditEvent {
+
+    private final long timestamp;
+    private final String action;
+    private final String entityType;
+    private final String entityId;
+    private final String actor;
+    private final String details;
+
+    public AuditEvent(long timestamp, String action, String entityType, String entityId,
+                      String actor, String details) {
+        this.timestamp = timestamp;
+        this.action = action;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.actor = actor;
+        this.details = details;
+    }
+
+    /**
+     * @return time of the operation in epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    @Override
+    public String toString() {
+        return action + ' ' + entityType + ':' + entityId + " by " + actor + " (" + details + ')';
+    }
+}
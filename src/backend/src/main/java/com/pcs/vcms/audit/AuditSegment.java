@@ -0,0 +1,120 @@
+package com.pcs.vcms.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only audit segment file, memory-mapped at its full size when created.
+ * Each record is framed as {@code [length:int][crc32:int][bytes]}; a zero length marks the
+ * end of the written part, and a record whose checksum does not match is a torn write left
+ * by a crash.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+final class AuditSegment implements Closeable {
+
+    static final int RECORD_HEADER_BYTES = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private boolean dirty;
+
+    private AuditSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static AuditSegment create(Path path, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new AuditSegment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * @return false if the segment has no room left for the record
+     */
+    boolean append(byte[] record) {
+        if (buffer.remaining() < RECORD_HEADER_BYTES + record.length) {
+            return false;
+        }
+        crc.reset();
+        crc.update(record);
+        buffer.putInt(record.length).putInt((int) crc.getValue()).put(record);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Flushes appended records to the storage device.
+     */
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    int getPosition() {
+        return buffer.position();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Forces the segment and trims the unused mapped tail from the file.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.truncate(buffer.position());
+        channel.close();
+    }
+
+    /**
+     * Reads the intact records of a segment, stopping at its end or at a torn record.
+     *
+     * @param path segment file
+     * @return record bytes in append order
+     */
+    static List<byte[]> read(Path path) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining() && channel.read(data) >= 0) {
+                // read fully
+            }
+            data.flip();
+            CRC32 crc = new CRC32();
+            while (data.remaining() >= RECORD_HEADER_BYTES) {
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                data.get(record);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
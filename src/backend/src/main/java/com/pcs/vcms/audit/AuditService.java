@@ -0,0 +1,113 @@
+package com.pcs.vcms.audit;
+
+import com.pcs.vcms.entity.Clearance;
+import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.entity.ServiceBooking;
+import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records the audit trail of business operations.
+ * Events are handed to the {@link AuditWriter} queue and persisted asynchronously, so these
+ * methods are safe to call inside business transactions without adding I/O to them.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Service
+public class AuditService {
+
+    private static final String CLEARANCE = "Clearance";
+    private static final String SERVICE_BOOKING = "ServiceBooking";
+    private static final String SYSTEM_ACTOR = "system";
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 200;
+
+    private final AuditWriter auditWriter;
+
+    public AuditService(AuditWriter auditWriter) {
+        this.auditWriter = auditWriter;
+    }
+
+    public void logClearanceSubmission(Clearance clearance) {
+        record("CLEARANCE_SUBMITTED", CLEARANCE, clearance.getId(), clearance.getSubmittedBy(),
+                "reference=" + clearance.getReferenceNumber());
+    }
+
+    public void logStatusUpdate(Clearance clearance, ClearanceStatus newStatus) {
+        record("CLEARANCE_STATUS_UPDATED", CLEARANCE, clearance.getId(), currentActor(), "status=" + newStatus);
+    }
+
+    public void logClearanceCancellation(Clearance clearance) {
+        record("CLEARANCE_CANCELLED", CLEARANCE, clearance.getId(), currentActor(),
+                "reference=" + clearance.getReferenceNumber());
+    }
+
+    public void logServiceBookingCreation(ServiceBooking booking) {
+        record("SERVICE_BOOKING_CREATED", SERVICE_BOOKING, booking.getId(), booking.getCreatedBy(),
+                "serviceType=" + booking.getServiceType());
+    }
+
+    public void logServiceBookingStatusUpdate(ServiceBooking booking, ServiceStatus newStatus) {
+        record("SERVICE_BOOKING_STATUS_UPDATED", SERVICE_BOOKING, booking.getId(), currentActor(),
+                "status=" + newStatus);
+    }
+
+    public void logServiceBookingCancellation(ServiceBooking booking, String reason) {
+        record("SERVICE_BOOKING_CANCELLED", SERVICE_BOOKING, booking.getId(), currentActor(), "reason=" + reason);
+    }
+
+    /**
+     * Records an operation performed by the current user.
+     *
+     * @param action action name, e.g. {@code PRE_ARRIVAL_SUBMITTED}
+     * @param entityType type of the entity acted upon
+     * @param entityId id of the entity, may be null
+     * @param details free-form details
+     */
+    public void record(String action, String entityType, Object entityId, String details) {
+        record(action, entityType, entityId, currentActor(), details);
+    }
+
+    /**
+     * Records a failed operation of the current user. The failure is recorded as its exception
+     * class and a single-line message cut to {@value #MAX_FAILURE_MESSAGE_LENGTH} characters, so
+     * that exception text cannot forge audit lines or carry whole payloads into the trail.
+     *
+     * @param action action name, e.g. {@code PRE_ARRIVAL_SUBMISSION_FAILED}
+     * @param entityType type of the entity acted upon
+     * @param entityId id of the entity, may be null
+     * @param details free-form details, may be null
+     * @param failure exception the operation failed with
+     */
+    public void recordFailure(String action, String entityType, Object entityId, String details, Throwable failure) {
+        String error = "error=" + describe(failure);
+        record(action, entityType, entityId, details != null ? details + ", " + error : error);
+    }
+
+    /**
+     * Records an operation performed by the given actor.
+     */
+    public void record(String action, String entityType, Object entityId, String actor, String details) {
+        auditWriter.enqueue(new AuditEvent(System.currentTimeMillis(), action, entityType,
+                entityId != null ? entityId.toString() : null, actor != null ? actor : currentActor(), details));
+    }
+
+    static String describe(Throwable failure) {
+        String message = failure.getMessage();
+        if (message == null) {
+            return failure.getClass().getSimpleName();
+        }
+        message = message.replaceAll("\\p{Cntrl}+", " ").strip();
+        if (message.length() > MAX_FAILURE_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_FAILURE_MESSAGE_LENGTH) + "...";
+        }
+        return failure.getClass().getSimpleName() + ": " + message;
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : SYSTEM_ACTOR;
+    }
+}
@@ -0,0 +1,18 @@
+package com.pcs.vcms.audit;
+
+import java.util.List;
+
+/**
+ * Secondary destination receiving every batch committed by the {@link AuditWriter}.
+ * Called on the writer thread after the batch is in the segment file.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public interface AuditSink {
+
+    /**
+     * @param batch events committed together, in order
+     */
+    void write(List<AuditEvent> batch);
+}
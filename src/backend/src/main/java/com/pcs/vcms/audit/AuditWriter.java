@@ -0,0 +1,292 @@
+package com.pcs.vcms.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous group-commit writer of audit events.
+ * <p>
+ * Callers only enqueue into a bounded lock-free {@link AuditQueue}, which costs microseconds
+ * on the request path. A single writer thread drains the queue in batches, appends the batch
+ * to the current memory-mapped {@link AuditSegment} and hands it to the optional
+ * {@link AuditSink}s such as the database. Segments are forced to disk at most once per
+ * {@code vcms.audit.fsync-interval-ms} and rotated when full; once more than
+ * {@code vcms.audit.max-segments} segment files exist the oldest are deleted, which bounds the
+ * disk used by the local trail to that many segments. If the queue stays full for
+ * {@code vcms.audit.enqueue-timeout-ms}, the event is written synchronously to the
+ * {@value #FALLBACK_LOGGER} logger so that it is never lost.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class AuditWriter implements InitializingBean, DisposableBean {
+
+    static final String FALLBACK_LOGGER = "audit.user";
+
+    private static final String SEGMENT_PATTERN = "audit-\\d+-\\d+\\.seg";
+
+    private static final Logger fallbackLogger = LoggerFactory.getLogger(FALLBACK_LOGGER);
+
+    private final AuditQueue<AuditEvent> queue;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int batchSize;
+    private final long fsyncIntervalNanos;
+    private final long enqueueTimeoutNanos;
+    private final List<AuditSink> sinks;
+    private final ObjectMapper objectMapper;
+
+    private final Counter writtenEvents;
+    private final Counter overflowEvents;
+    private final Counter sinkFailures;
+    private final Counter deletedSegments;
+    private final DistributionSummary batchSizes;
+    private final Timer fsyncTimer;
+
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private Thread writerThread;
+    private AuditSegment segment;
+    private long lastForce;
+    private int segmentIndex;
+
+    @Autowired
+    public AuditWriter(ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       ObjectProvider<AuditSink> sinks,
+                       @Value("${vcms.audit.directory:logs/audit/segments}") String directory,
+                       @Value("${vcms.audit.queue-capacity:65536}") int queueCapacity,
+                       @Value("${vcms.audit.segment-size-bytes:67108864}") int segmentSize,
+                       @Value("${vcms.audit.max-segments:64}") int maxSegments,
+                       @Value("${vcms.audit.batch-size:512}") int batchSize,
+                       @Value("${vcms.audit.fsync-interval-ms:1000}") long fsyncIntervalMillis,
+                       @Value("${vcms.audit.enqueue-timeout-ms:50}") long enqueueTimeoutMillis) {
+        this(objectMapper, meterRegistry, sinks.orderedStream().collect(Collectors.toList()),
+                Paths.get(directory), queueCapacity, segmentSize, maxSegments, batchSize, fsyncIntervalMillis,
+                enqueueTimeoutMillis);
+    }
+
+    AuditWriter(ObjectMapper objectMapper, MeterRegistry meterRegistry, List<AuditSink> sinks,
+                Path directory, int queueCapacity, int segmentSize, int maxSegments, int batchSize,
+                long fsyncIntervalMillis, long enqueueTimeoutMillis) {
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("At least one audit segment must be kept");
+        }
+        this.objectMapper = objectMapper;
+        this.sinks = sinks;
+        this.directory = directory;
+        this.queue = new AuditQueue<>(queueCapacity);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.batchSize = batchSize;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.enqueueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMillis);
+
+        Gauge.builder("audit.queue.size", queue, AuditQueue::size)
+                .description("Number of audit events waiting for the writer")
+                .register(meterRegistry);
+        this.writtenEvents = Counter.builder("audit.events.written")
+                .description("Number of audit events committed to segment files")
+                .register(meterRegistry);
+        this.overflowEvents = Counter.builder("audit.events.overflow")
+                .description("Number of audit events written synchronously because the queue was full")
+                .register(meterRegistry);
+        this.sinkFailures = Counter.builder("audit.sink.failures")
+                .description("Number of audit batches an audit sink failed to write")
+                .register(meterRegistry);
+        this.deletedSegments = Counter.builder("audit.segments.deleted")
+                .description("Number of audit segment files deleted by the retention limit")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.batch.size")
+                .description("Number of audit events committed per batch")
+                .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("audit.fsync")
+                .description("Time taken to force audit segments to disk")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        Files.createDirectories(directory);
+        running = true;
+        writerThread = new Thread(this::run, "VcmsAuditWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Enqueues an event for the writer thread.
+     *
+     * @param event audit event
+     */
+    public void enqueue(AuditEvent event) {
+        if (!queue.offer(event)) {
+            long deadline = System.nanoTime() + enqueueTimeoutNanos;
+            boolean queued;
+            do {
+                LockSupport.unpark(writerThread);
+                Thread.onSpinWait();
+                queued = queue.offer(event);
+            } while (!queued && System.nanoTime() < deadline);
+            if (!queued) {
+                overflowEvents.increment();
+                fallbackLogger.info("{}", event);
+                return;
+            }
+        }
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Stops the writer after it committed every queued event.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        lastForce = System.nanoTime();
+        try {
+            while (running || !queue.isEmpty()) {
+                batch.clear();
+                if (queue.drainTo(batch, batchSize) == 0) {
+                    forceIfDue();
+                    park();
+                    continue;
+                }
+                commit(batch);
+                forceIfDue();
+            }
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void commit(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                append(objectMapper.writeValueAsBytes(event));
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to write audit event {}: {}", event, e.getMessage());
+                fallbackLogger.info("{}", event);
+            }
+        }
+        writtenEvents.increment(batch.size());
+        batchSizes.record(batch.size());
+
+        for (AuditSink sink : sinks) {
+            try {
+                sink.write(List.copyOf(batch));
+            } catch (RuntimeException e) {
+                sinkFailures.increment();
+                log.warn("Audit sink {} failed to write {} events: {}",
+                        sink.getClass().getSimpleName(), batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void append(byte[] record) throws IOException {
+        if (record.length + AuditSegment.RECORD_HEADER_BYTES > segmentSize) {
+            throw new IOException("Audit record of " + record.length + " bytes exceeds the segment size");
+        }
+        if (segment == null || !segment.append(record)) {
+            closeSegment();
+            segment = AuditSegment.create(directory.resolve(
+                    String.format("audit-%d-%05d.seg", System.currentTimeMillis(), segmentIndex++)), segmentSize);
+            segment.append(record);
+            deleteOldSegments();
+        }
+    }
+
+    /**
+     * Deletes the oldest segments beyond the retention limit, the current one included in the count.
+     */
+    private void deleteOldSegments() {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            // Names start with the creation time, so they sort oldest first
+            segments = files.filter(path -> path.getFileName().toString().matches(SEGMENT_PATTERN))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.warn("Failed to list audit segments in {}: {}", directory, e.getMessage());
+            return;
+        }
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            try {
+                Files.deleteIfExists(segments.get(i));
+                deletedSegments.increment();
+            } catch (IOException e) {
+                log.warn("Failed to delete audit segment {}: {}", segments.get(i), e.getMessage());
+            }
+        }
+    }
+
+    private void forceIfDue() {
+        long now = System.nanoTime();
+        if (segment != null && now - lastForce >= fsyncIntervalNanos) {
+            fsyncTimer.record(segment::force);
+            lastForce = now;
+        }
+    }
+
+    private void park() {
+        writerParked = true;
+        // Re-check after publishing the flag so that an enqueue racing with it is not missed
+        if (queue.isEmpty() && running) {
+            LockSupport.parkNanos(this, fsyncIntervalNanos);
+        }
+        writerParked = false;
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.error("Failed to close audit segment {}: {}", segment.getPath(), e.getMessage());
+            } finally {
+                segment = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pcs.vcms.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Optional audit sink inserting every committed batch into the {@code audit_events} table
+ * with a single JDBC batch. Enabled with {@code vcms.audit.db.enabled=true}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@ConditionalOnProperty(name = "vcms.audit.db.enabled", havingValue = "true")
+public class JdbcAuditSink implements AuditSink {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_events "
+            + "(event_time, action, entity_type, entity_id, actor, details) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+            statement.setTimestamp(1, new Timestamp(event.getTimestamp()));
+            statement.setString(2, event.getAction());
+            statement.setString(3, event.getEntityType());
+            statement.setString(4, event.getEntityId());
+            statement.setString(5, event.getActor());
+            statement.setString(6, event.getDetails());
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcasts near-cache invalidations to the other nodes over Redis pub/sub.
+ * <p>
+ * Every write to a {@link TwoTierCache} updates Redis and the local L1, then publishes the
+ * affected key on {@value #CHANNEL} so that the other nodes drop their L1 copy. Messages are
+ * plain text, {@code <node>\n<cache>\n<op>\n<key>}, and messages published by this node are
+ * ignored. Pub/sub is fire-and-forget; a missed message is bounded by the L1 TTL.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    /** Redis channel carrying near-cache invalidations */
+    public static final String CHANNEL = "vcms:cache:invalidate";
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    private final Counter published;
+    private final Counter received;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.published = Counter.builder("cache.invalidation.published")
+                .description("Number of near-cache invalidations published to other nodes")
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Number of near-cache invalidations received from other nodes")
+                .register(meterRegistry);
+    }
+
+    void register(TwoTierCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Tells the other nodes to drop a key from their L1.
+     */
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName, EVICT, key);
+    }
+
+    /**
+     * Tells the other nodes to clear their L1 of a cache.
+     */
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR, "");
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length != 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        received.increment();
+        if (CLEAR.equals(parts[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private void publish(String cacheName, String op, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + '\n' + cacheName + '\n' + op + '\n' + key);
+            published.increment();
+        } catch (RuntimeException e) {
+            // Other nodes converge once their L1 entry expires
+            log.warn("Failed to publish invalidation of cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.pcs.vcms.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * Redis lock electing the node that loads a missing cache entry.
+ * The lock is a {@code SET NX PX} key holding a random token and released with a
+ * compare-and-delete script, so a node never releases a lock that expired and was taken over.
+ * The lease bounds how long other nodes wait for a loader that died.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class CacheLoadLock {
+
+    /** Token returned when Redis is unavailable; the load proceeds without a lock */
+    static final String UNLOCKED = "";
+
+    private static final String LOCK_PREFIX = "vcms::load-lock::";
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lease;
+
+    public CacheLoadLock(StringRedisTemplate redisTemplate, Duration lease) {
+        this.redisTemplate = redisTemplate;
+        this.lease = lease;
+    }
+
+    /**
+     * @return token to release the lock with, {@link #UNLOCKED} if Redis could not be reached,
+     *         or null if another node holds the lock
+     */
+    String tryAcquire(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.warn("Cache load lock unavailable, loading {} without it: {}", cacheName, e.getMessage());
+            return UNLOCKED;
+        }
+    }
+
+    void release(String cacheName, String key, String token) {
+        if (UNLOCKED.equals(token)) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(lockKey(cacheName, key)), token);
+        } catch (RuntimeException e) {
+            // The lease expires on its own
+            log.warn("Failed to release cache load lock of {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    private static String lockKey(String cacheName, String key) {
+        return LOCK_PREFIX + cacheName + "::" + key;
+    }
+}
@@ -0,0 +1,190 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically measures the entry count and estimated memory of the Redis caches.
+ * <p>
+ * The keys of every cache are counted with {@code SCAN}, up to {@code maxScannedKeys} per
+ * cache, and the key and value lengths of the first {@code sampledKeys} of them give the
+ * average entry size the estimated bytes are extrapolated from. Results are exported as the
+ * {@code cache.size} and {@code cache.estimated.bytes} gauges. Counts stopped at the scan limit
+ * are lower bounds and are flagged in {@link #getSizes()}.
+ * <p>
+ * Only one node of the cluster scans per interval: the first node to take the
+ * {@value #RUN_KEY} key, which expires after the interval, measures the caches and stores the
+ * results in the {@value #SIZES_KEY} hash. Every node then exports the sizes read from that hash,
+ * so the gauges agree across nodes and the scan load does not grow with the node count.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class CacheSizeSampler {
+
+    private static final String KEY_PREFIX = "vcms::";
+    private static final String RUN_KEY = "vcms::size-sampler::run";
+    private static final String SIZES_KEY = "vcms::size-sampler::sizes";
+    private static final int SCAN_BATCH = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final int maxScannedKeys;
+    private final int sampledKeys;
+    private final Duration interval;
+    private final String nodeToken = UUID.randomUUID().toString();
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CacheSize> sizes = new ConcurrentHashMap<>();
+
+    /**
+     * @param redisTemplate template of the cache Redis
+     * @param cacheManager manager whose caches are measured
+     * @param maxScannedKeys maximum number of keys counted per cache and run
+     * @param sampledKeys number of entries per cache whose length is read
+     * @param interval interval between two runs, for which one node is elected to measure
+     * @param meterRegistry registry of the size gauges
+     */
+    public CacheSizeSampler(StringRedisTemplate redisTemplate, ObjectProvider<CacheManager> cacheManager,
+                            int maxScannedKeys, int sampledKeys, Duration interval, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.maxScannedKeys = maxScannedKeys;
+        this.sampledKeys = sampledKeys;
+        this.interval = interval;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Measures every cache of the cache manager if no other node did during this interval, then
+     * exports the last measured sizes.
+     */
+    @Scheduled(fixedDelayString = "${vcms.cache.telemetry.size.interval-ms:60000}",
+            initialDelayString = "${vcms.cache.telemetry.size.initial-delay-ms:30000}")
+    public void sample() {
+        try {
+            if (claimRun()) {
+                for (String cacheName : cacheManager.getObject().getCacheNames()) {
+                    try {
+                        sample(cacheName);
+                    } catch (RuntimeException e) {
+                        log.warn("Measuring the size of cache {} failed: {}", cacheName, e.getMessage());
+                    }
+                }
+                redisTemplate.expire(SIZES_KEY, interval.multipliedBy(3));
+            }
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            hash.entries(SIZES_KEY).forEach(this::export);
+        } catch (RuntimeException e) {
+            log.warn("Cache sizes unavailable: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return last measured size of every cache, by cache name
+     */
+    public Map<String, CacheSize> getSizes() {
+        return Collections.unmodifiableMap(new TreeMap<>(sizes));
+    }
+
+    void sample(String cacheName) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(KEY_PREFIX + cacheName + "::*")
+                .count(SCAN_BATCH)
+                .build();
+        long entries = 0;
+        long sampledBytes = 0;
+        boolean truncated = false;
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext()) {
+                if (entries == maxScannedKeys) {
+                    truncated = true;
+                    break;
+                }
+                String key = keys.next();
+                if (entries < sampledKeys) {
+                    Long valueLength = redisTemplate.opsForValue().size(key);
+                    sampledBytes += key.getBytes(StandardCharsets.UTF_8).length;
+                    sampledBytes += valueLength != null ? valueLength : 0;
+                }
+                entries++;
+            }
+        }
+        long sampled = Math.min(entries, sampledKeys);
+        long estimatedBytes = sampled == 0 ? 0 : sampledBytes * entries / sampled;
+
+        redisTemplate.opsForHash().put(SIZES_KEY, cacheName, entries + ":" + estimatedBytes + ":" + truncated);
+        log.debug("Cache {} holds {}{} entries, about {} bytes", cacheName, entries, truncated ? "+" : "",
+                estimatedBytes);
+    }
+
+    private boolean claimRun() {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RUN_KEY, nodeToken, interval));
+    }
+
+    private void export(String cacheName, String measured) {
+        String[] fields = measured.split(":");
+        if (fields.length != 3) {
+            return;
+        }
+        sizes.computeIfAbsent(cacheName, this::register)
+                .update(Long.parseLong(fields[0]), Long.parseLong(fields[1]), Boolean.parseBoolean(fields[2]));
+    }
+
+    private CacheSize register(String cacheName) {
+        CacheSize size = new CacheSize();
+        Gauge.builder("cache.size", size, CacheSize::getEntries)
+                .description("Number of entries in the cache, measured periodically")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        Gauge.builder("cache.estimated.bytes", size, CacheSize::getEstimatedBytes)
+                .description("Estimated memory held by the cache keys and values, measured periodically")
+                .tag("cache", cacheName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return size;
+    }
+
+    /**
+     * Last measured size of one cache.
+     */
+    public static final class CacheSize {
+        private volatile long entries;
+        private volatile long estimatedBytes;
+        private volatile boolean truncated;
+
+        void update(long entries, long estimatedBytes, boolean truncated) {
+            this.entries = entries;
+            this.estimatedBytes = estimatedBytes;
+            this.truncated = truncated;
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Redis set index from entity tags to the cache entries tagged with them.
+ * <p>
+ * Each tag is a set {@code vcms::tags::<tag>} whose members are {@code <cache>|<type>|<key>},
+ * the type letter restoring {@code Long} ids so that evictions match the original keys. Writes
+ * call {@link #invalidate} with the tags of the entities they changed, which evicts exactly the
+ * indexed entries through the cache manager (so near caches on every node are invalidated too)
+ * instead of clearing whole caches. Tag sets expire after {@code ttl}, which is at least the
+ * longest cache TTL, so they do not outlive the entries they index.
+ * <p>
+ * Invalidation leaves the members in their sets: removing them would race with a concurrent
+ * read caching the entry again, whose SADD is a no-op for a member that is already there, and
+ * leave that entry cached but unreachable from its tags. A stale member only costs an eviction
+ * of an absent key, and the set goes away with its TTL once the tag is no longer used.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class CacheTagIndex {
+
+    private static final String TAG_PREFIX = "vcms::tags::";
+    private static final char MEMBER_SEPARATOR = '|';
+    private static final char LONG_KEY = 'L';
+    private static final char STRING_KEY = 'S';
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final Duration ttl;
+
+    private final Counter invalidatedTags;
+    private final Counter evictedEntries;
+
+    public CacheTagIndex(StringRedisTemplate redisTemplate, ObjectProvider<CacheManager> cacheManager,
+                         Duration ttl, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.cacheManager = cacheManager;
+        this.ttl = ttl;
+        this.invalidatedTags = Counter.builder("cache.tag.invalidations")
+                .description("Number of entity tags invalidated by writes")
+                .register(meterRegistry);
+        this.evictedEntries = Counter.builder("cache.tag.evictions")
+                .description("Number of cache entries evicted through their tags")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indexes a cache entry under its tags.
+     *
+     * @param cacheName name of the cache holding the entry
+     * @param key cache key of the entry
+     * @param tags entity tags of the entry
+     */
+    public void tag(String cacheName, Object key, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String member = cacheName + MEMBER_SEPARATOR + (key instanceof Long ? LONG_KEY : STRING_KEY)
+                + MEMBER_SEPARATOR + TwoTierCache.localKey(key);
+        long ttlSeconds = ttl.toSeconds();
+        // One round trip for all the SADD/EXPIRE pairs of the entry
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String tag : tags) {
+                String tagKey = TAG_PREFIX + tag;
+                stringConnection.sAdd(tagKey, member);
+                stringConnection.expire(tagKey, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Evicts every cache entry tagged with one of the tags.
+     */
+    public void invalidate(String... tags) {
+        invalidate(Arrays.asList(tags));
+    }
+
+    /**
+     * Evicts every cache entry tagged with one of the tags.
+     */
+    public void invalidate(Collection<String> tags) {
+        CacheManager manager = cacheManager.getObject();
+        for (String tag : tags) {
+            String tagKey = TAG_PREFIX + tag;
+            Set<String> members = redisTemplate.opsForSet().members(tagKey);
+            invalidatedTags.increment();
+            if (members == null || members.isEmpty()) {
+                continue;
+            }
+            for (String member : members) {
+                int separator = member.indexOf(MEMBER_SEPARATOR);
+                if (separator <= 0 || member.length() < separator + 3) {
+                    continue;
+                }
+                Cache cache = manager.getCache(member.substring(0, separator));
+                if (cache != null) {
+                    cache.evict(toKey(member.charAt(separator + 1), member.substring(separator + 3)));
+                    evictedEntries.increment();
+                }
+            }
+        }
+    }
+
+    private static Object toKey(char type, String key) {
+        if (type == LONG_KEY) {
+            try {
+                return Long.valueOf(key);
+            } catch (NumberFormatException e) {
+                return key;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Evicts the tagged entries once the current transaction commits, so that a concurrent read
+     * cannot cache the pre-commit state again. Evicts immediately outside a transaction.
+     */
+    public void invalidateAfterCommit(String... tags) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(tags);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    invalidate(tags);
+                } catch (RuntimeException e) {
+                    log.error("Failed to invalidate cache tags {}", Arrays.toString(tags), e);
+                }
+            }
+        });
+    }
+}
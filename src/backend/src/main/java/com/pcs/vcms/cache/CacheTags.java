@@ -0,0 +1,89 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.dto.ClearanceDTO;
+import com.pcs.vcms.dto.PreArrivalNotificationDTO;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Builds the entity tags attached to cache entries. An entry is tagged with every entity whose
+ * change makes it stale, e.g. a clearance entry with {@code clearance:{id}} and the
+ * {@code vesselCall:{id}} it belongs to, so that a write only evicts the entries of the
+ * entities it touched.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class CacheTags {
+
+    private static final String VESSEL_CALL_PREFIX = "vesselCall:";
+    private static final String CLEARANCE_PREFIX = "clearance:";
+    private static final String PRE_ARRIVAL_PREFIX = "preArrival:";
+
+    private CacheTags() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    public static String vesselCall(Long vesselCallId) {
+        return VESSEL_CALL_PREFIX + vesselCallId;
+    }
+
+    public static String clearance(Long clearanceId) {
+        return CLEARANCE_PREFIX + clearanceId;
+    }
+
+    public static String preArrival(Long preArrivalId) {
+        return PRE_ARRIVAL_PREFIX + preArrivalId;
+    }
+
+    /**
+     * Tags of a clearances cache entry. Entries keyed {@code vesselCall:{id}} hold the
+     * clearances of a vessel call and are tagged with it even when the list is empty.
+     */
+    public static Set<String> forClearanceEntry(Object key, Object value) {
+        Set<String> tags = new LinkedHashSet<>();
+        String cacheKey = String.valueOf(key);
+        if (cacheKey.startsWith(VESSEL_CALL_PREFIX)) {
+            tags.add(cacheKey);
+        }
+        for (Object element : elements(value)) {
+            if (element instanceof ClearanceDTO) {
+                ClearanceDTO clearance = (ClearanceDTO) element;
+                addIfPresent(tags, CLEARANCE_PREFIX, clearance.getId());
+                addIfPresent(tags, VESSEL_CALL_PREFIX, clearance.getVesselCallId());
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Tags of a pre-arrival notifications cache entry.
+     */
+    public static Set<String> forPreArrivalEntry(Object key, Object value) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (Object element : elements(value)) {
+            if (element instanceof PreArrivalNotificationDTO) {
+                PreArrivalNotificationDTO notification = (PreArrivalNotificationDTO) element;
+                addIfPresent(tags, PRE_ARRIVAL_PREFIX, notification.getId());
+                addIfPresent(tags, VESSEL_CALL_PREFIX, notification.getVesselCallId());
+            }
+        }
+        return tags;
+    }
+
+    private static Collection<?> elements(Object value) {
+        if (value instanceof Collection) {
+            return (Collection<?>) value;
+        }
+        return value != null ? Collections.singletonList(value) : Collections.emptyList();
+    }
+
+    private static void addIfPresent(Set<String> tags, String prefix, Long id) {
+        if (id != null) {
+            tags.add(prefix + id);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint summarising the cache telemetry of this node: reads, hit ratio, load times,
+ * size and hottest keys of every cache, including the caches outside the cache manager that
+ * publish the standard {@code cache.*} meters, and the Hibernate second-level cache regions.
+ * {@code /cachetelemetry/{cache}?limit=n} reports the {@code n} hottest keys of a single cache.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Endpoint(id = "cachetelemetry")
+public class CacheTelemetryEndpoint {
+
+    private final MeterRegistry meterRegistry;
+    private final HotKeySampler hotKeys;
+    private final CacheSizeSampler sizes;
+    private final int hotKeysReported;
+
+    public CacheTelemetryEndpoint(MeterRegistry meterRegistry, HotKeySampler hotKeys, CacheSizeSampler sizes,
+                                  @Value("${vcms.cache.telemetry.hot-keys.reported:10}") int hotKeysReported) {
+        this.meterRegistry = meterRegistry;
+        this.hotKeys = hotKeys;
+        this.sizes = sizes;
+        this.hotKeysReported = hotKeysReported;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Collection<String> cacheNames = new TreeSet<>(sizes.getSizes().keySet());
+        for (Meter meter : meterRegistry.find("cache.gets").meters()) {
+            String cacheName = meter.getId().getTag("cache");
+            if (cacheName != null) {
+                cacheNames.add(cacheName);
+            }
+        }
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String cacheName : cacheNames) {
+            caches.put(cacheName, describe(cacheName, hotKeysReported));
+        }
+        Map<String, Object> telemetry = new LinkedHashMap<>();
+        telemetry.put("caches", caches);
+        telemetry.put("hibernateRegions", hibernateRegions());
+        return telemetry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String cache, @Nullable Integer limit) {
+        return describe(cache, limit != null ? limit : hotKeysReported);
+    }
+
+    private Map<String, Object> describe(String cacheName, int limit) {
+        double hits = count("cache.gets", "cache", cacheName, "result", "hit");
+        double misses = count("cache.gets", "cache", cacheName, "result", "miss");
+
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", (long) hits);
+        cache.put("misses", (long) misses);
+        cache.put("hitRatio", hits + misses == 0 ? null : hits / (hits + misses));
+        cache.put("puts", (long) count("cache.puts", "cache", cacheName));
+        cache.put("removals", (long) count("cache.removals", "cache", cacheName));
+        cache.put("evictions", (long) count("cache.evictions", "cache", cacheName));
+
+        Timer loads = meterRegistry.find("cache.load.duration").tags("cache", cacheName, "result", "success").timer();
+        if (loads != null && loads.count() > 0) {
+            Map<String, Object> loadTimes = new LinkedHashMap<>();
+            loadTimes.put("count", loads.count());
+            loadTimes.put("meanMs", loads.mean(TimeUnit.MILLISECONDS));
+            loadTimes.put("maxMs", loads.max(TimeUnit.MILLISECONDS));
+            cache.put("loads", loadTimes);
+        }
+
+        CacheSizeSampler.CacheSize size = sizes.getSizes().get(cacheName);
+        if (size != null) {
+            cache.put("entries", size.getEntries());
+            cache.put("estimatedBytes", size.getEstimatedBytes());
+            cache.put("sizeTruncated", size.isTruncated());
+        }
+        cache.put("hotKeys", hotKeys.top(cacheName, limit));
+        return cache;
+    }
+
+    private Map<String, Object> hibernateRegions() {
+        Map<String, Map<String, Object>> regions = new TreeMap<>();
+        for (Meter meter : meterRegistry.find("hibernate.second.level.cache.requests").meters()) {
+            String region = meter.getId().getTag("region");
+            String result = meter.getId().getTag("result");
+            if (region != null && result != null) {
+                regions.computeIfAbsent(region, name -> new LinkedHashMap<>())
+                        .merge("hit".equals(result) ? "hits" : "misses", (long) sum(meter),
+                                (a, b) -> (long) a + (long) b);
+            }
+        }
+        return new LinkedHashMap<>(regions);
+    }
+
+    private double count(String meterName, String... tags) {
+        double total = 0;
+        for (Meter meter : meterRegistry.find(meterName).tags(tags).meters()) {
+            total += sum(meter);
+        }
+        return total;
+    }
+
+    private static double sum(Meter meter) {
+        double total = 0;
+        for (Measurement measurement : meter.measure()) {
+            if (measurement.getStatistic() == Statistic.COUNT) {
+                total += measurement.getValue();
+            }
+        }
+        return total;
+    }
+}
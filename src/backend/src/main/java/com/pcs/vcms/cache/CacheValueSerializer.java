@@ -0,0 +1,297 @@
+package com.pcs.vcms.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.databind.jsontype.impl.ClassNameIdResolver;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact binary serializer of Redis cache values.
+ * <p>
+ * Values are written as Jackson Smile with their class names embedded, so any DTO, list or map
+ * of DTOs can be cached without implementing {@link java.io.Serializable}; only classes of
+ * this application and the JDK are accepted when reading. Collections and maps of JDK classes
+ * that cannot be instantiated, such as those of {@code List.of}, {@code Stream.toList},
+ * {@code Collections.unmodifiableList} or map views, are recorded as {@code ArrayList}, {@code LinkedHashSet}
+ * or {@code LinkedHashMap} so that they read back as equal mutable copies. Values must be DTOs
+ * or plain collections; framework types such as {@code ResponseEntity} or {@code PageImpl} are
+ * not readable and belong outside the cache. Payloads of at least {@code compressionThreshold}
+ * bytes are compressed with LZ4 when that makes them smaller.
+ * <p>
+ * Every value starts with a schema version byte and a flags byte. A value written with
+ * another schema version, a value the current classes cannot read (for example one written
+ * before a rolling deploy changed a DTO) and a legacy JDK-serialized value all read as a
+ * cache miss, so the entry is reloaded and overwritten instead of failing the request.
+ * Unreadable values are counted and the first failure of each kind is logged as a warning, so
+ * a value type that can never be read back does not go unnoticed as a permanent miss.
+ * Bump {@code vcms.cache.serializer.schema-version} when a DTO changes incompatibly.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    /** Flag of a payload compressed with LZ4, prefixed with its uncompressed length */
+    static final byte FLAG_LZ4 = 0x01;
+
+    private static final int HEADER_LENGTH = 2;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final byte schemaVersion;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    private final DistributionSummary valueSize;
+    private final Counter compressed;
+    private final Counter versionMismatches;
+    private final Counter unreadable;
+    private final Set<String> reportedFailures = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param schemaVersion version written with every value, 1 to 127
+     * @param compressionThreshold payload size from which values are compressed, 0 to never compress
+     * @param meterRegistry registry of the size and failure metrics
+     */
+    public CacheValueSerializer(int schemaVersion, int compressionThreshold, MeterRegistry meterRegistry) {
+        if (schemaVersion < 1 || schemaVersion > Byte.MAX_VALUE) {
+            // Values of 0xAC and above would be mistaken for JDK-serialized entries
+            throw new IllegalArgumentException("Cache schema version must be between 1 and 127");
+        }
+        this.mapper = createMapper();
+        // Written as Object so that final root types such as List.of lists and Longs record their type too
+        this.writer = mapper.writerFor(Object.class);
+        this.schemaVersion = (byte) schemaVersion;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory lz4 = LZ4Factory.fastestInstance();
+        this.compressor = lz4.fastCompressor();
+        this.decompressor = lz4.fastDecompressor();
+
+        this.valueSize = DistributionSummary.builder("cache.value.size")
+                .description("Serialized size of the values written to Redis")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.compressed = Counter.builder("cache.value.compressed")
+                .description("Number of cache values written LZ4 compressed")
+                .register(meterRegistry);
+        this.versionMismatches = Counter.builder("cache.value.unreadable")
+                .description("Number of cache values read as a miss because they could not be used")
+                .tag("reason", "schema_version")
+                .register(meterRegistry);
+        this.unreadable = Counter.builder("cache.value.unreadable")
+                .description("Number of cache values read as a miss because they could not be used")
+                .tag("reason", "incompatible")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+        byte[] payload;
+        try {
+            payload = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value of type " + value.getClass().getName(), e);
+        }
+
+        byte[] bytes = compressionThreshold > 0 && payload.length >= compressionThreshold
+                ? compress(payload)
+                : null;
+        if (bytes == null) {
+            bytes = new byte[HEADER_LENGTH + payload.length];
+            bytes[0] = schemaVersion;
+            System.arraycopy(payload, 0, bytes, HEADER_LENGTH, payload.length);
+        }
+        valueSize.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length <= HEADER_LENGTH) {
+            return null;
+        }
+        if (bytes[0] != schemaVersion) {
+            versionMismatches.increment();
+            return null;
+        }
+        try {
+            if ((bytes[1] & FLAG_LZ4) != 0) {
+                int length = ByteBuffer.wrap(bytes, HEADER_LENGTH, Integer.BYTES).getInt();
+                byte[] payload = decompressor.decompress(bytes, HEADER_LENGTH + Integer.BYTES, length);
+                return mapper.readValue(payload, Object.class);
+            }
+            return mapper.readValue(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH, Object.class);
+        } catch (IOException | RuntimeException e) {
+            unreadable.increment();
+            reportUnreadable(e);
+            return null;
+        }
+    }
+
+    /**
+     * Logs the first occurrence of each kind of read failure as a warning and the others at debug level.
+     */
+    private void reportUnreadable(Exception e) {
+        String kind = e.getClass().getName() + ": " + firstLine(e.getMessage());
+        if (reportedFailures.size() < MAX_REPORTED_FAILURES && reportedFailures.add(kind)) {
+            log.warn("Reading cache value as a miss, further failures of this kind are logged at debug level: {}",
+                    e.getMessage());
+        } else {
+            log.debug("Reading cache value as a miss: {}", e.getMessage());
+        }
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end >= 0 ? message.substring(0, end) : message;
+    }
+
+    /**
+     * @return the value compressed behind its header, or null if compression does not make it smaller
+     */
+    private byte[] compress(byte[] payload) {
+        int offset = HEADER_LENGTH + Integer.BYTES;
+        byte[] bytes = new byte[offset + compressor.maxCompressedLength(payload.length)];
+        int length = compressor.compress(payload, 0, payload.length, bytes, offset);
+        if (offset + length >= HEADER_LENGTH + payload.length) {
+            return null;
+        }
+        bytes[0] = schemaVersion;
+        bytes[1] = FLAG_LZ4;
+        ByteBuffer.wrap(bytes, HEADER_LENGTH, Integer.BYTES).putInt(payload.length);
+        compressed.increment();
+        byte[] trimmed = new byte[offset + length];
+        System.arraycopy(bytes, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    private static ObjectMapper createMapper() {
+        SmileFactory smileFactory = SmileFactory.builder()
+                // Shares repeated class names and enum values within a value
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper mapper = new ObjectMapper(smileFactory)
+                .findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        BasicPolymorphicTypeValidator typeValidator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.pcs.vcms.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.math.")
+                .allowIfSubType("java.lang.")
+                .build();
+        mapper.setDefaultTyping(new PortableTypeResolverBuilder(typeValidator)
+                .init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY));
+        return mapper;
+    }
+
+    /**
+     * Default typing of non-final types that records readable class names for JDK collections.
+     */
+    private static final class PortableTypeResolverBuilder extends ObjectMapper.DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        private PortableTypeResolverBuilder(PolymorphicTypeValidator typeValidator) {
+            super(ObjectMapper.DefaultTyping.NON_FINAL, typeValidator);
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                                            PolymorphicTypeValidator subtypeValidator,
+                                            Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+            if (_idType == JsonTypeInfo.Id.CLASS) {
+                return new PortableClassNameIdResolver(baseType, config.getTypeFactory(), subtypeValidator);
+            }
+            return super.idResolver(config, baseType, subtypeValidator, subtypes, forSer, forDeser);
+        }
+    }
+
+    /**
+     * Class name resolver writing a non-public JDK collection or map as its mutable counterpart.
+     */
+    private static final class PortableClassNameIdResolver extends ClassNameIdResolver {
+
+        private PortableClassNameIdResolver(JavaType baseType, TypeFactory typeFactory,
+                                            PolymorphicTypeValidator typeValidator) {
+            super(baseType, typeFactory, typeValidator);
+        }
+
+        @Override
+        public String idFromValue(Object value) {
+            String id = portableId(value.getClass());
+            return id != null ? id : super.idFromValue(value);
+        }
+
+        @Override
+        public String idFromValueAndType(Object value, Class<?> type) {
+            String id = portableId(type);
+            return id != null ? id : super.idFromValueAndType(value, type);
+        }
+
+        /**
+         * @return class name to record for a JDK collection type that cannot be instantiated, or null
+         */
+        private static String portableId(Class<?> type) {
+            if (Modifier.isPublic(type.getModifiers()) || !type.getName().startsWith("java.util.")
+                    || EnumSet.class.isAssignableFrom(type)) {
+                return null;
+            }
+            if (List.class.isAssignableFrom(type)) {
+                return "java.util.ArrayList";
+            }
+            if (Set.class.isAssignableFrom(type)) {
+                return "java.util.LinkedHashSet";
+            }
+            if (Map.class.isAssignableFrom(type)) {
+                return "java.util.LinkedHashMap";
+            }
+            if (Collection.class.isAssignableFrom(type)) {
+                return "java.util.ArrayList";
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Preloads the caches with the data of active port calls once the application has started,
+ * and holds the readiness probe until it is done.
+ * <p>
+ * Every {@link WarmUpSource} is fetched page by page in read-only transactions. Pages of all
+ * sources run on a pool of {@code vcms.cache.warm-up.concurrency} threads, so the warm-up
+ * never takes more than that many database connections. The warm-up stops fetching new pages
+ * once {@code vcms.cache.warm-up.budget-seconds} has elapsed; the node then becomes ready with
+ * whatever was loaded, and the remaining entries are loaded on first use as before.
+ * <p>
+ * As a health indicator it reports {@code OUT_OF_SERVICE} until the warm-up has finished; it
+ * is part of the {@code readiness} health group.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class CacheWarmUp implements HealthIndicator, ApplicationListener<ApplicationReadyEvent>, DisposableBean {
+
+    private final List<WarmUpSource<?>> sources;
+    private final TransactionOperations transactions;
+    private final boolean enabled;
+    private final int concurrency;
+    private final int pageSize;
+    private final Duration budget;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Map<String, Counter> entries = new LinkedHashMap<>();
+    private final Map<String, Counter> failedPages = new LinkedHashMap<>();
+    private final Timer duration;
+
+    private volatile ExecutorService executor;
+    private volatile long startedAt;
+    private volatile long deadline;
+    private volatile boolean finished;
+    private volatile boolean budgetExhausted;
+    private volatile long elapsedMillis;
+
+    @Autowired
+    public CacheWarmUp(List<WarmUpSource<?>> sources,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${vcms.cache.warm-up.enabled:true}") boolean enabled,
+                       @Value("${vcms.cache.warm-up.concurrency:4}") int concurrency,
+                       @Value("${vcms.cache.warm-up.page-size:500}") int pageSize,
+                       @Value("${vcms.cache.warm-up.budget-seconds:60}") long budgetSeconds) {
+        this(sources, readOnly(transactionManager), meterRegistry, enabled, concurrency, pageSize,
+                Duration.ofSeconds(budgetSeconds));
+    }
+
+    CacheWarmUp(List<WarmUpSource<?>> sources, TransactionOperations transactions, MeterRegistry meterRegistry,
+                boolean enabled, int concurrency, int pageSize, Duration budget) {
+        this.sources = sources;
+        this.transactions = transactions;
+        this.enabled = enabled;
+        this.concurrency = concurrency;
+        this.pageSize = pageSize;
+        this.budget = budget;
+        this.finished = !enabled;
+
+        for (WarmUpSource<?> source : sources) {
+            entries.put(source.getName(), Counter.builder("cache.warmup.entries")
+                    .description("Number of entries preloaded by the startup cache warm-up")
+                    .tag("source", source.getName())
+                    .register(meterRegistry));
+            failedPages.put(source.getName(), Counter.builder("cache.warmup.failed.pages")
+                    .description("Number of pages the startup cache warm-up failed to load")
+                    .tag("source", source.getName())
+                    .register(meterRegistry));
+        }
+        this.duration = Timer.builder("cache.warmup.duration")
+                .description("Time taken by the startup cache warm-up")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        start();
+    }
+
+    /**
+     * Starts the warm-up unless it already ran.
+     *
+     * @return completes when the warm-up has finished or its budget has elapsed
+     */
+    CompletableFuture<Void> start() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        startedAt = System.nanoTime();
+        deadline = startedAt + budget.toNanos();
+        executor = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("VcmsCacheWarmUp-"));
+        log.info("Starting cache warm-up of {} sources with a budget of {}s", sources.size(), budget.toSeconds());
+
+        CompletableFuture<?>[] warmUps = sources.stream()
+                .map(this::warmSource)
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(warmUps)
+                .orTimeout(budget.toNanos(), TimeUnit.NANOSECONDS)
+                .handle((ignored, error) -> {
+                    finish(error instanceof TimeoutException);
+                    return null;
+                });
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = finished ? Health.up() : Health.outOfService();
+        builder.withDetail("state", !enabled ? "disabled" : finished ? "finished" : started.get() ? "running" : "pending");
+        if (started.get()) {
+            Map<String, Long> loaded = new LinkedHashMap<>();
+            entries.forEach((name, counter) -> loaded.put(name, (long) counter.count()));
+            builder.withDetail("entries", loaded);
+        }
+        if (finished && started.get()) {
+            builder.withDetail("elapsedMs", elapsedMillis)
+                    .withDetail("budgetExhausted", budgetExhausted);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return true once the warm-up has finished, ran out of budget or is disabled
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void destroy() {
+        ExecutorService current = executor;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    private <T> CompletableFuture<Void> warmSource(WarmUpSource<T> source) {
+        return CompletableFuture.supplyAsync(() -> warmPage(source, 0), executor)
+                .thenCompose(totalPages -> CompletableFuture.allOf(IntStream.range(1, totalPages)
+                        .mapToObj(page -> CompletableFuture.runAsync(() -> warmPage(source, page), executor))
+                        .toArray(CompletableFuture[]::new)));
+    }
+
+    /**
+     * @return number of pages of the source, 0 if the page was skipped or failed
+     */
+    private <T> int warmPage(WarmUpSource<T> source, int pageNumber) {
+        if (System.nanoTime() - deadline >= 0) {
+            return 0;
+        }
+        try {
+            Integer totalPages = transactions.execute(status -> {
+                Page<T> page = source.fetch(PageRequest.of(pageNumber, pageSize, Sort.by("id")));
+                page.forEach(source::warm);
+                entries.get(source.getName()).increment(page.getNumberOfElements());
+                return page.getTotalPages();
+            });
+            return totalPages != null ? totalPages : 0;
+        } catch (RuntimeException e) {
+            failedPages.get(source.getName()).increment();
+            log.warn("Cache warm-up failed to load page {} of {}: {}", pageNumber, source.getName(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private void finish(boolean timedOut) {
+        elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        duration.record(elapsedMillis, TimeUnit.MILLISECONDS);
+        budgetExhausted = timedOut;
+        finished = true;
+        // Pages still queued see the deadline and return without loading
+        executor.shutdown();
+        if (timedOut) {
+            log.warn("Cache warm-up stopped after its budget of {}s: {}", budget.toSeconds(), health().getDetails());
+        } else {
+            log.info("Cache warm-up finished in {} ms: {}", elapsedMillis, health().getDetails().get("entries"));
+        }
+    }
+
+    private static TransactionOperations readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
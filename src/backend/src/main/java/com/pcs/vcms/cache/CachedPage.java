@@ -0,0 +1,41 @@
+package com.pcs.vcms.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Cache entry of a {@link PagedQueryCache}: the content and total of a page and the stamp of
+ * the query generations it was read at. Not final, so the cache value serializer records its type.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class CachedPage {
+
+    private final String stamp;
+    private final List<?> content;
+    private final long totalElements;
+
+    @JsonCreator
+    public CachedPage(@JsonProperty("stamp") String stamp,
+                      @JsonProperty("content") List<?> content,
+                      @JsonProperty("totalElements") long totalElements) {
+        this.stamp = stamp;
+        this.content = content;
+        this.totalElements = totalElements;
+    }
+
+    public String getStamp() {
+        return stamp;
+    }
+
+    public List<?> getContent() {
+        return content;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+}
@@ -0,0 +1,74 @@
+package com.pcs.vcms.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Value served by a {@link RefreshAheadCache} together with how fresh it is.
+ * A value is stale once it is older than the cache's staleness limit, which happens when the
+ * upstream system could not be reached for a while; it is a fallback when nothing was cached
+ * and the upstream system could not be reached at all.
+ *
+ * @param <T> type of the value
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class CachedValue<T> {
+
+    private final T value;
+    private final Instant loadedAt;
+    private final Duration age;
+    private final boolean stale;
+    private final boolean fallback;
+
+    private CachedValue(T value, Instant loadedAt, Duration age, boolean stale, boolean fallback) {
+        this.value = value;
+        this.loadedAt = loadedAt;
+        this.age = age;
+        this.stale = stale;
+        this.fallback = fallback;
+    }
+
+    static <T> CachedValue<T> cached(T value, Instant loadedAt, Duration age, boolean stale) {
+        return new CachedValue<>(value, loadedAt, age, stale, false);
+    }
+
+    static <T> CachedValue<T> fallback(T value, Instant now) {
+        return new CachedValue<>(value, now, Duration.ZERO, true, true);
+    }
+
+    /**
+     * @return the value, may be null for a fallback
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return when the value was loaded from the upstream system
+     */
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * @return time since the value was loaded
+     */
+    public Duration getAge() {
+        return age;
+    }
+
+    /**
+     * @return true if the value is older than the staleness limit or is a fallback
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * @return true if the upstream system could not be reached and nothing was cached
+     */
+    public boolean isFallback() {
+        return fallback;
+    }
+}
@@ -0,0 +1,163 @@
+package com.pcs.vcms.cache;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples cache reads to estimate the hottest keys of every cache.
+ * <p>
+ * Only a {@code sampleRate} share of the reads is recorded, into a Space-Saving summary of
+ * {@code capacity} keys per cache, so the cost per read is a random draw and the memory is
+ * bounded whatever the key space. Counts are halved on every {@link #decay()}, so the summary
+ * follows the current access pattern rather than the one since startup.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class HotKeySampler {
+
+    private final double sampleRate;
+    private final int capacity;
+    private final Map<String, Summary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * @param sampleRate share of the reads recorded, between 0 (none) and 1 (all)
+     * @param capacity number of keys tracked per cache
+     */
+    public HotKeySampler(double sampleRate, int capacity) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a read of a key, if it is sampled.
+     */
+    public void record(String cacheName, Object key) {
+        if (sampleRate == 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        summaries.computeIfAbsent(cacheName, name -> new Summary(capacity)).add(TwoTierCache.localKey(key));
+    }
+
+    /**
+     * @param cacheName cache name
+     * @param limit maximum number of keys returned
+     * @return hottest keys of the cache, hottest first
+     */
+    public List<HotKey> top(String cacheName, int limit) {
+        Summary summary = summaries.get(cacheName);
+        return summary == null ? Collections.emptyList() : summary.top(limit, sampleRate);
+    }
+
+    /**
+     * @param limit maximum number of keys returned per cache
+     * @return hottest keys of every cache with sampled reads
+     */
+    public Map<String, List<HotKey>> top(int limit) {
+        Map<String, List<HotKey>> top = new LinkedHashMap<>();
+        summaries.keySet().stream().sorted().forEach(cacheName -> top.put(cacheName, top(cacheName, limit)));
+        return top;
+    }
+
+    /**
+     * Halves every count, dropping keys that reach zero.
+     */
+    @Scheduled(fixedDelayString = "${vcms.cache.telemetry.hot-keys.decay-interval-ms:60000}")
+    public void decay() {
+        summaries.values().forEach(Summary::decay);
+    }
+
+    /**
+     * Space-Saving summary: a new key replaces the least counted one once the summary is full
+     * and inherits its count, which bounds the over-estimate of every count by that minimum.
+     */
+    private static final class Summary {
+        private final int capacity;
+        private final Map<String, long[]> counts = new HashMap<>();
+
+        Summary(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void add(String key) {
+            long[] count = counts.get(key);
+            if (count != null) {
+                count[0]++;
+                return;
+            }
+            if (counts.size() < capacity) {
+                counts.put(key, new long[] {1, 0});
+                return;
+            }
+            Map.Entry<String, long[]> least = null;
+            for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+                if (least == null || entry.getValue()[0] < least.getValue()[0]) {
+                    least = entry;
+                }
+            }
+            long min = least.getValue()[0];
+            counts.remove(least.getKey());
+            counts.put(key, new long[] {min + 1, min});
+        }
+
+        synchronized List<HotKey> top(int limit, double sampleRate) {
+            List<HotKey> top = new ArrayList<>(counts.size());
+            counts.forEach((key, count) -> top.add(new HotKey(key, Math.round(count[0] / sampleRate),
+                    Math.round(count[1] / sampleRate))));
+            top.sort(Comparator.comparingLong(HotKey::getEstimatedReads).reversed());
+            return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+        }
+
+        synchronized void decay() {
+            Iterator<long[]> iterator = counts.values().iterator();
+            while (iterator.hasNext()) {
+                long[] count = iterator.next();
+                count[0] /= 2;
+                count[1] /= 2;
+                if (count[0] == 0) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimated number of reads of a key, scaled up from the sampled reads.
+     */
+    public static final class HotKey {
+        private final String key;
+        private final long estimatedReads;
+        private final long maxOverestimate;
+
+        HotKey(String key, long estimatedReads, long maxOverestimate) {
+            this.key = key;
+            this.estimatedReads = estimatedReads;
+            this.maxOverestimate = maxOverestimate;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getEstimatedReads() {
+            return estimatedReads;
+        }
+
+        public long getMaxOverestimate() {
+            return maxOverestimate;
+        }
+    }
+}
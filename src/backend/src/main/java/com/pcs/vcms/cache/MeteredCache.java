@@ -0,0 +1,159 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outermost cache decorator recording what callers see of a cache, whatever tiers are behind it.
+ * <p>
+ * Reads are counted as {@code cache.gets} hits and misses under the standard Micrometer cache
+ * meter names, writes as {@code cache.puts} and explicit removals as {@code cache.removals}.
+ * The loads run on a miss are timed as {@code cache.load.duration}, with a percentile
+ * histogram, and every read is offered to the {@link HotKeySampler}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class MeteredCache implements Cache {
+
+    private final Cache delegate;
+    private final HotKeySampler hotKeys;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter removals;
+    private final Timer loads;
+    private final Timer failedLoads;
+
+    public MeteredCache(Cache delegate, HotKeySampler hotKeys, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hotKeys = hotKeys;
+        this.meterRegistry = meterRegistry;
+        this.hits = getCounter("hit");
+        this.misses = getCounter("miss");
+        this.puts = Counter.builder("cache.puts")
+                .description("Number of entries added to the cache")
+                .tag("cache", getName())
+                .register(meterRegistry);
+        this.removals = Counter.builder("cache.removals")
+                .description("Number of entries explicitly removed from the cache")
+                .tag("cache", getName())
+                .register(meterRegistry);
+        this.loads = loadTimer("success");
+        this.failedLoads = loadTimer("failure");
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        recordRead(key, wrapper != null);
+        return wrapper;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        recordRead(key, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        try {
+            return delegate.get(key, () -> {
+                loaded[0] = true;
+                return timedLoad(valueLoader);
+            });
+        } finally {
+            recordRead(key, !loaded[0]);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        puts.increment();
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        if (existing == null) {
+            puts.increment();
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        removals.increment();
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        if (evicted) {
+            removals.increment();
+        }
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        removals.increment();
+    }
+
+    private <T> T timedLoad(Callable<T> valueLoader) throws Exception {
+        long start = meterRegistry.config().clock().monotonicTime();
+        Timer timer = failedLoads;
+        try {
+            T value = valueLoader.call();
+            timer = loads;
+            return value;
+        } finally {
+            timer.record(meterRegistry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordRead(Object key, boolean hit) {
+        (hit ? hits : misses).increment();
+        if (hotKeys != null) {
+            hotKeys.record(getName(), key);
+        }
+    }
+
+    private Counter getCounter(String result) {
+        return Counter.builder("cache.gets")
+                .description("Number of cache reads per result")
+                .tags("cache", getName(), "result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer loadTimer(String result) {
+        return Timer.builder("cache.load.duration")
+                .description("Time spent loading missing entries")
+                .tags("cache", getName(), "result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
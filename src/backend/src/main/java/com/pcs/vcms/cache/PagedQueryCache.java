@@ -0,0 +1,125 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.datasource.PrimaryReads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache of paged query results validated against {@link QueryGenerations}.
+ * <p>
+ * A page is cached under its query name, parameters and page request, together with the stamp
+ * of the generations the query depends on. It is served only while that stamp is current, so a
+ * write bumping one of the generations invalidates it on every node at once, and the cached
+ * total spares the {@code count(*)} of the page as well. The stamp is read before the query
+ * runs, so a page read concurrently with a write is stamped with the older generation and is
+ * discarded on the next read. Pages are loaded under {@link PrimaryReads}: a page read from a
+ * lagging replica could miss a write whose bump is already in the stamp, and would then be
+ * served as current until the next bump. The cache TTL only bounds the memory of pages no
+ * longer read, and how long a page stays stale if a bump is lost. When Redis is unavailable the
+ * query runs uncached.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class PagedQueryCache {
+
+    private final Cache cache;
+    private final QueryGenerations generations;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, QueryCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * @param cache cache holding the pages
+     * @param generations generation counters the pages are validated against
+     * @param meterRegistry registry of the per-query hit metrics
+     */
+    public PagedQueryCache(Cache cache, QueryGenerations generations, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.generations = generations;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns a page of a query, from the cache while the query's generations are unchanged.
+     *
+     * @param query name of the query, shared by all its parameter values
+     * @param parameters string form of the query parameters
+     * @param pageable page requested
+     * @param dependsOn generations of the data the query reads
+     * @param loader runs the query
+     * @return the page
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> get(String query, String parameters, Pageable pageable, Collection<String> dependsOn,
+                           Supplier<Page<T>> loader) {
+        QueryCounters queryCounters = counters.computeIfAbsent(query, QueryCounters::new);
+        String key = query + '|' + parameters + '|' + pageKey(pageable);
+        String stamp;
+        Cache.ValueWrapper cached;
+        try {
+            stamp = generations.stamp(dependsOn);
+            cached = cache.get(key);
+        } catch (RuntimeException e) {
+            queryCounters.bypassed.increment();
+            log.warn("Paged query cache unavailable, running {} uncached: {}", query, e.getMessage());
+            return loader.get();
+        }
+
+        if (cached != null && cached.get() instanceof CachedPage page && stamp.equals(page.getStamp())) {
+            queryCounters.hits.increment();
+            return new PageImpl<>((List<T>) page.getContent(), pageable, page.getTotalElements());
+        }
+        (cached == null ? queryCounters.misses : queryCounters.outdated).increment();
+
+        Page<T> page = PrimaryReads.get(loader);
+        try {
+            cache.put(key, new CachedPage(stamp, page.getContent(), page.getTotalElements()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache page of {}: {}", query, e.getMessage());
+        }
+        return page;
+    }
+
+    private static String pageKey(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return "unpaged|" + pageable.getSort();
+        }
+        return pageable.getPageNumber() + "|" + pageable.getPageSize() + "|" + pageable.getSort();
+    }
+
+    /**
+     * Per-query outcome counters.
+     */
+    private final class QueryCounters {
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter outdated;
+        private final Counter bypassed;
+
+        QueryCounters(String query) {
+            this.hits = counter(query, "hit");
+            this.misses = counter(query, "miss");
+            this.outdated = counter(query, "outdated");
+            this.bypassed = counter(query, "bypassed");
+        }
+
+        private Counter counter(String query, String outcome) {
+            return Counter.builder("cache.paged.queries")
+                    .description("Number of paged query reads per outcome")
+                    .tags("query", query, "outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
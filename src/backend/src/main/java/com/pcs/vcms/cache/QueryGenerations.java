@@ -0,0 +1,135 @@
+package com.pcs.vcms.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Redis generation counters of the data behind cached query results.
+ * <p>
+ * A generation names a slice of a table, such as all vessel calls or the vessel calls of one
+ * status, and is bumped by every write that changes the slice. Cached query results are
+ * stamped with the generations they depend on and are only served while the stamp is
+ * current, so a write invalidates exactly the results it affects. A missing counter starts at
+ * the current time in milliseconds and bumps increment it, so a counter lost to a Redis flush or
+ * eviction never returns to a value an old stamp holds.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class QueryGenerations {
+
+    private static final String GENERATION_PREFIX = "vcms::gen::";
+
+    private static final DefaultRedisScript<Long> BUMP_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return redis.call('incr', KEYS[1]) "
+                    + "else redis.call('set', KEYS[1], ARGV[1]) return tonumber(ARGV[1]) end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+
+    public QueryGenerations(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, Clock.systemUTC());
+    }
+
+    QueryGenerations(StringRedisTemplate redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * @param table table name
+     * @return generation of every row of the table
+     */
+    public static String table(String table) {
+        return table + ":all";
+    }
+
+    /**
+     * @param table table name
+     * @param status status of the rows
+     * @return generation of the rows of the table in a status
+     */
+    public static String status(String table, Enum<?> status) {
+        return table + ":status:" + status.name();
+    }
+
+    /**
+     * Reads the current value of generations, starting the missing ones.
+     *
+     * @param generations generations a query result depends on
+     * @return stamp of the generations, equal for two reads only if none was bumped in between
+     */
+    public String stamp(Collection<String> generations) {
+        List<String> keys = keys(generations);
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        StringBuilder stamp = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            if (value == null) {
+                redisTemplate.opsForValue().setIfAbsent(keys.get(i), String.valueOf(clock.millis()));
+                value = redisTemplate.opsForValue().get(keys.get(i));
+            }
+            if (i > 0) {
+                stamp.append('.');
+            }
+            stamp.append(value);
+        }
+        return stamp.toString();
+    }
+
+    /**
+     * Bumps generations, invalidating the results stamped with them.
+     */
+    public void bump(Collection<String> generations) {
+        String start = String.valueOf(clock.millis());
+        for (String key : keys(generations)) {
+            redisTemplate.execute(BUMP_SCRIPT, Collections.singletonList(key), start);
+        }
+    }
+
+    /**
+     * Bumps generations once the current transaction commits, so that a concurrent read cannot
+     * stamp the pre-commit state with the new generation. Bumps immediately outside a transaction.
+     */
+    public void bumpAfterCommit(String... generations) {
+        List<String> bumped = Arrays.asList(generations);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bumpQuietly(bumped);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bumpQuietly(bumped);
+            }
+        });
+    }
+
+    private void bumpQuietly(Collection<String> generations) {
+        try {
+            bump(generations);
+        } catch (RuntimeException e) {
+            log.error("Failed to bump query generations {}", generations, e);
+        }
+    }
+
+    private static List<String> keys(Collection<String> generations) {
+        List<String> keys = new ArrayList<>(generations.size());
+        for (String generation : generations) {
+            keys.add(GENERATION_PREFIX + generation);
+        }
+        return keys;
+    }
+}
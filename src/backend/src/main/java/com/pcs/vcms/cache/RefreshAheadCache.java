@@ -0,0 +1,196 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Refresh-ahead view of a cache of external data.
+ * <p>
+ * An entry read after {@code refreshAfter} is reloaded in the background while the caller
+ * gets the cached value at once, so callers only wait for the upstream system on a cold miss.
+ * Only one node refreshes a key at a time: the refresh is skipped when another node holds the
+ * key's {@link CacheLoadLock}. A failed refresh keeps the cached value, which is flagged stale
+ * once it is older than {@code staleAfter}; the cache's TTL should be well above
+ * {@code staleAfter} so callers keep getting a value while the upstream system is down.
+ * <p>
+ * Entries are stored as {@link RefreshAheadEntry} in the underlying cache, so the cache must
+ * only be used through this class.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class RefreshAheadCache {
+
+    private final Cache cache;
+    private final Duration refreshAfter;
+    private final Duration staleAfter;
+    private final Executor refreshExecutor;
+    private final CacheLoadLock loadLock;
+    private final Clock clock;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter fresh;
+    private final Counter stale;
+    private final Counter loaded;
+    private final Counter fallback;
+    private final Counter refreshed;
+    private final Counter refreshFailures;
+
+    /**
+     * @param cache cache holding the entries
+     * @param refreshAfter age from which a read reloads the entry in the background
+     * @param staleAfter age from which a value is reported stale
+     * @param refreshExecutor executor of the background reloads
+     * @param loadLock cross-node lock of the reloads, null to refresh on every node
+     * @param clock clock of the entry ages
+     * @param meterRegistry registry of the refresh metrics
+     */
+    public RefreshAheadCache(Cache cache, Duration refreshAfter, Duration staleAfter, Executor refreshExecutor,
+                             CacheLoadLock loadLock, Clock clock, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.refreshAfter = refreshAfter;
+        this.staleAfter = staleAfter;
+        this.refreshExecutor = refreshExecutor;
+        this.loadLock = loadLock;
+        this.clock = clock;
+        this.fresh = readCounter(meterRegistry, "fresh");
+        this.stale = readCounter(meterRegistry, "stale");
+        this.loaded = readCounter(meterRegistry, "loaded");
+        this.fallback = readCounter(meterRegistry, "fallback");
+        this.refreshed = refreshCounter(meterRegistry, "success");
+        this.refreshFailures = refreshCounter(meterRegistry, "failure");
+    }
+
+    /**
+     * Returns the cached value of a key, loading it only if nothing is cached.
+     *
+     * @param key cache key
+     * @param loader loads the value from the upstream system; returns null or throws on failure
+     * @param fallbackValue value served when nothing is cached and the loader fails
+     * @return the value and its freshness
+     */
+    public <T> CachedValue<T> get(Object key, Callable<T> loader, Supplier<T> fallbackValue) {
+        Instant now = clock.instant();
+        RefreshAheadEntry entry = lookup(key);
+        if (entry == null) {
+            try {
+                entry = cache.get(key, () -> load(loader));
+            } catch (RuntimeException e) {
+                fallback.increment();
+                log.warn("Loading {} of cache {} failed, serving fallback: {}", key, cache.getName(), e.getMessage());
+                return CachedValue.fallback(fallbackValue.get(), now);
+            }
+            loaded.increment();
+            return cachedValue(entry, now, false);
+        }
+
+        Duration age = Duration.ofMillis(Math.max(0, now.toEpochMilli() - entry.getLoadedAtMillis()));
+        if (age.compareTo(refreshAfter) >= 0) {
+            refresh(key, loader);
+        }
+        boolean isStale = age.compareTo(staleAfter) >= 0;
+        (isStale ? stale : fresh).increment();
+        return cachedValue(entry, now, isStale);
+    }
+
+    /**
+     * @return name of the underlying cache
+     */
+    public String getName() {
+        return cache.getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CachedValue<T> cachedValue(RefreshAheadEntry entry, Instant now, boolean isStale) {
+        Instant loadedAt = Instant.ofEpochMilli(entry.getLoadedAtMillis());
+        Duration age = Duration.ofMillis(Math.max(0, now.toEpochMilli() - entry.getLoadedAtMillis()));
+        return CachedValue.cached((T) entry.getValue(), loadedAt, age, isStale);
+    }
+
+    private RefreshAheadEntry lookup(Object key) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        if (wrapper.get() instanceof RefreshAheadEntry entry) {
+            return entry;
+        }
+        // Written before the cache was used for refresh-ahead
+        cache.evict(key);
+        return null;
+    }
+
+    private RefreshAheadEntry load(Callable<?> loader) throws Exception {
+        Object value = loader.call();
+        if (value == null) {
+            throw new IllegalStateException("Upstream returned no value");
+        }
+        return new RefreshAheadEntry(value, clock.millis());
+    }
+
+    private void refresh(Object key, Callable<?> loader) {
+        String localKey = TwoTierCache.localKey(key);
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshOnce(key, localKey, loader);
+                } finally {
+                    refreshing.remove(localKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(localKey);
+            log.debug("Refresh queue full, not refreshing {} of cache {}", key, cache.getName());
+        }
+    }
+
+    private void refreshOnce(Object key, String localKey, Callable<?> loader) {
+        String token = loadLock != null ? loadLock.tryAcquire(cache.getName(), localKey) : CacheLoadLock.UNLOCKED;
+        if (token == null) {
+            // Another node is refreshing the key
+            return;
+        }
+        try {
+            cache.put(key, load(loader));
+            refreshed.increment();
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.warn("Refreshing {} of cache {} failed, keeping the cached value: {}", key, cache.getName(),
+                    e.getMessage());
+        } finally {
+            if (loadLock != null) {
+                loadLock.release(cache.getName(), localKey, token);
+            }
+        }
+    }
+
+    private Counter readCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cache.refresh.ahead.reads")
+                .description("Number of refresh-ahead reads per freshness of the value served")
+                .tags("cache", cache.getName(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cache.refresh.ahead.refreshes")
+                .description("Number of background refreshes per outcome")
+                .tags("cache", cache.getName(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
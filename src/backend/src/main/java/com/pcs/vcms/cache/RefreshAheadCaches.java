@@ -0,0 +1,93 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the {@link RefreshAheadCache}s of the external data caches.
+ * All caches share one bounded refresh pool; refreshes that do not fit in its queue are
+ * skipped and retried on a later read.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class RefreshAheadCaches implements DisposableBean {
+
+    private final CacheManager cacheManager;
+    private final Map<String, RefreshSettings> settings;
+    private final CacheLoadLock loadLock;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Map<String, RefreshAheadCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param cacheManager manager of the underlying caches
+     * @param settings refresh settings per cache name
+     * @param loadLock cross-node lock of the refreshes, null to refresh on every node
+     * @param workers number of refresh threads
+     * @param queueCapacity number of refreshes waiting for a thread
+     * @param meterRegistry registry of the refresh metrics
+     */
+    public RefreshAheadCaches(CacheManager cacheManager, Map<String, RefreshSettings> settings,
+                              CacheLoadLock loadLock, int workers, int queueCapacity, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.settings = settings;
+        this.loadLock = loadLock;
+        this.meterRegistry = meterRegistry;
+        this.refreshExecutor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("VcmsCacheRefresh-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("cache.refresh.ahead.queued", refreshExecutor, e -> e.getQueue().size())
+                .description("Number of background refreshes waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param cacheName name of a cache with refresh settings
+     * @return refresh-ahead view of the cache
+     */
+    public RefreshAheadCache get(String cacheName) {
+        return caches.computeIfAbsent(cacheName, this::create);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        refreshExecutor.shutdown();
+        refreshExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private RefreshAheadCache create(String cacheName) {
+        RefreshSettings cacheSettings = settings.get(cacheName);
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cacheSettings == null || cache == null) {
+            throw new IllegalArgumentException("No refresh-ahead cache named " + cacheName);
+        }
+        return new RefreshAheadCache(cache, cacheSettings.refreshAfter, cacheSettings.staleAfter, refreshExecutor,
+                loadLock, Clock.systemUTC(), meterRegistry);
+    }
+
+    /**
+     * Refresh and staleness ages of one cache.
+     */
+    public static final class RefreshSettings {
+        private final Duration refreshAfter;
+        private final Duration staleAfter;
+
+        public RefreshSettings(Duration refreshAfter, Duration staleAfter) {
+            this.refreshAfter = refreshAfter;
+            this.staleAfter = staleAfter;
+        }
+    }
+}
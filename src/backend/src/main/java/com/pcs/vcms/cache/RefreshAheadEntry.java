@@ -0,0 +1,32 @@
+package com.pcs.vcms.cache;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Cache entry of a {@link RefreshAheadCache}: the value and when it was loaded.
+ * Not final, so the cache value serializer records its type.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class RefreshAheadEntry {
+
+    private final Object value;
+    private final long loadedAtMillis;
+
+    @JsonCreator
+    public RefreshAheadEntry(@JsonProperty("value") Object value,
+                             @JsonProperty("loadedAtMillis") long loadedAtMillis) {
+        this.value = value;
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+}
@@ -0,0 +1,213 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.datasource.PrimaryReads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cache decorator coalescing concurrent misses on the same key into a single load.
+ * <p>
+ * It serves {@code @Cacheable(sync = true)} lookups. On this node, the first caller to miss
+ * a key becomes the leader and loads it; callers missing the same key meanwhile wait for the
+ * leader's result instead of loading it again. Across nodes, the leader takes a
+ * {@link CacheLoadLock} before loading; a leader that finds the lock taken polls the cache for
+ * the value the other node is loading, and only loads itself once {@code lockWait} has elapsed.
+ * <p>
+ * Null results are returned but not cached, which keeps the {@code unless = "#result == null"}
+ * semantics that {@code sync = true} does not support: failed lookups and circuit breaker
+ * fallbacks are retried on the next call instead of being cached. The leader loads under
+ * {@link PrimaryReads}, so the value filling the cache after an eviction is not read from a
+ * lagging replica.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class SingleFlightCache implements Cache {
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
+    private final Cache delegate;
+    private final CacheLoadLock loadLock;
+    private final long lockWaitNanos;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderLoads;
+    private final Counter localCoalesced;
+    private final Counter remoteCoalesced;
+    private final Counter lockTimeouts;
+
+    /**
+     * @param delegate cache holding the entries
+     * @param loadLock cross-node lock, null to coalesce on this node only
+     * @param lockWait how long to wait for another node's load before loading anyway
+     * @param meterRegistry registry of the coalescing counters
+     */
+    public SingleFlightCache(Cache delegate, CacheLoadLock loadLock, Duration lockWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.loadLock = loadLock;
+        this.lockWaitNanos = lockWait.toNanos();
+        this.leaderLoads = outcomeCounter(meterRegistry, "loaded");
+        this.localCoalesced = outcomeCounter(meterRegistry, "coalesced_local");
+        this.remoteCoalesced = outcomeCounter(meterRegistry, "coalesced_remote");
+        this.lockTimeouts = outcomeCounter(meterRegistry, "lock_timeout");
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        String flightKey = TwoTierCache.localKey(key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(flightKey, flight);
+        if (leader != null) {
+            localCoalesced.increment();
+            return (T) await(leader);
+        }
+
+        try {
+            Object value = loadOnce(key, flightKey, valueLoader);
+            flight.complete(value);
+            return (T) value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    /**
+     * @return number of keys currently being loaded on this node
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object loadOnce(Object key, String flightKey, Callable<?> valueLoader) {
+        if (loadLock == null) {
+            return load(key, valueLoader);
+        }
+        long deadline = System.nanoTime() + lockWaitNanos;
+        while (true) {
+            String token = loadLock.tryAcquire(getName(), flightKey);
+            if (token != null) {
+                try {
+                    // Another node may have stored the value between our miss and the lock
+                    ValueWrapper cached = delegate.get(key);
+                    if (cached != null) {
+                        remoteCoalesced.increment();
+                        return cached.get();
+                    }
+                    return load(key, valueLoader);
+                } finally {
+                    loadLock.release(getName(), flightKey, token);
+                }
+            }
+            if (System.nanoTime() >= deadline) {
+                lockTimeouts.increment();
+                return load(key, valueLoader);
+            }
+            LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                remoteCoalesced.increment();
+                return cached.get();
+            }
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = PrimaryReads.call(valueLoader);
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        leaderLoads.increment();
+        if (value != null) {
+            delegate.put(key, value);
+        }
+        return value;
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cache.singleflight.requests")
+                .description("Number of cache misses per single-flight outcome")
+                .tags("cache", getName(), "outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package com.pcs.vcms.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+
+/**
+ * Cache decorator indexing every entry it stores in the {@link CacheTagIndex}. Entries are
+ * tagged before they are written, so an entry in the cache is always reachable from its tags.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class TaggedCache implements Cache {
+
+    private final Cache delegate;
+    private final CacheTagIndex tagIndex;
+    private final BiFunction<Object, Object, Set<String>> tagResolver;
+
+    /**
+     * @param delegate cache holding the entries
+     * @param tagIndex tag index
+     * @param tagResolver computes the tags of an entry from its key and value
+     */
+    public TaggedCache(Cache delegate, CacheTagIndex tagIndex, BiFunction<Object, Object, Set<String>> tagResolver) {
+        this.delegate = delegate;
+        this.tagIndex = tagIndex;
+        this.tagResolver = tagResolver;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, () -> {
+            T value = valueLoader.call();
+            tag(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        tag(key, value);
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        tag(key, value);
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    private void tag(Object key, Object value) {
+        tagIndex.tag(getName(), key, tagResolver.apply(key, value));
+    }
+}
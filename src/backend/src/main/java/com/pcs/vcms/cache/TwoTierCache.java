@@ -0,0 +1,199 @@
+package com.pcs.vcms.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache with an in-process Caffeine L1 in front of a shared Redis L2.
+ * <p>
+ * Reads are served from L1 when possible and fall back to L2, filling L1 on an L2 hit. Writes
+ * and evictions go to L2 first, then to the local L1, and are published on the
+ * {@link CacheInvalidationBus} so that other nodes drop their L1 copy. L1 entries are keyed by
+ * the string form of the cache key, the same form Redis keys are built from, so invalidations
+ * received from other nodes match them. L1 and L2 hits and misses are counted separately, and
+ * L1 size and age evictions are exported as {@code cache.evictions}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TwoTierCache(String name, Cache l2, long maxSize, Duration ttl, CacheInvalidationBus invalidationBus,
+                        MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.l2 = l2;
+        this.invalidationBus = invalidationBus;
+        this.l1 = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.l1Hits = tierCounter(meterRegistry, "l1", "hit");
+        this.l1Misses = tierCounter(meterRegistry, "l1", "miss");
+        this.l2Hits = tierCounter(meterRegistry, "l2", "hit");
+        this.l2Misses = tierCounter(meterRegistry, "l2", "miss");
+        Gauge.builder("cache.tier.hit.ratio", this, cache -> ratio(cache.l1Hits, cache.l1Misses))
+                .description("Share of lookups served by the in-process L1")
+                .tags("cache", name, "tier", "l1")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.hit.ratio", this, cache -> ratio(cache.l2Hits, cache.l2Misses))
+                .description("Share of L1 misses served by Redis")
+                .tags("cache", name, "tier", "l2")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.size", l1, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Number of entries held in the in-process L1")
+                .tags("cache", name, "tier", "l1")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", l1, cache -> cache.stats().evictionCount())
+                .description("Number of entries the in-process L1 evicted for size or age")
+                .tag("cache", name)
+                .register(meterRegistry);
+        if (invalidationBus != null) {
+            invalidationBus.register(this);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = l1.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+        l1Misses.increment();
+        ValueWrapper wrapper = l2.get(key);
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        Object storeValue = toStoreValue(wrapper.get());
+        l1.put(localKey, storeValue);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object value = l1.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return (T) fromStoreValue(value);
+        }
+        l1Misses.increment();
+        T loaded = l2.get(key, valueLoader);
+        l1.put(localKey, toStoreValue(loaded));
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        String localKey = localKey(key);
+        l1.put(localKey, toStoreValue(value));
+        publishEvict(localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        l1.put(localKey, toStoreValue(existing != null ? existing.get() : value));
+        if (existing == null) {
+            publishEvict(localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        String localKey = localKey(key);
+        l1.invalidate(localKey);
+        publishEvict(localKey);
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        if (invalidationBus != null) {
+            invalidationBus.publishClear(name);
+        }
+    }
+
+    /**
+     * Drops a key from L1 only, on invalidation by another node.
+     */
+    void evictLocal(String localKey) {
+        l1.invalidate(localKey);
+    }
+
+    /**
+     * Clears L1 only, on invalidation by another node.
+     */
+    void clearLocal() {
+        l1.invalidateAll();
+    }
+
+    /**
+     * @return L2 behind the near cache
+     */
+    public Cache getL2() {
+        return l2;
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private void publishEvict(String localKey) {
+        if (invalidationBus != null) {
+            invalidationBus.publishEvict(name, localKey);
+        }
+    }
+
+    private Counter tierCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .description("Number of near-cache lookups per tier and result")
+                .tags("cache", name, "tier", tier, "result", result)
+                .register(meterRegistry);
+    }
+
+    private static double ratio(Counter hits, Counter misses) {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+}
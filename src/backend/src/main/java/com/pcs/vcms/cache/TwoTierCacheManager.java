@@ -0,0 +1,145 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Composite cache manager putting a Caffeine L1 in front of the caches of a Redis cache manager.
+ * Only caches with {@link NearCacheSettings} are near-cached, and only caches with a tag
+ * resolver index their entries in the {@link CacheTagIndex}. Caches registered with
+ * {@link #singleFlight} coalesce concurrent misses through a {@link SingleFlightCache}. Once
+ * {@link #metered} is called, every cache is wrapped in a {@link MeteredCache}. Every other
+ * cache is served by the L2 manager unchanged.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager l2Manager;
+    private final Map<String, NearCacheSettings> nearCacheSettings;
+    private final Map<String, BiFunction<Object, Object, Set<String>>> tagResolvers;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheTagIndex tagIndex;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private Set<String> singleFlightCaches = Collections.emptySet();
+    private CacheLoadLock loadLock;
+    private Duration lockWait = Duration.ZERO;
+    private boolean metered;
+    private HotKeySampler hotKeys;
+
+    public TwoTierCacheManager(CacheManager l2Manager, Map<String, NearCacheSettings> nearCacheSettings,
+                               Map<String, BiFunction<Object, Object, Set<String>>> tagResolvers,
+                               CacheInvalidationBus invalidationBus, CacheTagIndex tagIndex,
+                               MeterRegistry meterRegistry) {
+        this.l2Manager = l2Manager;
+        this.nearCacheSettings = nearCacheSettings;
+        this.tagResolvers = tagResolvers;
+        this.invalidationBus = invalidationBus;
+        this.tagIndex = tagIndex;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Coalesces concurrent misses of the given caches into one load per key.
+     * Must be called before the caches are first used.
+     *
+     * @param cacheNames caches to coalesce
+     * @param loadLock cross-node load lock, null to coalesce on each node only
+     * @param lockWait how long a node waits for the load of another node
+     * @return this manager
+     */
+    public TwoTierCacheManager singleFlight(Set<String> cacheNames, CacheLoadLock loadLock, Duration lockWait) {
+        this.singleFlightCaches = new HashSet<>(cacheNames);
+        this.loadLock = loadLock;
+        this.lockWait = lockWait;
+        return this;
+    }
+
+    /**
+     * Records the reads, writes and loads of every cache as seen by its callers.
+     * Must be called before the caches are first used.
+     *
+     * @param hotKeys sampler of the hottest keys, null to not sample them
+     * @return this manager
+     */
+    public TwoTierCacheManager metered(HotKeySampler hotKeys) {
+        this.metered = true;
+        this.hotKeys = hotKeys;
+        return this;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = l2Manager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> decorate(key, l2));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(l2Manager.getCacheNames());
+        names.addAll(caches.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    private Cache decorate(String name, Cache l2) {
+        Cache cache = l2;
+        NearCacheSettings settings = nearCacheSettings.get(name);
+        if (settings != null) {
+            cache = new TwoTierCache(name, l2, settings.getMaxSize(), settings.getTtl(), invalidationBus, meterRegistry);
+        }
+        BiFunction<Object, Object, Set<String>> tagResolver = tagResolvers.get(name);
+        if (tagResolver != null && tagIndex != null) {
+            cache = new TaggedCache(cache, tagIndex, tagResolver);
+        }
+        if (singleFlightCaches.contains(name)) {
+            cache = new SingleFlightCache(cache, loadLock, lockWait, meterRegistry);
+        }
+        if (metered) {
+            cache = new MeteredCache(cache, hotKeys, meterRegistry);
+        }
+        return cache;
+    }
+
+    /**
+     * Size and TTL bounds of the L1 of one cache. The TTL also bounds how long a node can serve
+     * a stale entry if it misses an invalidation.
+     */
+    public static final class NearCacheSettings {
+        private final long maxSize;
+        private final Duration ttl;
+
+        public NearCacheSettings(long maxSize, Duration ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.pcs.vcms.cache;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Data set preloaded by the {@link CacheWarmUp} at startup.
+ * The warm-up fetches the source page by page and hands every item to {@link #warm}, which
+ * puts it into the caches it is served from. Loading a page of an entity cached in the
+ * Hibernate second-level cache warms its region on its own.
+ *
+ * @param <T> type of the items fetched
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public interface WarmUpSource<T> {
+
+    /**
+     * @return name of the source in logs, metrics and the readiness details
+     */
+    String getName();
+
+    /**
+     * @param pageable page to fetch
+     * @return page of items to warm
+     */
+    Page<T> fetch(Pageable pageable);
+
+    /**
+     * Puts one fetched item into the caches. Runs in the read-only transaction of its page.
+     *
+     * @param item item to warm
+     */
+    void warm(T item);
+
+    /**
+     * @param name name of the source
+     * @param fetch page query of the source
+     * @param warm puts one item into the caches
+     * @return source made of the given functions
+     */
+    static <T> WarmUpSource<T> of(String name, Function<Pageable, Page<T>> fetch, Consumer<T> warm) {
+        return new WarmUpSource<>() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Page<T> fetch(Pageable pageable) {
+                return fetch.apply(pageable);
+            }
+
+            @Override
+            public void warm(T item) {
+                warm.accept(item);
+            }
+        };
+    }
+}
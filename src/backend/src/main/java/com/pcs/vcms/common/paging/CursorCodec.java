@@ -0,0 +1,113 @@
+package com.pcs.vcms.common.paging;
+
+import com.pcs.vcms.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encodes {@link KeysetCursor} positions as opaque URL-safe tokens signed with a server secret.
+ * <p>
+ * The HMAC-SHA256 of a token covers its position and the scope (query name and filters) it
+ * was issued for, so a token replayed against another query, or with an altered sort key or
+ * id, is rejected. All nodes must share {@code vcms.paging.cursor-secret}; without it a random
+ * key is generated and tokens are only accepted by the node that issued them until it restarts.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class CursorCodec {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final char SEPARATOR = '|';
+    private static final int SIGNATURE_BYTES = 16;
+    private static final int GENERATED_KEY_BYTES = 32;
+
+    private final SecretKeySpec key;
+
+    @Autowired
+    public CursorCodec(@Value("${vcms.paging.cursor-secret:}") String secret) {
+        this(secret.isBlank() ? generateKey() : secret.getBytes(StandardCharsets.UTF_8));
+        if (secret.isBlank()) {
+            log.warn("vcms.paging.cursor-secret is not set, cursors are only valid on this node until it restarts");
+        }
+    }
+
+    CursorCodec(byte[] key) {
+        this.key = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    /**
+     * @param cursor position to continue from
+     * @param scope query name and filters the cursor continues
+     * @return opaque token of the cursor
+     */
+    public String encode(KeysetCursor cursor, String scope) {
+        String position = cursor.getSortKey().toString() + SEPARATOR + cursor.getId();
+        String token = position + SEPARATOR
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(scope, position));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token token issued by {@link #encode}, or {@code null} for the first page
+     * @param scope query name and filters the token must have been issued for
+     * @return the cursor, or {@code null} for the first page
+     * @throws ValidationException if the token is malformed, altered or was issued for another scope
+     */
+    public KeysetCursor decode(String token, String scope) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int signatureStart = decoded.lastIndexOf(SEPARATOR);
+            int idStart = signatureStart > 0 ? decoded.lastIndexOf(SEPARATOR, signatureStart - 1) : -1;
+            if (idStart <= 0) {
+                throw new ValidationException("Malformed cursor");
+            }
+            String position = decoded.substring(0, signatureStart);
+            byte[] signature = Base64.getUrlDecoder().decode(decoded.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(scope, position))) {
+                throw new ValidationException("Cursor does not belong to this query");
+            }
+            return new KeysetCursor(LocalDateTime.parse(position.substring(0, idStart)),
+                    Long.parseLong(position.substring(idStart + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Malformed cursor");
+        }
+    }
+
+    private byte[] sign(String scope, String position) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(scope.getBytes(StandardCharsets.UTF_8));
+            // Separates the scope from the position so that neither can absorb the other
+            mac.update((byte) 0);
+            return Arrays.copyOf(mac.doFinal(position.getBytes(StandardCharsets.UTF_8)), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static byte[] generateKey() {
+        byte[] key = new byte[GENERATED_KEY_BYTES];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+}
@@ -0,0 +1,91 @@
+package com.pcs.vcms.common.paging;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of a keyset paginated list, continued with the {@link KeysetCursor} token in
+ * {@link #getNextCursor()}.
+ * <p>
+ * Queries fetch one row more than the page size, see {@link #fetchLimit(int)}, so whether a
+ * next page exists is known without counting. The total is only present when the client asked
+ * for it, since counting is the part of a page query whose cost grows with the table.
+ *
+ * @param <T> type of the items
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final Long totalElements;
+
+    public CursorPage(List<T> content, String nextCursor, Long totalElements) {
+        this.content = Collections.unmodifiableList(content);
+        this.nextCursor = nextCursor;
+        this.totalElements = totalElements;
+    }
+
+    /**
+     * @param size page size requested
+     * @return limit of a keyset query, one row more than the page to detect a next page
+     */
+    public static Pageable fetchLimit(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Builds a page from the rows of a keyset query limited with {@link #fetchLimit(int)}.
+     *
+     * @param rows rows of the query, in cursor order
+     * @param size page size requested
+     * @param codec signs the next cursor
+     * @param scope query name and filters the next cursor is bound to
+     * @param position cursor of a row
+     * @param mapper converts a row to an item
+     * @param totalElements total number of matching rows, {@code null} if not requested
+     * @return the page
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, CursorCodec codec, String scope,
+                                          Function<E, KeysetCursor> position, Function<E, T> mapper,
+                                          Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        List<T> content = new ArrayList<>(pageRows.size());
+        for (E row : pageRows) {
+            content.add(mapper.apply(row));
+        }
+        String nextCursor = hasNext ? codec.encode(position.apply(pageRows.get(size - 1)), scope) : null;
+        return new CursorPage<>(content, nextCursor, totalElements);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return token of the next page, {@code null} on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @return total number of matching rows, {@code null} unless requested
+     */
+    public Long getTotalElements() {
+        return totalElements;
+    }
+}
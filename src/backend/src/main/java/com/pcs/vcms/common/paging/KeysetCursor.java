@@ -0,0 +1,55 @@
+package com.pcs.vcms.common.paging;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Position of a keyset (seek) paginated query: the sort key and id of the last row of a page.
+ * <p>
+ * The next page starts strictly after that row in the {@code (sortKey, id)} order, so it is
+ * read with an index seek whatever its depth, and rows inserted or removed meanwhile neither
+ * shift nor repeat the following pages. Clients get the cursor as an opaque signed token,
+ * see {@link CursorCodec}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class KeysetCursor {
+
+    private final LocalDateTime sortKey;
+    private final long id;
+
+    public KeysetCursor(LocalDateTime sortKey, long id) {
+        this.sortKey = Objects.requireNonNull(sortKey, "sortKey");
+        this.id = id;
+    }
+
+    public LocalDateTime getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor other)) {
+            return false;
+        }
+        return id == other.id && sortKey.equals(other.sortKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortKey, id);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor(" + sortKey + ", " + id + ")";
+    }
+}
@@ -0,0 +1,383 @@
+package com.pcs.vcms.common.tracking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks notification deliveries in fixed memory.
+ * <p>
+ * Deliveries are keyed by a 64-bit sequence id and held in a fixed-size open-addressing table
+ * of primitive arrays, probed over a bounded window. Completed deliveries stay readable until
+ * their slot is reclaimed; deliveries left in flight past the timeout are reclaimed as expired,
+ * and when a window is full the oldest delivery in it is evicted. Outcomes are aggregated into
+ * time-bucketed rolling counters, so neither traffic volume nor abandoned deliveries grow memory.
+ * The state and failure reason of a delivery can be read back while its slot is held.
+ * <p>
+ * Exported metrics: delivery latency percentiles ({@code notification.delivery.latency}),
+ * outcome counters, rolling-window failure ratio and in-flight count.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class NotificationDeliveryTracker {
+
+    private static final int MAX_PROBES = 16;
+
+    private static final byte EMPTY = 0;
+    private static final byte IN_FLIGHT = 1;
+    private static final byte DELIVERED = 2;
+    private static final byte FAILED = 3;
+
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+    private static final int RETRY = 2;
+
+    private final LongSupplier nanoClock;
+    private final long inFlightTimeoutNanos;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Open-addressing table, guarded by this
+    private final int mask;
+    private final long[] keys;
+    private final long[] startNanos;
+    private final int[] retries;
+    private final byte[] states;
+    private final String[] failureReasons;
+    private int inFlight;
+
+    // Rolling outcome counters, one row per time bucket, guarded by this
+    private final long bucketNanos;
+    private final long[] bucketStamps;
+    private final long[][] bucketCounts;
+
+    private final Timer deliveryLatency;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter expiredCounter;
+    private final Counter evictedCounter;
+
+    @Autowired
+    public NotificationDeliveryTracker(MeterRegistry meterRegistry,
+                                       @Value("${vcms.notification.tracking.capacity:65536}") int capacity,
+                                       @Value("${vcms.notification.tracking.window-seconds:60}") int windowSeconds,
+                                       @Value("${vcms.notification.tracking.in-flight-timeout-ms:30000}") long inFlightTimeoutMillis) {
+        this(meterRegistry, capacity, windowSeconds, inFlightTimeoutMillis, System::nanoTime);
+    }
+
+    NotificationDeliveryTracker(MeterRegistry meterRegistry, int capacity, int windowSeconds,
+                                long inFlightTimeoutMillis, LongSupplier nanoClock) {
+        if (capacity < MAX_PROBES || windowSeconds <= 0) {
+            throw new IllegalArgumentException("Tracker capacity must be at least " + MAX_PROBES
+                    + " and the rolling window positive");
+        }
+        int tableSize = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = tableSize - 1;
+        this.keys = new long[tableSize];
+        this.startNanos = new long[tableSize];
+        this.retries = new int[tableSize];
+        this.states = new byte[tableSize];
+        this.failureReasons = new String[tableSize];
+        this.nanoClock = nanoClock;
+        this.inFlightTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(inFlightTimeoutMillis);
+
+        this.bucketNanos = TimeUnit.SECONDS.toNanos(1);
+        this.bucketStamps = new long[windowSeconds];
+        this.bucketCounts = new long[windowSeconds][3];
+        Arrays.fill(bucketStamps, Long.MIN_VALUE);
+
+        this.deliveryLatency = Timer.builder("notification.delivery.latency")
+                .description("Time from delivery start to outcome")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deliveredCounter = outcomeCounter(meterRegistry, "delivered");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.expiredCounter = outcomeCounter(meterRegistry, "expired");
+        this.evictedCounter = outcomeCounter(meterRegistry, "evicted");
+
+        Gauge.builder("notification.delivery.inflight", this, NotificationDeliveryTracker::getInFlightCount)
+                .description("Number of deliveries started and not yet completed")
+                .register(meterRegistry);
+        Gauge.builder("notification.delivery.failure.ratio", this, tracker -> tracker.getStats().getFailureRate())
+                .description("Share of failed deliveries over the rolling window")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return new tracking id, unique for the lifetime of the process
+     */
+    public long nextTrackingId() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Records the start of a delivery attempt. Starting an id that is already tracked counts as a retry.
+     *
+     * @param trackingId id from {@link #nextTrackingId()}
+     */
+    public synchronized void trackDeliveryStart(long trackingId) {
+        long now = nanoClock.getAsLong();
+        int slot = find(trackingId);
+        if (slot >= 0) {
+            retries[slot]++;
+            if (states[slot] != IN_FLIGHT) {
+                states[slot] = IN_FLIGHT;
+                inFlight++;
+            }
+            startNanos[slot] = now;
+            failureReasons[slot] = null;
+            record(RETRY, now);
+            retriedCounter.increment();
+            return;
+        }
+
+        slot = claim(trackingId, now);
+        keys[slot] = trackingId;
+        startNanos[slot] = now;
+        retries[slot] = 0;
+        states[slot] = IN_FLIGHT;
+        failureReasons[slot] = null;
+        inFlight++;
+    }
+
+    /**
+     * Records a successful delivery.
+     */
+    public void trackDeliverySuccess(long trackingId) {
+        complete(trackingId, DELIVERED, SUCCESS, null);
+        deliveredCounter.increment();
+    }
+
+    /**
+     * Records a failed delivery.
+     *
+     * @param reason failure reason reported to the sender, must not carry payload data
+     */
+    public void trackDeliveryFailure(long trackingId, String reason) {
+        complete(trackingId, FAILED, FAILURE, reason);
+        failedCounter.increment();
+        log.debug("Delivery {} failed: {}", trackingId, reason);
+    }
+
+    /**
+     * @return number of retries of the delivery, 0 once its slot has been reclaimed
+     */
+    public synchronized int getRetryCount(long trackingId) {
+        int slot = find(trackingId);
+        return slot >= 0 ? retries[slot] : 0;
+    }
+
+    /**
+     * @return state of the delivery, {@link DeliveryState#UNKNOWN} once its slot has been reclaimed
+     */
+    public synchronized DeliveryState getState(long trackingId) {
+        int slot = find(trackingId);
+        if (slot < 0) {
+            return DeliveryState.UNKNOWN;
+        }
+        switch (states[slot]) {
+            case IN_FLIGHT:
+                return DeliveryState.IN_FLIGHT;
+            case DELIVERED:
+                return DeliveryState.DELIVERED;
+            default:
+                return DeliveryState.FAILED;
+        }
+    }
+
+    /**
+     * @return reason of a failed delivery, null if it did not fail or its slot has been reclaimed
+     */
+    public synchronized String getFailureReason(long trackingId) {
+        int slot = find(trackingId);
+        return slot >= 0 ? failureReasons[slot] : null;
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * @return outcome totals over the rolling window
+     */
+    public synchronized DeliveryStats getStats() {
+        long currentBucket = nanoClock.getAsLong() / bucketNanos;
+        long success = 0;
+        long failure = 0;
+        long retry = 0;
+        for (int i = 0; i < bucketStamps.length; i++) {
+            if (currentBucket - bucketStamps[i] < bucketStamps.length) {
+                success += bucketCounts[i][SUCCESS];
+                failure += bucketCounts[i][FAILURE];
+                retry += bucketCounts[i][RETRY];
+            }
+        }
+        return new DeliveryStats(success, failure, retry, inFlight, bucketStamps.length);
+    }
+
+    private void complete(long trackingId, byte state, int outcome, String reason) {
+        long now = nanoClock.getAsLong();
+        long latency = -1;
+        synchronized (this) {
+            int slot = find(trackingId);
+            if (slot >= 0 && states[slot] == IN_FLIGHT) {
+                states[slot] = state;
+                failureReasons[slot] = reason;
+                inFlight--;
+                latency = now - startNanos[slot];
+            }
+            record(outcome, now);
+        }
+        if (latency >= 0) {
+            deliveryLatency.record(latency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int find(long trackingId) {
+        int start = hash(trackingId);
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (start + i) & mask;
+            if (states[slot] != EMPTY && keys[slot] == trackingId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the slot for a new delivery within its probe window: an empty slot first, then the
+     * oldest expired in-flight delivery, then the oldest completed delivery, and as a last resort
+     * the oldest in-flight delivery.
+     */
+    private int claim(long trackingId, long now) {
+        int start = hash(trackingId);
+        int completed = -1;
+        int oldestInFlight = -1;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (start + i) & mask;
+            if (states[slot] == EMPTY) {
+                return slot;
+            }
+            if (states[slot] != IN_FLIGHT) {
+                if (completed < 0 || startNanos[slot] < startNanos[completed]) {
+                    completed = slot;
+                }
+            } else if (oldestInFlight < 0 || startNanos[slot] < startNanos[oldestInFlight]) {
+                oldestInFlight = slot;
+            }
+        }
+
+        boolean expired = oldestInFlight >= 0 && now - startNanos[oldestInFlight] > inFlightTimeoutNanos;
+        if (!expired && completed >= 0) {
+            return completed;
+        }
+        inFlight--;
+        if (expired) {
+            expiredCounter.increment();
+            record(FAILURE, now);
+        } else {
+            evictedCounter.increment();
+        }
+        return oldestInFlight;
+    }
+
+    private void record(int outcome, long now) {
+        long bucket = now / bucketNanos;
+        int index = (int) Math.floorMod(bucket, (long) bucketStamps.length);
+        if (bucketStamps[index] != bucket) {
+            bucketStamps[index] = bucket;
+            bucketCounts[index][SUCCESS] = 0;
+            bucketCounts[index][FAILURE] = 0;
+            bucketCounts[index][RETRY] = 0;
+        }
+        bucketCounts[index][outcome]++;
+    }
+
+    private int hash(long trackingId) {
+        // Spread sequential ids across the table (Stafford variant 13 mixer)
+        long h = trackingId;
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return (int) (h ^ (h >>> 31)) & mask;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.delivery.outcomes")
+                .description("Number of notification deliveries by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * State of a tracked delivery.
+     */
+    public enum DeliveryState {
+        IN_FLIGHT,
+        DELIVERED,
+        FAILED,
+        /** Never tracked, or its slot has been reclaimed */
+        UNKNOWN
+    }
+
+    /**
+     * Outcome totals of the rolling window.
+     */
+    public static final class DeliveryStats {
+        private final long successCount;
+        private final long failureCount;
+        private final long retryCount;
+        private final int inFlightCount;
+        private final int windowSeconds;
+
+        DeliveryStats(long successCount, long failureCount, long retryCount, int inFlightCount, int windowSeconds) {
+            this.successCount = successCount;
+            this.failureCount = failureCount;
+            this.retryCount = retryCount;
+            this.inFlightCount = inFlightCount;
+            this.windowSeconds = windowSeconds;
+        }
+
+        public long getSuccessCount() {
+            return successCount;
+        }
+
+        public long getFailureCount() {
+            return failureCount;
+        }
+
+        public long getRetryCount() {
+            return retryCount;
+        }
+
+        public int getInFlightCount() {
+            return inFlightCount;
+        }
+
+        public int getWindowSeconds() {
+            return windowSeconds;
+        }
+
+        /**
+         * @return failed share of completed deliveries, 0 when nothing completed in the window
+         */
+        public double getFailureRate() {
+            long completed = successCount + failureCount;
+            return completed == 0 ? 0.0 : (double) failureCount / completed;
+        }
+    }
+}
@@ -1,20 +1,59 @@
 package com.pcs.vcms.config;
 
+import com.pcs.vcms.cache.CacheInvalidationBus;
+import com.pcs.vcms.cache.CacheLoadLock;
+import com.pcs.vcms.cache.CacheSizeSampler;
+import com.pcs.vcms.cache.CacheTagIndex;
+import com.pcs.vcms.cache.CacheTags;
+import com.pcs.vcms.cache.CacheValueSerializer;
+import com.pcs.vcms.cache.HotKeySampler;
+import com.pcs.vcms.cache.PagedQueryCache;
+import com.pcs.vcms.cache.QueryGenerations;
+import com.pcs.vcms.cache.RefreshAheadCaches;
+import com.pcs.vcms.cache.RefreshAheadCaches.RefreshSettings;
+import com.pcs.vcms.cache.TwoTierCacheManager;
+import com.pcs.vcms.cache.TwoTierCacheManager.NearCacheSettings;
+import com.pcs.vcms.util.ValidationUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 /**
  * Redis cache configuration for the Vessel Call Management System.
  * Implements distributed caching with specific TTL values for different data types
- * to optimize performance and maintain data freshness.
+ * to optimize performance and maintain data freshness. The hottest caches get an in-process
+ * Caffeine near cache in front of Redis, sized with
+ * {@code vcms.cache.near.<cache>.max-size} and {@code vcms.cache.near.<cache>.ttl-seconds}.
+ * Entries of the clearance and pre-arrival caches are tagged with the entities they depend on,
+ * so writes evict them through the {@link CacheTagIndex} instead of clearing the whole cache.
+ * Concurrent misses on vessel calls and VTS lookups are coalesced into one load per key across
+ * the cluster; a node waits up to {@code vcms.cache.single-flight.lock-wait-ms} for the load
+ * of another node. Values are stored in the compact {@link CacheValueSerializer} format.
+ * VTS and weather data are served refresh-ahead through {@link RefreshAheadCaches}: their Redis
+ * TTLs are far above their refresh ages so a value stays available while the upstream is down.
+ * Every cache publishes the standard {@code cache.*} Micrometer meters through a
+ * {@link com.pcs.vcms.cache.MeteredCache}; Redis sizes are measured by the {@link CacheSizeSampler}
+ * and the hottest keys sampled by the {@link HotKeySampler}, both reported on the
+ * {@code cachetelemetry} actuator endpoint. Paged list queries are cached by the
+ * {@link PagedQueryCache} and validated against {@link QueryGenerations} that writes bump, so
+ * their TTL only bounds memory, not staleness.
  * 
  * @version 1.0
  * @since 2023-11-15
@@ -28,18 +67,46 @@ public class CacheConfig {
     public static final String BERTH_ALLOCATIONS_CACHE = "berthAllocations";
     public static final String SERVICE_BOOKINGS_CACHE = "serviceBookings";
     public static final String CLEARANCE_STATUS_CACHE = "clearanceStatus";
+    public static final String CLEARANCES_CACHE = "clearances";
+    public static final String PRE_ARRIVAL_NOTIFICATIONS_CACHE = "preArrivalNotifications";
+    public static final String VESSEL_POSITIONS_CACHE = "vesselPositions";
+    public static final String PORT_TRAFFIC_CACHE = "portTraffic";
+    public static final String WEATHER_CACHE = "weatherCache";
+    public static final String FORECAST_CACHE = "forecastCache";
+    public static final String PAGED_QUERIES_CACHE = "pagedQueries";
+
+    private static final String NEAR_CACHE_PREFIX = "vcms.cache.near.";
+    private static final String REFRESH_AHEAD_PREFIX = "vcms.cache.refresh-ahead.";
+    private static final String TELEMETRY_PREFIX = "vcms.cache.telemetry.";
 
     /**
      * Configures the Redis cache manager with specific cache settings for different data types.
      * Implements optimized TTL values based on data update frequency and freshness requirements.
      *
      * @param connectionFactory Redis connection factory for establishing Redis connections
-     * @return Configured Redis cache manager
+     * @param invalidationBus bus propagating near-cache invalidations between nodes
+     * @param tagIndex index of the tagged cache entries
+     * @param loadLock cross-node lock of single-flight loads
+     * @param valueSerializer serializer of the values stored in Redis
+     * @param hotKeySampler sampler of the hottest keys
+     * @param environment environment holding the near-cache bounds
+     * @param meterRegistry registry of the per-tier hit metrics
+     * @return Cache manager with near caches in front of Redis
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     CacheInvalidationBus invalidationBus,
+                                     CacheTagIndex tagIndex,
+                                     CacheLoadLock loadLock,
+                                     CacheValueSerializer valueSerializer,
+                                     HotKeySampler hotKeySampler,
+                                     Environment environment,
+                                     MeterRegistry meterRegistry) {
+        SerializationPair<Object> values = SerializationPair.fromSerializer(valueSerializer);
+
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
+            .serializeValuesWith(values)
             .prefixCacheNameWith("vcms::")  // Prefix for all cache keys
             .entryTtl(Duration.ofMinutes(5)) // Default TTL
             .disableCachingNullValues()      // Prevent caching null values
@@ -51,6 +118,7 @@ public class CacheConfig {
         // Vessel calls cache - 5 minute TTL for optimal balance
         cacheConfigurations.put(VESSEL_CALLS_CACHE, 
             RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(values)
                 .entryTtl(Duration.ofMinutes(5))
                 .prefixCacheNameWith("vcms::" + VESSEL_CALLS_CACHE + "::")
         );
@@ -58,6 +126,7 @@ public class CacheConfig {
         // Berth allocations cache - 2 minute TTL for frequent updates
         cacheConfigurations.put(BERTH_ALLOCATIONS_CACHE,
             RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(values)
                 .entryTtl(Duration.ofMinutes(2))
                 .prefixCacheNameWith("vcms::" + BERTH_ALLOCATIONS_CACHE + "::")
         );
@@ -65,6 +134,7 @@ public class CacheConfig {
         // Service bookings cache - 5 minute TTL for moderate update frequency
         cacheConfigurations.put(SERVICE_BOOKINGS_CACHE,
             RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(values)
                 .entryTtl(Duration.ofMinutes(5))
                 .prefixCacheNameWith("vcms::" + SERVICE_BOOKINGS_CACHE + "::")
         );
@@ -72,15 +142,208 @@ public class CacheConfig {
         // Clearance status cache - 1 minute TTL for high data freshness
         cacheConfigurations.put(CLEARANCE_STATUS_CACHE,
             RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(values)
                 .entryTtl(Duration.ofMinutes(1))
                 .prefixCacheNameWith("vcms::" + CLEARANCE_STATUS_CACHE + "::")
         );
 
+        // External data caches served refresh-ahead; TTLs bound how long a stale value is served
+        cacheConfigurations.put(VESSEL_POSITIONS_CACHE, externalDataCacheConfig(values, VESSEL_POSITIONS_CACHE,
+            Duration.ofMinutes(10)));
+        cacheConfigurations.put(PORT_TRAFFIC_CACHE, externalDataCacheConfig(values, PORT_TRAFFIC_CACHE,
+            Duration.ofMinutes(10)));
+        cacheConfigurations.put(WEATHER_CACHE, externalDataCacheConfig(values, WEATHER_CACHE, Duration.ofHours(2)));
+        cacheConfigurations.put(FORECAST_CACHE, externalDataCacheConfig(values, FORECAST_CACHE, Duration.ofHours(6)));
+
+        // Paged query results - validated by generation, the TTL only reclaims pages no longer read
+        cacheConfigurations.put(PAGED_QUERIES_CACHE,
+            RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(values)
+                .entryTtl(Duration.ofMinutes(10))
+                .prefixCacheNameWith("vcms::" + PAGED_QUERIES_CACHE + "::")
+        );
+
         // Build and configure the Redis cache manager
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
             .withInitialCacheConfigurations(cacheConfigurations)
             .enableStatistics() // Enable statistics for monitoring
             .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Near caches for the hot single-entity lookups; L1 TTLs stay well below the Redis TTLs
+        Map<String, NearCacheSettings> nearCaches = new HashMap<>();
+        nearCaches.put(VESSEL_CALLS_CACHE, nearCacheSettings(environment, VESSEL_CALLS_CACHE, 10_000, 30));
+        nearCaches.put(CLEARANCES_CACHE, nearCacheSettings(environment, CLEARANCES_CACHE, 5_000, 15));
+        nearCaches.put(SERVICE_BOOKINGS_CACHE, nearCacheSettings(environment, SERVICE_BOOKINGS_CACHE, 5_000, 30));
+        nearCaches.put(PRE_ARRIVAL_NOTIFICATIONS_CACHE,
+            nearCacheSettings(environment, PRE_ARRIVAL_NOTIFICATIONS_CACHE, 2_000, 60));
+        nearCaches.put(PAGED_QUERIES_CACHE, nearCacheSettings(environment, PAGED_QUERIES_CACHE, 2_000, 60));
+
+        // Entity tags of the caches evicted per entity by writes
+        Map<String, BiFunction<Object, Object, Set<String>>> tagResolvers = new HashMap<>();
+        tagResolvers.put(CLEARANCES_CACHE, CacheTags::forClearanceEntry);
+        tagResolvers.put(PRE_ARRIVAL_NOTIFICATIONS_CACHE, CacheTags::forPreArrivalEntry);
+
+        // Caches whose misses are expensive enough to coalesce
+        Set<String> singleFlightCaches = Set.of(VESSEL_CALLS_CACHE, VESSEL_POSITIONS_CACHE, PORT_TRAFFIC_CACHE);
+        Duration lockWait = Duration.ofMillis(
+            environment.getProperty("vcms.cache.single-flight.lock-wait-ms", Long.class, 3000L));
+
+        return new TwoTierCacheManager(redisCacheManager, nearCaches, tagResolvers, invalidationBus, tagIndex,
+            meterRegistry)
+            .singleFlight(singleFlightCaches, loadLock, lockWait)
+            .metered(hotKeySampler);
+    }
+
+    /**
+     * Refresh-ahead views of the VTS and weather caches. Entries are reloaded in the background
+     * when read after {@code vcms.cache.refresh-ahead.<cache>.refresh-after-seconds} and reported
+     * stale after {@code vcms.cache.refresh-ahead.<cache>.stale-after-seconds}.
+     */
+    @Bean
+    public RefreshAheadCaches refreshAheadCaches(CacheManager cacheManager,
+                                                 CacheLoadLock loadLock,
+                                                 Environment environment,
+                                                 MeterRegistry meterRegistry) {
+        Map<String, RefreshSettings> settings = new HashMap<>();
+        settings.put(VESSEL_POSITIONS_CACHE, refreshSettings(environment, VESSEL_POSITIONS_CACHE, 20, 60));
+        settings.put(PORT_TRAFFIC_CACHE, refreshSettings(environment, PORT_TRAFFIC_CACHE, 30, 120));
+        settings.put(WEATHER_CACHE, refreshSettings(environment, WEATHER_CACHE, 600, 1800));
+        settings.put(FORECAST_CACHE, refreshSettings(environment, FORECAST_CACHE, 1800, 7200));
+
+        return new RefreshAheadCaches(cacheManager, settings, loadLock,
+            environment.getProperty(REFRESH_AHEAD_PREFIX + "workers", Integer.class, 4),
+            environment.getProperty(REFRESH_AHEAD_PREFIX + "queue-capacity", Integer.class, 1000),
+            meterRegistry);
+    }
+
+    /**
+     * Cache of paged list queries, validated against the query generations on every read.
+     */
+    @Bean
+    public PagedQueryCache pagedQueryCache(CacheManager cacheManager,
+                                           QueryGenerations queryGenerations,
+                                           MeterRegistry meterRegistry) {
+        return new PagedQueryCache(cacheManager.getCache(PAGED_QUERIES_CACHE), queryGenerations, meterRegistry);
+    }
+
+    /**
+     * Redis generation counters bumped by the writes behind cached query results.
+     */
+    @Bean
+    public QueryGenerations queryGenerations(StringRedisTemplate redisTemplate) {
+        return new QueryGenerations(redisTemplate);
+    }
+
+    /**
+     * Serializer of cache values: Smile with a schema version byte, LZ4 compressed from
+     * {@code vcms.cache.serializer.compression-threshold-bytes} (0 disables compression).
+     */
+    @Bean
+    public CacheValueSerializer cacheValueSerializer(Environment environment, MeterRegistry meterRegistry) {
+        return new CacheValueSerializer(
+            environment.getProperty("vcms.cache.serializer.schema-version", Integer.class, 1),
+            environment.getProperty("vcms.cache.serializer.compression-threshold-bytes", Integer.class, 1024),
+            meterRegistry);
+    }
+
+    /**
+     * Samples {@code vcms.cache.telemetry.hot-keys.sample-rate} of the cache reads into a summary
+     * of the {@code vcms.cache.telemetry.hot-keys.capacity} hottest keys per cache.
+     */
+    @Bean
+    public HotKeySampler hotKeySampler(Environment environment) {
+        return new HotKeySampler(
+            environment.getProperty(TELEMETRY_PREFIX + "hot-keys.sample-rate", Double.class, 0.01),
+            environment.getProperty(TELEMETRY_PREFIX + "hot-keys.capacity", Integer.class, 100));
+    }
+
+    /**
+     * Measures the entry count and estimated bytes of the Redis caches.
+     */
+    @Bean
+    public CacheSizeSampler cacheSizeSampler(StringRedisTemplate redisTemplate,
+                                             ObjectProvider<CacheManager> cacheManager,
+                                             Environment environment,
+                                             MeterRegistry meterRegistry) {
+        return new CacheSizeSampler(redisTemplate, cacheManager,
+            environment.getProperty(TELEMETRY_PREFIX + "size.max-scanned-keys", Integer.class, 100_000),
+            environment.getProperty(TELEMETRY_PREFIX + "size.sampled-keys", Integer.class, 50),
+            Duration.ofMillis(environment.getProperty(TELEMETRY_PREFIX + "size.interval-ms", Long.class, 60_000L)),
+            meterRegistry);
+    }
+
+    /**
+     * Publishes the meters of the IMO validation cache, which lives outside the cache manager.
+     */
+    @Bean
+    public MeterBinder imoValidationCacheMetrics() {
+        return ValidationUtils.imoValidationCacheMetrics();
+    }
+
+    /**
+     * Redis lock electing the node that loads a missing single-flight cache entry.
+     */
+    @Bean
+    public CacheLoadLock cacheLoadLock(StringRedisTemplate redisTemplate, Environment environment) {
+        return new CacheLoadLock(redisTemplate, Duration.ofMillis(
+            environment.getProperty("vcms.cache.single-flight.lock-lease-ms", Long.class, 10000L)));
+    }
+
+    /**
+     * Redis set index of tagged cache entries. Tag sets live as long as the longest cache TTL.
+     */
+    @Bean
+    public CacheTagIndex cacheTagIndex(StringRedisTemplate redisTemplate,
+                                       ObjectProvider<CacheManager> cacheManager,
+                                       MeterRegistry meterRegistry) {
+        return new CacheTagIndex(redisTemplate, cacheManager, Duration.ofHours(1), meterRegistry);
+    }
+
+    /**
+     * Publishes and applies near-cache invalidations over Redis pub/sub.
+     */
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(redisTemplate, meterRegistry);
+    }
+
+    /**
+     * Subscribes this node to the near-cache invalidation channel.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    private static RedisCacheConfiguration externalDataCacheConfig(SerializationPair<Object> values,
+                                                                   String cacheName, Duration ttl) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+            .serializeValuesWith(values)
+            .entryTtl(ttl)
+            .prefixCacheNameWith("vcms::" + cacheName + "::");
+    }
+
+    private static RefreshSettings refreshSettings(Environment environment, String cacheName,
+                                                   long defaultRefreshAfterSeconds, long defaultStaleAfterSeconds) {
+        String prefix = REFRESH_AHEAD_PREFIX + cacheName + '.';
+        return new RefreshSettings(
+            Duration.ofSeconds(environment.getProperty(prefix + "refresh-after-seconds", Long.class,
+                defaultRefreshAfterSeconds)),
+            Duration.ofSeconds(environment.getProperty(prefix + "stale-after-seconds", Long.class,
+                defaultStaleAfterSeconds)));
+    }
+
+    private static NearCacheSettings nearCacheSettings(Environment environment, String cacheName,
+                                                       long defaultMaxSize, long defaultTtlSeconds) {
+        String prefix = NEAR_CACHE_PREFIX + cacheName + '.';
+        return new NearCacheSettings(
+            environment.getProperty(prefix + "max-size", Long.class, defaultMaxSize),
+            Duration.ofSeconds(environment.getProperty(prefix + "ttl-seconds", Long.class, defaultTtlSeconds)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.pcs.vcms.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcs.vcms.cache.CacheWarmUp;
+import com.pcs.vcms.cache.WarmUpSource;
+import com.pcs.vcms.dto.VesselCallDTO;
+import com.pcs.vcms.entity.Berth;
+import com.pcs.vcms.entity.BerthAllocation;
+import com.pcs.vcms.entity.BerthAllocation.BerthAllocationStatus;
+import com.pcs.vcms.entity.Clearance;
+import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.entity.ServiceBooking;
+import com.pcs.vcms.entity.VesselCall;
+import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+import com.pcs.vcms.exception.ValidationException;
+import com.pcs.vcms.mapper.BerthAllocationMapper;
+import com.pcs.vcms.mapper.ClearanceMapper;
+import com.pcs.vcms.mapper.ServiceBookingMapper;
+import com.pcs.vcms.mapper.VesselCallMapper;
+import com.pcs.vcms.repository.BerthAllocationRepository;
+import com.pcs.vcms.repository.BerthRepository;
+import com.pcs.vcms.repository.ClearanceRepository;
+import com.pcs.vcms.repository.ServiceBookingRepository;
+import com.pcs.vcms.repository.VesselCallRepository;
+import com.pcs.vcms.util.ValidationUtils;
+import com.pcs.vcms.websocket.RoutingKeys;
+import com.pcs.vcms.websocket.SnapshotService;
+import com.pcs.vcms.websocket.SnapshotTopic;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data sets preloaded by the {@link CacheWarmUp} at startup: the active vessel calls, all
+ * berths, and the open clearances and service bookings. Entries are stored under the same
+ * keys the service methods cache them with, and only where the cache has no entry yet, so a
+ * node joining a warm cluster does not overwrite fresher values. The active vessel calls and
+ * occupied berths also seed the dashboard snapshots of the {@link SnapshotService}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Configuration
+public class CacheWarmUpConfig {
+
+    private static final List<VesselCallStatus> ACTIVE_VESSEL_CALL_STATUSES =
+        List.of(VesselCallStatus.PLANNED, VesselCallStatus.ARRIVED, VesselCallStatus.AT_BERTH);
+
+    private static final List<ClearanceStatus> OPEN_CLEARANCE_STATUSES =
+        List.of(ClearanceStatus.PENDING, ClearanceStatus.IN_PROGRESS);
+
+    private static final TypeReference<Map<String, Object>> SNAPSHOT_DATA_TYPE = new TypeReference<>() { };
+
+    /**
+     * Active vessel calls, also warming the IMO number validation cache of their vessels and
+     * seeding the vessel call snapshot.
+     */
+    @Bean
+    public WarmUpSource<VesselCall> activeVesselCallsWarmUp(VesselCallRepository vesselCallRepository,
+                                                            VesselCallMapper vesselCallMapper,
+                                                            CacheManager cacheManager,
+                                                            SnapshotService snapshotService,
+                                                            ObjectMapper objectMapper) {
+        Cache cache = cacheManager.getCache(CacheConfig.VESSEL_CALLS_CACHE);
+        return WarmUpSource.of(CacheConfig.VESSEL_CALLS_CACHE,
+            pageable -> vesselCallRepository.findByStatusIn(ACTIVE_VESSEL_CALL_STATUSES, pageable),
+            vesselCall -> {
+                VesselCallDTO dto = vesselCallMapper.toDTO(vesselCall);
+                cache.putIfAbsent(vesselCall.getId(), dto);
+                warmImoValidation(dto.getImoNumber());
+                snapshotService.seed(SnapshotTopic.VESSEL_CALLS, RoutingKeys.vesselCall(vesselCall.getId()),
+                    objectMapper.convertValue(dto, SNAPSHOT_DATA_TYPE));
+            });
+    }
+
+    /**
+     * Allocations of the berths currently occupied, seeding the berth snapshot.
+     */
+    @Bean
+    public WarmUpSource<BerthAllocation> occupiedBerthsSnapshotWarmUp(BerthAllocationRepository berthAllocationRepository,
+                                                                      BerthAllocationMapper berthAllocationMapper,
+                                                                      SnapshotService snapshotService,
+                                                                      ObjectMapper objectMapper) {
+        return WarmUpSource.of("berthSnapshot",
+            pageable -> berthAllocationRepository.findByStatusIn(List.of(BerthAllocationStatus.OCCUPIED), pageable),
+            allocation -> {
+                String entityKey = RoutingKeys.entityKey(allocation);
+                if (entityKey != null) {
+                    snapshotService.seed(SnapshotTopic.BERTHS, entityKey,
+                        objectMapper.convertValue(berthAllocationMapper.toDTO(allocation), SNAPSHOT_DATA_TYPE));
+                }
+            });
+    }
+
+    /**
+     * All berths; fetching them fills the Hibernate second-level region of {@link Berth}.
+     */
+    @Bean
+    public WarmUpSource<Berth> berthsWarmUp(BerthRepository berthRepository) {
+        return WarmUpSource.of("berths", berthRepository::findAll, berth -> { });
+    }
+
+    /**
+     * Clearances that are pending or in progress.
+     */
+    @Bean
+    public WarmUpSource<Clearance> openClearancesWarmUp(ClearanceRepository clearanceRepository,
+                                                        ClearanceMapper clearanceMapper,
+                                                        CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(CacheConfig.CLEARANCES_CACHE);
+        return WarmUpSource.of(CacheConfig.CLEARANCES_CACHE,
+            pageable -> clearanceRepository.findByStatusIn(OPEN_CLEARANCE_STATUSES, pageable),
+            clearance -> cache.putIfAbsent(clearance.getId(), clearanceMapper.toDTO(clearance)));
+    }
+
+    /**
+     * Service bookings that are requested, confirmed or in progress.
+     */
+    @Bean
+    public WarmUpSource<ServiceBooking> openServiceBookingsWarmUp(ServiceBookingRepository serviceBookingRepository,
+                                                                  ServiceBookingMapper serviceBookingMapper,
+                                                                  CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(CacheConfig.SERVICE_BOOKINGS_CACHE);
+        return WarmUpSource.of(CacheConfig.SERVICE_BOOKINGS_CACHE,
+            serviceBookingRepository::findActiveBookings,
+            booking -> cache.putIfAbsent(booking.getId(), serviceBookingMapper.toDTO(booking)));
+    }
+
+    private static void warmImoValidation(String imoNumber) {
+        try {
+            ValidationUtils.validateImoNumber(imoNumber);
+        } catch (ValidationException e) {
+            // Invalid numbers are not cached and are rejected again on use
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pcs.vcms.config;
+
+import com.pcs.vcms.datasource.ReadYourWrites;
+import com.pcs.vcms.datasource.Replica;
+import com.pcs.vcms.datasource.ReplicaLagMonitor;
+import com.pcs.vcms.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data source configuration for the Vessel Call Management System.
+ * Writes go to the primary pool configured under {@code spring.datasource}. Read-only
+ * transactions are routed to the read replicas listed, comma-separated, in
+ * {@code vcms.slave.datasource.url}, which share {@code vcms.slave.datasource.username} and
+ * {@code vcms.slave.datasource.password} and the pool settings of the primary. A replica lagging
+ * more than {@code vcms.datasource.replica.max-lag-ms} behind the primary is skipped, and a
+ * request that wrote keeps reading from the primary unless
+ * {@code vcms.datasource.replica.read-your-writes} is off. Without replicas every transaction
+ * uses the primary pool directly.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final String REPLICA_PREFIX = "vcms.slave.datasource.";
+    private static final String ROUTING_PREFIX = "vcms.datasource.replica.";
+    private static final String PRIMARY_POOL_NAME = "VcmsHikariCP";
+
+    /**
+     * Configures the connection pool of the primary database.
+     *
+     * @param properties primary data source properties
+     * @return Primary pool, tuned with the {@code spring.datasource.hikari} settings
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName(PRIMARY_POOL_NAME);
+        return dataSource;
+    }
+
+    /**
+     * Configures the read replica pools and the monitor of their replication lag.
+     *
+     * @param primaryDataSource primary pool whose settings the replica pools share
+     * @param environment environment holding the replica settings
+     * @param meterRegistry registry of the lag gauges
+     * @return Monitor owning the replica pools, without replicas if none is configured
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               Environment environment,
+                                               MeterRegistry meterRegistry) {
+        List<Replica> replicas = new ArrayList<>();
+        String[] urls = StringUtils.commaDelimitedListToStringArray(
+            environment.getProperty(REPLICA_PREFIX + "url", ""));
+        for (String url : urls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setUsername(environment.getProperty(REPLICA_PREFIX + "username", primaryDataSource.getUsername()));
+            config.setPassword(environment.getProperty(REPLICA_PREFIX + "password", primaryDataSource.getPassword()));
+            config.setPoolName(PRIMARY_POOL_NAME + "-" + name);
+            config.setReadOnly(true);
+            replicas.add(new Replica(name, new HikariDataSource(config)));
+        }
+        return new ReplicaLagMonitor(replicas,
+            environment.getProperty(ROUTING_PREFIX + "max-lag-ms", Long.class, 5000L),
+            meterRegistry);
+    }
+
+    /**
+     * Configures the data source used by JPA and all JDBC access. With replicas, connections are
+     * obtained lazily so that the route sees the read-only flag of the transaction.
+     *
+     * @param primaryDataSource primary pool
+     * @param replicaLagMonitor monitor owning the replica pools
+     * @param environment environment holding the routing settings
+     * @param meterRegistry registry of the route counters
+     * @return Routing data source, or the primary pool if no replica is configured
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry) {
+        if (replicaLagMonitor.getReplicas().isEmpty()) {
+            return primaryDataSource;
+        }
+        ReadYourWrites readYourWrites = new ReadYourWrites(
+            environment.getProperty(ROUTING_PREFIX + "read-your-writes", Boolean.class, true));
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+            primaryDataSource, replicaLagMonitor.getReplicas(), readYourWrites, meterRegistry));
+    }
+}
@@ -8,12 +8,13 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
 import java.util.Properties;
 
 /**
  * JPA Configuration class for the Vessel Call Management System.
- * Configures JPA/Hibernate with PostgreSQL support, master-slave replication,
- * connection pooling, and performance optimizations.
+ * Configures JPA/Hibernate with PostgreSQL support and performance optimizations on top of the
+ * data source of {@link DataSourceConfig}, which routes read-only transactions to the replicas.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -28,13 +29,15 @@ public class JpaConfig {
 
     /**
      * Configures the JPA EntityManagerFactory with PostgreSQL settings and optimizations.
-     * Includes master-slave replication, connection pooling, and caching configurations.
+     * Includes batching and caching configurations.
      *
+     * @param dataSource Data source routing reads and writes
      * @return Configured LocalContainerEntityManagerFactoryBean
      */
     @Bean
-    public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
         entityManagerFactory.setPackagesToScan(ENTITY_PACKAGES_TO_SCAN);
 
         // Configure Hibernate as JPA provider
@@ -51,20 +54,6 @@ public class JpaConfig {
         jpaProperties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQL95Dialect");
         jpaProperties.put("hibernate.temp.use_jdbc_metadata_defaults", false);
 
-        // Connection pool settings
-        jpaProperties.put("hibernate.hikari.minimumIdle", 5);
-        jpaProperties.put("hibernate.hikari.maximumPoolSize", 20);
-        jpaProperties.put("hibernate.hikari.idleTimeout", 300000);
-        jpaProperties.put("hibernate.hikari.poolName", "VcmsHikariCP");
-        jpaProperties.put("hibernate.hikari.maxLifetime", 1200000);
-        jpaProperties.put("hibernate.hikari.connectionTimeout", 20000);
-
-        // Master-slave replication configuration
-        jpaProperties.put("hibernate.connection.provider_class", "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
-        jpaProperties.put("hibernate.read_only.slave.data-source.url", "${vcms.slave.datasource.url}");
-        jpaProperties.put("hibernate.read_only.slave.data-source.user", "${vcms.slave.datasource.username}");
-        jpaProperties.put("hibernate.read_only.slave.data-source.password", "${vcms.slave.datasource.password}");
-
         // Performance optimizations
         jpaProperties.put("hibernate.jdbc.batch_size", 50);
         jpaProperties.put("hibernate.order_inserts", true);
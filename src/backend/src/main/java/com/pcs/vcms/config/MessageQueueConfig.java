@@ -2,6 +2,9 @@ package com.pcs.vcms.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.core.Binding;
@@ -9,6 +12,7 @@ import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.backoff.ExponentialBackOffPolicy;
@@ -33,6 +37,7 @@ public class MessageQueueConfig {
     // Exchange names
     private static final String VESSEL_CALL_EXCHANGE = "vessel-call-exchange";
     private static final String SERVICE_BOOKING_EXCHANGE = "service-booking-exchange";
+    public static final String REALTIME_FANOUT_EXCHANGE = "realtime-fanout-exchange";
 
     // Routing keys
     private static final String VESSEL_CALL_ROUTING_KEY = "vessel.call.#";
@@ -44,6 +49,8 @@ public class MessageQueueConfig {
     private static final int INITIAL_RETRY_INTERVAL = 1000;
     private static final int MAX_RETRY_INTERVAL = 10000;
     private static final int QUEUE_LENGTH_LIMIT = 10000;
+    private static final int REALTIME_MESSAGE_TTL = 30000; // stale real-time updates are useless
+    private static final String REALTIME_QUEUE_PREFIX = "realtime-node.";
 
     /**
      * Configures the vessel call queue with high availability and dead letter handling.
@@ -137,6 +144,48 @@ public class MessageQueueConfig {
                 .with(SERVICE_BOOKING_ROUTING_KEY);
     }
 
+    /**
+     * Configures the fan-out exchange every node publishes its real-time updates to once.
+     *
+     * @return FanoutExchange for cluster WebSocket fan-out
+     */
+    @Bean
+    @ConditionalOnProperty(name = "vcms.websocket.cluster.enabled", havingValue = "true")
+    public FanoutExchange realtimeFanoutExchange() {
+        return new FanoutExchange(REALTIME_FANOUT_EXCHANGE, true, false);
+    }
+
+    /**
+     * Configures the node-local queue receiving real-time updates of the other nodes.
+     * The queue is exclusive and deleted with the node; updates older than a few seconds
+     * or beyond the length limit are dropped, as clients resume through the replay buffer.
+     *
+     * @return Queue owned by this node
+     */
+    @Bean
+    @ConditionalOnProperty(name = "vcms.websocket.cluster.enabled", havingValue = "true")
+    public Queue realtimeNodeQueue() {
+        Map<String, Object> args = new HashMap<>();
+        args.put("x-message-ttl", REALTIME_MESSAGE_TTL);
+        args.put("x-max-length", QUEUE_LENGTH_LIMIT);
+        args.put("x-overflow", "drop-head");
+
+        return new AnonymousQueue(new Base64UrlNamingStrategy(REALTIME_QUEUE_PREFIX), args);
+    }
+
+    /**
+     * Configures the binding between the node queue and the real-time fan-out exchange.
+     *
+     * @return Binding for cluster WebSocket fan-out
+     */
+    @Bean
+    @ConditionalOnProperty(name = "vcms.websocket.cluster.enabled", havingValue = "true")
+    public Binding realtimeFanoutBinding(Queue realtimeNodeQueue, FanoutExchange realtimeFanoutExchange) {
+        return BindingBuilder
+                .bind(realtimeNodeQueue)
+                .to(realtimeFanoutExchange);
+    }
+
     /**
      * Configures the RabbitTemplate with retry policy and message conversion.
      *
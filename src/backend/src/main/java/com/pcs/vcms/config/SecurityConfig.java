@@ -98,7 +98,14 @@ public class SecurityConfig {
                 
                 // Service Provider endpoints
                 .requestMatchers("/api/v1/services/**").hasAnyRole("SERVICE_PROVIDER", "PORT_AUTHORITY")
-                
+
+                // Event streams, with the roles of the matching STOMP subscriptions
+                .requestMatchers(HttpMethod.GET, "/api/v1/stream/vessel-calls", "/api/v1/stream/berth-allocations")
+                    .hasAnyRole("PORT_AUTHORITY", "VESSEL_AGENT")
+                .requestMatchers(HttpMethod.GET, "/api/v1/stream/service-bookings")
+                    .hasAnyRole("SERVICE_PROVIDER", "VESSEL_AGENT")
+                .requestMatchers(HttpMethod.GET, "/api/v1/stream/clearances").hasAnyRole("PORT_AUTHORITY", "CUSTOMS")
+
                 // Require authentication for all other endpoints
                 .anyRequest().authenticated())
             
@@ -2,10 +2,18 @@ package com.pcs.vcms.config;
 
 import org.springframework.beans.factory.annotation.Value; // Spring Boot 6.1.x
 import org.springframework.context.annotation.Configuration; // Spring Boot 6.1.x
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration; // Spring Boot 6.1.x
 import org.springframework.messaging.simp.config.MessageBrokerRegistry; // Spring Boot 6.1.x
 import org.springframework.messaging.simp.config.StompEndpointRegistry; // Spring Boot 6.1.x
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker; // Spring Boot 6.1.x
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer; // Spring Boot 6.1.x
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration; // Spring Boot 6.1.x
+import com.pcs.vcms.websocket.BroadcastEncodingInterceptor;
+import com.pcs.vcms.websocket.EncodingNegotiationInterceptor;
+import com.pcs.vcms.websocket.SessionLivenessMonitor;
+import com.pcs.vcms.websocket.SnapshotService;
+import com.pcs.vcms.websocket.WebSocketSessionRegistry;
 
 /**
  * WebSocket Configuration for Vessel Call Management System
@@ -31,6 +39,25 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Value("${vcms.websocket.broker.enabled:false}")
     private boolean externalBrokerEnabled;
 
+    private final EncodingNegotiationInterceptor encodingNegotiationInterceptor;
+    private final BroadcastEncodingInterceptor broadcastEncodingInterceptor;
+    private final SessionLivenessMonitor sessionLivenessMonitor;
+    private final SnapshotService snapshotService;
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    public WebSocketConfig(EncodingNegotiationInterceptor encodingNegotiationInterceptor,
+                           BroadcastEncodingInterceptor broadcastEncodingInterceptor,
+                           SessionLivenessMonitor sessionLivenessMonitor,
+                           @Lazy SnapshotService snapshotService,
+                           WebSocketSessionRegistry sessionRegistry) {
+        this.encodingNegotiationInterceptor = encodingNegotiationInterceptor;
+        this.broadcastEncodingInterceptor = broadcastEncodingInterceptor;
+        this.sessionLivenessMonitor = sessionLivenessMonitor;
+        // Lazy: the snapshot service needs the broker beans this configurer contributes to
+        this.snapshotService = snapshotService;
+        this.sessionRegistry = sessionRegistry;
+    }
+
     /**
      * Configures STOMP endpoints for WebSocket communication with security
      * and fallback options.
@@ -49,7 +76,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setDisconnectDelay(5000)
                 .setStreamBytesLimit(512 * 1024)
                 .setHttpMessageCacheSize(1000)
-                .setInterceptors(new WebSocketHandshakeInterceptor());
+                .setInterceptors(new WebSocketHandshakeInterceptor(false));
+
+        // Raw WebSocket endpoint (no SockJS) able to carry binary CBOR/Smile frames
+        registry.addEndpoint("/ws/binary")
+                .setAllowedOrigins(allowedOrigins.split(","))
+                .addInterceptors(new WebSocketHandshakeInterceptor(true));
 
         // Additional endpoint for admin-specific communications
         registry.addEndpoint("/ws/admin")
@@ -60,6 +92,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     /**
      * Configures message broker settings for scalable real-time messaging.
      * Supports both simple broker and external STOMP broker relay configurations.
+     * In a multi-node deployment ({@code vcms.websocket.cluster.enabled}) each node keeps its
+     * simple broker and updates are fanned out between nodes over RabbitMQ.
      *
      * @param registry MessageBrokerRegistry for broker configuration
      */
@@ -89,11 +123,50 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         }
     }
 
+    /**
+     * Registers inbound interceptors: payload encoding negotiation at STOMP CONNECT, session
+     * liveness tracking on every inbound frame and the full snapshot frame once the broker
+     * handled a SUBSCRIBE to a snapshot topic.
+     *
+     * @param registration ChannelRegistration for the client inbound channel
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(encodingNegotiationInterceptor, sessionLivenessMonitor, snapshotService);
+    }
+
+    /**
+     * Registers the outbound interceptor re-encoding broker fan-out frames for sessions that
+     * negotiated a binary payload encoding.
+     *
+     * @param registration ChannelRegistration for the client outbound channel
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(broadcastEncodingInterceptor);
+    }
+
+    /**
+     * Registers open sessions so that sessions evicted for missing heartbeats can be closed.
+     *
+     * @param registration WebSocketTransportRegistration for the STOMP handler
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.addDecoratorFactory(sessionRegistry::decorate);
+    }
+
     /**
      * Inner class for WebSocket handshake interception
      * Handles security and session management during connection establishment
      */
     private static class WebSocketHandshakeInterceptor implements HandshakeInterceptor {
+
+        private final boolean binaryFrames;
+
+        WebSocketHandshakeInterceptor(boolean binaryFrames) {
+            this.binaryFrames = binaryFrames;
+        }
         
         @Override
         public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
@@ -106,6 +179,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             // Add session attributes
             attributes.put("sessionId", UUID.randomUUID().toString());
             attributes.put("connectionTime", System.currentTimeMillis());
+            attributes.put(EncodingNegotiationInterceptor.BINARY_FRAMES_ATTRIBUTE, binaryFrames);
             
             return true;
         }
@@ -9,10 +9,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,7 +23,8 @@ import java.util.List;
 
 /**
  * REST controller for managing berth allocations with enhanced security and performance features.
- * Implements comprehensive CRUD operations with role-based access control and caching.
+ * Implements comprehensive CRUD operations with role-based access control; allocations are
+ * cached as DTOs by {@link BerthAllocationService}, never as responses.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -38,7 +35,6 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 @Validated
 @Slf4j
-@CacheConfig(cacheNames = "berthAllocations")
 public class BerthAllocationController {
 
     private final BerthAllocationService berthAllocationService;
@@ -63,7 +59,6 @@ public class BerthAllocationController {
     @PutMapping("/{id}")
     @Operation(summary = "Update berth allocation", description = "Updates existing berth allocation with conflict detection")
     @PreAuthorize("hasRole('BERTH_OPERATOR')")
-    @CachePut(key = "#id")
     public ResponseEntity<BerthAllocationDTO> updateBerthAllocation(
             @PathVariable @NotNull Long id,
             @Valid @RequestBody BerthAllocationDTO allocationDTO) {
@@ -75,7 +70,6 @@ public class BerthAllocationController {
     @GetMapping("/{id}")
     @Operation(summary = "Get berth allocation by ID")
     @PreAuthorize("hasAnyRole('BERTH_OPERATOR', 'BERTH_PLANNER', 'PORT_ADMIN')")
-    @Cacheable(key = "#id")
     public ResponseEntity<BerthAllocationDTO> getBerthAllocation(@PathVariable @NotNull Long id) {
         log.debug("REST request to get berth allocation ID: {}", id);
         return berthAllocationService.getBerthAllocation(id)
@@ -86,7 +80,6 @@ public class BerthAllocationController {
     @DeleteMapping("/{id}")
     @Operation(summary = "Cancel berth allocation")
     @PreAuthorize("hasRole('BERTH_OPERATOR')")
-    @CacheEvict(key = "#id")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void cancelBerthAllocation(@PathVariable @NotNull Long id) {
         log.info("REST request to cancel berth allocation ID: {}", id);
@@ -1,5 +1,6 @@
 package com.pcs.vcms.controller;
 
+import com.pcs.vcms.common.paging.CursorPage;
 import com.pcs.vcms.dto.ClearanceDTO;
 import com.pcs.vcms.service.ClearanceService;
 import com.pcs.vcms.entity.Clearance.ClearanceStatus;
@@ -22,6 +23,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -110,6 +113,18 @@ public class ClearanceController {
         return ResponseEntity.ok(clearances);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('CLEARANCE_VIEW')")
+    @Operation(summary = "Scroll clearances by status, newest first, with a continuation cursor")
+    public ResponseEntity<CursorPage<ClearanceDTO>> scrollClearances(
+            @RequestParam @NotNull ClearanceStatus status,
+            @Parameter(description = "Continuation cursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(clearanceService.scrollByStatus(status, cursor, size, includeTotal));
+    }
+
     @PostMapping("/{id}/cancel")
     @PreAuthorize("hasRole('CLEARANCE_CANCEL')")
     @Operation(summary = "Cancel clearance request")
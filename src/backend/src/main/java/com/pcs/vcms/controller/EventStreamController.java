@@ -0,0 +1,109 @@
+package com.pcs.vcms.controller;
+
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.SseStreamService;
+import com.pcs.vcms.websocket.SubscriptionFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * REST controller serving the real-time topics as Server-Sent Events streams for one-way
+ * integrations that do not need STOMP. Streams can be filtered by vessel call, berth, agent
+ * and port, and resume from the standard {@code Last-Event-ID} header. Each topic is mapped
+ * separately so that it requires the same roles as its STOMP subscription in
+ * {@link WebSocketController}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@RestController
+@RequestMapping("/api/v1/stream")
+@Tag(name = "Event Streams", description = "Server-Sent Events streams of real-time updates")
+@Slf4j
+@RequiredArgsConstructor
+public class EventStreamController {
+
+    private final SseStreamService streamService;
+
+    @GetMapping(value = "/vessel-calls", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('PORT_AUTHORITY', 'VESSEL_AGENT')")
+    @Operation(summary = "Stream real-time vessel call updates")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamVesselCalls(
+            @RequestParam(required = false) Set<Long> vesselCallId,
+            @RequestParam(required = false) Set<Long> berthId,
+            @RequestParam(required = false) Set<String> agent,
+            @RequestParam(required = false) Set<String> port,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return open(RealtimeTopic.VESSEL_CALLS, vesselCallId, berthId, agent, port, lastEventId);
+    }
+
+    @GetMapping(value = "/berth-allocations", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('PORT_AUTHORITY', 'VESSEL_AGENT')")
+    @Operation(summary = "Stream real-time berth allocation updates")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamBerthAllocations(
+            @RequestParam(required = false) Set<Long> vesselCallId,
+            @RequestParam(required = false) Set<Long> berthId,
+            @RequestParam(required = false) Set<String> agent,
+            @RequestParam(required = false) Set<String> port,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return open(RealtimeTopic.BERTH_ALLOCATIONS, vesselCallId, berthId, agent, port, lastEventId);
+    }
+
+    @GetMapping(value = "/service-bookings", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('SERVICE_PROVIDER', 'VESSEL_AGENT')")
+    @Operation(summary = "Stream real-time service booking updates")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamServiceBookings(
+            @RequestParam(required = false) Set<Long> vesselCallId,
+            @RequestParam(required = false) Set<Long> berthId,
+            @RequestParam(required = false) Set<String> agent,
+            @RequestParam(required = false) Set<String> port,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return open(RealtimeTopic.SERVICE_BOOKINGS, vesselCallId, berthId, agent, port, lastEventId);
+    }
+
+    @GetMapping(value = "/clearances", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('PORT_AUTHORITY', 'CUSTOMS')")
+    @Operation(summary = "Stream real-time clearance updates")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    public SseEmitter streamClearances(
+            @RequestParam(required = false) Set<Long> vesselCallId,
+            @RequestParam(required = false) Set<Long> berthId,
+            @RequestParam(required = false) Set<String> agent,
+            @RequestParam(required = false) Set<String> port,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return open(RealtimeTopic.CLEARANCES, vesselCallId, berthId, agent, port, lastEventId);
+    }
+
+    private SseEmitter open(RealtimeTopic topic, Set<Long> vesselCallId, Set<Long> berthId, Set<String> agent,
+                            Set<String> port, String lastEventId) {
+        SubscriptionFilter filter = SubscriptionFilter.builder()
+                .vesselCallIds(orEmpty(vesselCallId))
+                .berthIds(orEmpty(berthId))
+                .agents(orEmpty(agent))
+                .ports(orEmpty(port))
+                .build();
+        log.debug("Opening {} event stream, resuming from {}", topic.getName(), lastEventId);
+        return streamService.open(topic, filter, lastEventId);
+    }
+
+    private static <T> Set<T> orEmpty(Set<T> values) {
+        return values != null ? values : new HashSet<>();
+    }
+}
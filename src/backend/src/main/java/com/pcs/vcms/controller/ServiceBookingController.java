@@ -1,5 +1,6 @@
 package com.pcs.vcms.controller;
 
+import com.pcs.vcms.common.paging.CursorPage;
 import com.pcs.vcms.dto.ServiceBookingDTO;
 import com.pcs.vcms.service.ServiceBookingService;
 import com.pcs.vcms.entity.ServiceBooking.ServiceType;
@@ -20,10 +21,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.net.URI;
@@ -31,7 +32,8 @@ import java.util.Objects;
 
 /**
  * REST controller for managing port service bookings with enhanced security and validation.
- * Implements comprehensive service booking operations with rate limiting and caching.
+ * Implements comprehensive service booking operations with rate limiting; bookings and
+ * booking pages are cached as DTOs by {@link ServiceBookingService}, never as responses.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -69,7 +71,6 @@ public class ServiceBookingController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('SERVICE_BOOKING_READ')")
-    @Cacheable(value = "bookings", key = "#id")
     @Operation(summary = "Get service booking by ID")
     @ApiResponse(responseCode = "200", description = "Service booking retrieved successfully")
     @ApiResponse(responseCode = "404", description = "Service booking not found")
@@ -80,19 +81,16 @@ public class ServiceBookingController {
 
     @GetMapping("/vessel-call/{vesselCallId}")
     @PreAuthorize("hasRole('SERVICE_BOOKING_READ')")
-    @Cacheable(value = "vesselCallBookings", key = "#vesselCallId + #pageable.pageNumber")
     @Operation(summary = "Get service bookings for vessel call")
     public ResponseEntity<Page<ServiceBookingDTO>> getServiceBookingsForVesselCall(
             @PathVariable @NotNull Long vesselCallId,
             @PageableDefault(size = 20) Pageable pageable) {
         return ResponseEntity.ok(
-            serviceBookingService.getServiceBookingsForVesselCall(vesselCallId, pageable));
+            serviceBookingService.getServiceBookingsByVesselCall(vesselCallId, pageable));
     }
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('SERVICE_BOOKING_READ')")
-    @Cacheable(value = "bookingSearches", 
-               key = "#serviceType + #status + #pageable.pageNumber")
     @Operation(summary = "Search service bookings with filters")
     public ResponseEntity<Page<ServiceBookingDTO>> getServiceBookingsByTypeAndStatus(
             @Parameter(description = "Service type filter")
@@ -105,10 +103,24 @@ public class ServiceBookingController {
                 serviceType, status, pageable));
     }
 
+    @GetMapping("/search/scroll")
+    @PreAuthorize("hasRole('SERVICE_BOOKING_READ')")
+    @Operation(summary = "Scroll service bookings by type and status with a continuation cursor")
+    public ResponseEntity<CursorPage<ServiceBookingDTO>> scrollServiceBookingsByTypeAndStatus(
+            @Parameter(description = "Service type filter")
+            @RequestParam @NotNull ServiceType serviceType,
+            @Parameter(description = "Service status filter")
+            @RequestParam @NotNull ServiceStatus status,
+            @Parameter(description = "Continuation cursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return ResponseEntity.ok(
+            serviceBookingService.scrollByTypeAndStatus(serviceType, status, cursor, size, includeTotal));
+    }
+
     @PutMapping("/{id}/cancel")
     @PreAuthorize("hasRole('SERVICE_BOOKING_CANCEL')")
-    @CacheEvict(value = {"bookings", "vesselCallBookings", "bookingSearches"}, 
-                allEntries = true)
     @Operation(summary = "Cancel service booking")
     @ApiResponse(responseCode = "200", description = "Service booking cancelled successfully")
     @ApiResponse(responseCode = "404", description = "Service booking not found")
@@ -121,8 +133,6 @@ public class ServiceBookingController {
 
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('SERVICE_BOOKING_UPDATE')")
-    @CacheEvict(value = {"bookings", "vesselCallBookings", "bookingSearches"}, 
-                allEntries = true)
     @Operation(summary = "Update service booking status")
     public ResponseEntity<ServiceBookingDTO> updateServiceBookingStatus(
             @PathVariable @NotNull Long id,
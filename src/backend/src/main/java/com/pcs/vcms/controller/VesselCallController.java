@@ -1,5 +1,6 @@
 package com.pcs.vcms.controller;
 
+import com.pcs.vcms.common.paging.CursorPage;
 import com.pcs.vcms.dto.VesselCallDTO;
 import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
 import com.pcs.vcms.service.VesselCallService;
@@ -21,6 +22,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -120,6 +123,38 @@ public class VesselCallController {
         return ResponseEntity.ok(vesselCallService.findByDateRange(startDate, endDate, pageable));
     }
 
+    @GetMapping("/status/{status}/scroll")
+    @PreAuthorize("hasAnyRole('PORT_AUTHORITY', 'SERVICE_PROVIDER')")
+    @Operation(summary = "Scroll vessel calls by status in ETA order with a continuation cursor")
+    @ApiResponse(responseCode = "200", description = "Vessel calls retrieved successfully")
+    @Timed(value = "vessel.call.scrollByStatus", description = "Time taken to scroll vessel calls by status")
+    public ResponseEntity<CursorPage<VesselCallDTO>> scrollByStatus(
+            @PathVariable @NotNull VesselCallStatus status,
+            @Parameter(description = "Continuation cursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Scrolling vessel calls with status: {}", status);
+        return ResponseEntity.ok(vesselCallService.scrollByStatus(status, cursor, size, includeTotal));
+    }
+
+    @GetMapping("/date-range/scroll")
+    @PreAuthorize("hasAnyRole('PORT_AUTHORITY', 'SERVICE_PROVIDER')")
+    @Operation(summary = "Scroll vessel calls within date range in ETA order with a continuation cursor")
+    @ApiResponse(responseCode = "200", description = "Vessel calls retrieved successfully")
+    @Timed(value = "vessel.call.scrollByDateRange", description = "Time taken to scroll vessel calls by date range")
+    public ResponseEntity<CursorPage<VesselCallDTO>> scrollByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Continuation cursor of the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Scrolling vessel calls between {} and {}", startDate, endDate);
+        return ResponseEntity.ok(
+                vesselCallService.scrollByDateRange(startDate, endDate, cursor, size, includeTotal));
+    }
+
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasRole('PORT_AUTHORITY')")
     @Operation(summary = "Update vessel call status")
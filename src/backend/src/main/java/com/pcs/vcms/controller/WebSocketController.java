@@ -5,25 +5,35 @@ import com.pcs.vcms.entity.VesselCall;
 import com.pcs.vcms.entity.BerthAllocation;
 import com.pcs.vcms.entity.ServiceBooking;
 import com.pcs.vcms.entity.Clearance;
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.SessionEvictedEvent;
+import com.pcs.vcms.websocket.SessionMessageRouter;
+import com.pcs.vcms.websocket.SessionReplayService;
+import com.pcs.vcms.websocket.SubscriptionFilter;
+import com.pcs.vcms.websocket.SubscriptionRoutingIndex;
 
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Controller;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
 
 import lombok.extern.slf4j.Slf4j;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.security.Principal;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
@@ -43,10 +53,10 @@ public class WebSocketController {
     private final NotificationService notificationService;
     private final SimpMessagingTemplate messagingTemplate;
     private final MeterRegistry meterRegistry;
+    private final SubscriptionRoutingIndex routingIndex;
+    private final SessionReplayService replayService;
+    private final SessionMessageRouter messageRouter;
 
-    // Connection tracking with heartbeat monitoring
-    private final ConcurrentHashMap<String, ConnectionState> connections = new ConcurrentHashMap<>();
-    
     // Performance metrics
     private final Counter messageCounter;
     private final Timer messageLatencyTimer;
@@ -61,10 +71,16 @@ public class WebSocketController {
      */
     public WebSocketController(NotificationService notificationService, 
                              SimpMessagingTemplate messagingTemplate,
-                             MeterRegistry meterRegistry) {
+                             MeterRegistry meterRegistry,
+                             SubscriptionRoutingIndex routingIndex,
+                             SessionReplayService replayService,
+                             SessionMessageRouter messageRouter) {
         this.notificationService = notificationService;
         this.messagingTemplate = messagingTemplate;
         this.meterRegistry = meterRegistry;
+        this.routingIndex = routingIndex;
+        this.replayService = replayService;
+        this.messageRouter = messageRouter;
 
         // Initialize metrics
         this.messageCounter = Counter.builder("websocket.messages")
@@ -85,22 +101,18 @@ public class WebSocketController {
      */
     @MessageMapping("/subscribe/vessel-calls")
     @PreAuthorize("hasAnyRole('ROLE_PORT_AUTHORITY', 'ROLE_VESSEL_AGENT')")
-    public void subscribeToVesselCalls(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
+    public void subscribeToVesselCalls(Principal principal, SimpMessageHeaderAccessor headerAccessor,
+                                       @Payload(required = false) SubscriptionFilter filter) {
         Timer.Sample timer = Timer.start(meterRegistry);
         String sessionId = headerAccessor.getSessionId();
         
         try {
             log.info("User {} subscribing to vessel calls updates", principal.getName());
             
-            // Track connection state
-            connections.put(sessionId, new ConnectionState(principal.getName(), System.currentTimeMillis()));
+            registerFilter(sessionId, principal, RealtimeTopic.VESSEL_CALLS, filter);
+            replayService.resumePending(sessionId, RealtimeTopic.VESSEL_CALLS);
             
-            // Initialize subscription
-            messagingTemplate.convertAndSendToUser(
-                principal.getName(),
-                "/queue/vessel-calls",
-                createSubscriptionAck("vessel-calls")
-            );
+            messageRouter.acknowledge(sessionId, principal.getName(), createSubscriptionAck("vessel-calls"));
             
             messageCounter.increment();
             timer.stop(messageLatencyTimer);
@@ -118,20 +130,18 @@ public class WebSocketController {
      */
     @MessageMapping("/subscribe/berth-allocations")
     @PreAuthorize("hasAnyRole('ROLE_PORT_AUTHORITY', 'ROLE_VESSEL_AGENT')")
-    public void subscribeToBerthAllocations(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
+    public void subscribeToBerthAllocations(Principal principal, SimpMessageHeaderAccessor headerAccessor,
+                                            @Payload(required = false) SubscriptionFilter filter) {
         Timer.Sample timer = Timer.start(meterRegistry);
         String sessionId = headerAccessor.getSessionId();
         
         try {
             log.info("User {} subscribing to berth allocation updates", principal.getName());
             
-            connections.put(sessionId, new ConnectionState(principal.getName(), System.currentTimeMillis()));
+            registerFilter(sessionId, principal, RealtimeTopic.BERTH_ALLOCATIONS, filter);
+            replayService.resumePending(sessionId, RealtimeTopic.BERTH_ALLOCATIONS);
             
-            messagingTemplate.convertAndSendToUser(
-                principal.getName(),
-                "/queue/berth-allocations",
-                createSubscriptionAck("berth-allocations")
-            );
+            messageRouter.acknowledge(sessionId, principal.getName(), createSubscriptionAck("berth-allocations"));
             
             messageCounter.increment();
             timer.stop(messageLatencyTimer);
@@ -149,20 +159,18 @@ public class WebSocketController {
      */
     @MessageMapping("/subscribe/service-bookings")
     @PreAuthorize("hasAnyRole('ROLE_SERVICE_PROVIDER', 'ROLE_VESSEL_AGENT')")
-    public void subscribeToServiceBookings(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
+    public void subscribeToServiceBookings(Principal principal, SimpMessageHeaderAccessor headerAccessor,
+                                           @Payload(required = false) SubscriptionFilter filter) {
         Timer.Sample timer = Timer.start(meterRegistry);
         String sessionId = headerAccessor.getSessionId();
         
         try {
             log.info("User {} subscribing to service booking updates", principal.getName());
             
-            connections.put(sessionId, new ConnectionState(principal.getName(), System.currentTimeMillis()));
+            registerFilter(sessionId, principal, RealtimeTopic.SERVICE_BOOKINGS, filter);
+            replayService.resumePending(sessionId, RealtimeTopic.SERVICE_BOOKINGS);
             
-            messagingTemplate.convertAndSendToUser(
-                principal.getName(),
-                "/queue/service-bookings",
-                createSubscriptionAck("service-bookings")
-            );
+            messageRouter.acknowledge(sessionId, principal.getName(), createSubscriptionAck("service-bookings"));
             
             messageCounter.increment();
             timer.stop(messageLatencyTimer);
@@ -180,20 +188,18 @@ public class WebSocketController {
      */
     @MessageMapping("/subscribe/clearances")
     @PreAuthorize("hasAnyRole('ROLE_PORT_AUTHORITY', 'ROLE_CUSTOMS')")
-    public void subscribeToClearances(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
+    public void subscribeToClearances(Principal principal, SimpMessageHeaderAccessor headerAccessor,
+                                      @Payload(required = false) SubscriptionFilter filter) {
         Timer.Sample timer = Timer.start(meterRegistry);
         String sessionId = headerAccessor.getSessionId();
         
         try {
             log.info("User {} subscribing to clearance updates", principal.getName());
             
-            connections.put(sessionId, new ConnectionState(principal.getName(), System.currentTimeMillis()));
+            registerFilter(sessionId, principal, RealtimeTopic.CLEARANCES, filter);
+            replayService.resumePending(sessionId, RealtimeTopic.CLEARANCES);
             
-            messagingTemplate.convertAndSendToUser(
-                principal.getName(),
-                "/queue/clearances",
-                createSubscriptionAck("clearances")
-            );
+            messageRouter.acknowledge(sessionId, principal.getName(), createSubscriptionAck("clearances"));
             
             messageCounter.increment();
             timer.stop(messageLatencyTimer);
@@ -210,10 +216,75 @@ public class WebSocketController {
      * Handles WebSocket connection closure and cleanup
      */
     public void handleDisconnect(String sessionId) {
-        ConnectionState state = connections.remove(sessionId);
-        if (state != null) {
-            log.info("User {} disconnected from WebSocket", state.getUsername());
+        routingIndex.unregister(sessionId);
+        replayService.release(sessionId);
+        log.debug("Released subscriptions of WebSocket session {}", sessionId);
+    }
+
+    /**
+     * Releases connection state when the broker reports a closed session
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        if (event.getUser() != null) {
+            log.info("User {} disconnected from WebSocket", event.getUser().getName());
         }
+        handleDisconnect(event.getSessionId());
+    }
+
+    /**
+     * Releases connection state of sessions evicted for missing heartbeats
+     */
+    @EventListener
+    public void onSessionEvicted(SessionEvictedEvent event) {
+        handleDisconnect(event.getSessionId());
+    }
+
+    /**
+     * Picks up resume requests carried by SUBSCRIBE frames of reconnecting clients
+     */
+    @EventListener
+    public void onSessionSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String resumeFrom = accessor.getFirstNativeHeader(SessionReplayService.RESUME_HEADER);
+        String destination = accessor.getDestination();
+        if (resumeFrom == null || destination == null || event.getUser() == null) {
+            return;
+        }
+
+        String userPrefix = messagingTemplate.getUserDestinationPrefix();
+        boolean filtered = destination.startsWith(userPrefix);
+        RealtimeTopic topic = filtered
+                ? RealtimeTopic.fromUserQueue("/" + destination.substring(userPrefix.length()))
+                : RealtimeTopic.fromBroadcastDestination(destination);
+        if (topic == null) {
+            return;
+        }
+
+        try {
+            replayService.requestResume(accessor.getSessionId(), accessor.getSubscriptionId(), destination, topic,
+                    Long.parseLong(resumeFrom.trim()),
+                    accessor.getFirstNativeHeader(SessionReplayService.RESUME_EPOCH_HEADER), filtered);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid {} header '{}' from session {}",
+                    SessionReplayService.RESUME_HEADER, resumeFrom, accessor.getSessionId());
+        } catch (Exception e) {
+            errorCounter.increment();
+            log.error("Error resuming {} for session {}: {}", topic.getName(), accessor.getSessionId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Registers a filtered subscription so that only matching updates are routed to the session.
+     * Without a filter the client keeps receiving the full broadcast topic.
+     */
+    private void registerFilter(String sessionId, Principal principal, RealtimeTopic topic,
+                                SubscriptionFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return;
+        }
+        routingIndex.register(sessionId, principal.getName(), topic, filter.toRoutingKeys());
+        log.debug("Session {} registered {} filter: {}", sessionId, topic.getName(), filter);
     }
 
     /**
@@ -235,38 +306,17 @@ public class WebSocketController {
     }
 
     /**
-     * Creates subscription acknowledgment message
+     * Creates subscription acknowledgment message, sent to the subscribing session only on
+     * {@value SessionMessageRouter#ACK_QUEUE}
      */
     private SubscriptionAck createSubscriptionAck(String topic) {
         return new SubscriptionAck(topic, System.currentTimeMillis());
     }
 
-    /**
-     * Inner class for tracking connection state
-     */
-    private static class ConnectionState {
-        private final String username;
-        private final long connectionTime;
-        private long lastHeartbeat;
-
-        public ConnectionState(String username, long connectionTime) {
-            this.username = username;
-            this.connectionTime = connectionTime;
-            this.lastHeartbeat = connectionTime;
-        }
-
-        public String getUsername() {
-            return username;
-        }
-
-        public void updateHeartbeat() {
-            this.lastHeartbeat = System.currentTimeMillis();
-        }
-    }
-
     /**
      * Inner class for subscription acknowledgment
      */
+    @Getter
     private static class SubscriptionAck {
         private final String topic;
         private final long timestamp;
@@ -0,0 +1,78 @@
+package com.pcs.vcms.controller;
+
+import com.pcs.vcms.dto.WebhookSubscriptionDTO;
+import com.pcs.vcms.webhook.WebhookSubscriptionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * REST controller letting shipping agents manage the webhooks their vessel call and
+ * clearance updates are pushed to. Subscriptions are always scoped to the calling agent.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@RestController
+@RequestMapping("/api/v1/webhooks")
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Webhook Subscriptions", description = "APIs for outbound webhook subscriptions")
+@Validated
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookSubscriptionController {
+
+    private final WebhookSubscriptionService subscriptionService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('VESSEL_AGENT')")
+    @Operation(summary = "List the webhook subscriptions of the current agent")
+    public ResponseEntity<List<WebhookSubscriptionDTO>> getSubscriptions(Authentication authentication) {
+        return ResponseEntity.ok(subscriptionService.getSubscriptions(authentication.getName()));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('VESSEL_AGENT')")
+    @Operation(summary = "Register a webhook subscription",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Subscription created, response carries the secret"),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data")
+            })
+    public ResponseEntity<WebhookSubscriptionDTO> createSubscription(
+            @Valid @RequestBody WebhookSubscriptionDTO subscriptionDTO,
+            Authentication authentication) {
+        log.info("Creating webhook subscription for agent: {}", authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(subscriptionService.createSubscription(authentication.getName(), subscriptionDTO));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('VESSEL_AGENT')")
+    @Operation(summary = "Delete a webhook subscription",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Subscription deleted"),
+                    @ApiResponse(responseCode = "404", description = "Subscription not found")
+            })
+    public ResponseEntity<Void> deleteSubscription(@PathVariable Long id, Authentication authentication) {
+        subscriptionService.deleteSubscription(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
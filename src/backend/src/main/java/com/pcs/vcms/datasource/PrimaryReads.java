@@ -0,0 +1,77 @@
+package com.pcs.vcms.datasource;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Routing hint sending the read-only transactions of a block of work to the primary.
+ * <p>
+ * Cache loaders run their reads under it: a value stored in a shared cache outlives the
+ * replica lag it was read with, so a load right after an eviction must not read the row the
+ * eviction was for from a replica that has not replayed the write yet. The hint applies to the
+ * connections the {@link ReplicaRoutingDataSource} hands out while it is active; with the lazy
+ * connection proxy that is the first statement of the transaction, so a transaction that already
+ * ran a statement on a replica keeps it. The hint is held per thread and nests.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Integer> DEPTH = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Runs work with its reads on the primary.
+     *
+     * @param work work to run
+     * @return result of the work
+     */
+    public static <T> T get(Supplier<T> work) {
+        enter();
+        try {
+            return work.get();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Runs work with its reads on the primary.
+     *
+     * @param work work to run
+     * @return result of the work
+     * @throws Exception exception thrown by the work
+     */
+    public static <T> T call(Callable<T> work) throws Exception {
+        enter();
+        try {
+            return work.call();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * @return whether the current thread runs work whose reads go to the primary
+     */
+    public static boolean isRequested() {
+        return DEPTH.get() != null;
+    }
+
+    private static void enter() {
+        Integer depth = DEPTH.get();
+        DEPTH.set(depth == null ? 1 : depth + 1);
+    }
+
+    private static void exit() {
+        int depth = DEPTH.get();
+        if (depth == 1) {
+            DEPTH.remove();
+        } else {
+            DEPTH.set(depth - 1);
+        }
+    }
+}
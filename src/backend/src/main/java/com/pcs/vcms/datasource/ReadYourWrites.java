@@ -0,0 +1,64 @@
+package com.pcs.vcms.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Read-your-writes stickiness of the requests that wrote to the primary.
+ * <p>
+ * Once a read-write transaction of a request commits, the rest of the request reads from the
+ * primary, so a request never misses its own write on a lagging replica. The mark is held in
+ * the request attributes and ends with the request; work outside a request is never sticky.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class ReadYourWrites {
+
+    private static final String WRITTEN_ATTRIBUTE = ReadYourWrites.class.getName() + ".WRITTEN";
+
+    private final boolean enabled;
+
+    /**
+     * @param enabled whether requests read from the primary after a write
+     */
+    public ReadYourWrites(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Marks the current request as sticky once the current read-write transaction commits.
+     */
+    public void onWriteTransaction() {
+        if (!enabled || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null || isWritten(attributes)) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                attributes.setAttribute(WRITTEN_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            }
+        });
+    }
+
+    /**
+     * @return whether the current request committed a write and must read from the primary
+     */
+    public boolean isSticky() {
+        if (!enabled) {
+            return false;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && isWritten(attributes);
+    }
+
+    private static boolean isWritten(RequestAttributes attributes) {
+        return attributes.getAttribute(WRITTEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
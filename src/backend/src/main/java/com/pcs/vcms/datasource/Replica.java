@@ -0,0 +1,56 @@
+package com.pcs.vcms.datasource;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica of the primary database and its last measured replication lag.
+ * <p>
+ * A replica starts unavailable and is only routed to once the {@link ReplicaLagMonitor} has
+ * measured its lag below the allowed maximum.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class Replica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile long lagMillis = -1;
+    private volatile boolean available;
+
+    /**
+     * @param name name of the replica, also its routing key
+     * @param dataSource connection pool of the replica
+     */
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * @return last measured replication lag in milliseconds, -1 if it could not be measured
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * @return whether read-only transactions may be routed to the replica
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    void update(long lagMillis, boolean available) {
+        this.lagMillis = lagMillis;
+        this.available = available;
+    }
+}
@@ -0,0 +1,129 @@
+package com.pcs.vcms.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * Periodically measures the replication lag of the read replicas.
+ * <p>
+ * A replica whose lag exceeds {@code maxLagMillis}, or whose lag cannot be measured, is taken
+ * out of the read rotation until a later check finds it caught up, so read-only transactions
+ * fall back to the primary instead of reading data older than the allowed lag. A replica that
+ * has replayed everything it received reports no lag, even when the primary has been idle
+ * since the last replayed transaction, but only while its WAL receiver is streaming from the
+ * primary: a replica that lost its upstream has also replayed everything it received, and is
+ * taken out of the rotation until streaming resumes. The replica user needs the
+ * {@code pg_read_all_stats} role to see the receiver status. The lag is exported as the
+ * {@code datasource.replica.lag} gauge. The monitor owns the replica pools and closes them on
+ * shutdown.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    /** Lag in milliseconds, or NULL when the replica is not streaming WAL from the primary */
+    static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) END";
+
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final List<JdbcTemplate> templates;
+
+    /**
+     * @param replicas replicas to monitor
+     * @param maxLagMillis maximum lag of a replica still routed to
+     * @param meterRegistry registry of the lag gauges
+     */
+    public ReplicaLagMonitor(List<Replica> replicas, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.maxLagMillis = maxLagMillis;
+        this.templates = replicas.stream().map(replica -> {
+            JdbcTemplate template = new JdbcTemplate(replica.getDataSource());
+            template.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            return template;
+        }).toList();
+        for (Replica replica : replicas) {
+            Gauge.builder("datasource.replica.lag", replica, Replica::getLagMillis)
+                    .description("Replication lag of the read replica, -1 when it cannot be measured")
+                    .tag("replica", replica.getName())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Measures the lag of every replica and updates their availability.
+     */
+    @Scheduled(fixedDelayString = "${vcms.datasource.replica.lag-check-interval-ms:5000}")
+    public void check() {
+        for (int i = 0; i < replicas.size(); i++) {
+            check(replicas.get(i), templates.get(i));
+        }
+    }
+
+    /**
+     * @return monitored replicas
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Closes the connection pools of the replicas.
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close the pool of replica {}: {}", replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void check(Replica replica, JdbcTemplate template) {
+        boolean wasAvailable = replica.isAvailable();
+        try {
+            Double lag = template.queryForObject(LAG_QUERY, Double.class);
+            if (lag == null) {
+                replica.update(-1, false);
+                if (wasAvailable) {
+                    log.warn("Replica {} is not streaming from the primary, routing its reads to the primary",
+                            replica.getName());
+                }
+                return;
+            }
+            long lagMillis = lag.longValue();
+            boolean available = lagMillis <= maxLagMillis;
+            replica.update(lagMillis, available);
+            if (wasAvailable && !available) {
+                log.warn("Replica {} lags {} ms behind the primary, routing its reads to the primary",
+                        replica.getName(), lagMillis);
+            } else if (!wasAvailable && available) {
+                log.info("Replica {} caught up ({} ms behind the primary), routing reads to it",
+                        replica.getName(), lagMillis);
+            }
+        } catch (RuntimeException e) {
+            replica.update(-1, false);
+            if (wasAvailable) {
+                log.warn("Checking replica {} failed, routing its reads to the primary: {}",
+                        replica.getName(), e.getMessage());
+            }
+        }
+    }
+}
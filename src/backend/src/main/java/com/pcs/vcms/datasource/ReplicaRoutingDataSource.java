@@ -0,0 +1,116 @@
+package com.pcs.vcms.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source routing read-only transactions to the read replicas and everything else to the
+ * primary.
+ * <p>
+ * The route is chosen when a connection is obtained, from the read-only flag of the current
+ * transaction, so the data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that defers the
+ * connection until the transaction has started. Read-only transactions are spread round-robin
+ * over the replicas the {@link ReplicaLagMonitor} found caught up, and fall back to the primary
+ * when none is, or when the request already wrote and {@link ReadYourWrites} keeps it on the
+ * primary. Loads filling a shared cache run under {@link PrimaryReads} and read from the primary
+ * too, so a cached value is never older than the write that evicted it. Routes are counted in
+ * the {@code datasource.routes} counter.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter stickyReads;
+    private final Counter primaryReads;
+    private final Counter fallbackReads;
+
+    /**
+     * @param primary connection pool of the primary
+     * @param replicas read replicas
+     * @param readYourWrites stickiness of the requests that wrote
+     * @param meterRegistry registry of the route counters
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, ReadYourWrites readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.readYourWrites = readYourWrites;
+        this.writes = counter(meterRegistry, "write");
+        this.replicaReads = counter(meterRegistry, "replica_read");
+        this.stickyReads = counter(meterRegistry, "sticky_read");
+        this.primaryReads = counter(meterRegistry, "primary_read");
+        this.fallbackReads = counter(meterRegistry, "fallback_read");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.onWriteTransaction();
+            writes.increment();
+            return PRIMARY;
+        }
+        if (readYourWrites.isSticky()) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        if (PrimaryReads.isRequested()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        Replica replica = nextAvailableReplica();
+        if (replica == null) {
+            fallbackReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replica.getName();
+    }
+
+    private Replica nextAvailableReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("datasource.routes")
+                .description("Number of connections obtained per route")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
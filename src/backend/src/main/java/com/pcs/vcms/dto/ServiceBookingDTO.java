@@ -54,9 +54,8 @@ public class ServiceBookingDTO {
     private ServiceType serviceType;
 
     /**
-     * Current status of the service booking
+     * Current status of the service booking, defaulted by the builder below
      */
-    @Builder.Default
     private ServiceStatus status = ServiceStatus.REQUESTED;
 
     /**
@@ -0,0 +1,49 @@
+package com.pcs.vcms.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Data Transfer Object for webhook subscriptions of shipping agents.
+ * The secret is only returned when the subscription is created; every delivery carries an
+ * HMAC-SHA256 signature of its body computed with it.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WebhookSubscriptionDTO {
+
+    private Long id;
+
+    @NotNull(message = "Endpoint URL is required")
+    @Size(max = 500, message = "Endpoint URL must not exceed 500 characters")
+    @Pattern(regexp = "^https://\\S+$", message = "Endpoint URL must be an https URL")
+    private String endpointUrl;
+
+    @NotEmpty(message = "At least one topic is required")
+    private Set<String> topics;
+
+    @Size(min = 16, max = 128, message = "Secret must be between 16 and 128 characters")
+    private String secret;
+
+    private Boolean active;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss", timezone = "UTC")
+    private LocalDateTime createdAt;
+}
@@ -7,6 +7,10 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Column;
 import javax.persistence.ManyToOne;
+import javax.persistence.FetchType;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.JoinColumn;
 import javax.persistence.Enumerated;
 import javax.persistence.EnumType;
@@ -21,6 +25,7 @@ import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
@@ -28,6 +33,8 @@ import java.time.LocalDateTime;
  * Entity class representing a berth allocation in the Port Community System.
  * Manages the assignment of vessels to berths including scheduling, status tracking,
  * and audit information with comprehensive validation and relationship management.
+ * Vessel call and berth are loaded lazily; reads that convert allocations to DTOs fetch them
+ * with the {@value #WITH_VESSEL_AND_BERTH} graph in the same select.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -37,12 +44,24 @@ import java.time.LocalDateTime;
     @Index(name = "idx_berth_allocation_dates", columnList = "start_time,end_time"),
     @Index(name = "idx_berth_allocation_status", columnList = "status")
 })
+@NamedEntityGraph(name = BerthAllocation.WITH_VESSEL_AND_BERTH,
+    attributeNodes = {
+        @NamedAttributeNode(value = "vesselCall", subgraph = "vesselCall"),
+        @NamedAttributeNode("berth")
+    },
+    subgraphs = @NamedSubgraph(name = "vesselCall", attributeNodes = @NamedAttributeNode("vessel")))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@ToString(exclude = {"vesselCall", "berth"})
 public class BerthAllocation {
 
+    /**
+     * Fetch plan of the allocation with its vessel call, vessel and berth
+     */
+    public static final String WITH_VESSEL_AND_BERTH = "BerthAllocation.withVesselAndBerth";
+
     /**
      * Enum representing possible states of a berth allocation with comprehensive status tracking
      */
@@ -58,12 +77,12 @@ public class BerthAllocation {
     private Long id;
 
     @NotNull(message = "Vessel call reference is required")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vessel_call_id", nullable = false)
     private VesselCall vesselCall;
 
     @NotNull(message = "Berth reference is required")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "berth_id", nullable = false)
     private Berth berth;
 
@@ -35,7 +35,8 @@ import java.time.LocalDateTime;
 @Table(name = "clearances", indexes = {
     @Index(name = "idx_clearance_status", columnList = "status"),
     @Index(name = "idx_clearance_type", columnList = "type"),
-    @Index(name = "idx_clearance_reference", columnList = "reference_number", unique = true)
+    @Index(name = "idx_clearance_reference", columnList = "reference_number", unique = true),
+    @Index(name = "idx_clearances_status_submitted_at_id", columnList = "status,submitted_at,id")
 })
 @Data
 @Builder
@@ -7,6 +7,10 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Column;
 import javax.persistence.ManyToOne;
+import javax.persistence.FetchType;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.JoinColumn;
 import javax.persistence.Enumerated;
 import javax.persistence.EnumType;
@@ -30,6 +34,8 @@ import java.time.LocalDateTime;
 /**
  * Entity class representing a port service booking in the Vessel Call Management System.
  * Manages bookings for various port services with comprehensive tracking and validation.
+ * The vessel call is loaded lazily; reads that convert bookings to DTOs fetch it with the
+ * {@value #WITH_VESSEL_CALL} graph in the same select.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -37,9 +43,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "service_bookings", indexes = {
     @Index(name = "idx_service_status_time", columnList = "status,service_time"),
-    @Index(name = "idx_service_vessel_call", columnList = "vessel_call_id")
+    @Index(name = "idx_service_vessel_call", columnList = "vessel_call_id"),
+    @Index(name = "idx_service_bookings_type_status_time_id", columnList = "service_type,status,service_time,id")
 })
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = ServiceBooking.WITH_VESSEL_CALL,
+    attributeNodes = @NamedAttributeNode(value = "vesselCall", subgraph = "vesselCall"),
+    subgraphs = @NamedSubgraph(name = "vesselCall", attributeNodes = @NamedAttributeNode("vessel")))
 @Data
 @Builder
 @NoArgsConstructor
@@ -47,6 +57,11 @@ import java.time.LocalDateTime;
 @ToString(exclude = "vesselCall")
 public class ServiceBooking {
 
+    /**
+     * Fetch plan of the booking with its vessel call and vessel
+     */
+    public static final String WITH_VESSEL_CALL = "ServiceBooking.withVesselCall";
+
     /**
      * Enum representing types of port services available for booking
      */
@@ -104,7 +119,7 @@ public class ServiceBooking {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vessel_call_id", nullable = false)
     @NotNull(message = "Vessel call reference is required")
     private VesselCall vesselCall;
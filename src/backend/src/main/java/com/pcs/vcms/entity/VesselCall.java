@@ -41,7 +41,9 @@ import java.util.Set;
 @Table(name = "vessel_calls", indexes = {
     @Index(name = "idx_vessel_call_status", columnList = "status"),
     @Index(name = "idx_vessel_call_dates", columnList = "eta,etd"),
-    @Index(name = "idx_vessel_call_sign", columnList = "call_sign", unique = true)
+    @Index(name = "idx_vessel_call_sign", columnList = "call_sign", unique = true),
+    @Index(name = "idx_vessel_calls_status_eta_id", columnList = "status,eta,id"),
+    @Index(name = "idx_vessel_calls_eta_id", columnList = "eta,id")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
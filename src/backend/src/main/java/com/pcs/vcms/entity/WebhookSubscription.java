@@ -0,0 +1,97 @@
+package com.pcs.vcms.entity;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Id;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Column;
+import javax.persistence.Version;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity class representing an outbound webhook registered by a shipping agent.
+ * Updates of the subscribed real-time topics that concern the agent are POSTed in
+ * batches to the endpoint, signed with the subscription secret.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Entity
+@Table(name = "webhook_subscriptions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "secret")
+public class WebhookSubscription {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "agent", nullable = false)
+    private String agent;
+
+    @NotNull
+    @Size(max = 500)
+    @Column(name = "endpoint_url", nullable = false)
+    private String endpointUrl;
+
+    @NotNull
+    @Size(min = 16, max = 128)
+    @Column(name = "secret", nullable = false)
+    private String secret;
+
+    /**
+     * Comma-separated names of the subscribed real-time topics, e.g. {@code vessel-calls,clearances}
+     */
+    @NotNull
+    @Column(name = "topics", nullable = false)
+    private String topics;
+
+    @Column(name = "active", nullable = false)
+    private boolean active;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * JPA lifecycle callback executed before persisting the entity
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * JPA lifecycle callback executed before updating the entity
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
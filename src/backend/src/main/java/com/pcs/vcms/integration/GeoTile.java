@@ -0,0 +1,159 @@
+package com.pcs.vcms.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash cell used to share external geographic data between nearby positions.
+ * <p>
+ * Every position inside a tile maps to the same hash, so data fetched once for the tile's
+ * centre serves all berths and anchorages in it. At precision 5 a tile is about 4.9 km by
+ * 4.9 km, at precision 6 about 1.2 km by 0.6 km.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class GeoTile {
+
+    public static final int MIN_PRECISION = 1;
+    public static final int MAX_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    private final String hash;
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    private GeoTile(String hash, double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        this.hash = hash;
+        this.minLatitude = minLatitude;
+        this.maxLatitude = maxLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    /**
+     * @param latitude latitude in degrees, between -90 and 90
+     * @param longitude longitude in degrees, between -180 and 180
+     * @param precision number of geohash characters, between 1 and 12
+     * @return tile containing the position
+     */
+    public static GeoTile of(double latitude, double longitude, int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION);
+        }
+        double minLat = -90;
+        double maxLat = 90;
+        double minLon = -180;
+        double maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean longitudeBit = true;
+        int bits = 0;
+        int index = 0;
+        while (hash.length() < precision) {
+            if (longitudeBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLon = mid;
+                } else {
+                    index <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    index = (index << 1) | 1;
+                    minLat = mid;
+                } else {
+                    index <<= 1;
+                    maxLat = mid;
+                }
+            }
+            longitudeBit = !longitudeBit;
+            if (++bits == 5) {
+                hash.append(BASE32[index]);
+                bits = 0;
+                index = 0;
+            }
+        }
+        return new GeoTile(hash.toString(), minLat, maxLat, minLon, maxLon);
+    }
+
+    /**
+     * Returns the tiles covering a rectangular area, row by row from the south-west corner.
+     *
+     * @param minLatitude southern edge of the area
+     * @param minLongitude western edge of the area
+     * @param maxLatitude northern edge of the area
+     * @param maxLongitude eastern edge of the area
+     * @param precision number of geohash characters
+     * @param maxTiles maximum number of tiles returned
+     * @return tiles covering the area
+     * @throws IllegalArgumentException if the area needs more than {@code maxTiles} tiles
+     */
+    public static List<GeoTile> covering(double minLatitude, double minLongitude, double maxLatitude,
+                                         double maxLongitude, int precision, int maxTiles) {
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Area edges are inverted");
+        }
+        GeoTile southWest = of(minLatitude, minLongitude, precision);
+        GeoTile northEast = of(maxLatitude, maxLongitude, precision);
+        double height = southWest.maxLatitude - southWest.minLatitude;
+        double width = southWest.maxLongitude - southWest.minLongitude;
+        long rows = Math.round((northEast.minLatitude - southWest.minLatitude) / height) + 1;
+        long columns = Math.round((northEast.minLongitude - southWest.minLongitude) / width) + 1;
+        if (rows * columns > maxTiles) {
+            throw new IllegalArgumentException("Area needs " + rows * columns + " tiles at precision " + precision
+                    + ", more than " + maxTiles);
+        }
+
+        List<GeoTile> tiles = new ArrayList<>((int) (rows * columns));
+        for (long row = 0; row < rows; row++) {
+            double latitude = southWest.getCenterLatitude() + row * height;
+            for (long column = 0; column < columns; column++) {
+                tiles.add(of(latitude, southWest.getCenterLongitude() + column * width, precision));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * @return geohash of the tile
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return latitude of the tile's centre
+     */
+    public double getCenterLatitude() {
+        return (minLatitude + maxLatitude) / 2;
+    }
+
+    /**
+     * @return longitude of the tile's centre
+     */
+    public double getCenterLongitude() {
+        return (minLongitude + maxLongitude) / 2;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GeoTile tile && hash.equals(tile.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return hash;
+    }
+}
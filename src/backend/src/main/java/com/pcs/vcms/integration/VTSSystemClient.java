@@ -1,14 +1,17 @@
 package com.pcs.vcms.integration;
 
+import com.pcs.vcms.cache.CachedValue;
+import com.pcs.vcms.cache.RefreshAheadCaches;
+import com.pcs.vcms.config.CacheConfig;
 import com.pcs.vcms.entity.Vessel;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.http.*;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.support.RetryTemplate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Collections;
@@ -30,6 +33,8 @@ import java.time.Duration;
 @Slf4j
 public class VTSSystemClient {
 
+    private static final String PORT_TRAFFIC_KEY = "port";
+
     @Value("${vts.base-url}")
     private String vtsBaseUrl;
 
@@ -45,6 +50,8 @@ public class VTSSystemClient {
     private final Integer connectionTimeout;
     private final Integer readTimeout;
     private final CircuitBreaker circuitBreaker;
+    private final RefreshAheadCaches refreshAheadCaches;
+    private final RetryTemplate refreshRetryTemplate;
 
     /**
      * Constructs VTSSystemClient with necessary configurations.
@@ -55,7 +62,8 @@ public class VTSSystemClient {
             @Value("${vts.retry-delay:1000}") Long retryDelay,
             @Value("${vts.connection-timeout:5000}") Integer connectionTimeout,
             @Value("${vts.read-timeout:10000}") Integer readTimeout,
-            CircuitBreaker circuitBreaker) {
+            CircuitBreaker circuitBreaker,
+            RefreshAheadCaches refreshAheadCaches) {
         
         this.restTemplate = restTemplate;
         this.maxRetries = maxRetries;
@@ -63,47 +71,28 @@ public class VTSSystemClient {
         this.connectionTimeout = connectionTimeout;
         this.readTimeout = readTimeout;
         this.circuitBreaker = circuitBreaker;
+        this.refreshAheadCaches = refreshAheadCaches;
+        // Refresh loads run outside the Spring proxy, so they cannot use @Retryable
+        this.refreshRetryTemplate = RetryTemplate.builder()
+            .maxAttempts(maxRetries)
+            .fixedBackoff(retryDelay)
+            .build();
 
         configureRestTemplate();
     }
 
     /**
      * Retrieves current position of a vessel from VTS.
+     * Served refresh-ahead from the cache, so callers do not wait for the VTS once the
+     * position was loaded.
      *
      * @param imoNumber IMO number of the vessel
-     * @return VesselPosition containing current position data
-     * @throws VTSIntegrationException if retrieval fails
+     * @return current position data and its freshness; holds no position if the VTS could not
+     *         be reached and none was cached
      */
-    @Cacheable(value = "vesselPositions", key = "#imoNumber", unless = "#result == null")
-    @Retryable(maxAttempts = "#{@vtsSystemClient.maxRetries}", 
-               backoff = @Backoff(delay = "#{@vtsSystemClient.retryDelay}"))
-    public VesselPosition getVesselPosition(String imoNumber) {
-        log.debug("Retrieving position for vessel with IMO: {}", imoNumber);
-        
-        return circuitBreaker.run(() -> {
-            validateImoNumber(imoNumber);
-            String url = buildUrl("/api/v1/vessels/" + imoNumber + "/position");
-            
-            HttpEntity<Void> requestEntity = createRequestEntity();
-            
-            try {
-                ResponseEntity<VesselPosition> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    requestEntity,
-                    VesselPosition.class
-                );
-                
-                log.info("Successfully retrieved position for vessel {}", imoNumber);
-                return response.getBody();
-            } catch (Exception e) {
-                log.error("Failed to retrieve vessel position for IMO: {}", imoNumber, e);
-                throw new VTSIntegrationException("Failed to retrieve vessel position", e);
-            }
-        }, throwable -> {
-            log.error("Circuit breaker fallback for vessel position retrieval", throwable);
-            return null;
-        });
+    public CachedValue<VesselPosition> getVesselPosition(String imoNumber) {
+        return refreshAheadCaches.get(CacheConfig.VESSEL_POSITIONS_CACHE)
+            .get(imoNumber, () -> fetchVesselPosition(imoNumber), () -> null);
     }
 
     /**
@@ -152,17 +141,57 @@ public class VTSSystemClient {
 
     /**
      * Retrieves current port traffic information.
+     * Served refresh-ahead from the cache, so callers do not wait for the VTS once the
+     * traffic picture was loaded.
+     *
+     * @return current traffic data and its freshness; holds no data if the VTS could not be
+     *         reached and none was cached
+     */
+    public CachedValue<PortTraffic> getPortTraffic() {
+        return refreshAheadCaches.get(CacheConfig.PORT_TRAFFIC_CACHE)
+            .get(PORT_TRAFFIC_KEY, this::fetchPortTraffic, () -> null);
+    }
+
+    /**
+     * Loads the position of a vessel from VTS, retrying failed attempts.
      *
-     * @return PortTraffic containing current traffic data
      * @throws VTSIntegrationException if retrieval fails
      */
-    @Cacheable(value = "portTraffic", unless = "#result == null")
-    @Retryable(maxAttempts = "#{@vtsSystemClient.maxRetries}", 
-               backoff = @Backoff(delay = "#{@vtsSystemClient.retryDelay}"))
-    public PortTraffic getPortTraffic() {
+    private VesselPosition fetchVesselPosition(String imoNumber) {
+        log.debug("Retrieving position for vessel with IMO: {}", imoNumber);
+        
+        return refreshRetryTemplate.execute(context -> circuitBreaker.run(() -> {
+            validateImoNumber(imoNumber);
+            String url = buildUrl("/api/v1/vessels/" + imoNumber + "/position");
+            
+            HttpEntity<Void> requestEntity = createRequestEntity();
+            
+            try {
+                ResponseEntity<VesselPosition> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    requestEntity,
+                    VesselPosition.class
+                );
+                
+                log.info("Successfully retrieved position for vessel {}", imoNumber);
+                return response.getBody();
+            } catch (Exception e) {
+                log.error("Failed to retrieve vessel position for IMO: {}", imoNumber, e);
+                throw new VTSIntegrationException("Failed to retrieve vessel position", e);
+            }
+        }));
+    }
+
+    /**
+     * Loads the current port traffic information from VTS, retrying failed attempts.
+     *
+     * @throws VTSIntegrationException if retrieval fails
+     */
+    private PortTraffic fetchPortTraffic() {
         log.debug("Retrieving current port traffic information");
         
-        return circuitBreaker.run(() -> {
+        return refreshRetryTemplate.execute(context -> circuitBreaker.run(() -> {
             String url = buildUrl("/api/v1/port/traffic");
             HttpEntity<Void> requestEntity = createRequestEntity();
             
@@ -180,10 +209,7 @@ public class VTSSystemClient {
                 log.error("Failed to retrieve port traffic information", e);
                 throw new VTSIntegrationException("Failed to retrieve port traffic", e);
             }
-        }, throwable -> {
-            log.error("Circuit breaker fallback for port traffic retrieval", throwable);
-            return null;
-        });
+        }));
     }
 
     /**
@@ -1,13 +1,15 @@
 package com.pcs.vcms.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper; // v2.15.0
+import com.pcs.vcms.cache.CachedValue;
+import com.pcs.vcms.cache.RefreshAheadCaches;
+import com.pcs.vcms.config.CacheConfig;
 import lombok.extern.slf4j.Slf4j; // v1.18.22
 import org.springframework.beans.factory.annotation.Value; // v6.1.0
 import org.springframework.cache.annotation.Cacheable; // v6.1.0
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker; // v4.0.0
 import org.springframework.http.HttpEntity; // v6.1.0
 import org.springframework.http.HttpHeaders; // v6.1.0
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity; // v6.1.0
 import org.springframework.stereotype.Service; // v6.1.0
 import org.springframework.web.client.RestTemplate; // v6.1.0
@@ -27,19 +29,25 @@ public class WeatherServiceClient {
     @Value("${openweather.api.base-url}")
     private String baseUrl;
 
+    @Value("${vcms.weather.tile-precision:5}")
+    private int tilePrecision;
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final CircuitBreaker circuitBreaker;
+    private final RefreshAheadCaches refreshAheadCaches;
     private final int maxRetries = 3;
     private final long retryDelay = 1000L; // 1 second
     private final HttpHeaders defaultHeaders;
 
     public WeatherServiceClient(RestTemplate restTemplate, 
                               ObjectMapper objectMapper,
-                              CircuitBreaker circuitBreaker) {
+                              CircuitBreaker circuitBreaker,
+                              RefreshAheadCaches refreshAheadCaches) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.circuitBreaker = circuitBreaker;
+        this.refreshAheadCaches = refreshAheadCaches;
         
         // Initialize default headers
         this.defaultHeaders = new HttpHeaders();
@@ -48,84 +56,106 @@ public class WeatherServiceClient {
         this.defaultHeaders.set("Content-Type", "application/json");
     }
 
-    @Cacheable(value = "weatherCache", key = "#latitude + #longitude")
+    /**
+     * Retrieves marine weather for the {@link GeoTile} containing a position, served
+     * refresh-ahead from the cache. Weather is fetched for the tile's centre and shared by
+     * every position in the tile ({@code vcms.weather.tile-precision}).
+     * The response carries the age of the data in an {@code Age} header and a
+     * {@code Warning: 110} header when the data is stale.
+     */
     public ResponseEntity<Map<String, Object>> getMarineWeather(double latitude, double longitude) {
-        log.debug("Fetching marine weather data for coordinates: lat={}, lon={}", latitude, longitude);
-        
         // Validate coordinates
         validateCoordinates(latitude, longitude);
 
-        String url = String.format("%s/marine?lat=%f&lon=%f&appid=%s", baseUrl, latitude, longitude, apiKey);
-        
-        return circuitBreaker.run(() -> {
-            return executeWithRetry(() -> {
-                HttpEntity<?> requestEntity = new HttpEntity<>(defaultHeaders);
-                ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url,
-                    org.springframework.http.HttpMethod.GET,
-                    requestEntity,
-                    new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {}
-                );
-                
-                validateResponse(response);
-                return response;
-            });
-        }, throwable -> getFallbackWeatherData());
+        GeoTile tile = tileOf(latitude, longitude);
+        return toResponse(refreshAheadCaches.get(CacheConfig.WEATHER_CACHE).get(
+            tile.getHash(),
+            () -> fetchMarineWeather(tile.getCenterLatitude(), tile.getCenterLongitude()),
+            this::getFallbackWeatherData));
     }
 
-    @Cacheable(value = "forecastCache", key = "#latitude + #longitude + #days")
+    /**
+     * Retrieves the weather forecast for the {@link GeoTile} containing a position, served
+     * refresh-ahead from the cache. Carries the same freshness headers as {@link #getMarineWeather}.
+     */
     public ResponseEntity<Map<String, Object>> getWeatherForecast(double latitude, double longitude, int days) {
-        log.debug("Fetching weather forecast for coordinates: lat={}, lon={}, days={}", latitude, longitude, days);
-        
         // Validate parameters
         validateCoordinates(latitude, longitude);
         if (days < 1 || days > 7) {
             throw new IllegalArgumentException("Forecast days must be between 1 and 7");
         }
 
-        String url = String.format("%s/forecast?lat=%f&lon=%f&days=%d&appid=%s", 
-            baseUrl, latitude, longitude, days, apiKey);
-
-        return circuitBreaker.run(() -> {
-            return executeWithRetry(() -> {
-                HttpEntity<?> requestEntity = new HttpEntity<>(defaultHeaders);
-                ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url,
-                    org.springframework.http.HttpMethod.GET,
-                    requestEntity,
-                    new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {}
-                );
-                
-                validateResponse(response);
-                return response;
-            });
-        }, throwable -> getFallbackForecastData(days));
+        GeoTile tile = tileOf(latitude, longitude);
+        return toResponse(refreshAheadCaches.get(CacheConfig.FORECAST_CACHE).get(
+            tile.getHash() + ":" + days,
+            () -> fetchWeatherForecast(tile.getCenterLatitude(), tile.getCenterLongitude(), days),
+            () -> getFallbackForecastData(days)));
     }
 
-    @Cacheable(value = "marineCache", key = "#latitude + #longitude")
-    public ResponseEntity<Map<String, Object>> getMarineConditions(double latitude, double longitude) {
-        log.debug("Fetching marine conditions for coordinates: lat={}, lon={}", latitude, longitude);
-        
+    /**
+     * Retrieves marine conditions for the {@link GeoTile} containing a position. The response
+     * body is cached per tile; fallback data is not cached.
+     */
+    @Cacheable(value = "marineCache", key = "#root.target.tileOf(#latitude, #longitude).hash",
+        unless = "#result['status'] == 'fallback'")
+    public Map<String, Object> getMarineConditions(double latitude, double longitude) {
         // Validate coordinates
         validateCoordinates(latitude, longitude);
 
+        GeoTile tile = tileOf(latitude, longitude);
+        log.debug("Fetching marine conditions for tile {}", tile);
+
         String url = String.format("%s/marine/conditions?lat=%f&lon=%f&appid=%s", 
-            baseUrl, latitude, longitude, apiKey);
-
-        return circuitBreaker.run(() -> {
-            return executeWithRetry(() -> {
-                HttpEntity<?> requestEntity = new HttpEntity<>(defaultHeaders);
-                ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url,
-                    org.springframework.http.HttpMethod.GET,
-                    requestEntity,
-                    new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {}
-                );
-                
-                validateResponse(response);
-                return response;
-            });
-        }, throwable -> getFallbackMarineConditions());
+            baseUrl, tile.getCenterLatitude(), tile.getCenterLongitude(), apiKey);
+
+        return circuitBreaker.run(() -> executeWithRetry(() -> exchange(url)),
+            throwable -> getFallbackMarineConditions());
+    }
+
+    /**
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @return weather tile containing the position
+     */
+    public GeoTile tileOf(double latitude, double longitude) {
+        return GeoTile.of(latitude, longitude, tilePrecision);
+    }
+
+    private Map<String, Object> fetchMarineWeather(double latitude, double longitude) {
+        log.debug("Fetching marine weather data for coordinates: lat={}, lon={}", latitude, longitude);
+
+        String url = String.format("%s/marine?lat=%f&lon=%f&appid=%s", baseUrl, latitude, longitude, apiKey);
+        return circuitBreaker.run(() -> executeWithRetry(() -> exchange(url)));
+    }
+
+    private Map<String, Object> fetchWeatherForecast(double latitude, double longitude, int days) {
+        log.debug("Fetching weather forecast for coordinates: lat={}, lon={}, days={}", latitude, longitude, days);
+
+        String url = String.format("%s/forecast?lat=%f&lon=%f&days=%d&appid=%s", 
+            baseUrl, latitude, longitude, days, apiKey);
+        return circuitBreaker.run(() -> executeWithRetry(() -> exchange(url)));
+    }
+
+    private Map<String, Object> exchange(String url) {
+        HttpEntity<?> requestEntity = new HttpEntity<>(defaultHeaders);
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+            url,
+            org.springframework.http.HttpMethod.GET,
+            requestEntity,
+            new org.springframework.core.ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+
+        validateResponse(response);
+        return response.getBody();
+    }
+
+    private ResponseEntity<Map<String, Object>> toResponse(CachedValue<Map<String, Object>> weather) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header(HttpHeaders.AGE, String.valueOf(weather.getAge().toSeconds()));
+        if (weather.isStale()) {
+            response.header(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+        }
+        return response.body(weather.getValue());
     }
 
     private void validateCoordinates(double latitude, double longitude) {
@@ -167,32 +197,32 @@ public class WeatherServiceClient {
         throw new RuntimeException("Unexpected retry failure");
     }
 
-    private ResponseEntity<Map<String, Object>> getFallbackWeatherData() {
+    private Map<String, Object> getFallbackWeatherData() {
         log.warn("Returning fallback weather data");
         Map<String, Object> fallbackData = new HashMap<>();
         fallbackData.put("status", "fallback");
         fallbackData.put("temperature", 20.0);
         fallbackData.put("wind_speed", 5.0);
         fallbackData.put("humidity", 70);
-        return new ResponseEntity<>(fallbackData, HttpStatus.OK);
+        return fallbackData;
     }
 
-    private ResponseEntity<Map<String, Object>> getFallbackForecastData(int days) {
+    private Map<String, Object> getFallbackForecastData(int days) {
         log.warn("Returning fallback forecast data for {} days", days);
         Map<String, Object> fallbackData = new HashMap<>();
         fallbackData.put("status", "fallback");
         fallbackData.put("forecast_days", days);
         fallbackData.put("forecasts", Collections.emptyList());
-        return new ResponseEntity<>(fallbackData, HttpStatus.OK);
+        return fallbackData;
     }
 
-    private ResponseEntity<Map<String, Object>> getFallbackMarineConditions() {
+    private Map<String, Object> getFallbackMarineConditions() {
         log.warn("Returning fallback marine conditions");
         Map<String, Object> fallbackData = new HashMap<>();
         fallbackData.put("status", "fallback");
         fallbackData.put("wave_height", 1.0);
         fallbackData.put("sea_temperature", 15.0);
         fallbackData.put("visibility", "good");
-        return new ResponseEntity<>(fallbackData, HttpStatus.OK);
+        return fallbackData;
     }
 }
\ No newline at end of file
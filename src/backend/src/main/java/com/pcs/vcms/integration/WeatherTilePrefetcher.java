@@ -0,0 +1,67 @@
+package com.pcs.vcms.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the weather of the port's {@link GeoTile}s cached.
+ * <p>
+ * The tiles covering the port area ({@code vcms.weather.port-area.*}) are read through
+ * {@link WeatherServiceClient} every {@code vcms.weather.prefetch.interval-ms}: cold tiles are
+ * loaded and tiles past their refresh age are reloaded in the background, so berth and
+ * anchorage lookups are served from the cache. The interval should stay below the refresh age
+ * of the weather caches so no tile goes stale between two runs.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@ConditionalOnProperty(name = "vcms.weather.prefetch.enabled", havingValue = "true")
+@Slf4j
+public class WeatherTilePrefetcher {
+
+    private final WeatherServiceClient weatherServiceClient;
+    private final List<GeoTile> tiles;
+    private final int forecastDays;
+
+    public WeatherTilePrefetcher(WeatherServiceClient weatherServiceClient,
+                                 @Value("${vcms.weather.port-area.min-latitude}") double minLatitude,
+                                 @Value("${vcms.weather.port-area.min-longitude}") double minLongitude,
+                                 @Value("${vcms.weather.port-area.max-latitude}") double maxLatitude,
+                                 @Value("${vcms.weather.port-area.max-longitude}") double maxLongitude,
+                                 @Value("${vcms.weather.tile-precision:5}") int tilePrecision,
+                                 @Value("${vcms.weather.prefetch.max-tiles:256}") int maxTiles,
+                                 @Value("${vcms.weather.prefetch.forecast-days:3}") int forecastDays) {
+        this.weatherServiceClient = weatherServiceClient;
+        this.tiles = GeoTile.covering(minLatitude, minLongitude, maxLatitude, maxLongitude, tilePrecision, maxTiles);
+        this.forecastDays = forecastDays;
+        log.info("Prefetching weather for {} tiles of the port area at precision {}", tiles.size(), tilePrecision);
+    }
+
+    /**
+     * Reads the weather, and the forecast unless {@code vcms.weather.prefetch.forecast-days}
+     * is 0, of every tile of the port area.
+     */
+    @Scheduled(fixedDelayString = "${vcms.weather.prefetch.interval-ms:300000}")
+    public void prefetch() {
+        int failed = 0;
+        for (GeoTile tile : tiles) {
+            try {
+                weatherServiceClient.getMarineWeather(tile.getCenterLatitude(), tile.getCenterLongitude());
+                if (forecastDays > 0) {
+                    weatherServiceClient.getWeatherForecast(tile.getCenterLatitude(), tile.getCenterLongitude(),
+                            forecastDays);
+                }
+            } catch (RuntimeException e) {
+                failed++;
+                log.warn("Prefetching weather of tile {} failed: {}", tile, e.getMessage());
+            }
+        }
+        log.debug("Prefetched weather of {} tiles, {} failed", tiles.size() - failed, failed);
+    }
+}
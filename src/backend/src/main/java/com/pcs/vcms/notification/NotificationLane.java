@@ -0,0 +1,67 @@
+package com.pcs.vcms.notification;
+
+/**
+ * Priority lanes of the notification path. Each lane has its own token bucket and workers,
+ * each worker draining its own partition of the lane's queue capacity, so a burst in one lane
+ * does not delay the other. The defaults below can be
+ * overridden with {@code vcms.notification.lanes.<lane-name>.*}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public enum NotificationLane {
+
+    /** Safety and clearance events; never dropped, holds back the caller when its queue is full */
+    EXPRESS("express", 200, 50, 1000, 4, 100),
+
+    /** Bulk schedule and status updates; dropped when its queue is full */
+    BEST_EFFORT("best-effort", 100, 100, 5000, 2, 2000);
+
+    private final String name;
+    private final double defaultRatePerSecond;
+    private final int defaultBurst;
+    private final int defaultQueueCapacity;
+    private final int defaultWorkers;
+    private final long defaultSloMillis;
+
+    NotificationLane(String name, double defaultRatePerSecond, int defaultBurst, int defaultQueueCapacity,
+                     int defaultWorkers, long defaultSloMillis) {
+        this.name = name;
+        this.defaultRatePerSecond = defaultRatePerSecond;
+        this.defaultBurst = defaultBurst;
+        this.defaultQueueCapacity = defaultQueueCapacity;
+        this.defaultWorkers = defaultWorkers;
+        this.defaultSloMillis = defaultSloMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getDefaultRatePerSecond() {
+        return defaultRatePerSecond;
+    }
+
+    public int getDefaultBurst() {
+        return defaultBurst;
+    }
+
+    public int getDefaultQueueCapacity() {
+        return defaultQueueCapacity;
+    }
+
+    public int getDefaultWorkers() {
+        return defaultWorkers;
+    }
+
+    public long getDefaultSloMillis() {
+        return defaultSloMillis;
+    }
+
+    /**
+     * @return true if notifications of the lane must not be dropped under load
+     */
+    public boolean isLossless() {
+        return this == EXPRESS;
+    }
+}
@@ -0,0 +1,299 @@
+package com.pcs.vcms.notification;
+
+import com.pcs.vcms.websocket.RealtimeTopic;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs notification deliveries on priority lanes.
+ * <p>
+ * Every lane owns a {@link TokenBucket} and is split into one partition per worker, each a
+ * single worker thread with its own bounded queue. Deliveries are assigned to a partition by
+ * the hash of their entity key, so the updates of one entity are delivered in the order they
+ * were submitted while different entities are delivered in parallel. Workers take a permit
+ * from the lane's bucket before delivering, so each lane is rate limited on its own and a
+ * burst of bulk updates cannot hold back urgent ones. Topics are mapped to lanes with
+ * {@code vcms.notification.lanes.topic.<topic-name>} ({@code user} for user notifications):
+ * clearances and user notifications use the express lane by default, the other topics the
+ * best-effort lane. Queue-to-delivery latency is recorded per lane against the lane's SLO
+ * ({@code vcms.notification.lanes.<lane-name>.slo-ms}).
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class NotificationLanes implements DisposableBean {
+
+    /** Lane routing key of user notifications */
+    public static final String USER_ROUTE = "user";
+
+    private static final String PROPERTY_PREFIX = "vcms.notification.lanes.";
+
+    private final Map<NotificationLane, Lane> lanes = new EnumMap<>(NotificationLane.class);
+    private final Map<String, NotificationLane> routes;
+
+    @Autowired
+    public NotificationLanes(Environment environment, MeterRegistry meterRegistry) {
+        this(resolveSettings(environment), resolveRoutes(environment), meterRegistry);
+    }
+
+    NotificationLanes(Map<NotificationLane, LaneSettings> settings, Map<String, NotificationLane> routes,
+                      MeterRegistry meterRegistry) {
+        this.routes = routes;
+        settings.forEach((lane, laneSettings) -> lanes.put(lane, new Lane(lane, laneSettings, meterRegistry)));
+    }
+
+    /**
+     * @param topic real-time topic of a notification
+     * @return lane the topic's notifications run on
+     */
+    public NotificationLane laneFor(RealtimeTopic topic) {
+        return routes.getOrDefault(topic.getName(), NotificationLane.BEST_EFFORT);
+    }
+
+    /**
+     * @return lane user notifications run on
+     */
+    public NotificationLane userLane() {
+        return routes.getOrDefault(USER_ROUTE, NotificationLane.EXPRESS);
+    }
+
+    /**
+     * Queues a delivery that has no ordering constraint on any partition of a lane.
+     * When the partition's queue is full, lossless lanes run the delivery on the calling
+     * thread and best-effort lanes reject it.
+     *
+     * @param lane lane to run on
+     * @param delivery delivery to run
+     * @return false if the delivery was rejected
+     */
+    public boolean submit(NotificationLane lane, Runnable delivery) {
+        return lanes.get(lane).submit(null, delivery);
+    }
+
+    /**
+     * Queues a delivery on the partition of a lane owning its entity key, after the deliveries
+     * already queued for the same key. When the partition's queue is full, lossless lanes make
+     * the caller wait for room, which keeps the entity's order, and best-effort lanes reject it.
+     *
+     * @param lane lane to run on
+     * @param entityKey key of the entity the delivery is about, null if unordered
+     * @param delivery delivery to run
+     * @return false if the delivery was rejected
+     */
+    public boolean submit(NotificationLane lane, String entityKey, Runnable delivery) {
+        return lanes.get(lane).submit(entityKey, delivery);
+    }
+
+    /**
+     * @return number of deliveries waiting in the queues of the lane's partitions
+     */
+    public int getQueuedCount(NotificationLane lane) {
+        return lanes.get(lane).getQueuedCount();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (Lane lane : lanes.values()) {
+            for (ThreadPoolExecutor partition : lane.partitions) {
+                partition.shutdown();
+            }
+        }
+        for (Lane lane : lanes.values()) {
+            for (ThreadPoolExecutor partition : lane.partitions) {
+                partition.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static Map<NotificationLane, LaneSettings> resolveSettings(Environment environment) {
+        Map<NotificationLane, LaneSettings> settings = new EnumMap<>(NotificationLane.class);
+        for (NotificationLane lane : NotificationLane.values()) {
+            String prefix = PROPERTY_PREFIX + lane.getName() + '.';
+            settings.put(lane, new LaneSettings(
+                    environment.getProperty(prefix + "rate-per-second", Double.class, lane.getDefaultRatePerSecond()),
+                    environment.getProperty(prefix + "burst", Integer.class, lane.getDefaultBurst()),
+                    environment.getProperty(prefix + "queue-capacity", Integer.class, lane.getDefaultQueueCapacity()),
+                    environment.getProperty(prefix + "workers", Integer.class, lane.getDefaultWorkers()),
+                    environment.getProperty(prefix + "slo-ms", Long.class, lane.getDefaultSloMillis())));
+        }
+        return settings;
+    }
+
+    private static Map<String, NotificationLane> resolveRoutes(Environment environment) {
+        Map<String, NotificationLane> routes = new HashMap<>();
+        for (RealtimeTopic topic : RealtimeTopic.values()) {
+            NotificationLane defaultLane = topic == RealtimeTopic.CLEARANCES
+                    ? NotificationLane.EXPRESS : NotificationLane.BEST_EFFORT;
+            routes.put(topic.getName(), environment.getProperty(PROPERTY_PREFIX + "topic." + topic.getName(),
+                    NotificationLane.class, defaultLane));
+        }
+        routes.put(USER_ROUTE, environment.getProperty(PROPERTY_PREFIX + "topic." + USER_ROUTE,
+                NotificationLane.class, NotificationLane.EXPRESS));
+        return routes;
+    }
+
+    /**
+     * Sizing of one lane.
+     */
+    static final class LaneSettings {
+        private final double ratePerSecond;
+        private final int burst;
+        private final int queueCapacity;
+        private final int workers;
+        private final long sloMillis;
+
+        LaneSettings(double ratePerSecond, int burst, int queueCapacity, int workers, long sloMillis) {
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+            this.queueCapacity = queueCapacity;
+            this.workers = workers;
+            this.sloMillis = sloMillis;
+        }
+    }
+
+    /**
+     * Token bucket, partitions and metrics of one lane.
+     */
+    private static final class Lane {
+        private final NotificationLane lane;
+        private final TokenBucket bucket;
+        private final ThreadPoolExecutor[] partitions;
+        private final AtomicInteger nextUnordered = new AtomicInteger();
+        private final long sloNanos;
+        private final Timer latency;
+        private final Counter sloViolations;
+        private final Counter rejected;
+        private final Counter callerRuns;
+        private final Counter blockedSubmits;
+
+        private Lane(NotificationLane lane, LaneSettings settings, MeterRegistry meterRegistry) {
+            this.lane = lane;
+            this.bucket = new TokenBucket(settings.ratePerSecond, settings.burst, System::nanoTime);
+            this.sloNanos = TimeUnit.MILLISECONDS.toNanos(settings.sloMillis);
+            int workers = Math.max(1, settings.workers);
+            int partitionCapacity = Math.max(1, settings.queueCapacity / workers);
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("VcmsNotify-" + lane.getName() + "-");
+            this.partitions = new ThreadPoolExecutor[workers];
+            for (int i = 0; i < workers; i++) {
+                partitions[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(partitionCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+            }
+
+            Duration slo = Duration.ofMillis(settings.sloMillis);
+            this.latency = Timer.builder("notification.lane.latency")
+                    .description("Time from queueing a notification to its delivery")
+                    .tag("lane", lane.getName())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .serviceLevelObjectives(slo.dividedBy(2), slo, slo.multipliedBy(2))
+                    .register(meterRegistry);
+            this.sloViolations = Counter.builder("notification.lane.slo.violations")
+                    .description("Number of notifications delivered later than the lane SLO")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("notification.lane.rejected")
+                    .description("Number of notifications dropped because the lane queue was full")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            this.callerRuns = Counter.builder("notification.lane.caller.runs")
+                    .description("Number of notifications run on the caller because the lane queue was full")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            this.blockedSubmits = Counter.builder("notification.lane.blocked")
+                    .description("Number of ordered notifications whose caller waited for room in the lane queue")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+            Gauge.builder("notification.lane.queued", this, Lane::getQueuedCount)
+                    .description("Number of notifications waiting in the lane queue")
+                    .tag("lane", lane.getName())
+                    .register(meterRegistry);
+        }
+
+        private boolean submit(String entityKey, Runnable delivery) {
+            long queuedAt = System.nanoTime();
+            Runnable task = () -> run(delivery, queuedAt);
+            int index = entityKey != null
+                    ? Math.floorMod(entityKey.hashCode(), partitions.length)
+                    : Math.floorMod(nextUnordered.getAndIncrement(), partitions.length);
+            ThreadPoolExecutor partition = partitions[index];
+            try {
+                partition.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                if (lane.isLossless() && !partition.isShutdown()) {
+                    return entityKey != null ? enqueueWhenFree(partition, task) : runOnCaller(task);
+                }
+                rejected.increment();
+                log.warn("Notification lane {} is full, dropping delivery", lane.getName());
+                return false;
+            }
+        }
+
+        private boolean runOnCaller(Runnable task) {
+            callerRuns.increment();
+            task.run();
+            return true;
+        }
+
+        /**
+         * Waits for room in a full partition; running an ordered delivery on the caller
+         * would let it overtake the deliveries of its entity still queued.
+         */
+        private boolean enqueueWhenFree(ThreadPoolExecutor partition, Runnable task) {
+            blockedSubmits.increment();
+            try {
+                // The partition's worker is running, since its queue is full
+                partition.getQueue().put(task);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                return false;
+            }
+        }
+
+        private int getQueuedCount() {
+            int queued = 0;
+            for (ThreadPoolExecutor partition : partitions) {
+                queued += partition.getQueue().size();
+            }
+            return queued;
+        }
+
+        private void run(Runnable delivery, long queuedAt) {
+            long wait = bucket.reserve();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            try {
+                delivery.run();
+            } finally {
+                long elapsed = System.nanoTime() - queuedAt;
+                latency.record(elapsed, TimeUnit.NANOSECONDS);
+                if (elapsed > sloNanos) {
+                    sloViolations.increment();
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.pcs.vcms.repository;
 
 import com.pcs.vcms.entity.BerthAllocation;
 import com.pcs.vcms.entity.BerthAllocation.BerthAllocationStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,6 +18,9 @@ import java.util.Optional;
  * Repository interface for managing berth allocation data persistence and querying operations.
  * Provides comprehensive data access methods for berth scheduling, conflict detection,
  * and status management in the port management system.
+ * Every read whose allocations are converted to DTOs loads them with the
+ * {@link BerthAllocation#WITH_VESSEL_AND_BERTH} fetch plan, so a list costs one select
+ * whatever its length.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -22,6 +28,16 @@ import java.util.Optional;
 @Repository
 public interface BerthAllocationRepository extends JpaRepository<BerthAllocation, Long> {
 
+    /**
+     * Retrieves a berth allocation with its vessel call, vessel and berth.
+     *
+     * @param id the ID of the berth allocation
+     * @return Optional containing the berth allocation if found
+     */
+    @Override
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
+    Optional<BerthAllocation> findById(Long id);
+
     /**
      * Finds all berth allocations for a specific berth within a time range.
      * Useful for schedule management and availability checking.
@@ -36,6 +52,7 @@ public interface BerthAllocationRepository extends JpaRepository<BerthAllocation
            "AND ba.startTime >= :startTime " +
            "AND ba.startTime <= :endTime " +
            "ORDER BY ba.startTime ASC")
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
     List<BerthAllocation> findByBerthIdAndStartTimeBetween(
         @Param("berthId") Integer berthId,
         @Param("startTime") LocalDateTime startTime,
@@ -48,6 +65,7 @@ public interface BerthAllocationRepository extends JpaRepository<BerthAllocation
      * @param vesselCallId the ID of the vessel call
      * @return Optional containing berth allocation if found
      */
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
     Optional<BerthAllocation> findByVesselCall_Id(Long vesselCallId);
 
     /**
@@ -64,6 +82,7 @@ public interface BerthAllocationRepository extends JpaRepository<BerthAllocation
            "AND ba.status != 'CANCELLED' " +
            "AND (:startTime < ba.endTime AND :endTime > ba.startTime) " +
            "ORDER BY ba.startTime ASC")
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
     List<BerthAllocation> findOverlappingAllocations(
         @Param("berthId") Integer berthId,
         @Param("startTime") LocalDateTime startTime,
@@ -80,8 +99,19 @@ public interface BerthAllocationRepository extends JpaRepository<BerthAllocation
     @Query("SELECT ba FROM BerthAllocation ba " +
            "WHERE ba.status = :status " +
            "ORDER BY ba.startTime ASC")
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
     List<BerthAllocation> findByStatus(@Param("status") BerthAllocationStatus status);
 
+    /**
+     * Retrieves a page of berth allocations in any of the given statuses.
+     *
+     * @param statuses the allocation statuses to filter by
+     * @param pageable pagination parameters
+     * @return Page of berth allocations matching one of the statuses
+     */
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
+    Page<BerthAllocation> findByStatusIn(List<BerthAllocationStatus> statuses, Pageable pageable);
+
     /**
      * Finds active berth allocations for a specific berth.
      * Active allocations are those with status SCHEDULED or OCCUPIED.
@@ -93,6 +123,7 @@ public interface BerthAllocationRepository extends JpaRepository<BerthAllocation
            "WHERE ba.berth.id = :berthId " +
            "AND ba.status IN ('SCHEDULED', 'OCCUPIED') " +
            "ORDER BY ba.startTime ASC")
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
     List<BerthAllocation> findActiveBerthAllocations(@Param("berthId") Integer berthId);
 
     /**
@@ -105,5 +136,6 @@ public interface BerthAllocationRepository extends JpaRepository<BerthAllocation
            "WHERE ba.status = 'SCHEDULED' " +
            "AND ba.startTime BETWEEN CURRENT_TIMESTAMP AND CURRENT_TIMESTAMP + :hours " +
            "ORDER BY ba.startTime ASC")
+    @EntityGraph(BerthAllocation.WITH_VESSEL_AND_BERTH)
     List<BerthAllocation> findUpcomingAllocations(@Param("hours") Integer hours);
 }
\ No newline at end of file
@@ -3,13 +3,17 @@ package com.pcs.vcms.repository;
 import com.pcs.vcms.entity.Clearance;
 import com.pcs.vcms.entity.Clearance.ClearanceType;
 import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.repository.projection.ClearanceRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,6 +44,64 @@ public interface ClearanceRepository extends JpaRepository<Clearance, Long> {
      */
     Page<Clearance> findByStatus(ClearanceStatus status, Pageable pageable);
 
+    /**
+     * Retrieves the list rows of all clearances for a specific vessel call, latest submitted
+     * first. Selects only the DTO columns, so no entity is hydrated or managed.
+     *
+     * @param vesselCallId the ID of the vessel call
+     * @return clearance rows of the vessel call
+     */
+    @Query(ClearanceRow.SELECT + "WHERE vc.id = :vesselCallId " +
+           "ORDER BY c.submittedAt DESC, c.id DESC")
+    List<ClearanceRow> findRowsByVesselCallId(@Param("vesselCallId") Long vesselCallId);
+
+    /**
+     * Retrieves the list rows of the latest clearances with a specific status, newest first in
+     * {@code (submittedAt, id)} order. Starts a keyset paginated scan.
+     *
+     * @param status the clearance status to filter by
+     * @param limit maximum number of clearances
+     * @return clearance rows newest first
+     */
+    @Query(ClearanceRow.SELECT + "WHERE c.status = :status " +
+           "ORDER BY c.submittedAt DESC, c.id DESC")
+    List<ClearanceRow> findFirstRowsByStatus(@Param("status") ClearanceStatus status, Pageable limit);
+
+    /**
+     * Retrieves the list rows of the clearances with a specific status following a keyset
+     * cursor, newest first in {@code (submittedAt, id)} order.
+     *
+     * @param status the clearance status to filter by
+     * @param submittedAt submission time of the last clearance of the previous page
+     * @param id ID of the last clearance of the previous page
+     * @param limit maximum number of clearances
+     * @return clearance rows submitted before the cursor, newest first
+     */
+    @Query(ClearanceRow.SELECT + "WHERE c.status = :status " +
+           "AND c.submittedAt <= :submittedAt AND (c.submittedAt < :submittedAt OR c.id < :id) " +
+           "ORDER BY c.submittedAt DESC, c.id DESC")
+    List<ClearanceRow> findRowsByStatusBefore(@Param("status") ClearanceStatus status,
+                                              @Param("submittedAt") LocalDateTime submittedAt,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    /**
+     * Counts clearances with a specific status.
+     *
+     * @param status the clearance status to count
+     * @return number of clearances with the status
+     */
+    long countByStatus(ClearanceStatus status);
+
+    /**
+     * Retrieves clearances in any of the given statuses with pagination support.
+     *
+     * @param statuses the clearance statuses to filter by
+     * @param pageable pagination parameters
+     * @return page of clearances in one of the statuses
+     */
+    Page<Clearance> findByStatusIn(Collection<ClearanceStatus> statuses, Pageable pageable);
+
     /**
      * Retrieves clearances of a specific type and status with pagination support.
      *
@@ -3,6 +3,8 @@ package com.pcs.vcms.repository;
 import com.pcs.vcms.entity.ServiceBooking;
 import com.pcs.vcms.entity.ServiceBooking.ServiceType;
 import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
+import com.pcs.vcms.repository.projection.ServiceBookingRow;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,6 +18,8 @@ import java.util.Optional;
 /**
  * Repository interface for managing ServiceBooking entities with optimized database operations.
  * Provides methods for querying and managing port service bookings with performance monitoring.
+ * Reads whose bookings are mapped to DTOs load them with the {@link ServiceBooking#WITH_VESSEL_CALL}
+ * fetch plan; conflict and capacity checks leave the vessel call unloaded.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -30,6 +34,7 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
      * @return list of service bookings for the vessel call
      */
     @Query("SELECT sb FROM ServiceBooking sb WHERE sb.vesselCall.id = :vesselCallId AND sb.deleted = false")
+    @EntityGraph(ServiceBooking.WITH_VESSEL_CALL)
     List<ServiceBooking> findByVesselCallId(@Param("vesselCallId") Long vesselCallId);
 
     /**
@@ -45,11 +50,94 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
            "AND sb.status = :status " +
            "AND sb.deleted = false " +
            "ORDER BY sb.serviceTime ASC")
+    @EntityGraph(ServiceBooking.WITH_VESSEL_CALL)
     Page<ServiceBooking> findByServiceTypeAndStatus(
             @Param("serviceType") ServiceType serviceType,
             @Param("status") ServiceStatus status,
             Pageable pageable);
 
+    /**
+     * Find the list rows of the service bookings by type and status with pagination support.
+     * Selects only the DTO columns, so no entity is hydrated or managed.
+     *
+     * @param serviceType type of the service
+     * @param status status of the service booking
+     * @param pageable pagination parameters
+     * @return paginated result of service booking rows
+     */
+    @Query(value = ServiceBookingRow.SELECT +
+           "WHERE sb.serviceType = :serviceType " +
+           "AND sb.status = :status " +
+           "AND sb.deleted = false " +
+           "ORDER BY sb.serviceTime ASC",
+           countQuery = "SELECT COUNT(sb) FROM ServiceBooking sb " +
+           "WHERE sb.serviceType = :serviceType " +
+           "AND sb.status = :status " +
+           "AND sb.deleted = false")
+    Page<ServiceBookingRow> findRowsByServiceTypeAndStatus(
+            @Param("serviceType") ServiceType serviceType,
+            @Param("status") ServiceStatus status,
+            Pageable pageable);
+
+    /**
+     * Find the list rows of the first service bookings of a type and status in
+     * {@code (serviceTime, id)} order. Starts a keyset paginated scan.
+     *
+     * @param serviceType type of the service
+     * @param status status of the service booking
+     * @param limit maximum number of service bookings
+     * @return service booking rows in {@code (serviceTime, id)} order
+     */
+    @Query(ServiceBookingRow.SELECT +
+           "WHERE sb.serviceType = :serviceType " +
+           "AND sb.status = :status " +
+           "AND sb.deleted = false " +
+           "ORDER BY sb.serviceTime ASC, sb.id ASC")
+    List<ServiceBookingRow> findFirstRowsByServiceTypeAndStatus(
+            @Param("serviceType") ServiceType serviceType,
+            @Param("status") ServiceStatus status,
+            Pageable limit);
+
+    /**
+     * Find the list rows of the service bookings of a type and status following a keyset cursor
+     * in {@code (serviceTime, id)} order.
+     *
+     * @param serviceType type of the service
+     * @param status status of the service booking
+     * @param serviceTime service time of the last booking of the previous page
+     * @param id ID of the last booking of the previous page
+     * @param limit maximum number of service bookings
+     * @return service booking rows after the cursor in {@code (serviceTime, id)} order
+     */
+    @Query(ServiceBookingRow.SELECT +
+           "WHERE sb.serviceType = :serviceType " +
+           "AND sb.status = :status " +
+           "AND sb.deleted = false " +
+           "AND sb.serviceTime >= :serviceTime " +
+           "AND (sb.serviceTime > :serviceTime OR sb.id > :id) " +
+           "ORDER BY sb.serviceTime ASC, sb.id ASC")
+    List<ServiceBookingRow> findRowsByServiceTypeAndStatusAfter(
+            @Param("serviceType") ServiceType serviceType,
+            @Param("status") ServiceStatus status,
+            @Param("serviceTime") LocalDateTime serviceTime,
+            @Param("id") Long id,
+            Pageable limit);
+
+    /**
+     * Count the service bookings of a type and status.
+     *
+     * @param serviceType type of the service
+     * @param status status of the service booking
+     * @return count of service bookings
+     */
+    @Query("SELECT COUNT(sb) FROM ServiceBooking sb " +
+           "WHERE sb.serviceType = :serviceType " +
+           "AND sb.status = :status " +
+           "AND sb.deleted = false")
+    long countByServiceTypeAndStatus(
+            @Param("serviceType") ServiceType serviceType,
+            @Param("status") ServiceStatus status);
+
     /**
      * Find service bookings for a specific time period and status with optimized time-based query.
      *
@@ -118,6 +206,18 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
     List<ServiceBooking> findActiveBookingsByServiceType(
             @Param("serviceType") ServiceType serviceType);
 
+    /**
+     * Find active service bookings of all service types with pagination support.
+     *
+     * @param pageable pagination parameters
+     * @return paginated result of active service bookings
+     */
+    @Query("SELECT sb FROM ServiceBooking sb " +
+           "WHERE sb.status IN ('REQUESTED', 'CONFIRMED', 'IN_PROGRESS') " +
+           "AND sb.deleted = false")
+    @EntityGraph(ServiceBooking.WITH_VESSEL_CALL)
+    Page<ServiceBooking> findActiveBookings(Pageable pageable);
+
     /**
      * Find service booking by ID with optimistic locking support.
      *
@@ -126,5 +226,6 @@ public interface ServiceBookingRepository extends JpaRepository<ServiceBooking,
      */
     @Query("SELECT sb FROM ServiceBooking sb " +
            "WHERE sb.id = :id AND sb.deleted = false")
+    @EntityGraph(ServiceBooking.WITH_VESSEL_CALL)
     Optional<ServiceBooking> findByIdAndNotDeleted(@Param("id") Long id);
 }
\ No newline at end of file
@@ -2,10 +2,13 @@ package com.pcs.vcms.repository;
 
 import com.pcs.vcms.entity.VesselCall;
 import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+import com.pcs.vcms.repository.projection.VesselCallRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import javax.persistence.QueryHint;
@@ -70,6 +73,134 @@ public interface VesselCallRepository extends JpaRepository<VesselCall, Long> {
     })
     Page<VesselCall> findByEtaBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
+    /**
+     * Finds the list rows of the vessel calls with the given status with pagination support.
+     * Selects only the DTO columns, so no entity is hydrated or managed.
+     *
+     * @param status the status of vessel calls to find
+     * @param pageable pagination parameters
+     * @return Page of vessel call rows matching the status
+     */
+    @Query(value = VesselCallRow.SELECT + "WHERE v.status = :status",
+           countQuery = "SELECT COUNT(v) FROM VesselCall v WHERE v.status = :status")
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "50")
+    })
+    Page<VesselCallRow> findRowsByStatus(@Param("status") VesselCallStatus status, Pageable pageable);
+
+    /**
+     * Finds the list rows of the vessel calls with ETA within the given date range with pagination.
+     *
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param pageable pagination parameters
+     * @return Page of vessel call rows within the date range
+     */
+    @Query(value = VesselCallRow.SELECT + "WHERE v.eta BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(v) FROM VesselCall v WHERE v.eta BETWEEN :startDate AND :endDate")
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "50")
+    })
+    Page<VesselCallRow> findRowsByEtaBetween(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             Pageable pageable);
+
+    /**
+     * Finds the list rows of the first vessel calls with the given status in {@code (eta, id)}
+     * order. Starts a keyset paginated scan; the limit comes from the pageable.
+     *
+     * @param status the status of vessel calls to find
+     * @param limit maximum number of vessel calls
+     * @return vessel call rows in {@code (eta, id)} order
+     */
+    @Query(VesselCallRow.SELECT + "WHERE v.status = :status " +
+           "ORDER BY v.eta ASC, v.id ASC")
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "50")
+    })
+    List<VesselCallRow> findFirstRowsByStatus(@Param("status") VesselCallStatus status, Pageable limit);
+
+    /**
+     * Finds the list rows of the vessel calls with the given status following a keyset cursor in
+     * {@code (eta, id)} order. The {@code eta >= :eta} bound lets the status index seek past
+     * the cursor.
+     *
+     * @param status the status of vessel calls to find
+     * @param eta ETA of the last vessel call of the previous page
+     * @param id ID of the last vessel call of the previous page
+     * @param limit maximum number of vessel calls
+     * @return vessel call rows after the cursor in {@code (eta, id)} order
+     */
+    @Query(VesselCallRow.SELECT + "WHERE v.status = :status " +
+           "AND v.eta >= :eta AND (v.eta > :eta OR v.id > :id) " +
+           "ORDER BY v.eta ASC, v.id ASC")
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "50")
+    })
+    List<VesselCallRow> findRowsByStatusAfter(@Param("status") VesselCallStatus status,
+                                              @Param("eta") LocalDateTime eta,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    /**
+     * Finds the list rows of the first vessel calls with ETA within the given date range in
+     * {@code (eta, id)} order.
+     *
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param limit maximum number of vessel calls
+     * @return vessel call rows in {@code (eta, id)} order
+     */
+    @Query(VesselCallRow.SELECT + "WHERE v.eta BETWEEN :startDate AND :endDate " +
+           "ORDER BY v.eta ASC, v.id ASC")
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "50")
+    })
+    List<VesselCallRow> findFirstRowsByEtaBetween(@Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate,
+                                                  Pageable limit);
+
+    /**
+     * Finds the list rows of the vessel calls with ETA within the given date range following a
+     * keyset cursor in {@code (eta, id)} order. The start of the range is kept as a bound so
+     * that a cursor can never widen the range it was issued for.
+     *
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @param eta ETA of the last vessel call of the previous page
+     * @param id ID of the last vessel call of the previous page
+     * @param limit maximum number of vessel calls
+     * @return vessel call rows after the cursor in {@code (eta, id)} order
+     */
+    @Query(VesselCallRow.SELECT + "WHERE v.eta >= :startDate AND v.eta <= :endDate AND v.eta >= :eta " +
+           "AND (v.eta > :eta OR v.id > :id) " +
+           "ORDER BY v.eta ASC, v.id ASC")
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "50")
+    })
+    List<VesselCallRow> findRowsByEtaRangeAfter(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate,
+                                                @Param("eta") LocalDateTime eta,
+                                                @Param("id") Long id,
+                                                Pageable limit);
+
+    /**
+     * Counts the vessel calls with the given status.
+     *
+     * @param status the status to count
+     * @return number of vessel calls with the status
+     */
+    long countByStatus(VesselCallStatus status);
+
+    /**
+     * Counts the vessel calls with ETA within the given date range.
+     *
+     * @param startDate start of the date range
+     * @param endDate end of the date range
+     * @return number of vessel calls within the date range
+     */
+    long countByEtaBetween(LocalDateTime startDate, LocalDateTime endDate);
+
     /**
      * Checks if a vessel call exists with the given call sign.
      * Optimized for read-only operations with caching enabled.
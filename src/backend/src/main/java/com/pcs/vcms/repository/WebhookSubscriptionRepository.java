@@ -0,0 +1,39 @@
+package com.pcs.vcms.repository;
+
+import com.pcs.vcms.entity.WebhookSubscription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing WebhookSubscription entities.
+ */
+@Repository
+public interface WebhookSubscriptionRepository extends JpaRepository<WebhookSubscription, Long> {
+
+    /**
+     * Find every active subscription, used to build the in-memory routing index.
+     *
+     * @return active subscriptions
+     */
+    List<WebhookSubscription> findByActiveTrue();
+
+    /**
+     * Find the subscriptions registered by an agent.
+     *
+     * @param agent agent user name
+     * @return subscriptions of the agent
+     */
+    List<WebhookSubscription> findByAgentOrderByIdAsc(String agent);
+
+    /**
+     * Find a subscription of an agent by id.
+     *
+     * @param id subscription id
+     * @param agent agent user name
+     * @return subscription if it exists and belongs to the agent
+     */
+    Optional<WebhookSubscription> findByIdAndAgent(Long id, String agent);
+}
@@ -0,0 +1,57 @@
+package com.pcs.vcms.repository.projection;
+
+import com.pcs.vcms.dto.ClearanceDTO;
+import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.entity.Clearance.ClearanceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a clearance list row, selected by a JPQL constructor expression together with the
+ * vessel call and vessel name it refers to.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public record ClearanceRow(Long id,
+                           Long vesselCallId,
+                           String vesselName,
+                           ClearanceType type,
+                           ClearanceStatus status,
+                           String referenceNumber,
+                           String submittedBy,
+                           String approvedBy,
+                           String remarks,
+                           LocalDateTime submittedAt,
+                           LocalDateTime approvedAt,
+                           LocalDateTime validUntil,
+                           LocalDateTime createdAt,
+                           LocalDateTime updatedAt) {
+
+    /**
+     * JPQL select of a row; queries append their conditions and order.
+     */
+    public static final String SELECT = "SELECT new com.pcs.vcms.repository.projection.ClearanceRow(" +
+            "c.id, vc.id, ve.name, c.type, c.status, c.referenceNumber, c.submittedBy, c.approvedBy, " +
+            "c.remarks, c.submittedAt, c.approvedAt, c.validUntil, c.createdAt, c.updatedAt) " +
+            "FROM Clearance c JOIN c.vesselCall vc JOIN vc.vessel ve ";
+
+    public ClearanceDTO toDTO() {
+        return ClearanceDTO.builder()
+                .id(id)
+                .vesselCallId(vesselCallId)
+                .vesselName(vesselName)
+                .type(type)
+                .status(status)
+                .referenceNumber(referenceNumber)
+                .submittedBy(submittedBy)
+                .approvedBy(approvedBy)
+                .remarks(remarks)
+                .submittedAt(submittedAt)
+                .approvedAt(approvedAt)
+                .validUntil(validUntil)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.pcs.vcms.repository.projection;
+
+import com.pcs.vcms.dto.ServiceBookingDTO;
+import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
+import com.pcs.vcms.entity.ServiceBooking.ServiceType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a service booking list row, selected by a JPQL constructor expression together
+ * with the vessel call and vessel name it refers to.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public record ServiceBookingRow(Long id,
+                                Long vesselCallId,
+                                String vesselName,
+                                ServiceType serviceType,
+                                ServiceStatus status,
+                                Integer quantity,
+                                LocalDateTime serviceTime,
+                                String remarks,
+                                LocalDateTime createdAt,
+                                LocalDateTime updatedAt) {
+
+    /**
+     * JPQL select of a row; queries append their conditions and order.
+     */
+    public static final String SELECT = "SELECT new com.pcs.vcms.repository.projection.ServiceBookingRow(" +
+            "sb.id, vc.id, ve.name, sb.serviceType, sb.status, sb.quantity, sb.serviceTime, " +
+            "sb.remarks, sb.createdAt, sb.updatedAt) " +
+            "FROM ServiceBooking sb JOIN sb.vesselCall vc JOIN vc.vessel ve ";
+
+    public ServiceBookingDTO toDTO() {
+        return ServiceBookingDTO.builder()
+                .id(id)
+                .vesselCallId(vesselCallId)
+                .vesselName(vesselName)
+                .serviceType(serviceType)
+                .status(status)
+                .quantity(quantity)
+                .serviceTime(serviceTime)
+                .remarks(remarks)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
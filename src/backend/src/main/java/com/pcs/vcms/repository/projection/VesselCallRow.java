@@ -0,0 +1,53 @@
+package com.pcs.vcms.repository.projection;
+
+import com.pcs.vcms.dto.VesselCallDTO;
+import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a vessel call list row, selected by a JPQL constructor expression together with
+ * the vessel it belongs to. Rows are plain values: they are not managed, dirty checked or
+ * lazily loaded, and map to the DTO without going through the entity.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public record VesselCallRow(Long id,
+                            Long vesselId,
+                            String vesselName,
+                            String imoNumber,
+                            String callSign,
+                            VesselCallStatus status,
+                            LocalDateTime eta,
+                            LocalDateTime etd,
+                            LocalDateTime ata,
+                            LocalDateTime atd,
+                            LocalDateTime createdAt,
+                            LocalDateTime updatedAt) {
+
+    /**
+     * JPQL select of a row; queries append their conditions and order.
+     */
+    public static final String SELECT = "SELECT new com.pcs.vcms.repository.projection.VesselCallRow(" +
+            "v.id, ve.id, ve.name, ve.imoNumber, v.callSign, v.status, " +
+            "v.eta, v.etd, v.ata, v.atd, v.createdAt, v.updatedAt) " +
+            "FROM VesselCall v JOIN v.vessel ve ";
+
+    public VesselCallDTO toDTO() {
+        return VesselCallDTO.builder()
+                .id(id)
+                .vesselId(vesselId)
+                .vesselName(vesselName)
+                .imoNumber(imoNumber)
+                .callSign(callSign)
+                .status(status)
+                .eta(eta)
+                .etd(etd)
+                .ata(ata)
+                .atd(atd)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.pcs.vcms.service;
 
+import com.pcs.vcms.common.paging.CursorPage;
 import com.pcs.vcms.dto.ClearanceDTO;
 import com.pcs.vcms.entity.Clearance.ClearanceStatus;
 import org.springframework.data.domain.Page;
@@ -71,6 +72,19 @@ public interface ClearanceService {
                                    LocalDateTime fromDate,
                                    LocalDateTime toDate);
 
+    /**
+     * Retrieves clearances with a status with keyset pagination, newest first in
+     * {@code (submittedAt, id)} order.
+     *
+     * @param status the clearance status
+     * @param cursor continuation token of the previous page, null for the first page
+     * @param size page size
+     * @param includeTotal whether to count all clearances with the status
+     * @return page of clearances with the token of the next page
+     * @throws ValidationException if the cursor is invalid
+     */
+    CursorPage<ClearanceDTO> scrollByStatus(ClearanceStatus status, String cursor, int size, boolean includeTotal);
+
     /**
      * Validates if all required clearances are approved for vessel departure.
      *
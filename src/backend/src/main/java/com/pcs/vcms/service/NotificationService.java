@@ -12,7 +12,6 @@ import javax.validation.constraints.Pattern;
 
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.validation.annotation.Validated;
-import org.springframework.scheduling.annotation.Async;
 
 /**
  * Service interface for managing real-time notifications in the Vessel Call Management System.
@@ -33,7 +32,6 @@ public interface NotificationService {
      * @throws IllegalArgumentException if vesselCall is invalid
      * @throws SecurityException if caller lacks required permissions
      */
-    @Async
     @Secured({"ROLE_PORT_AUTHORITY", "ROLE_VESSEL_AGENT"})
     NotificationResult sendVesselCallUpdate(@NotNull @Valid VesselCall vesselCall);
 
@@ -46,7 +44,6 @@ public interface NotificationService {
      * @throws IllegalArgumentException if berthAllocation is invalid
      * @throws SecurityException if caller lacks required permissions
      */
-    @Async
     @Secured("ROLE_PORT_AUTHORITY")
     NotificationResult sendBerthAllocationUpdate(@NotNull @Valid BerthAllocation berthAllocation);
 
@@ -59,7 +56,6 @@ public interface NotificationService {
      * @throws IllegalArgumentException if serviceBooking is invalid
      * @throws SecurityException if caller lacks required permissions
      */
-    @Async
     @Secured({"ROLE_SERVICE_PROVIDER", "ROLE_VESSEL_AGENT"})
     NotificationResult sendServiceStatusUpdate(@NotNull @Valid ServiceBooking serviceBooking);
 
@@ -72,7 +68,6 @@ public interface NotificationService {
      * @throws IllegalArgumentException if clearance is invalid
      * @throws SecurityException if caller lacks required permissions
      */
-    @Async
     @Secured({"ROLE_PORT_AUTHORITY", "ROLE_CUSTOMS"})
     NotificationResult sendClearanceUpdate(@NotNull @Valid Clearance clearance);
 
@@ -86,7 +81,6 @@ public interface NotificationService {
      * @throws IllegalArgumentException if userId or message is invalid
      * @throws SecurityException if caller lacks required permissions
      */
-    @Async
     @Validated
     NotificationResult sendUserNotification(
         @NotNull @Pattern(regexp = "^[A-Za-z0-9-]+$") String userId,
@@ -1,5 +1,6 @@
 package com.pcs.vcms.service;
 
+import com.pcs.vcms.common.paging.CursorPage;
 import com.pcs.vcms.dto.ServiceBookingDTO;
 import com.pcs.vcms.entity.ServiceBooking.ServiceType;
 import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
@@ -55,6 +56,26 @@ public interface ServiceBookingService {
         Pageable pageable
     );
 
+    /**
+     * Retrieves service bookings of a type and status with keyset pagination in
+     * {@code (serviceTime, id)} order.
+     *
+     * @param serviceType type of service to filter by
+     * @param status booking status to filter by
+     * @param cursor continuation token of the previous page, null for the first page
+     * @param size page size
+     * @param includeTotal whether to count all matching service bookings
+     * @return page of service bookings with the token of the next page
+     * @throws ValidationException if the cursor is invalid
+     */
+    CursorPage<ServiceBookingDTO> scrollByTypeAndStatus(
+        ServiceType serviceType,
+        ServiceStatus status,
+        String cursor,
+        int size,
+        boolean includeTotal
+    );
+
     /**
      * Cancels an existing service booking with reason tracking and stakeholder notifications.
      *
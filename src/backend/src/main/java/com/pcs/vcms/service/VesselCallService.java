@@ -1,5 +1,6 @@
 package com.pcs.vcms.service;
 
+import com.pcs.vcms.common.paging.CursorPage;
 import com.pcs.vcms.dto.VesselCallDTO;
 import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
 import org.springframework.data.domain.Page;
@@ -81,6 +82,32 @@ public interface VesselCallService {
      */
     Page<VesselCallDTO> findByDateRange(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
+    /**
+     * Retrieves vessel calls by status with keyset pagination in {@code (eta, id)} order.
+     *
+     * @param status the vessel call status
+     * @param cursor continuation token of the previous page, null for the first page
+     * @param size page size
+     * @param includeTotal whether to count all vessel calls with the status
+     * @return page of vessel calls with the token of the next page
+     * @throws ValidationException if the cursor is invalid
+     */
+    CursorPage<VesselCallDTO> scrollByStatus(VesselCallStatus status, String cursor, int size, boolean includeTotal);
+
+    /**
+     * Retrieves vessel calls within a date range with keyset pagination in {@code (eta, id)} order.
+     *
+     * @param startDate the start date
+     * @param endDate the end date
+     * @param cursor continuation token of the previous page, null for the first page
+     * @param size page size
+     * @param includeTotal whether to count all vessel calls within the date range
+     * @return page of vessel calls with the token of the next page
+     * @throws ValidationException if the cursor is invalid
+     */
+    CursorPage<VesselCallDTO> scrollByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                String cursor, int size, boolean includeTotal);
+
     /**
      * Updates vessel call status with transition validation and security checks.
      *
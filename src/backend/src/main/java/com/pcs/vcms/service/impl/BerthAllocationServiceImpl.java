@@ -10,6 +10,10 @@ import com.pcs.vcms.service.BerthAllocationService;
 import com.pcs.vcms.util.BerthAllocationAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.websocket.client.WebSocketTemplate;
@@ -23,6 +27,7 @@ import java.util.stream.Collectors;
 /**
  * Implementation of BerthAllocationService providing intelligent berth allocation management
  * with optimization algorithms to achieve 30% improvement in berth utilization.
+ * Single allocations are cached by id as DTOs in the {@code berthAllocations} cache.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -30,6 +35,7 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 @Transactional
+@CacheConfig(cacheNames = "berthAllocations")
 public class BerthAllocationServiceImpl implements BerthAllocationService {
 
     private final BerthAllocationRepository berthAllocationRepository;
@@ -90,6 +96,7 @@ public class BerthAllocationServiceImpl implements BerthAllocationService {
 
     @Override
     @Transactional
+    @CachePut(key = "#id")
     public BerthAllocationDTO updateBerthAllocation(Long id, BerthAllocationDTO allocationDTO) {
         log.info("Updating berth allocation ID: {}", id);
 
@@ -134,6 +141,7 @@ public class BerthAllocationServiceImpl implements BerthAllocationService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(key = "#id", unless = "#result == null")
     public Optional<BerthAllocationDTO> getBerthAllocation(Long id) {
         log.debug("Retrieving berth allocation ID: {}", id);
         return berthAllocationRepository.findById(id)
@@ -152,6 +160,7 @@ public class BerthAllocationServiceImpl implements BerthAllocationService {
 
     @Override
     @Transactional
+    @CacheEvict(key = "#id")
     public void cancelBerthAllocation(Long id) {
         log.info("Cancelling berth allocation ID: {}", id);
         
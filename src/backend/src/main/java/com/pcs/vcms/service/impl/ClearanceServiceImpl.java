@@ -2,10 +2,16 @@ package com.pcs.vcms.service.impl;
 
 import com.pcs.vcms.service.ClearanceService;
 import com.pcs.vcms.repository.ClearanceRepository;
+import com.pcs.vcms.repository.projection.ClearanceRow;
 import com.pcs.vcms.dto.ClearanceDTO;
 import com.pcs.vcms.entity.Clearance;
 import com.pcs.vcms.entity.Clearance.ClearanceStatus;
 import com.pcs.vcms.audit.AuditService;
+import com.pcs.vcms.cache.CacheTagIndex;
+import com.pcs.vcms.cache.CacheTags;
+import com.pcs.vcms.common.paging.CursorCodec;
+import com.pcs.vcms.common.paging.CursorPage;
+import com.pcs.vcms.common.paging.KeysetCursor;
 import com.pcs.vcms.exception.ClearanceNotFoundException;
 import com.pcs.vcms.exception.InvalidStatusTransitionException;
 import com.pcs.vcms.mapper.ClearanceMapper;
@@ -16,10 +22,8 @@ import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,7 +37,8 @@ import java.util.stream.Collectors;
 
 /**
  * Implementation of ClearanceService providing secure, audited, and optimized
- * business logic for managing vessel clearances.
+ * business logic for managing vessel clearances. List reads select {@link ClearanceRow}
+ * projections instead of loading entities.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -51,6 +56,8 @@ public class ClearanceServiceImpl implements ClearanceService {
     private final ClearanceValidator clearanceValidator;
     private final ClearanceMapper clearanceMapper;
     private final MeterRegistry meterRegistry;
+    private final CacheTagIndex cacheTagIndex;
+    private final CursorCodec cursorCodec;
 
     private final Timer submitClearanceTimer;
     private final Timer updateStatusTimer;
@@ -62,12 +69,16 @@ public class ClearanceServiceImpl implements ClearanceService {
                               AuditService auditService,
                               ClearanceValidator clearanceValidator,
                               ClearanceMapper clearanceMapper,
-                              MeterRegistry meterRegistry) {
+                              MeterRegistry meterRegistry,
+                              CacheTagIndex cacheTagIndex,
+                              CursorCodec cursorCodec) {
         this.clearanceRepository = clearanceRepository;
         this.auditService = auditService;
         this.clearanceValidator = clearanceValidator;
         this.clearanceMapper = clearanceMapper;
         this.meterRegistry = meterRegistry;
+        this.cacheTagIndex = cacheTagIndex;
+        this.cursorCodec = cursorCodec;
         
         this.submitClearanceTimer = Timer.builder("clearance.submit.time")
                 .description("Time taken to submit clearance")
@@ -80,7 +91,6 @@ public class ClearanceServiceImpl implements ClearanceService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ROLE_AGENT') or hasRole('ROLE_PORT_AUTHORITY')")
-    @CacheEvict(allEntries = true)
     public ClearanceDTO submitClearance(@Valid ClearanceDTO clearanceDTO) {
         return submitClearanceTimer.record(() -> {
             log.info("Submitting new clearance request for vessel call: {}", 
@@ -95,6 +105,8 @@ public class ClearanceServiceImpl implements ClearanceService {
             Clearance savedClearance = clearanceRepository.save(clearance);
 
             auditService.logClearanceSubmission(savedClearance);
+            // A new clearance only changes the clearance list of its vessel call
+            cacheTagIndex.invalidateAfterCommit(CacheTags.vesselCall(clearanceDTO.getVesselCallId()));
             
             meterRegistry.counter("clearance.submissions").increment();
 
@@ -105,7 +117,6 @@ public class ClearanceServiceImpl implements ClearanceService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ROLE_PORT_AUTHORITY')")
-    @CacheEvict(allEntries = true)
     public ClearanceDTO updateClearanceStatus(Long clearanceId, 
                                             ClearanceStatus newStatus,
                                             String remarks) {
@@ -128,6 +139,7 @@ public class ClearanceServiceImpl implements ClearanceService {
             Clearance updatedClearance = clearanceRepository.save(clearance);
 
             auditService.logStatusUpdate(updatedClearance, newStatus);
+            invalidateCachedClearance(updatedClearance);
             
             meterRegistry.counter("clearance.status.updates", 
                     "status", newStatus.name()).increment();
@@ -152,12 +164,30 @@ public class ClearanceServiceImpl implements ClearanceService {
     @Cacheable(key = "'vesselCall:' + #vesselCallId")
     public List<ClearanceDTO> getClearancesByVesselCall(Long vesselCallId) {
         log.debug("Retrieving clearances for vessel call: {}", vesselCallId);
-        return clearanceRepository.findByVesselCallId(vesselCallId, Pageable.unpaged())
+        return clearanceRepository.findRowsByVesselCallId(vesselCallId)
                 .stream()
-                .map(clearanceMapper::toDTO)
+                .map(ClearanceRow::toDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('ROLE_AGENT', 'ROLE_PORT_AUTHORITY')")
+    public CursorPage<ClearanceDTO> scrollByStatus(ClearanceStatus status, String cursor,
+                                                   int size, boolean includeTotal) {
+        log.debug("Scrolling clearances by status: {}", status);
+        String scope = "clearances.byStatus/" + status;
+        KeysetCursor before = cursorCodec.decode(cursor, scope);
+        List<ClearanceRow> rows = before == null
+                ? clearanceRepository.findFirstRowsByStatus(status, CursorPage.fetchLimit(size))
+                : clearanceRepository.findRowsByStatusBefore(status, before.getSortKey(), before.getId(),
+                        CursorPage.fetchLimit(size));
+        return CursorPage.of(rows, size, cursorCodec, scope,
+                row -> new KeysetCursor(row.submittedAt(), row.id()),
+                ClearanceRow::toDTO,
+                includeTotal ? clearanceRepository.countByStatus(status) : null);
+    }
+
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ROLE_PORT_AUTHORITY')")
@@ -180,7 +210,6 @@ public class ClearanceServiceImpl implements ClearanceService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ROLE_PORT_AUTHORITY')")
-    @CacheEvict(allEntries = true)
     public ClearanceDTO cancelClearance(Long clearanceId, String remarks) {
         log.info("Cancelling clearance: {}", clearanceId);
 
@@ -198,12 +227,26 @@ public class ClearanceServiceImpl implements ClearanceService {
         Clearance cancelledClearance = clearanceRepository.save(clearance);
         
         auditService.logClearanceCancellation(cancelledClearance);
+        invalidateCachedClearance(cancelledClearance);
         
         meterRegistry.counter("clearance.cancellations").increment();
 
         return clearanceMapper.toDTO(cancelledClearance);
     }
 
+    /**
+     * Evicts the cached entries holding a clearance: the clearance itself and the clearance
+     * list of its vessel call.
+     */
+    private void invalidateCachedClearance(Clearance clearance) {
+        if (clearance.getVesselCall() != null) {
+            cacheTagIndex.invalidateAfterCommit(CacheTags.clearance(clearance.getId()),
+                    CacheTags.vesselCall(clearance.getVesselCall().getId()));
+        } else {
+            cacheTagIndex.invalidateAfterCommit(CacheTags.clearance(clearance.getId()));
+        }
+    }
+
     private void validateStatusTransition(ClearanceStatus currentStatus, 
                                         ClearanceStatus newStatus) {
         if (!isValidTransition(currentStatus, newStatus)) {
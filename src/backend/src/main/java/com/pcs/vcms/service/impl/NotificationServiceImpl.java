@@ -6,24 +6,43 @@ import com.pcs.vcms.entity.BerthAllocation;
 import com.pcs.vcms.entity.ServiceBooking;
 import com.pcs.vcms.entity.Clearance;
 import com.pcs.vcms.common.tracking.NotificationDeliveryTracker;
+import com.pcs.vcms.common.tracking.NotificationDeliveryTracker.DeliveryState;
+import com.pcs.vcms.mapper.BerthAllocationMapper;
+import com.pcs.vcms.mapper.ClearanceMapper;
+import com.pcs.vcms.mapper.ServiceBookingMapper;
+import com.pcs.vcms.mapper.VesselCallMapper;
+import com.pcs.vcms.notification.NotificationLane;
+import com.pcs.vcms.notification.NotificationLanes;
 import com.pcs.vcms.security.MessageSignatureService;
+import com.pcs.vcms.websocket.RealtimeDispatcher;
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.RoutingKeys;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retry;
+import org.springframework.retry.support.RetryTemplate;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.resilience4j.ratelimiter.RateLimiter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
 
 /**
  * Enhanced implementation of NotificationService providing secure, reliable real-time notifications
  * with comprehensive delivery tracking and monitoring capabilities.
+ * <p>
+ * Entities are mapped to their DTOs, as plain maps, on the calling thread while their persistence
+ * context is still open. Lanes, replay buffers, snapshots and webhooks therefore never hold
+ * managed entities or touch lazy associations outside a session.
+ * <p>
+ * Send methods return as soon as the notification is queued on its lane. The lane worker
+ * retries a failed delivery with a fixed backoff ({@code vcms.notification.retry.*}) before the
+ * deliveries queued behind it for the same entity, and records the final outcome in the
+ * delivery tracker, from which the returned result reads its status. Send rates are bounded by
+ * the token buckets of the lanes.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -32,158 +51,151 @@ import java.util.HashMap;
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final RealtimeDispatcher dispatcher;
     private final ObjectMapper objectMapper;
     private final NotificationDeliveryTracker deliveryTracker;
     private final MessageSignatureService signatureService;
-    private final RateLimiter rateLimiter;
+    private final NotificationLanes lanes;
+    private final VesselCallMapper vesselCallMapper;
+    private final BerthAllocationMapper berthAllocationMapper;
+    private final ServiceBookingMapper serviceBookingMapper;
+    private final ClearanceMapper clearanceMapper;
+    private final String portCode;
+    private final RetryTemplate retryTemplate;
 
-    private static final String VESSEL_TOPIC = "/topic/vessel-calls";
-    private static final String BERTH_TOPIC = "/topic/berth-allocations";
-    private static final String SERVICE_TOPIC = "/topic/service-bookings";
-    private static final String CLEARANCE_TOPIC = "/topic/clearances";
     private static final String USER_TOPIC = "/topic/user/";
+    private static final TypeReference<Map<String, Object>> DATA_TYPE = new TypeReference<>() { };
 
     /**
      * Constructs a new NotificationServiceImpl with required dependencies.
      */
     public NotificationServiceImpl(
-            SimpMessagingTemplate messagingTemplate,
+            RealtimeDispatcher dispatcher,
             ObjectMapper objectMapper,
             NotificationDeliveryTracker deliveryTracker,
             MessageSignatureService signatureService,
-            RateLimiter rateLimiter) {
-        this.messagingTemplate = messagingTemplate;
+            NotificationLanes lanes,
+            VesselCallMapper vesselCallMapper,
+            BerthAllocationMapper berthAllocationMapper,
+            ServiceBookingMapper serviceBookingMapper,
+            ClearanceMapper clearanceMapper,
+            @Value("${vcms.port.code:DEFAULT}") String portCode,
+            @Value("${vcms.notification.retry.max-attempts:3}") int maxAttempts,
+            @Value("${vcms.notification.retry.backoff-ms:1000}") long backoffMillis) {
+        this.dispatcher = dispatcher;
         this.objectMapper = objectMapper;
         this.deliveryTracker = deliveryTracker;
         this.signatureService = signatureService;
-        this.rateLimiter = rateLimiter;
+        this.lanes = lanes;
+        this.vesselCallMapper = vesselCallMapper;
+        this.berthAllocationMapper = berthAllocationMapper;
+        this.serviceBookingMapper = serviceBookingMapper;
+        this.clearanceMapper = clearanceMapper;
+        this.portCode = portCode;
+        this.retryTemplate = RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .fixedBackoff(backoffMillis)
+                .build();
     }
 
     @Override
-    @Retry(maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public NotificationResult sendVesselCallUpdate(VesselCall vesselCall) {
-        String trackingId = UUID.randomUUID().toString();
+        long trackingId = deliveryTracker.nextTrackingId();
         log.info("Sending vessel call update notification. TrackingId: {}, VesselCall: {}", 
                 trackingId, vesselCall.getCallSign());
 
-        try {
+        Map<String, Object> data = toData(vesselCallMapper.toDTO(vesselCall));
+        String entityKey = RoutingKeys.vesselCall(vesselCall.getId());
+        Set<String> routingKeys = RoutingKeys.forVesselCall(vesselCall, portCode);
+        return submit(lanes.laneFor(RealtimeTopic.VESSEL_CALLS), entityKey, trackingId, "vessel call update", () -> {
             Map<String, Object> payload = createNotificationPayload(
                 "VESSEL_UPDATE",
-                vesselCall,
+                data,
                 trackingId
             );
 
             String signature = signatureService.signMessage(objectMapper.writeValueAsString(payload));
             payload.put("signature", signature);
 
-            deliveryTracker.trackDeliveryStart(trackingId);
-            messagingTemplate.convertAndSend(VESSEL_TOPIC, payload);
-            deliveryTracker.trackDeliverySuccess(trackingId);
-
-            return createSuccessResult(trackingId);
-        } catch (Exception e) {
-            log.error("Failed to send vessel call update. TrackingId: {}", trackingId, e);
-            deliveryTracker.trackDeliveryFailure(trackingId, e.getMessage());
-            return createErrorResult(trackingId, e.getMessage());
-        }
+            dispatcher.dispatch(RealtimeTopic.VESSEL_CALLS, entityKey, routingKeys, payload);
+        });
     }
 
     @Override
-    @Retry(maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public NotificationResult sendBerthAllocationUpdate(BerthAllocation berthAllocation) {
-        String trackingId = UUID.randomUUID().toString();
+        long trackingId = deliveryTracker.nextTrackingId();
         log.info("Sending berth allocation update notification. TrackingId: {}, Berth: {}", 
                 trackingId, berthAllocation.getBerth().getName());
 
-        try {
+        Map<String, Object> data = toData(berthAllocationMapper.toDTO(berthAllocation));
+        String entityKey = RoutingKeys.entityKey(berthAllocation);
+        Set<String> routingKeys = RoutingKeys.forBerthAllocation(berthAllocation, portCode);
+        return submit(lanes.laneFor(RealtimeTopic.BERTH_ALLOCATIONS), entityKey, trackingId, "berth allocation update", () -> {
             Map<String, Object> payload = createNotificationPayload(
                 "BERTH_UPDATE",
-                berthAllocation,
+                data,
                 trackingId
             );
 
             String signature = signatureService.signMessage(objectMapper.writeValueAsString(payload));
             payload.put("signature", signature);
 
-            deliveryTracker.trackDeliveryStart(trackingId);
-            messagingTemplate.convertAndSend(BERTH_TOPIC, payload);
-            deliveryTracker.trackDeliverySuccess(trackingId);
-
-            return createSuccessResult(trackingId);
-        } catch (Exception e) {
-            log.error("Failed to send berth allocation update. TrackingId: {}", trackingId, e);
-            deliveryTracker.trackDeliveryFailure(trackingId, e.getMessage());
-            return createErrorResult(trackingId, e.getMessage());
-        }
+            dispatcher.dispatch(RealtimeTopic.BERTH_ALLOCATIONS, entityKey, routingKeys, payload);
+        });
     }
 
     @Override
-    @Retry(maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public NotificationResult sendServiceStatusUpdate(ServiceBooking serviceBooking) {
-        String trackingId = UUID.randomUUID().toString();
+        long trackingId = deliveryTracker.nextTrackingId();
         log.info("Sending service status update notification. TrackingId: {}, Service: {}", 
                 trackingId, serviceBooking.getServiceType());
 
-        try {
+        Map<String, Object> data = toData(serviceBookingMapper.toDTO(serviceBooking));
+        String entityKey = RoutingKeys.serviceBooking(serviceBooking.getId());
+        Set<String> routingKeys = RoutingKeys.forServiceBooking(serviceBooking, portCode);
+        return submit(lanes.laneFor(RealtimeTopic.SERVICE_BOOKINGS), entityKey, trackingId, "service status update", () -> {
             Map<String, Object> payload = createNotificationPayload(
                 "SERVICE_UPDATE",
-                serviceBooking,
+                data,
                 trackingId
             );
 
             String signature = signatureService.signMessage(objectMapper.writeValueAsString(payload));
             payload.put("signature", signature);
 
-            deliveryTracker.trackDeliveryStart(trackingId);
-            messagingTemplate.convertAndSend(SERVICE_TOPIC, payload);
-            deliveryTracker.trackDeliverySuccess(trackingId);
-
-            return createSuccessResult(trackingId);
-        } catch (Exception e) {
-            log.error("Failed to send service status update. TrackingId: {}", trackingId, e);
-            deliveryTracker.trackDeliveryFailure(trackingId, e.getMessage());
-            return createErrorResult(trackingId, e.getMessage());
-        }
+            dispatcher.dispatch(RealtimeTopic.SERVICE_BOOKINGS, entityKey, routingKeys, payload);
+        });
     }
 
     @Override
-    @Retry(maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public NotificationResult sendClearanceUpdate(Clearance clearance) {
-        String trackingId = UUID.randomUUID().toString();
+        long trackingId = deliveryTracker.nextTrackingId();
         log.info("Sending clearance update notification. TrackingId: {}, Reference: {}", 
                 trackingId, clearance.getReferenceNumber());
 
-        try {
+        Map<String, Object> data = toData(clearanceMapper.toDTO(clearance));
+        String entityKey = RoutingKeys.clearance(clearance.getId());
+        Set<String> routingKeys = RoutingKeys.forClearance(clearance, portCode);
+        return submit(lanes.laneFor(RealtimeTopic.CLEARANCES), entityKey, trackingId, "clearance update", () -> {
             Map<String, Object> payload = createNotificationPayload(
                 "CLEARANCE_UPDATE",
-                clearance,
+                data,
                 trackingId
             );
 
             String signature = signatureService.signMessage(objectMapper.writeValueAsString(payload));
             payload.put("signature", signature);
 
-            deliveryTracker.trackDeliveryStart(trackingId);
-            messagingTemplate.convertAndSend(CLEARANCE_TOPIC, payload);
-            deliveryTracker.trackDeliverySuccess(trackingId);
-
-            return createSuccessResult(trackingId);
-        } catch (Exception e) {
-            log.error("Failed to send clearance update. TrackingId: {}", trackingId, e);
-            deliveryTracker.trackDeliveryFailure(trackingId, e.getMessage());
-            return createErrorResult(trackingId, e.getMessage());
-        }
+            dispatcher.dispatch(RealtimeTopic.CLEARANCES, entityKey, routingKeys, payload);
+        });
     }
 
     @Override
     public NotificationResult sendUserNotification(String userId, String message) {
-        String trackingId = UUID.randomUUID().toString();
+        long trackingId = deliveryTracker.nextTrackingId();
         log.info("Sending user notification. TrackingId: {}, UserId: {}", trackingId, userId);
 
-        try {
-            rateLimiter.acquirePermission();
-
+        return submit(lanes.userLane(), userId, trackingId, "user notification", () -> {
             Map<String, Object> payload = new HashMap<>();
             payload.put("type", "USER_NOTIFICATION");
             payload.put("message", message);
@@ -193,19 +205,53 @@ public class NotificationServiceImpl implements NotificationService {
             String signature = signatureService.signMessage(objectMapper.writeValueAsString(payload));
             payload.put("signature", signature);
 
-            deliveryTracker.trackDeliveryStart(trackingId);
-            messagingTemplate.convertAndSend(USER_TOPIC + userId, payload);
-            deliveryTracker.trackDeliverySuccess(trackingId);
+            dispatcher.broadcast(USER_TOPIC + userId, payload);
+        });
+    }
 
-            return createSuccessResult(trackingId);
-        } catch (Exception e) {
-            log.error("Failed to send user notification. TrackingId: {}", trackingId, e);
-            deliveryTracker.trackDeliveryFailure(trackingId, e.getMessage());
-            return createErrorResult(trackingId, e.getMessage());
+    /**
+     * Queues a delivery on its lane, behind the deliveries queued for the same entity. The
+     * delivery is tracked from the moment it is queued, so the tracked latency includes the
+     * time spent waiting in the lane. Retries run on the lane worker, so a later update of the
+     * entity is not delivered before an earlier one that is being retried.
+     */
+    private NotificationResult submit(NotificationLane lane, String entityKey, long trackingId,
+                                      String description, Delivery delivery) {
+        deliveryTracker.trackDeliveryStart(trackingId);
+        boolean queued = lanes.submit(lane, entityKey, () -> {
+            try {
+                retryTemplate.execute(context -> {
+                    if (context.getRetryCount() > 0) {
+                        log.warn("Retrying {}. TrackingId: {}, attempt: {}", description, trackingId,
+                                context.getRetryCount() + 1);
+                        deliveryTracker.trackDeliveryStart(trackingId);
+                    }
+                    delivery.run();
+                    return null;
+                });
+                deliveryTracker.trackDeliverySuccess(trackingId);
+            } catch (Exception e) {
+                log.error("Failed to send {}. TrackingId: {}", description, trackingId, e);
+                // Only the exception type is reported, its message may quote the payload
+                deliveryTracker.trackDeliveryFailure(trackingId, e.getClass().getSimpleName());
+            }
+        });
+        if (!queued) {
+            String error = "Notification lane " + lane.getName() + " is full";
+            deliveryTracker.trackDeliveryFailure(trackingId, error);
+            return createErrorResult(trackingId, error);
         }
+        return createQueuedResult(trackingId);
+    }
+
+    /**
+     * Detaches the notification data from the persistence context as a plain map.
+     */
+    private Map<String, Object> toData(Object dto) {
+        return objectMapper.convertValue(dto, DATA_TYPE);
     }
 
-    private Map<String, Object> createNotificationPayload(String type, Object data, String trackingId) {
+    private Map<String, Object> createNotificationPayload(String type, Object data, long trackingId) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("type", type);
         payload.put("data", data);
@@ -214,16 +260,20 @@ public class NotificationServiceImpl implements NotificationService {
         return payload;
     }
 
-    private NotificationResult createSuccessResult(String trackingId) {
+    /**
+     * Result of a queued delivery. It reads the delivery tracker on every call, so it reports
+     * the outcome recorded by the lane worker, including the final failure after the retries.
+     */
+    private NotificationResult createQueuedResult(long trackingId) {
         return new NotificationResult() {
             @Override
             public String getTrackingId() {
-                return trackingId;
+                return Long.toString(trackingId);
             }
 
             @Override
             public boolean isDelivered() {
-                return true;
+                return deliveryTracker.getState(trackingId) == DeliveryState.DELIVERED;
             }
 
             @Override
@@ -238,21 +288,22 @@ public class NotificationServiceImpl implements NotificationService {
 
             @Override
             public String getDeliveryStatus() {
-                return "DELIVERED";
+                DeliveryState state = deliveryTracker.getState(trackingId);
+                return state == DeliveryState.IN_FLIGHT ? "QUEUED" : state.name();
             }
 
             @Override
             public String getErrorMessage() {
-                return null;
+                return deliveryTracker.getFailureReason(trackingId);
             }
         };
     }
 
-    private NotificationResult createErrorResult(String trackingId, String errorMessage) {
+    private NotificationResult createErrorResult(long trackingId, String errorMessage) {
         return new NotificationResult() {
             @Override
             public String getTrackingId() {
-                return trackingId;
+                return Long.toString(trackingId);
             }
 
             @Override
@@ -281,4 +332,12 @@ public class NotificationServiceImpl implements NotificationService {
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Notification delivery run on a lane worker.
+     */
+    @FunctionalInterface
+    private interface Delivery {
+        void run() throws Exception;
+    }
+}
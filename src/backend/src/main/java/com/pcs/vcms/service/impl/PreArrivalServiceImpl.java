@@ -1,13 +1,13 @@
 package com.pcs.vcms.service.impl;
 
+import com.pcs.vcms.audit.AuditService;
 import com.pcs.vcms.dto.PreArrivalNotificationDTO;
 import com.pcs.vcms.service.PreArrivalService;
 import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import com.pcs.vcms.cache.CacheTagIndex;
+import com.pcs.vcms.cache.CacheTags;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,13 +33,14 @@ import java.util.concurrent.TimeUnit;
 public class PreArrivalServiceImpl implements PreArrivalService {
 
     private static final String CACHE_NAME = "preArrivalNotifications";
-    private static final String AUDIT_USER = "audit.user";
+    private static final String AUDIT_ENTITY = "PreArrivalNotification";
     private static final int MAX_RETRY_ATTEMPTS = 3;
 
     private final ApplicationEventPublisher eventPublisher;
     private final RateLimiter rateLimiter;
     private final SecurityUtils securityUtils;
-    private final Logger auditLogger;
+    private final AuditService auditService;
+    private final CacheTagIndex cacheTagIndex;
 
     /**
      * Constructs PreArrivalServiceImpl with required dependencies.
@@ -47,11 +48,14 @@ public class PreArrivalServiceImpl implements PreArrivalService {
     public PreArrivalServiceImpl(
             ApplicationEventPublisher eventPublisher,
             RateLimiter rateLimiter,
-            SecurityUtils securityUtils) {
+            SecurityUtils securityUtils,
+            AuditService auditService,
+            CacheTagIndex cacheTagIndex) {
         this.eventPublisher = eventPublisher;
         this.rateLimiter = rateLimiter;
         this.securityUtils = securityUtils;
-        this.auditLogger = LoggerFactory.getLogger(AUDIT_USER);
+        this.auditService = auditService;
+        this.cacheTagIndex = cacheTagIndex;
     }
 
     /**
@@ -60,10 +64,10 @@ public class PreArrivalServiceImpl implements PreArrivalService {
     @Override
     @RateLimiter(name = "preArrival")
     @Transactional
-    @CacheEvict(value = CACHE_NAME, allEntries = true)
     public PreArrivalNotificationDTO submitPreArrivalNotification(PreArrivalNotificationDTO notification) {
         log.info("Processing pre-arrival notification submission for vessel call: {}", notification.getVesselCallId());
-        auditLogger.info("Pre-arrival notification submission attempt by user: {}", securityUtils.getCurrentUsername());
+        auditService.record("PRE_ARRIVAL_SUBMISSION_ATTEMPTED", AUDIT_ENTITY, null, securityUtils.getCurrentUsername(),
+                "vesselCallId=" + notification.getVesselCallId());
 
         try {
             // Validate rate limiting
@@ -82,14 +86,18 @@ public class PreArrivalServiceImpl implements PreArrivalService {
             // Save notification with retry mechanism
             PreArrivalNotificationDTO savedNotification = saveWithRetry(notification);
 
+            // Only the cached notifications of the same vessel call can be affected
+            cacheTagIndex.invalidateAfterCommit(CacheTags.vesselCall(notification.getVesselCallId()));
+
             // Publish real-time update event
             eventPublisher.publishEvent(new PreArrivalNotificationEvent(savedNotification));
 
-            auditLogger.info("Pre-arrival notification successfully submitted for vessel call: {}", notification.getVesselCallId());
+            auditService.record("PRE_ARRIVAL_SUBMITTED", AUDIT_ENTITY, null,
+                    "vesselCallId=" + notification.getVesselCallId());
             return savedNotification;
 
         } catch (Exception e) {
-            auditLogger.error("Failed to submit pre-arrival notification: {}", e.getMessage());
+            auditService.recordFailure("PRE_ARRIVAL_SUBMISSION_FAILED", AUDIT_ENTITY, null, null, e);
             throw new RuntimeException("Failed to process pre-arrival notification", e);
         }
     }
@@ -102,13 +110,13 @@ public class PreArrivalServiceImpl implements PreArrivalService {
     @PreAuthorize("hasPermission('PRE_ARRIVAL', 'READ')")
     public Optional<PreArrivalNotificationDTO> getPreArrivalNotification(Long id) {
         log.debug("Retrieving pre-arrival notification: {}", id);
-        auditLogger.info("Pre-arrival notification access attempt for ID: {}", id);
+        auditService.record("PRE_ARRIVAL_ACCESSED", AUDIT_ENTITY, id, null);
 
         try {
             // Implement retrieval logic here
             return Optional.empty(); // Placeholder
         } catch (Exception e) {
-            auditLogger.error("Error retrieving pre-arrival notification: {}", e.getMessage());
+            auditService.recordFailure("PRE_ARRIVAL_ACCESS_FAILED", AUDIT_ENTITY, id, null, e);
             throw new RuntimeException("Failed to retrieve pre-arrival notification", e);
         }
     }
@@ -120,13 +128,14 @@ public class PreArrivalServiceImpl implements PreArrivalService {
     @PreAuthorize("hasPermission('PRE_ARRIVAL', 'READ')")
     public List<PreArrivalNotificationDTO> getPreArrivalNotificationsByVesselCall(Long vesselCallId) {
         log.debug("Retrieving pre-arrival notifications for vessel call: {}", vesselCallId);
-        auditLogger.info("Accessing pre-arrival notifications for vessel call: {}", vesselCallId);
+        auditService.record("PRE_ARRIVAL_LIST_ACCESSED", AUDIT_ENTITY, null, "vesselCallId=" + vesselCallId);
 
         try {
             // Implement retrieval logic here
             return List.of(); // Placeholder
         } catch (Exception e) {
-            auditLogger.error("Error retrieving pre-arrival notifications: {}", e.getMessage());
+            auditService.recordFailure("PRE_ARRIVAL_LIST_ACCESS_FAILED", AUDIT_ENTITY, null,
+                    "vesselCallId=" + vesselCallId, e);
             throw new RuntimeException("Failed to retrieve pre-arrival notifications", e);
         }
     }
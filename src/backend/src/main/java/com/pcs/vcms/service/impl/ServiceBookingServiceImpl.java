@@ -1,5 +1,10 @@
 package com.pcs.vcms.service.impl;
 
+import com.pcs.vcms.cache.PagedQueryCache;
+import com.pcs.vcms.cache.QueryGenerations;
+import com.pcs.vcms.common.paging.CursorCodec;
+import com.pcs.vcms.common.paging.CursorPage;
+import com.pcs.vcms.common.paging.KeysetCursor;
 import com.pcs.vcms.dto.ServiceBookingDTO;
 import com.pcs.vcms.entity.ServiceBooking;
 import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
@@ -11,9 +16,10 @@ import com.pcs.vcms.exception.ResourceNotFoundException;
 import com.pcs.vcms.mapper.ServiceBookingMapper;
 import com.pcs.vcms.repository.ServiceBookingRepository;
 import com.pcs.vcms.repository.VesselCallRepository;
+import com.pcs.vcms.repository.projection.ServiceBookingRow;
 import com.pcs.vcms.service.ServiceBookingService;
 import com.pcs.vcms.service.NotificationService;
-import com.pcs.vcms.service.AuditService;
+import com.pcs.vcms.audit.AuditService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +29,7 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
@@ -33,11 +40,16 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Implementation of ServiceBookingService providing comprehensive business logic
  * for managing port service bookings with advanced features.
+ * Vessel call, type and status pages are served from the {@link PagedQueryCache}; every write
+ * bumps the booking generation and the generations of the statuses it leaves and enters. The
+ * scroll variant pages by {@code (serviceTime, id)} keyset cursors and counts only on request.
+ * Type and status queries read {@link ServiceBookingRow} projections rather than entities.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -56,7 +68,11 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
     private final NotificationService notificationService;
     private final AuditService auditService;
     private final RetryTemplate retryTemplate;
+    private final PagedQueryCache pagedQueryCache;
+    private final QueryGenerations queryGenerations;
+    private final CursorCodec cursorCodec;
 
+    private static final String SERVICE_BOOKINGS_TABLE = "service_bookings";
     private static final int MAX_RESOURCE_WINDOW_HOURS = 4;
     private static final int RESOURCE_CONFLICT_THRESHOLD = 80;
 
@@ -86,6 +102,7 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
         booking.setVesselCall(vesselCall);
         booking.setStatus(ServiceStatus.REQUESTED);
         booking = serviceBookingRepository.save(booking);
+        bumpGenerations(ServiceStatus.REQUESTED);
 
         // Audit trail
         auditService.logServiceBookingCreation(booking);
@@ -107,10 +124,12 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
         ServiceBooking booking = serviceBookingRepository.findByIdAndNotDeleted(bookingId)
             .orElseThrow(() -> new ResourceNotFoundException("Service booking not found: " + bookingId));
 
-        validateStatusTransition(booking.getStatus(), newStatus);
+        ServiceStatus previousStatus = booking.getStatus();
+        validateStatusTransition(previousStatus, newStatus);
 
         booking.setStatus(newStatus);
         booking = serviceBookingRepository.save(booking);
+        bumpGenerations(previousStatus, newStatus);
 
         // Audit trail
         auditService.logServiceBookingStatusUpdate(booking, newStatus);
@@ -135,8 +154,19 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
     public Page<ServiceBookingDTO> getServiceBookingsByVesselCall(
             @NotNull Long vesselCallId,
             Pageable pageable) {
-        return serviceBookingRepository.findByVesselCallId(vesselCallId)
-            .map(serviceBookingMapper::toDTO);
+        return pagedQueryCache.get("serviceBookings.byVesselCall", String.valueOf(vesselCallId), pageable,
+            List.of(QueryGenerations.table(SERVICE_BOOKINGS_TABLE)),
+            () -> {
+                List<ServiceBookingDTO> bookings = serviceBookingRepository.findByVesselCallId(vesselCallId).stream()
+                    .map(serviceBookingMapper::toDTO)
+                    .toList();
+                if (pageable.isUnpaged()) {
+                    return new PageImpl<>(bookings, pageable, bookings.size());
+                }
+                int from = (int) Math.min(pageable.getOffset(), bookings.size());
+                int to = Math.min(from + pageable.getPageSize(), bookings.size());
+                return new PageImpl<>(bookings.subList(from, to), pageable, bookings.size());
+            });
     }
 
     @Override
@@ -145,8 +175,35 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
             ServiceType serviceType,
             ServiceStatus status,
             Pageable pageable) {
-        return serviceBookingRepository.findByServiceTypeAndStatus(serviceType, status, pageable)
-            .map(serviceBookingMapper::toDTO);
+        // Without a status filter the page can change with any booking
+        String generation = status != null
+            ? QueryGenerations.status(SERVICE_BOOKINGS_TABLE, status)
+            : QueryGenerations.table(SERVICE_BOOKINGS_TABLE);
+        return pagedQueryCache.get("serviceBookings.byTypeAndStatus", serviceType + "/" + status, pageable,
+            List.of(generation),
+            () -> serviceBookingRepository.findRowsByServiceTypeAndStatus(serviceType, status, pageable)
+                .map(ServiceBookingRow::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ServiceBookingDTO> scrollByTypeAndStatus(
+            @NotNull ServiceType serviceType,
+            @NotNull ServiceStatus status,
+            String cursor,
+            int size,
+            boolean includeTotal) {
+        String scope = "serviceBookings.byTypeAndStatus/" + serviceType + "/" + status;
+        KeysetCursor after = cursorCodec.decode(cursor, scope);
+        List<ServiceBookingRow> rows = after == null
+            ? serviceBookingRepository.findFirstRowsByServiceTypeAndStatus(
+                serviceType, status, CursorPage.fetchLimit(size))
+            : serviceBookingRepository.findRowsByServiceTypeAndStatusAfter(
+                serviceType, status, after.getSortKey(), after.getId(), CursorPage.fetchLimit(size));
+        return CursorPage.of(rows, size, cursorCodec, scope,
+            row -> new KeysetCursor(row.serviceTime(), row.id()),
+            ServiceBookingRow::toDTO,
+            includeTotal ? serviceBookingRepository.countByServiceTypeAndStatus(serviceType, status) : null);
     }
 
     @Override
@@ -164,9 +221,11 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
             throw new IllegalStateException("Booking cannot be cancelled in current status: " + booking.getStatus());
         }
 
+        ServiceStatus previousStatus = booking.getStatus();
         booking.setStatus(ServiceStatus.CANCELLED);
         booking.setRemarks(reason);
         booking = serviceBookingRepository.save(booking);
+        bumpGenerations(previousStatus, ServiceStatus.CANCELLED);
 
         // Audit trail
         auditService.logServiceBookingCancellation(booking, reason);
@@ -210,6 +269,19 @@ public class ServiceBookingServiceImpl implements ServiceBookingService {
         }
     }
 
+    /**
+     * Invalidates the cached pages of all bookings and of the given statuses once the
+     * transaction commits.
+     */
+    private void bumpGenerations(ServiceStatus... statuses) {
+        List<String> generations = new ArrayList<>();
+        generations.add(QueryGenerations.table(SERVICE_BOOKINGS_TABLE));
+        for (ServiceStatus status : statuses) {
+            generations.add(QueryGenerations.status(SERVICE_BOOKINGS_TABLE, status));
+        }
+        queryGenerations.bumpAfterCommit(generations.toArray(new String[0]));
+    }
+
     private void validateStatusTransition(ServiceStatus currentStatus, ServiceStatus newStatus) {
         if (!isValidStatusTransition(currentStatus, newStatus)) {
             throw new IllegalStateException(
@@ -1,10 +1,16 @@
 package com.pcs.vcms.service.impl;
 
+import com.pcs.vcms.cache.PagedQueryCache;
+import com.pcs.vcms.cache.QueryGenerations;
+import com.pcs.vcms.common.paging.CursorCodec;
+import com.pcs.vcms.common.paging.CursorPage;
+import com.pcs.vcms.common.paging.KeysetCursor;
 import com.pcs.vcms.dto.VesselCallDTO;
 import com.pcs.vcms.entity.VesselCall;
 import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
 import com.pcs.vcms.mapper.VesselCallMapper;
 import com.pcs.vcms.repository.VesselCallRepository;
+import com.pcs.vcms.repository.projection.VesselCallRow;
 import com.pcs.vcms.service.NotificationService;
 import com.pcs.vcms.service.VesselCallService;
 import com.pcs.vcms.exception.DuplicateCallSignException;
@@ -28,11 +34,17 @@ import lombok.extern.slf4j.Slf4j;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Implementation of VesselCallService providing comprehensive vessel call management
  * with enhanced security, caching, and audit logging capabilities.
+ * Status and date range pages are served from the {@link PagedQueryCache}; every write bumps the
+ * vessel call generation and the generations of the statuses it leaves and enters. The scroll
+ * variants page by {@code (eta, id)} keyset cursors and count only on request. All list reads
+ * select {@link VesselCallRow} projections instead of loading entities.
  *
  * @version 1.0
  * @since 2023-11-15
@@ -47,17 +59,28 @@ public class VesselCallServiceImpl implements VesselCallService {
     private final VesselCallMapper vesselCallMapper;
     private final NotificationService notificationService;
     private final CacheManager cacheManager;
+    private final PagedQueryCache pagedQueryCache;
+    private final QueryGenerations queryGenerations;
+    private final CursorCodec cursorCodec;
+
+    private static final String VESSEL_CALLS_TABLE = "vessel_calls";
 
     @Autowired
     public VesselCallServiceImpl(
             VesselCallRepository vesselCallRepository,
             VesselCallMapper vesselCallMapper,
             NotificationService notificationService,
-            CacheManager cacheManager) {
+            CacheManager cacheManager,
+            PagedQueryCache pagedQueryCache,
+            QueryGenerations queryGenerations,
+            CursorCodec cursorCodec) {
         this.vesselCallRepository = vesselCallRepository;
         this.vesselCallMapper = vesselCallMapper;
         this.notificationService = notificationService;
         this.cacheManager = cacheManager;
+        this.pagedQueryCache = pagedQueryCache;
+        this.queryGenerations = queryGenerations;
+        this.cursorCodec = cursorCodec;
     }
 
     @Override
@@ -77,6 +100,7 @@ public class VesselCallServiceImpl implements VesselCallService {
 
         // Save and notify
         VesselCall savedCall = vesselCallRepository.save(vesselCall);
+        bumpGenerations(VesselCallStatus.PLANNED);
         notificationService.sendVesselCallUpdate(savedCall);
 
         log.info("Created vessel call with ID: {}", savedCall.getId());
@@ -93,8 +117,10 @@ public class VesselCallServiceImpl implements VesselCallService {
         VesselCall existingCall = vesselCallRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vessel call not found with ID: " + id));
 
+        VesselCallStatus previousStatus = existingCall.getStatus();
         vesselCallMapper.updateEntityFromDTO(vesselCallDTO, existingCall);
         VesselCall updatedCall = vesselCallRepository.save(existingCall);
+        bumpGenerations(previousStatus, updatedCall.getStatus());
         notificationService.sendVesselCallUpdate(updatedCall);
 
         log.info("Updated vessel call with ID: {}", id);
@@ -104,7 +130,7 @@ public class VesselCallServiceImpl implements VesselCallService {
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("hasAnyRole('VESSEL_OPERATOR', 'PORT_AUTHORITY', 'SERVICE_PROVIDER')")
-    @Cacheable(value = "vesselCalls", key = "#id")
+    @Cacheable(value = "vesselCalls", key = "#id", sync = true)
     public Optional<VesselCallDTO> getVesselCall(@NotNull Long id) {
         log.debug("Retrieving vessel call with ID: {}", id);
         return vesselCallRepository.findById(id)
@@ -126,8 +152,10 @@ public class VesselCallServiceImpl implements VesselCallService {
     @PreAuthorize("hasAnyRole('VESSEL_OPERATOR', 'PORT_AUTHORITY', 'SERVICE_PROVIDER')")
     public Page<VesselCallDTO> findByStatus(@NotNull VesselCallStatus status, Pageable pageable) {
         log.debug("Finding vessel calls by status: {}", status);
-        return vesselCallRepository.findByStatus(status, pageable)
-                .map(vesselCallMapper::toDTO);
+        return pagedQueryCache.get("vesselCalls.byStatus", status.name(), pageable,
+                List.of(QueryGenerations.status(VESSEL_CALLS_TABLE, status)),
+                () -> vesselCallRepository.findRowsByStatus(status, pageable)
+                        .map(VesselCallRow::toDTO));
     }
 
     @Override
@@ -138,8 +166,44 @@ public class VesselCallServiceImpl implements VesselCallService {
             @NotNull LocalDateTime endDate,
             Pageable pageable) {
         log.debug("Finding vessel calls between {} and {}", startDate, endDate);
-        return vesselCallRepository.findByEtaBetween(startDate, endDate, pageable)
-                .map(vesselCallMapper::toDTO);
+        return pagedQueryCache.get("vesselCalls.byEta", startDate + "/" + endDate, pageable,
+                List.of(QueryGenerations.table(VESSEL_CALLS_TABLE)),
+                () -> vesselCallRepository.findRowsByEtaBetween(startDate, endDate, pageable)
+                        .map(VesselCallRow::toDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('VESSEL_OPERATOR', 'PORT_AUTHORITY', 'SERVICE_PROVIDER')")
+    public CursorPage<VesselCallDTO> scrollByStatus(@NotNull VesselCallStatus status, String cursor,
+                                                    int size, boolean includeTotal) {
+        log.debug("Scrolling vessel calls by status: {}", status);
+        String scope = "vesselCalls.byStatus/" + status;
+        KeysetCursor after = cursorCodec.decode(cursor, scope);
+        List<VesselCallRow> rows = after == null
+                ? vesselCallRepository.findFirstRowsByStatus(status, CursorPage.fetchLimit(size))
+                : vesselCallRepository.findRowsByStatusAfter(status, after.getSortKey(), after.getId(),
+                        CursorPage.fetchLimit(size));
+        return CursorPage.of(rows, size, cursorCodec, scope, VesselCallServiceImpl::position, VesselCallRow::toDTO,
+                includeTotal ? vesselCallRepository.countByStatus(status) : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasAnyRole('VESSEL_OPERATOR', 'PORT_AUTHORITY', 'SERVICE_PROVIDER')")
+    public CursorPage<VesselCallDTO> scrollByDateRange(@NotNull LocalDateTime startDate,
+                                                       @NotNull LocalDateTime endDate,
+                                                       String cursor, int size, boolean includeTotal) {
+        log.debug("Scrolling vessel calls between {} and {}", startDate, endDate);
+        String scope = "vesselCalls.byEta/" + startDate + "/" + endDate;
+        KeysetCursor after = cursorCodec.decode(cursor, scope);
+        List<VesselCallRow> rows = after == null
+                ? vesselCallRepository.findFirstRowsByEtaBetween(startDate, endDate,
+                        CursorPage.fetchLimit(size))
+                : vesselCallRepository.findRowsByEtaRangeAfter(startDate, endDate, after.getSortKey(),
+                        after.getId(), CursorPage.fetchLimit(size));
+        return CursorPage.of(rows, size, cursorCodec, scope, VesselCallServiceImpl::position, VesselCallRow::toDTO,
+                includeTotal ? vesselCallRepository.countByEtaBetween(startDate, endDate) : null);
     }
 
     @Override
@@ -152,13 +216,15 @@ public class VesselCallServiceImpl implements VesselCallService {
         VesselCall vesselCall = vesselCallRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vessel call not found with ID: " + id));
 
-        validateStatusTransition(vesselCall.getStatus(), newStatus);
+        VesselCallStatus previousStatus = vesselCall.getStatus();
+        validateStatusTransition(previousStatus, newStatus);
         vesselCall.setStatus(newStatus);
 
         // Update actual times based on status
         updateActualTimes(vesselCall, newStatus);
 
         VesselCall updatedCall = vesselCallRepository.save(vesselCall);
+        bumpGenerations(previousStatus, newStatus);
         notificationService.sendVesselCallUpdate(updatedCall);
 
         log.info("Updated status to {} for vessel call ID: {}", newStatus, id);
@@ -179,14 +245,35 @@ public class VesselCallServiceImpl implements VesselCallService {
             throw new IllegalStateTransitionException("Cannot cancel a departed vessel call");
         }
 
+        VesselCallStatus previousStatus = vesselCall.getStatus();
         vesselCall.setStatus(VesselCallStatus.CANCELLED);
         VesselCall cancelledCall = vesselCallRepository.save(vesselCall);
+        bumpGenerations(previousStatus, VesselCallStatus.CANCELLED);
         notificationService.sendVesselCallUpdate(cancelledCall);
 
         log.info("Cancelled vessel call with ID: {}", id);
         return vesselCallMapper.toDTO(cancelledCall);
     }
 
+    /**
+     * Invalidates the cached pages of all vessel calls and of the given statuses once the
+     * transaction commits.
+     */
+    private void bumpGenerations(VesselCallStatus... statuses) {
+        List<String> generations = new ArrayList<>();
+        generations.add(QueryGenerations.table(VESSEL_CALLS_TABLE));
+        for (VesselCallStatus status : statuses) {
+            if (status != null) {
+                generations.add(QueryGenerations.status(VESSEL_CALLS_TABLE, status));
+            }
+        }
+        queryGenerations.bumpAfterCommit(generations.toArray(new String[0]));
+    }
+
+    private static KeysetCursor position(VesselCallRow row) {
+        return new KeysetCursor(row.eta(), row.id());
+    }
+
     private void validateStatusTransition(VesselCallStatus currentStatus, VesselCallStatus newStatus) {
         if (!isValidStatusTransition(currentStatus, newStatus)) {
             throw new IllegalStateTransitionException(
@@ -3,6 +3,8 @@ package com.pcs.vcms.util;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.pcs.vcms.exception.ValidationException;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,9 +38,11 @@ public final class ValidationUtils {
         DateTimeFormatter.ofPattern(Constants.DATE_TIME_FORMAT).withZone(ZoneId.systemDefault());
 
     // Cache for IMO number validation results
+    public static final String IMO_VALIDATION_CACHE_NAME = "imoValidation";
     private static final Cache<String, Boolean> IMO_VALIDATION_CACHE = CacheBuilder.newBuilder()
         .maximumSize(1000)
         .expireAfterWrite(24, TimeUnit.HOURS)
+        .recordStats()
         .build();
 
     // Port operation hours (assumed 24/7 operation)
@@ -53,6 +57,16 @@ public final class ValidationUtils {
         throw new IllegalStateException("Utility class cannot be instantiated");
     }
 
+    /**
+     * Binds the hit, miss, eviction and size meters of the IMO validation cache, published
+     * under the standard {@code cache.*} names with the {@link #IMO_VALIDATION_CACHE_NAME} tag.
+     *
+     * @return binder of the IMO validation cache meters
+     */
+    public static MeterBinder imoValidationCacheMetrics() {
+        return registry -> GuavaCacheMetrics.monitor(registry, IMO_VALIDATION_CACHE, IMO_VALIDATION_CACHE_NAME);
+    }
+
     /**
      * Validates IMO number format and checksum with caching for performance optimization.
      *
@@ -0,0 +1,80 @@
+package com.pcs.vcms.webhook;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Retry queue kept in the {@code webhook_deliveries} table.
+ * Due batches are claimed with {@code FOR UPDATE SKIP LOCKED} and leased by moving their next
+ * attempt forward, so several nodes can drain the queue without delivering a batch twice
+ * at the same time.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+public class JdbcWebhookRetryStore implements WebhookRetryStore {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO webhook_deliveries "
+            + "(subscription_id, body, event_count, attempts, next_attempt_at, last_error, status, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 'PENDING', ?)";
+
+    private static final String CLAIM_SQL = "UPDATE webhook_deliveries SET next_attempt_at = ? "
+            + "WHERE id IN (SELECT id FROM webhook_deliveries WHERE status = 'PENDING' AND next_attempt_at <= ? "
+            + "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, subscription_id, body, event_count, attempts";
+
+    private static final String DELETE_SQL = "DELETE FROM webhook_deliveries WHERE id = ?";
+
+    private static final String RESCHEDULE_SQL = "UPDATE webhook_deliveries "
+            + "SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final String DEAD_SQL = "UPDATE webhook_deliveries "
+            + "SET attempts = ?, last_error = ?, status = 'DEAD' WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcWebhookRetryStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void save(WebhookBatch batch, long nextAttemptAt, String error) {
+        jdbcTemplate.update(INSERT_SQL, batch.getSubscriptionId(), batch.getBody(), batch.getEventCount(),
+                batch.getAttempts(), new Timestamp(nextAttemptAt), truncate(error),
+                new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Override
+    public List<WebhookBatch> claimDue(int limit, long leaseMillis) {
+        long now = System.currentTimeMillis();
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new WebhookBatch(rs.getLong("id"),
+                        rs.getLong("subscription_id"), rs.getString("body"), rs.getInt("event_count"),
+                        rs.getInt("attempts")),
+                new Timestamp(now + leaseMillis), new Timestamp(now), limit);
+    }
+
+    @Override
+    public void delete(long id) {
+        jdbcTemplate.update(DELETE_SQL, id);
+    }
+
+    @Override
+    public void reschedule(long id, int attempts, long nextAttemptAt, String error) {
+        jdbcTemplate.update(RESCHEDULE_SQL, attempts, new Timestamp(nextAttemptAt), truncate(error), id);
+    }
+
+    @Override
+    public void markDead(long id, int attempts, String error) {
+        jdbcTemplate.update(DEAD_SQL, attempts, truncate(error), id);
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
@@ -0,0 +1,51 @@
+package com.pcs.vcms.webhook;
+
+/**
+ * Serialized batch of events addressed to one webhook subscription.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class WebhookBatch {
+
+    private final Long id;
+    private final long subscriptionId;
+    private final String body;
+    private final int eventCount;
+    private final int attempts;
+
+    /**
+     * @param id id in the retry queue, null if the batch has not been stored
+     * @param subscriptionId subscription the batch is addressed to
+     * @param body JSON request body
+     * @param eventCount number of events in the body
+     * @param attempts number of failed delivery attempts so far
+     */
+    public WebhookBatch(Long id, long subscriptionId, String body, int eventCount, int attempts) {
+        this.id = id;
+        this.subscriptionId = subscriptionId;
+        this.body = body;
+        this.eventCount = eventCount;
+        this.attempts = attempts;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
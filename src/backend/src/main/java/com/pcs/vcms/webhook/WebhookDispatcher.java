@@ -0,0 +1,499 @@
+package com.pcs.vcms.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcs.vcms.websocket.RealtimeUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes real-time updates to the webhook endpoints of shipping agents.
+ * <p>
+ * Matching updates are queued per subscription and POSTed in batches of up to
+ * {@code vcms.webhook.max-batch-size} events; a partial batch is sent once its oldest event has
+ * waited {@code vcms.webhook.linger-ms}. At most {@code vcms.webhook.max-concurrency-per-endpoint}
+ * requests are in flight per endpoint; further events keep accumulating into the next batch.
+ * <p>
+ * Requests go through one non-blocking {@link HttpClient}, which pools connections per host,
+ * and linger timers run on a single scheduler thread, so the number of threads does not grow
+ * with the number of endpoints. Failed batches, and the overflow of endpoints with more than
+ * {@code vcms.webhook.max-pending-per-endpoint} events waiting, go to the persistent
+ * {@link WebhookRetryStore} and are redelivered with exponential backoff until
+ * {@code vcms.webhook.max-attempts} is reached. Delivery is at-least-once and retried batches
+ * may arrive after newer ones; receivers order and deduplicate events by their topic sequence.
+ * <p>
+ * Payloads are copied into a JSON tree when they are published, so queued events never hold
+ * on to caller state. Each request first re-checks its endpoint with the
+ * {@link WebhookEndpointValidator} on the HTTP executor, so an endpoint whose host now
+ * resolves to an internal address is not called.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class WebhookDispatcher implements DisposableBean {
+
+    /** Header carrying the hex HMAC-SHA256 of the request body, prefixed with {@code sha256=} */
+    public static final String SIGNATURE_HEADER = "X-VCMS-Signature";
+
+    /** Header carrying the unique id of the delivery */
+    public static final String DELIVERY_HEADER = "X-VCMS-Delivery";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final WebhookRegistry registry;
+    private final WebhookRetryStore retryStore;
+    private final WebhookEndpointValidator endpointValidator;
+    private final ObjectMapper objectMapper;
+    private final Settings settings;
+    private final Map<Long, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService lingerScheduler;
+
+    private final Counter enqueuedEvents;
+    private final Counter spilledEvents;
+    private final Counter deliveredBatches;
+    private final Counter failedBatches;
+    private final Counter deadBatches;
+    private final DistributionSummary batchSizes;
+    private final Timer deliveryLatency;
+
+    @Autowired
+    public WebhookDispatcher(WebhookRegistry registry,
+                             WebhookRetryStore retryStore,
+                             WebhookEndpointValidator endpointValidator,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${vcms.webhook.max-batch-size:100}") int maxBatchSize,
+                             @Value("${vcms.webhook.linger-ms:250}") long lingerMillis,
+                             @Value("${vcms.webhook.max-concurrency-per-endpoint:2}") int maxConcurrency,
+                             @Value("${vcms.webhook.max-pending-per-endpoint:5000}") int maxPending,
+                             @Value("${vcms.webhook.connect-timeout-ms:5000}") long connectTimeoutMillis,
+                             @Value("${vcms.webhook.request-timeout-ms:10000}") long requestTimeoutMillis,
+                             @Value("${vcms.webhook.max-attempts:10}") int maxAttempts,
+                             @Value("${vcms.webhook.retry-base-delay-ms:5000}") long retryBaseDelayMillis,
+                             @Value("${vcms.webhook.retry-max-delay-ms:3600000}") long retryMaxDelayMillis,
+                             @Value("${vcms.webhook.retry-batch-limit:100}") int retryBatchLimit,
+                             @Value("${vcms.webhook.http-threads:4}") int httpThreads) {
+        this(registry, retryStore, endpointValidator, objectMapper, meterRegistry, new Settings(maxBatchSize, lingerMillis,
+                maxConcurrency, maxPending, connectTimeoutMillis, requestTimeoutMillis, maxAttempts,
+                retryBaseDelayMillis, retryMaxDelayMillis, retryBatchLimit, httpThreads));
+    }
+
+    WebhookDispatcher(WebhookRegistry registry, WebhookRetryStore retryStore,
+                      WebhookEndpointValidator endpointValidator, ObjectMapper objectMapper,
+                      MeterRegistry meterRegistry, Settings settings) {
+        this.registry = registry;
+        this.retryStore = retryStore;
+        this.endpointValidator = endpointValidator;
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.httpExecutor = Executors.newFixedThreadPool(settings.httpThreads,
+                new CustomizableThreadFactory("VcmsWebhookHttp-"));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(settings.connectTimeoutMillis))
+                .executor(httpExecutor)
+                .build();
+        this.lingerScheduler = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("VcmsWebhookLinger-"));
+
+        this.enqueuedEvents = Counter.builder("webhook.events.enqueued")
+                .description("Number of events queued for webhook endpoints")
+                .register(meterRegistry);
+        this.spilledEvents = Counter.builder("webhook.events.spilled")
+                .description("Number of events moved to the retry queue because an endpoint fell behind")
+                .register(meterRegistry);
+        this.deliveredBatches = Counter.builder("webhook.batches.delivered")
+                .description("Number of webhook batches accepted by their endpoint")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("webhook.batches.failed")
+                .description("Number of webhook delivery attempts that failed")
+                .register(meterRegistry);
+        this.deadBatches = Counter.builder("webhook.batches.dead")
+                .description("Number of webhook batches abandoned after the maximum number of attempts")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("webhook.batch.size")
+                .description("Number of events per webhook batch")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("webhook.delivery.latency")
+                .description("Time taken by webhook endpoints to answer a delivery")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("webhook.endpoints.active", endpoints, Map::size)
+                .description("Number of webhook endpoints with a delivery queue")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues an update for every webhook subscribed to it.
+     *
+     * @param update update as delivered on this node
+     */
+    public void publish(RealtimeUpdate update) {
+        List<WebhookTarget> targets = registry.match(update);
+        if (targets.isEmpty()) {
+            return;
+        }
+        JsonNode payload;
+        try {
+            payload = objectMapper.valueToTree(update.getPayload());
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to copy {} update {} for webhooks", update.getTopic().getName(), update.getSequence(), e);
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>(8);
+        event.put("topic", update.getTopic().getName());
+        event.put("epoch", update.getEpoch());
+        event.put("sequence", update.getSequence());
+        event.put("entityKey", update.getEntityKey());
+        event.put("payload", payload);
+        for (WebhookTarget target : targets) {
+            endpoints.computeIfAbsent(target.getSubscriptionId(), Endpoint::new).offer(event);
+            enqueuedEvents.increment();
+        }
+    }
+
+    /**
+     * Redelivers the batches of the retry queue that are due.
+     */
+    @Scheduled(fixedDelayString = "${vcms.webhook.retry-interval-ms:5000}")
+    public void retryDue() {
+        List<WebhookBatch> due = retryStore.claimDue(settings.retryBatchLimit, settings.requestTimeoutMillis * 2);
+        for (WebhookBatch batch : due) {
+            WebhookTarget target = registry.get(batch.getSubscriptionId());
+            if (target == null) {
+                retryStore.markDead(batch.getId(), batch.getAttempts(), "Subscription removed or inactive");
+                deadBatches.increment();
+                continue;
+            }
+            Endpoint endpoint = endpoints.computeIfAbsent(batch.getSubscriptionId(), Endpoint::new);
+            if (endpoint.tryAcquire()) {
+                send(endpoint, target, batch);
+            }
+            // otherwise the lease expires and the batch is picked up by a later run
+        }
+    }
+
+    /**
+     * @return number of events waiting in memory for the subscription's endpoint
+     */
+    public int getPendingCount(long subscriptionId) {
+        Endpoint endpoint = endpoints.get(subscriptionId);
+        return endpoint != null ? endpoint.pendingCount() : 0;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        lingerScheduler.shutdownNow();
+        for (Endpoint endpoint : endpoints.values()) {
+            List<Object> events;
+            while (!(events = endpoint.drain()).isEmpty()) {
+                persist(endpoint.subscriptionId, events, 0, "Pending at shutdown");
+            }
+        }
+        httpExecutor.shutdown();
+        httpExecutor.awaitTermination(settings.requestTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void send(Endpoint endpoint, List<Object> events) {
+        WebhookTarget target = registry.get(endpoint.subscriptionId);
+        if (target == null) {
+            endpoints.remove(endpoint.subscriptionId);
+            int dropped = events.size() + endpoint.drainAll();
+            endpoint.release();
+            log.debug("Dropping {} events of removed webhook subscription {}", dropped, endpoint.subscriptionId);
+            return;
+        }
+        String body;
+        try {
+            body = serialize(endpoint.subscriptionId, events);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize webhook batch for subscription {}", endpoint.subscriptionId, e);
+            endpoint.release();
+            return;
+        }
+        send(endpoint, target, new WebhookBatch(null, endpoint.subscriptionId, body, events.size(), 0));
+    }
+
+    private void send(Endpoint endpoint, WebhookTarget target, WebhookBatch batch) {
+        batchSizes.record(batch.getEventCount());
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            HttpRequest request = buildRequest(target, batch);
+            response = CompletableFuture.runAsync(() -> endpointValidator.check(target.getEndpoint()), httpExecutor)
+                    .thenCompose(checked -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        } catch (RuntimeException | GeneralSecurityException e) {
+            onComplete(endpoint, batch, null, e);
+            return;
+        }
+        response.whenComplete((result, error) -> {
+            deliveryLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            onComplete(endpoint, batch, result, error);
+        });
+    }
+
+    private void onComplete(Endpoint endpoint, WebhookBatch batch, HttpResponse<Void> response, Throwable error) {
+        try {
+            if (error == null && response.statusCode() / 100 == 2) {
+                deliveredBatches.increment();
+                if (batch.getId() != null) {
+                    retryStore.delete(batch.getId());
+                }
+            } else {
+                failedBatches.increment();
+                String reason = error != null ? error.toString() : "HTTP " + response.statusCode();
+                log.warn("Webhook delivery to subscription {} failed: {}", batch.getSubscriptionId(), reason);
+                scheduleRetry(batch, reason);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to record webhook delivery outcome for subscription {}", batch.getSubscriptionId(), e);
+        } finally {
+            endpoint.release();
+        }
+    }
+
+    private void scheduleRetry(WebhookBatch batch, String reason) {
+        int attempts = batch.getAttempts() + 1;
+        if (batch.getId() == null) {
+            retryStore.save(new WebhookBatch(null, batch.getSubscriptionId(), batch.getBody(),
+                    batch.getEventCount(), attempts), nextAttemptAt(attempts), reason);
+        } else if (attempts >= settings.maxAttempts) {
+            retryStore.markDead(batch.getId(), attempts, reason);
+            deadBatches.increment();
+        } else {
+            retryStore.reschedule(batch.getId(), attempts, nextAttemptAt(attempts), reason);
+        }
+    }
+
+    private long nextAttemptAt(int attempts) {
+        long delay = settings.retryBaseDelayMillis << Math.min(attempts - 1, 20);
+        return System.currentTimeMillis() + Math.min(delay, settings.retryMaxDelayMillis);
+    }
+
+    private void persist(long subscriptionId, List<Object> events, int attempts, String reason) {
+        try {
+            retryStore.save(new WebhookBatch(null, subscriptionId, serialize(subscriptionId, events),
+                    events.size(), attempts), System.currentTimeMillis(), reason);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Failed to store {} webhook events of subscription {}", events.size(), subscriptionId, e);
+        }
+    }
+
+    private String serialize(long subscriptionId, List<Object> events) throws JsonProcessingException {
+        Map<String, Object> body = new LinkedHashMap<>(4);
+        body.put("deliveryId", UUID.randomUUID().toString());
+        body.put("subscriptionId", subscriptionId);
+        body.put("events", events);
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private HttpRequest buildRequest(WebhookTarget target, WebhookBatch batch) throws GeneralSecurityException {
+        return HttpRequest.newBuilder(target.getEndpoint())
+                .timeout(Duration.ofMillis(settings.requestTimeoutMillis))
+                .header("Content-Type", "application/json")
+                .header(SIGNATURE_HEADER, "sha256=" + sign(target.getSecret(), batch.getBody()))
+                .header(DELIVERY_HEADER, batch.getSubscriptionId() + "-" + UUID.randomUUID())
+                .POST(HttpRequest.BodyPublishers.ofString(batch.getBody()))
+                .build();
+    }
+
+    /**
+     * @return hex HMAC-SHA256 of the body computed with the subscription secret
+     */
+    static String sign(String secret, String body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Batching and concurrency limits of the dispatcher.
+     */
+    static final class Settings {
+        private final int maxBatchSize;
+        private final long lingerNanos;
+        private final int maxConcurrency;
+        private final int maxPending;
+        private final long connectTimeoutMillis;
+        private final long requestTimeoutMillis;
+        private final int maxAttempts;
+        private final long retryBaseDelayMillis;
+        private final long retryMaxDelayMillis;
+        private final int retryBatchLimit;
+        private final int httpThreads;
+
+        Settings(int maxBatchSize, long lingerMillis, int maxConcurrency, int maxPending,
+                 long connectTimeoutMillis, long requestTimeoutMillis, int maxAttempts,
+                 long retryBaseDelayMillis, long retryMaxDelayMillis, int retryBatchLimit, int httpThreads) {
+            this.maxBatchSize = maxBatchSize;
+            this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+            this.maxConcurrency = maxConcurrency;
+            this.maxPending = maxPending;
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.requestTimeoutMillis = requestTimeoutMillis;
+            this.maxAttempts = maxAttempts;
+            this.retryBaseDelayMillis = retryBaseDelayMillis;
+            this.retryMaxDelayMillis = retryMaxDelayMillis;
+            this.retryBatchLimit = retryBatchLimit;
+            this.httpThreads = httpThreads;
+        }
+    }
+
+    /**
+     * Pending events and in-flight requests of one subscription endpoint.
+     */
+    private final class Endpoint {
+        private final long subscriptionId;
+        private final ArrayDeque<PendingEvent> pending = new ArrayDeque<>();
+        private int inFlight;
+        private boolean lingerScheduled;
+
+        private Endpoint(long subscriptionId) {
+            this.subscriptionId = subscriptionId;
+        }
+
+        private void offer(Object event) {
+            List<Object> overflow = null;
+            synchronized (this) {
+                if (pending.size() >= settings.maxPending) {
+                    overflow = take(settings.maxBatchSize);
+                }
+                pending.addLast(new PendingEvent(event, System.nanoTime()));
+            }
+            if (overflow != null) {
+                spilledEvents.increment(overflow.size());
+                persist(subscriptionId, overflow, 0, "Endpoint backlog exceeded");
+            }
+            flush();
+        }
+
+        /**
+         * Sends every batch that is ready while concurrency allows and arms the linger timer
+         * for the remaining events.
+         */
+        private void flush() {
+            while (true) {
+                List<Object> batch;
+                synchronized (this) {
+                    if (pending.isEmpty() || inFlight >= settings.maxConcurrency) {
+                        return;
+                    }
+                    long waited = System.nanoTime() - pending.peekFirst().enqueuedAt;
+                    if (pending.size() < settings.maxBatchSize && waited < settings.lingerNanos) {
+                        if (!lingerScheduled) {
+                            lingerScheduled = true;
+                            scheduleLinger(settings.lingerNanos - waited);
+                        }
+                        return;
+                    }
+                    batch = take(settings.maxBatchSize);
+                    inFlight++;
+                }
+                send(this, batch);
+            }
+        }
+
+        private void scheduleLinger(long delayNanos) {
+            try {
+                lingerScheduler.schedule(() -> {
+                    synchronized (this) {
+                        lingerScheduled = false;
+                    }
+                    flush();
+                }, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                lingerScheduled = false;
+            }
+        }
+
+        private boolean tryAcquire() {
+            synchronized (this) {
+                if (inFlight >= settings.maxConcurrency) {
+                    return false;
+                }
+                inFlight++;
+                return true;
+            }
+        }
+
+        private void release() {
+            synchronized (this) {
+                inFlight--;
+            }
+            flush();
+        }
+
+        private synchronized List<Object> drain() {
+            return take(settings.maxBatchSize);
+        }
+
+        private synchronized int drainAll() {
+            int size = pending.size();
+            pending.clear();
+            return size;
+        }
+
+        private synchronized int pendingCount() {
+            return pending.size();
+        }
+
+        private List<Object> take(int max) {
+            int size = Math.min(max, pending.size());
+            List<Object> events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                events.add(pending.pollFirst().event);
+            }
+            return events;
+        }
+    }
+
+    /**
+     * Event waiting for its batch, with the time it was queued for linger accounting.
+     */
+    private static final class PendingEvent {
+        private final Object event;
+        private final long enqueuedAt;
+
+        private PendingEvent(Object event, long enqueuedAt) {
+            this.event = event;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.pcs.vcms.webhook;
+
+import com.pcs.vcms.exception.ValidationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+
+/**
+ * Guards webhook endpoints against server-side request forgery. Endpoints must use https and
+ * every address their host resolves to must be public: loopback, wildcard, link-local
+ * (including the 169.254.169.254 metadata service), site-local, unique-local, shared (CGNAT)
+ * and multicast addresses are rejected.
+ * <p>
+ * The check runs when a subscription is created and again before each delivery, so a host
+ * whose DNS record is later pointed at an internal address stops receiving events.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+public class WebhookEndpointValidator {
+
+    private static final String HTTPS = "https";
+
+    private final boolean allowPrivateEndpoints;
+
+    public WebhookEndpointValidator() {
+        this(false);
+    }
+
+    /**
+     * @param allowPrivateEndpoints accept http and internal addresses, for local stand-in receivers in tests
+     */
+    WebhookEndpointValidator(boolean allowPrivateEndpoints) {
+        this.allowPrivateEndpoints = allowPrivateEndpoints;
+    }
+
+    /**
+     * Validates an endpoint URL submitted for a new subscription.
+     *
+     * @param endpointUrl endpoint URL
+     * @return parsed endpoint
+     * @throws ValidationException if the URL is malformed, not https or resolves to an internal address
+     */
+    public URI validate(String endpointUrl) {
+        URI endpoint;
+        try {
+            endpoint = new URI(endpointUrl);
+        } catch (URISyntaxException | NullPointerException e) {
+            throw new ValidationException("Endpoint URL is not a valid URL");
+        }
+        check(endpoint);
+        return endpoint;
+    }
+
+    /**
+     * Checks the scheme of an endpoint and resolves its host again.
+     *
+     * @param endpoint endpoint about to be called
+     * @throws ValidationException if the endpoint is not https or resolves to an internal address
+     */
+    public void check(URI endpoint) {
+        if (allowPrivateEndpoints) {
+            return;
+        }
+        if (!HTTPS.equalsIgnoreCase(endpoint.getScheme())) {
+            throw new ValidationException("Endpoint URL must be an https URL");
+        }
+        String host = endpoint.getHost();
+        if (host == null || host.isEmpty()) {
+            throw new ValidationException("Endpoint URL must have a host");
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new ValidationException("Endpoint host " + host + " cannot be resolved");
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new ValidationException("Endpoint host " + host + " resolves to an internal address");
+            }
+        }
+    }
+
+    static boolean isInternal(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (bytes.length == 4) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            // 0.0.0.0/8 and the 100.64.0.0/10 shared address space of carrier-grade NAT
+            return first == 0 || (first == 100 && second >= 64 && second < 128);
+        }
+        // fc00::/7 unique local addresses
+        return (bytes[0] & 0xfe) == 0xfc;
+    }
+}
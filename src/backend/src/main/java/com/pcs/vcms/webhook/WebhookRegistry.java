@@ -0,0 +1,125 @@
+package com.pcs.vcms.webhook;
+
+import com.pcs.vcms.entity.WebhookSubscription;
+import com.pcs.vcms.repository.WebhookSubscriptionRepository;
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.RealtimeUpdate;
+import com.pcs.vcms.websocket.RoutingKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of the active webhook subscriptions, keyed by the agent routing key.
+ * Updates are matched against it on the publishing path, so the database is only read when
+ * the index is refreshed: on changes made through this node and periodically
+ * ({@code vcms.webhook.refresh-interval-ms}) to pick up changes made on other nodes.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class WebhookRegistry {
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+
+    private volatile Map<String, List<WebhookTarget>> targetsByAgentKey = Collections.emptyMap();
+    private volatile Map<Long, WebhookTarget> targetsById = Collections.emptyMap();
+
+    public WebhookRegistry(WebhookSubscriptionRepository subscriptionRepository) {
+        this.subscriptionRepository = subscriptionRepository;
+    }
+
+    /**
+     * Reloads the index from the active subscriptions.
+     */
+    @Scheduled(fixedDelayString = "${vcms.webhook.refresh-interval-ms:30000}")
+    public void refresh() {
+        Map<String, List<WebhookTarget>> byAgentKey = new HashMap<>();
+        Map<Long, WebhookTarget> byId = new HashMap<>();
+        for (WebhookSubscription subscription : subscriptionRepository.findByActiveTrue()) {
+            WebhookTarget target = toTarget(subscription);
+            if (target == null) {
+                continue;
+            }
+            byId.put(target.getSubscriptionId(), target);
+            byAgentKey.computeIfAbsent(RoutingKeys.agent(target.getAgent()), key -> new ArrayList<>()).add(target);
+        }
+        targetsByAgentKey = byAgentKey;
+        targetsById = byId;
+        log.debug("Loaded {} webhook subscriptions", byId.size());
+    }
+
+    /**
+     * @param update real-time update
+     * @return targets of the agents the update concerns that subscribed to its topic
+     */
+    public List<WebhookTarget> match(RealtimeUpdate update) {
+        Map<String, List<WebhookTarget>> index = targetsByAgentKey;
+        if (index.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<WebhookTarget> matches = null;
+        for (String routingKey : update.getRoutingKeys()) {
+            List<WebhookTarget> targets = index.get(routingKey);
+            if (targets == null) {
+                continue;
+            }
+            for (WebhookTarget target : targets) {
+                if (target.accepts(update.getTopic())) {
+                    if (matches == null) {
+                        matches = new ArrayList<>(targets.size());
+                    }
+                    matches.add(target);
+                }
+            }
+        }
+        return matches != null ? matches : Collections.emptyList();
+    }
+
+    /**
+     * @return active target of the subscription, or null if it was removed or deactivated
+     */
+    public WebhookTarget get(long subscriptionId) {
+        return targetsById.get(subscriptionId);
+    }
+
+    /**
+     * Parses the comma-separated topic names stored on a subscription.
+     *
+     * @return subscribed topics, unknown names are ignored
+     */
+    public static Set<RealtimeTopic> parseTopics(String topics) {
+        Set<RealtimeTopic> parsed = EnumSet.noneOf(RealtimeTopic.class);
+        if (topics != null) {
+            for (String name : topics.split(",")) {
+                RealtimeTopic topic = RealtimeTopic.fromName(name.trim());
+                if (topic != null) {
+                    parsed.add(topic);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private static WebhookTarget toTarget(WebhookSubscription subscription) {
+        try {
+            return new WebhookTarget(subscription.getId(), subscription.getAgent(),
+                    URI.create(subscription.getEndpointUrl()), subscription.getSecret(),
+                    parseTopics(subscription.getTopics()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping webhook subscription {} with invalid endpoint", subscription.getId());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pcs.vcms.webhook;
+
+import java.util.List;
+
+/**
+ * Persistent queue of webhook batches waiting for redelivery.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public interface WebhookRetryStore {
+
+    /**
+     * Stores a batch for a later delivery attempt.
+     *
+     * @param batch batch to store, its id is ignored
+     * @param nextAttemptAt epoch milliseconds of the next attempt
+     * @param error reason of the last failure, may be null
+     */
+    void save(WebhookBatch batch, long nextAttemptAt, String error);
+
+    /**
+     * Claims the batches due for an attempt. Claimed batches are not returned again, to this
+     * or any other node, until the lease expires.
+     *
+     * @param limit maximum number of batches to claim
+     * @param leaseMillis time the claim is held
+     * @return claimed batches
+     */
+    List<WebhookBatch> claimDue(int limit, long leaseMillis);
+
+    /**
+     * Removes a delivered batch.
+     */
+    void delete(long id);
+
+    /**
+     * Records a failed attempt and schedules the next one.
+     */
+    void reschedule(long id, int attempts, long nextAttemptAt, String error);
+
+    /**
+     * Gives up on a batch; it is kept for inspection but never attempted again.
+     */
+    void markDead(long id, int attempts, String error);
+}
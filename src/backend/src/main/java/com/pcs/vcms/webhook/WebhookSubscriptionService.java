@@ -0,0 +1,110 @@
+package com.pcs.vcms.webhook;
+
+import com.pcs.vcms.dto.WebhookSubscriptionDTO;
+import com.pcs.vcms.entity.WebhookSubscription;
+import com.pcs.vcms.exception.ResourceNotFoundException;
+import com.pcs.vcms.exception.ValidationException;
+import com.pcs.vcms.repository.WebhookSubscriptionRepository;
+import com.pcs.vcms.websocket.RealtimeTopic;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Manages the webhook subscriptions of shipping agents. Every change refreshes the
+ * {@link WebhookRegistry} of this node; other nodes pick it up on their next periodic refresh.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Service
+@Slf4j
+public class WebhookSubscriptionService {
+
+    private static final int SECRET_BYTES = 32;
+
+    private final WebhookSubscriptionRepository subscriptionRepository;
+    private final WebhookRegistry registry;
+    private final WebhookEndpointValidator endpointValidator;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public WebhookSubscriptionService(WebhookSubscriptionRepository subscriptionRepository,
+                                      WebhookRegistry registry,
+                                      WebhookEndpointValidator endpointValidator) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.registry = registry;
+        this.endpointValidator = endpointValidator;
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookSubscriptionDTO> getSubscriptions(String agent) {
+        return subscriptionRepository.findByAgentOrderByIdAsc(agent).stream()
+                .map(subscription -> toDTO(subscription, false))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Registers a webhook for an agent. A secret is generated when none is supplied.
+     * The endpoint must be an https URL whose host resolves to public addresses only.
+     *
+     * @return created subscription, including its secret
+     */
+    @Transactional
+    public WebhookSubscriptionDTO createSubscription(String agent, WebhookSubscriptionDTO subscriptionDTO) {
+        Set<RealtimeTopic> topics = validateTopics(subscriptionDTO.getTopics());
+        endpointValidator.validate(subscriptionDTO.getEndpointUrl());
+        String secret = subscriptionDTO.getSecret() != null
+                ? subscriptionDTO.getSecret() : generateSecret();
+        WebhookSubscription subscription = subscriptionRepository.save(WebhookSubscription.builder()
+                .agent(agent)
+                .endpointUrl(subscriptionDTO.getEndpointUrl())
+                .secret(secret)
+                .topics(topics.stream().map(RealtimeTopic::getName).collect(Collectors.joining(",")))
+                .active(subscriptionDTO.getActive() == null || subscriptionDTO.getActive())
+                .build());
+        log.info("Created webhook subscription {} for agent {}", subscription.getId(), agent);
+        registry.refresh();
+        return toDTO(subscription, true);
+    }
+
+    @Transactional
+    public void deleteSubscription(String agent, Long id) {
+        WebhookSubscription subscription = subscriptionRepository.findByIdAndAgent(id, agent)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook subscription not found: " + id));
+        subscriptionRepository.delete(subscription);
+        log.info("Deleted webhook subscription {} of agent {}", id, agent);
+        registry.refresh();
+    }
+
+    private static Set<RealtimeTopic> validateTopics(Set<String> names) {
+        Set<RealtimeTopic> topics = WebhookRegistry.parseTopics(String.join(",", names));
+        if (topics.size() != names.size()) {
+            throw new ValidationException("Unknown topic in " + names);
+        }
+        return topics;
+    }
+
+    private String generateSecret() {
+        byte[] bytes = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static WebhookSubscriptionDTO toDTO(WebhookSubscription subscription, boolean includeSecret) {
+        return WebhookSubscriptionDTO.builder()
+                .id(subscription.getId())
+                .endpointUrl(subscription.getEndpointUrl())
+                .topics(WebhookRegistry.parseTopics(subscription.getTopics()).stream()
+                        .map(RealtimeTopic::getName).collect(Collectors.toSet()))
+                .secret(includeSecret ? subscription.getSecret() : null)
+                .active(subscription.isActive())
+                .createdAt(subscription.getCreatedAt())
+                .build();
+    }
+}
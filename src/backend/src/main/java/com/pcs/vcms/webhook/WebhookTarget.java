@@ -0,0 +1,59 @@
+package com.pcs.vcms.webhook;
+
+import com.pcs.vcms.websocket.RealtimeTopic;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable routing view of an active webhook subscription.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class WebhookTarget {
+
+    private final long subscriptionId;
+    private final String agent;
+    private final URI endpoint;
+    private final String secret;
+    private final Set<RealtimeTopic> topics;
+
+    public WebhookTarget(long subscriptionId, String agent, URI endpoint, String secret, Set<RealtimeTopic> topics) {
+        this.subscriptionId = subscriptionId;
+        this.agent = agent;
+        this.endpoint = endpoint;
+        this.secret = secret;
+        this.topics = topics.isEmpty()
+                ? Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(topics));
+    }
+
+    public long getSubscriptionId() {
+        return subscriptionId;
+    }
+
+    public String getAgent() {
+        return agent;
+    }
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public Set<RealtimeTopic> getTopics() {
+        return topics;
+    }
+
+    /**
+     * @return true if updates of the topic are delivered to the target
+     */
+    public boolean accepts(RealtimeTopic topic) {
+        return topics.contains(topic);
+    }
+}
@@ -0,0 +1,105 @@
+package com.pcs.vcms.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Outbound channel interceptor applying the negotiated {@link PayloadEncoding} to frames fanned out
+ * by the broker.
+ * <p>
+ * Broadcast topics and snapshot deltas are converted to JSON once and copied by the broker to
+ * every subscriber. Frames that reach a session which negotiated a binary encoding, and that
+ * do not already declare their encoding in {@value PayloadEncoding#ENCODING_HEADER}, are
+ * re-encoded before they are written. The broker hands the same body to every subscriber of a
+ * message, so the last re-encoded body is kept per encoding and each broadcast is encoded once
+ * per encoding rather than once per session.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class BroadcastEncodingInterceptor implements ChannelInterceptor {
+
+    private final EncodingNegotiationInterceptor encodingNegotiation;
+    private final PayloadEncoder payloadEncoder;
+    private final Map<PayloadEncoding, AtomicReference<Transcoded>> lastTranscoded =
+            new EnumMap<>(PayloadEncoding.class);
+
+    public BroadcastEncodingInterceptor(EncodingNegotiationInterceptor encodingNegotiation,
+                                        PayloadEncoder payloadEncoder) {
+        this.encodingNegotiation = encodingNegotiation;
+        this.payloadEncoder = payloadEncoder;
+        for (PayloadEncoding encoding : PayloadEncoding.values()) {
+            lastTranscoded.put(encoding, new AtomicReference<>());
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        PayloadEncoding encoding = encodingNegotiation.getEncoding(accessor.getSessionId());
+        if (encoding == PayloadEncoding.JSON
+                || accessor.getFirstNativeHeader(PayloadEncoding.ENCODING_HEADER) != null
+                || !isJson(accessor.getContentType())) {
+            return message;
+        }
+
+        byte[] body;
+        try {
+            body = transcode(json, encoding);
+        } catch (IllegalArgumentException e) {
+            log.warn("Sending {} frame to session {} as JSON: {}",
+                    accessor.getDestination(), accessor.getSessionId(), e.getMessage());
+            return message;
+        }
+        accessor.setContentType(encoding.getFrameContentType());
+        accessor.setNativeHeader(PayloadEncoding.ENCODING_HEADER, encoding.getToken());
+        return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+    }
+
+    private byte[] transcode(byte[] json, PayloadEncoding encoding) {
+        AtomicReference<Transcoded> last = lastTranscoded.get(encoding);
+        Transcoded cached = last.get();
+        if (cached != null && cached.source == json) {
+            payloadEncoder.recordReuse(encoding, 1);
+            return cached.body;
+        }
+        byte[] body = payloadEncoder.transcode(json, encoding);
+        last.set(new Transcoded(json, body));
+        return body;
+    }
+
+    private static boolean isJson(MimeType contentType) {
+        return contentType == null || MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+
+    /**
+     * Body re-encoded from a broker JSON body, identified by the array the broker shares.
+     */
+    private static final class Transcoded {
+        private final byte[] source;
+        private final byte[] body;
+
+        Transcoded(byte[] source, byte[] body) {
+            this.source = source;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consumes the node's own queue bound to the cluster fan-out exchange and delivers updates
+ * published by other nodes to the sessions of this node. Updates this node published itself
+ * are skipped, and a bounded window of recent message ids drops redelivered duplicates.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "vcms.websocket.cluster.enabled", havingValue = "true")
+public class ClusterFanoutListener {
+
+    private static final int DEDUP_WINDOW = 10_000;
+
+    private final RealtimeDispatcher dispatcher;
+    private final ClusterFanoutPublisher publisher;
+    private final ObjectMapper objectMapper;
+
+    // Insertion-ordered so the oldest ids are evicted first
+    private final Map<String, Boolean> recentMessageIds = new LinkedHashMap<>(DEDUP_WINDOW * 4 / 3, 0.75f) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > DEDUP_WINDOW;
+        }
+    };
+
+    private final Counter receivedMessages;
+    private final Counter duplicateMessages;
+
+    public ClusterFanoutListener(RealtimeDispatcher dispatcher,
+                                 ClusterFanoutPublisher publisher,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.dispatcher = dispatcher;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+
+        this.receivedMessages = Counter.builder("websocket.cluster.received")
+                .description("Number of real-time updates received from other nodes")
+                .register(meterRegistry);
+        this.duplicateMessages = Counter.builder("websocket.cluster.duplicates")
+                .description("Number of duplicate real-time updates dropped by this node")
+                .register(meterRegistry);
+    }
+
+    @RabbitListener(queues = "#{realtimeNodeQueue.name}")
+    public void onMessage(Message message) {
+        RealtimeEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(message.getBody(), RealtimeEnvelope.class);
+        } catch (IOException e) {
+            log.error("Dropping unreadable cluster real-time message: {}", e.getMessage());
+            return;
+        }
+
+        if (publisher.getNodeId().equals(envelope.getOriginNode())) {
+            return;
+        }
+        if (!markSeen(envelope.getMessageId())) {
+            duplicateMessages.increment();
+            return;
+        }
+
+        receivedMessages.increment();
+        try {
+            if (envelope.getTopic() != null) {
+                dispatcher.deliverLocally(envelope.getTopic(), envelope.getEntityKey(),
+                        envelope.getRoutingKeys(), envelope.getPayload());
+            } else if (envelope.getDestination() != null) {
+                dispatcher.broadcastLocally(envelope.getDestination(), envelope.getPayload());
+            }
+        } catch (Exception e) {
+            log.error("Failed to deliver cluster real-time update {} from node {}: {}",
+                    envelope.getMessageId(), envelope.getOriginNode(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return false if the message id was already seen recently
+     */
+    private boolean markSeen(String messageId) {
+        if (messageId == null) {
+            return true;
+        }
+        synchronized (recentMessageIds) {
+            return recentMessageIds.put(messageId, Boolean.TRUE) == null;
+        }
+    }
+}
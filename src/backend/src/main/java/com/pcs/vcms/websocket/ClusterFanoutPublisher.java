@@ -0,0 +1,108 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcs.vcms.config.MessageQueueConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publishes real-time updates once to the cluster fan-out exchange so that every other node
+ * delivers them to its own sessions. Uses a dedicated non-transactional template: fan-out
+ * messages are transient and must not pay for a transaction commit per update.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "vcms.websocket.cluster.enabled", havingValue = "true")
+public class ClusterFanoutPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+
+    private final Counter publishedMessages;
+    private final Counter publishFailures;
+
+    public ClusterFanoutPublisher(ConnectionFactory connectionFactory,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${vcms.websocket.cluster.node-id:}") String nodeId) {
+        this.rabbitTemplate = new RabbitTemplate(connectionFactory);
+        this.rabbitTemplate.setExchange(MessageQueueConfig.REALTIME_FANOUT_EXCHANGE);
+        this.objectMapper = objectMapper;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+
+        this.publishedMessages = Counter.builder("websocket.cluster.published")
+                .description("Number of real-time updates published to the cluster fan-out exchange")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("websocket.cluster.publish.failures")
+                .description("Number of real-time updates that could not be published to other nodes")
+                .register(meterRegistry);
+        log.info("Cluster WebSocket fan-out enabled for node {}", this.nodeId);
+    }
+
+    public void publishUpdate(RealtimeTopic topic, String entityKey, Set<String> routingKeys, Object payload) {
+        publish(envelope()
+                .topic(topic)
+                .entityKey(entityKey)
+                .routingKeys(routingKeys)
+                .payload(payload)
+                .build());
+    }
+
+    public void publishBroadcast(String destination, Object payload) {
+        publish(envelope()
+                .destination(destination)
+                .payload(payload)
+                .build());
+    }
+
+    /**
+     * @return id of this node, used to skip its own updates when they come back from the exchange
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private RealtimeEnvelope.RealtimeEnvelopeBuilder envelope() {
+        return RealtimeEnvelope.builder()
+                .messageId(UUID.randomUUID().toString())
+                .originNode(nodeId)
+                .publishedAt(System.currentTimeMillis());
+    }
+
+    private void publish(RealtimeEnvelope envelope) {
+        try {
+            Message message = MessageBuilder.withBody(objectMapper.writeValueAsBytes(envelope))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setMessageId(envelope.getMessageId())
+                    .setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT)
+                    .build();
+            rabbitTemplate.send(message);
+            publishedMessages.increment();
+        } catch (JsonProcessingException | AmqpException e) {
+            // Sessions on this node already received the update
+            publishFailures.increment();
+            log.error("Failed to publish real-time update {} to the cluster: {}",
+                    envelope.getMessageId(), e.getMessage());
+        }
+    }
+}
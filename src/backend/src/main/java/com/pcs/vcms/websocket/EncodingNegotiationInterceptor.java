@@ -0,0 +1,63 @@
+package com.pcs.vcms.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inbound channel interceptor negotiating the payload encoding of a session at STOMP CONNECT.
+ * Clients list acceptable encodings in the {@value PayloadEncoding#ACCEPT_HEADER} header;
+ * binary encodings are granted only on connections flagged as binary-capable during the handshake.
+ * The DISCONNECT published by the broker for every closed session releases the entry.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class EncodingNegotiationInterceptor implements ChannelInterceptor {
+
+    /** Handshake attribute set on raw WebSocket endpoints that can carry binary frames */
+    public static final String BINARY_FRAMES_ATTRIBUTE = "binaryFrames";
+
+    private final Map<String, PayloadEncoding> encodingsBySession = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            boolean binaryAllowed = attributes != null
+                    && Boolean.TRUE.equals(attributes.get(BINARY_FRAMES_ATTRIBUTE));
+            PayloadEncoding encoding = PayloadEncoding.negotiate(
+                    accessor.getFirstNativeHeader(PayloadEncoding.ACCEPT_HEADER), binaryAllowed);
+            if (encoding != PayloadEncoding.JSON) {
+                encodingsBySession.put(accessor.getSessionId(), encoding);
+                log.debug("Session {} negotiated {} payload encoding", accessor.getSessionId(), encoding.getToken());
+            }
+        } else if (accessor.getCommand() == StompCommand.DISCONNECT) {
+            encodingsBySession.remove(accessor.getSessionId());
+        }
+        return message;
+    }
+
+    /**
+     * @param sessionId WebSocket session id
+     * @return encoding negotiated by the session, JSON by default
+     */
+    public PayloadEncoding getEncoding(String sessionId) {
+        return encodingsBySession.getOrDefault(sessionId, PayloadEncoding.JSON);
+    }
+}
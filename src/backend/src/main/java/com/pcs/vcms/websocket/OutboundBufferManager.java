@@ -0,0 +1,235 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and tracks the bounded {@link OutboundSessionBuffer} of every WebSocket session.
+ * <p>
+ * Overflow policies are configured per topic with
+ * {@code vcms.websocket.backpressure.policy.<topic-name>}; state topics conflate by default,
+ * clearances disconnect rather than lose an update, and destinations outside the real-time
+ * topics use {@code vcms.websocket.backpressure.default-policy}. Snapshot topics always
+ * disconnect, since a lagging dashboard recovers with the full frame it gets on resubscribing.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+public class OutboundBufferManager implements DisposableBean {
+
+    private static final String POLICY_PROPERTY_PREFIX = "vcms.websocket.backpressure.policy.";
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    private final Executor drainExecutor;
+    private final int maxMessages;
+    private final int maxBytes;
+    private final Map<RealtimeTopic, OverflowPolicy> topicPolicies;
+    private final OverflowPolicy defaultPolicy;
+
+    private final Map<String, OutboundSessionBuffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicLong bufferedMessages = new AtomicLong();
+    private final Counter droppedMessages;
+    private final Counter conflatedMessages;
+    private final Counter overflowDisconnects;
+
+    @Autowired
+    public OutboundBufferManager(Environment environment,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${vcms.websocket.backpressure.max-messages:500}") int maxMessages,
+                                 @Value("${vcms.websocket.backpressure.max-bytes:1048576}") int maxBytes,
+                                 @Value("${vcms.websocket.backpressure.drain-threads:8}") int drainThreads,
+                                 @Value("${vcms.websocket.backpressure.default-policy:DISCONNECT}") OverflowPolicy defaultPolicy) {
+        this(createDrainExecutor(drainThreads), maxMessages, maxBytes,
+                resolveTopicPolicies(environment), defaultPolicy, meterRegistry);
+    }
+
+    OutboundBufferManager(Executor drainExecutor, int maxMessages, int maxBytes,
+                          Map<RealtimeTopic, OverflowPolicy> topicPolicies, OverflowPolicy defaultPolicy,
+                          MeterRegistry meterRegistry) {
+        this.drainExecutor = drainExecutor;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.topicPolicies = topicPolicies;
+        this.defaultPolicy = defaultPolicy;
+
+        Gauge.builder("websocket.outbound.buffered", bufferedMessages, AtomicLong::get)
+                .description("Number of frames waiting in session outbound buffers")
+                .register(meterRegistry);
+        this.droppedMessages = Counter.builder("websocket.outbound.dropped")
+                .description("Number of frames dropped from full outbound buffers")
+                .register(meterRegistry);
+        this.conflatedMessages = Counter.builder("websocket.outbound.conflated")
+                .description("Number of frames replaced by a newer update of the same entity")
+                .register(meterRegistry);
+        this.overflowDisconnects = Counter.builder("websocket.outbound.disconnects")
+                .description("Number of sessions closed for exceeding their outbound buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps a newly established session in a bounded outbound buffer.
+     *
+     * @param session WebSocket session
+     * @return buffered session
+     */
+    public WebSocketSession decorate(WebSocketSession session) {
+        OutboundSessionBuffer buffer = new OutboundSessionBuffer(session, this);
+        buffers.put(session.getId(), buffer);
+        return buffer;
+    }
+
+    /**
+     * Discards the buffer of a closed session.
+     *
+     * @param sessionId WebSocket session id
+     */
+    public void release(String sessionId) {
+        OutboundSessionBuffer buffer = buffers.remove(sessionId);
+        if (buffer != null) {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * @param destination destination of an outbound MESSAGE frame
+     * @return overflow policy of the topic the destination belongs to, or null for control
+     *         messages that are never dropped
+     */
+    public OverflowPolicy resolvePolicy(String destination) {
+        if (destination.endsWith(SessionMessageRouter.ACK_QUEUE)) {
+            // Subscription acknowledgments are control messages and never dropped
+            return null;
+        }
+        if (destination.startsWith(SnapshotTopic.DESTINATION_PREFIX)) {
+            // Snapshot deltas can be neither dropped nor conflated
+            return OverflowPolicy.DISCONNECT;
+        }
+        RealtimeTopic topic = RealtimeTopic.fromName(destination.substring(destination.lastIndexOf('/') + 1));
+        return topic != null ? topicPolicies.get(topic) : defaultPolicy;
+    }
+
+    /**
+     * @param sessionId WebSocket session id
+     * @return occupancy of the session's outbound buffer, or null if the session is unknown
+     */
+    public Map<String, Object> getOccupancy(String sessionId) {
+        OutboundSessionBuffer buffer = buffers.get(sessionId);
+        return buffer != null ? describe(buffer) : null;
+    }
+
+    /**
+     * @param limit maximum number of sessions to report
+     * @return occupancy of the fullest outbound buffers, fullest first
+     */
+    public List<Map<String, Object>> getFullestBuffers(int limit) {
+        return buffers.values().stream()
+                .filter(buffer -> buffer.getBufferedMessages() > 0)
+                .sorted(Comparator.comparingInt(OutboundSessionBuffer::getBufferedMessages).reversed())
+                .limit(limit)
+                .map(this::describe)
+                .collect(Collectors.toList());
+    }
+
+    public long getBufferedMessages() {
+        return bufferedMessages.get();
+    }
+
+    int getMaxMessages() {
+        return maxMessages;
+    }
+
+    int getMaxBytes() {
+        return maxBytes;
+    }
+
+    int getDrainBatchSize() {
+        return DRAIN_BATCH_SIZE;
+    }
+
+    Executor getDrainExecutor() {
+        return drainExecutor;
+    }
+
+    void recordBuffered(int delta) {
+        bufferedMessages.addAndGet(delta);
+    }
+
+    void recordDropped() {
+        droppedMessages.increment();
+    }
+
+    void recordConflated() {
+        conflatedMessages.increment();
+    }
+
+    void recordOverflowDisconnect() {
+        overflowDisconnects.increment();
+    }
+
+    @Override
+    public void destroy() {
+        if (drainExecutor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) drainExecutor).shutdown();
+        }
+    }
+
+    private Map<String, Object> describe(OutboundSessionBuffer buffer) {
+        Map<String, Object> occupancy = new LinkedHashMap<>();
+        occupancy.put("sessionId", buffer.getId());
+        occupancy.put("bufferedMessages", buffer.getBufferedMessages());
+        occupancy.put("bufferedBytes", buffer.getBufferedBytes());
+        occupancy.put("utilization", (double) buffer.getBufferedMessages() / maxMessages);
+        occupancy.put("droppedMessages", buffer.getDroppedMessages());
+        occupancy.put("conflatedMessages", buffer.getConflatedMessages());
+        return occupancy;
+    }
+
+    private static Map<RealtimeTopic, OverflowPolicy> resolveTopicPolicies(Environment environment) {
+        Map<RealtimeTopic, OverflowPolicy> policies = new EnumMap<>(RealtimeTopic.class);
+        for (RealtimeTopic topic : RealtimeTopic.values()) {
+            policies.put(topic, environment.getProperty(POLICY_PROPERTY_PREFIX + topic.getName(),
+                    OverflowPolicy.class, defaultPolicy(topic)));
+        }
+        return policies;
+    }
+
+    private static OverflowPolicy defaultPolicy(RealtimeTopic topic) {
+        switch (topic) {
+            case VESSEL_CALLS:
+            case BERTH_ALLOCATIONS:
+                return OverflowPolicy.CONFLATE;
+            case SERVICE_BOOKINGS:
+                return OverflowPolicy.DROP_OLDEST;
+            default:
+                return OverflowPolicy.DISCONNECT;
+        }
+    }
+
+    private static Executor createDrainExecutor(int drainThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(drainThreads);
+        executor.setMaxPoolSize(drainThreads);
+        executor.setThreadNamePrefix("VcmsWsDrain-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,297 @@
+package com.pcs.vcms.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded outbound buffer of a single WebSocket session.
+ * <p>
+ * Sending only enqueues the frame and returns, so broker threads are never held by a slow
+ * client; frames are written to the client by a shared drain pool. When the buffer exceeds its
+ * message or byte limit, the {@link OverflowPolicy} of the frame's destination applies. Frames
+ * other than STOMP MESSAGE frames (CONNECTED, RECEIPT, ERROR, heartbeats) and subscription
+ * acknowledgments are never dropped.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Slf4j
+public class OutboundSessionBuffer extends WebSocketSessionDecorator {
+
+    private static final String MESSAGE_COMMAND = "MESSAGE";
+    private static final String DESTINATION_HEADER = "destination:";
+    private static final String ENTITY_KEY_HEADER = RealtimeUpdate.ENTITY_KEY_HEADER + ":";
+
+    private final OutboundBufferManager manager;
+    private final Deque<PendingFrame> queue = new ArrayDeque<>();
+    // "<destination>|<entity key>" -> queued frame that later updates replace in place
+    private final Map<String, PendingFrame> conflatable = new HashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private int bufferedBytes;
+    private volatile int bufferedMessages;
+    private volatile long droppedMessages;
+    private volatile long conflatedMessages;
+    private volatile boolean overflowed;
+
+    public OutboundSessionBuffer(WebSocketSession delegate, OutboundBufferManager manager) {
+        super(delegate);
+        this.manager = manager;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (overflowed) {
+            return;
+        }
+        FrameInfo frame = FrameInfo.of(message);
+        OverflowPolicy policy = frame.destination != null ? manager.resolvePolicy(frame.destination) : null;
+        int length = message.getPayloadLength();
+
+        synchronized (queue) {
+            if (policy == OverflowPolicy.CONFLATE && frame.entityKey != null) {
+                String key = frame.destination + '|' + frame.entityKey;
+                PendingFrame queued = conflatable.get(key);
+                if (queued != null) {
+                    bufferedBytes += length - queued.length;
+                    queued.message = message;
+                    queued.length = length;
+                    conflatedMessages++;
+                    manager.recordConflated();
+                    return;
+                }
+                enqueue(new PendingFrame(message, length, key, true));
+            } else {
+                boolean droppable = policy == OverflowPolicy.DROP_OLDEST || policy == OverflowPolicy.CONFLATE;
+                enqueue(new PendingFrame(message, length, null, droppable));
+            }
+
+            while (isOverLimit()) {
+                if (policy == OverflowPolicy.DISCONNECT || !dropOldest()) {
+                    overflowed = true;
+                    break;
+                }
+            }
+        }
+
+        if (overflowed) {
+            clear();
+            manager.recordOverflowDisconnect();
+            log.warn("Closing slow WebSocket session {}: outbound buffer limit exceeded on {}",
+                    getId(), frame.destination);
+            // Handled by the STOMP handler, which stops sending to the session and closes it
+            throw new SessionLimitExceededException("Outbound buffer limit exceeded for session " + getId(),
+                    CloseStatus.SESSION_NOT_RELIABLE);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * @return number of frames waiting to be sent to the client
+     */
+    public int getBufferedMessages() {
+        return bufferedMessages;
+    }
+
+    public int getBufferedBytes() {
+        synchronized (queue) {
+            return bufferedBytes;
+        }
+    }
+
+    public long getDroppedMessages() {
+        return droppedMessages;
+    }
+
+    public long getConflatedMessages() {
+        return conflatedMessages;
+    }
+
+    /**
+     * Discards every pending frame, e.g. once the session is closed.
+     */
+    public void clear() {
+        synchronized (queue) {
+            manager.recordBuffered(-queue.size());
+            queue.clear();
+            conflatable.clear();
+            bufferedBytes = 0;
+            bufferedMessages = 0;
+        }
+    }
+
+    private void enqueue(PendingFrame frame) {
+        queue.addLast(frame);
+        if (frame.conflationKey != null) {
+            conflatable.put(frame.conflationKey, frame);
+        }
+        bufferedBytes += frame.length;
+        bufferedMessages = queue.size();
+        manager.recordBuffered(1);
+    }
+
+    private boolean isOverLimit() {
+        return queue.size() > manager.getMaxMessages() || bufferedBytes > manager.getMaxBytes();
+    }
+
+    /**
+     * Drops the oldest droppable frame.
+     *
+     * @return false if no queued frame may be dropped
+     */
+    private boolean dropOldest() {
+        Iterator<PendingFrame> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            PendingFrame frame = iterator.next();
+            if (frame.droppable) {
+                iterator.remove();
+                forget(frame);
+                droppedMessages++;
+                manager.recordDropped();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private PendingFrame poll() {
+        synchronized (queue) {
+            PendingFrame frame = queue.pollFirst();
+            if (frame != null) {
+                forget(frame);
+            }
+            return frame;
+        }
+    }
+
+    private void forget(PendingFrame frame) {
+        if (frame.conflationKey != null) {
+            conflatable.remove(frame.conflationKey, frame);
+        }
+        bufferedBytes -= frame.length;
+        bufferedMessages = queue.size();
+        manager.recordBuffered(-1);
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            manager.getDrainExecutor().execute(this::drain);
+        }
+    }
+
+    /**
+     * Writes a bounded batch of frames, then yields the drain thread to other sessions.
+     */
+    private void drain() {
+        try {
+            for (int i = 0; i < manager.getDrainBatchSize(); i++) {
+                PendingFrame frame = poll();
+                if (frame == null) {
+                    break;
+                }
+                if (!isOpen()) {
+                    clear();
+                    return;
+                }
+                getDelegate().sendMessage(frame.message);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to send to WebSocket session {}: {}", getId(), e.getMessage());
+            clear();
+        } finally {
+            draining.set(false);
+        }
+        if (bufferedMessages > 0 && isOpen()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Frame waiting in the buffer; conflation replaces its message in place.
+     */
+    private static final class PendingFrame {
+        private WebSocketMessage<?> message;
+        private int length;
+        private final String conflationKey;
+        private final boolean droppable;
+
+        PendingFrame(WebSocketMessage<?> message, int length, String conflationKey, boolean droppable) {
+            this.message = message;
+            this.length = length;
+            this.conflationKey = conflationKey;
+            this.droppable = droppable;
+        }
+    }
+
+    /**
+     * Destination and entity key read from the headers of an encoded STOMP MESSAGE frame.
+     * Header values are left escaped, which is enough to compare them.
+     */
+    static final class FrameInfo {
+        private static final FrameInfo CONTROL = new FrameInfo(null, null);
+
+        final String destination;
+        final String entityKey;
+
+        private FrameInfo(String destination, String entityKey) {
+            this.destination = destination;
+            this.entityKey = entityKey;
+        }
+
+        static FrameInfo of(WebSocketMessage<?> message) {
+            String headers;
+            if (message instanceof TextMessage) {
+                String payload = ((TextMessage) message).getPayload();
+                int end = payload.indexOf("\n\n");
+                headers = end > 0 ? payload.substring(0, end) : payload;
+            } else if (message instanceof BinaryMessage) {
+                headers = headerBlock(((BinaryMessage) message).getPayload());
+            } else {
+                return CONTROL;
+            }
+            if (!headers.startsWith(MESSAGE_COMMAND + "\n")) {
+                return CONTROL;
+            }
+
+            String destination = null;
+            String entityKey = null;
+            for (String line : headers.split("\n")) {
+                if (destination == null && line.startsWith(DESTINATION_HEADER)) {
+                    destination = line.substring(DESTINATION_HEADER.length());
+                } else if (entityKey == null && line.startsWith(ENTITY_KEY_HEADER)) {
+                    entityKey = line.substring(ENTITY_KEY_HEADER.length());
+                }
+            }
+            return destination != null ? new FrameInfo(destination, entityKey) : CONTROL;
+        }
+
+        private static String headerBlock(ByteBuffer payload) {
+            ByteBuffer buffer = payload.duplicate();
+            int start = buffer.position();
+            for (int i = start; i < buffer.limit() - 1; i++) {
+                if (buffer.get(i) == '\n' && buffer.get(i + 1) == '\n') {
+                    byte[] bytes = new byte[i - start];
+                    buffer.get(bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            return "";
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.pcs.vcms.websocket;
+
+/**
+ * What a session's outbound buffer does when a slow client lets it fill up.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public enum OverflowPolicy {
+
+    /** Discard the oldest droppable messages still waiting to be sent */
+    DROP_OLDEST,
+
+    /**
+     * Keep only the latest pending message per entity key, replacing queued messages in place;
+     * falls back to dropping the oldest messages when the buffer is still full
+     */
+    CONFLATE,
+
+    /** Close the session; the client reconnects and resumes from its last sequence */
+    DISCONNECT
+}
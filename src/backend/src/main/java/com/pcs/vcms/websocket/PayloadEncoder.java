@@ -0,0 +1,104 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Serializes notification payloads into each negotiated {@link PayloadEncoding}.
+ * Records bytes produced and encoding time per encoding so payload and CPU savings of
+ * binary clients are visible next to JSON in the broker metrics.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+public class PayloadEncoder {
+
+    private final Map<PayloadEncoding, ObjectMapper> mappers = new EnumMap<>(PayloadEncoding.class);
+    private final Map<PayloadEncoding, Counter> bytesCounters = new EnumMap<>(PayloadEncoding.class);
+    private final Map<PayloadEncoding, Counter> reuseCounters = new EnumMap<>(PayloadEncoding.class);
+    private final Map<PayloadEncoding, Timer> encodeTimers = new EnumMap<>(PayloadEncoding.class);
+
+    public PayloadEncoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        mappers.put(PayloadEncoding.JSON, objectMapper);
+        mappers.put(PayloadEncoding.CBOR, binaryMapper(new ObjectMapper(new CBORFactory())));
+        mappers.put(PayloadEncoding.SMILE, binaryMapper(new ObjectMapper(new SmileFactory())));
+
+        for (PayloadEncoding encoding : PayloadEncoding.values()) {
+            bytesCounters.put(encoding, Counter.builder("websocket.payload.bytes")
+                    .description("Encoded payload bytes produced per encoding")
+                    .baseUnit("bytes")
+                    .tag("encoding", encoding.getToken())
+                    .register(meterRegistry));
+            reuseCounters.put(encoding, Counter.builder("websocket.payload.reused")
+                    .description("Session deliveries served from an already encoded payload")
+                    .tag("encoding", encoding.getToken())
+                    .register(meterRegistry));
+            encodeTimers.put(encoding, Timer.builder("websocket.payload.encode")
+                    .description("Time spent encoding payloads per encoding")
+                    .tag("encoding", encoding.getToken())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Encodes a payload once for the given encoding.
+     *
+     * @param payload notification payload
+     * @param encoding target encoding
+     * @return encoded bytes
+     */
+    public byte[] encode(Object payload, PayloadEncoding encoding) {
+        Timer.Sample sample = Timer.start();
+        try {
+            byte[] bytes = mappers.get(encoding).writeValueAsBytes(payload);
+            bytesCounters.get(encoding).increment(bytes.length);
+            return bytes;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to encode payload as " + encoding.getToken(), e);
+        } finally {
+            sample.stop(encodeTimers.get(encoding));
+        }
+    }
+
+    /**
+     * Re-encodes a JSON body produced by the broker's message conversion.
+     *
+     * @param json JSON encoded payload
+     * @param encoding target encoding
+     * @return payload encoded in the target encoding
+     */
+    public byte[] transcode(byte[] json, PayloadEncoding encoding) {
+        try {
+            return encode(mappers.get(PayloadEncoding.JSON).readTree(json), encoding);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read JSON payload", e);
+        }
+    }
+
+    /**
+     * Records deliveries that reused bytes encoded for an earlier session.
+     */
+    public void recordReuse(PayloadEncoding encoding, int deliveries) {
+        if (deliveries > 0) {
+            reuseCounters.get(encoding).increment(deliveries);
+        }
+    }
+
+    private static ObjectMapper binaryMapper(ObjectMapper mapper) {
+        mapper.findAndRegisterModules();
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+}
@@ -0,0 +1,80 @@
+package com.pcs.vcms.websocket;
+
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Payload encodings a STOMP client can negotiate at CONNECT time.
+ * Binary encodings are only offered on raw WebSocket connections, because SockJS
+ * transports carry text frames only. Frames sent to a single session are encoded directly;
+ * broadcast and snapshot frames fanned out by the broker are re-encoded on the way out by
+ * {@link BroadcastEncodingInterceptor}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public enum PayloadEncoding {
+
+    JSON("json", new MimeType("application", "json"), false),
+    CBOR("cbor", new MimeType("application", "cbor"), true),
+    SMILE("smile", new MimeType("application", "x-jackson-smile"), true);
+
+    /** STOMP CONNECT header listing the encodings accepted by the client, in order of preference */
+    public static final String ACCEPT_HEADER = "accept-payload-encoding";
+
+    /** STOMP MESSAGE header naming the encoding of the frame body */
+    public static final String ENCODING_HEADER = "payload-encoding";
+
+    private final String token;
+    private final MimeType mimeType;
+    private final boolean binary;
+
+    PayloadEncoding(String token, MimeType mimeType, boolean binary) {
+        this.token = token;
+        this.mimeType = mimeType;
+        this.binary = binary;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public MimeType getMimeType() {
+        return mimeType;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Content type put on the STOMP frame. Binary bodies are declared as octet-stream so the
+     * STOMP handler emits a binary WebSocket frame; the actual encoding travels in
+     * {@link #ENCODING_HEADER}.
+     */
+    public MimeType getFrameContentType() {
+        return binary ? MimeTypeUtils.APPLICATION_OCTET_STREAM : mimeType;
+    }
+
+    /**
+     * Picks the first supported encoding from a client's accept header.
+     *
+     * @param acceptHeader comma-separated encoding tokens, may be null
+     * @param binaryAllowed whether the transport can carry binary frames
+     * @return negotiated encoding, JSON if nothing else matches
+     */
+    public static PayloadEncoding negotiate(String acceptHeader, boolean binaryAllowed) {
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return JSON;
+        }
+        for (String candidate : acceptHeader.split(",")) {
+            String token = candidate.trim();
+            for (PayloadEncoding encoding : values()) {
+                if (encoding.token.equalsIgnoreCase(token) && (binaryAllowed || !encoding.binary)) {
+                    return encoding;
+                }
+            }
+        }
+        return JSON;
+    }
+}
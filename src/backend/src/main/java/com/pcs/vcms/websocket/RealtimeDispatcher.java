@@ -0,0 +1,160 @@
+package com.pcs.vcms.websocket;
+
+import com.pcs.vcms.webhook.WebhookDispatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single entry point for publishing real-time updates.
+ * Updates are always delivered to the sessions of this node first: sequenced into the replay
+ * buffer, broadcast on the topic, routed to filtered subscriptions, applied to the latest-state
+ * snapshots and sent to Server-Sent Events streams. When cluster fan-out is enabled they are then
+ * published once to the other nodes, which deliver them to their own sessions the same way.
+ * Webhook deliveries are only queued on the node the update originates from.
+ * <p>
+ * The per-topic lock is held only to assign the sequence, apply the update to the snapshot and
+ * append it to the topic's send queue. The queue is drained outside the lock by one publishing
+ * thread at a time, which hands the updates to the broker, the routed sessions and the SSE
+ * streams in sequence order; the other publishers return as soon as their update is queued,
+ * so concurrent lane partitions never wait for each other's sends. Every subscriber still sees
+ * the updates of a topic in sequence order, which resumes and the SSE replay rely on.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class RealtimeDispatcher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SessionReplayService replayService;
+    private final SessionMessageRouter sessionRouter;
+    private final SnapshotService snapshotService;
+    private final SseStreamService sseStreams;
+    private final ClusterFanoutPublisher clusterFanout;
+    private final WebhookDispatcher webhooks;
+    private final Map<RealtimeTopic, SendQueue> sendQueues = new EnumMap<>(RealtimeTopic.class);
+
+    public RealtimeDispatcher(SimpMessagingTemplate messagingTemplate,
+                              SessionReplayService replayService,
+                              SessionMessageRouter sessionRouter,
+                              SnapshotService snapshotService,
+                              SseStreamService sseStreams,
+                              ObjectProvider<ClusterFanoutPublisher> clusterFanout,
+                              WebhookDispatcher webhooks) {
+        this.messagingTemplate = messagingTemplate;
+        this.replayService = replayService;
+        this.sessionRouter = sessionRouter;
+        this.snapshotService = snapshotService;
+        this.sseStreams = sseStreams;
+        this.clusterFanout = clusterFanout.getIfAvailable();
+        this.webhooks = webhooks;
+        for (RealtimeTopic topic : RealtimeTopic.values()) {
+            sendQueues.put(topic, new SendQueue());
+        }
+    }
+
+    /**
+     * Publishes a topic update to every node.
+     *
+     * @param topic topic of the update
+     * @param entityKey key of the entity whose state the update carries
+     * @param routingKeys routing keys matched against filtered subscriptions
+     * @param payload message payload, must not be modified afterwards
+     * @return update as delivered on this node
+     */
+    public RealtimeUpdate dispatch(RealtimeTopic topic, String entityKey, Set<String> routingKeys, Object payload) {
+        RealtimeUpdate update = deliverLocally(topic, entityKey, routingKeys, payload);
+        if (clusterFanout != null) {
+            clusterFanout.publishUpdate(topic, entityKey, routingKeys, payload);
+        }
+        webhooks.publish(update);
+        return update;
+    }
+
+    /**
+     * Publishes a plain message to a broker destination on every node.
+     *
+     * @param destination broker destination
+     * @param payload message payload
+     */
+    public void broadcast(String destination, Object payload) {
+        broadcastLocally(destination, payload);
+        if (clusterFanout != null) {
+            clusterFanout.publishBroadcast(destination, payload);
+        }
+    }
+
+    /**
+     * Delivers a topic update to the sessions connected to this node.
+     */
+    public RealtimeUpdate deliverLocally(RealtimeTopic topic, String entityKey, Set<String> routingKeys,
+                                         Object payload) {
+        SendQueue queue = sendQueues.get(topic);
+        RealtimeUpdate update;
+        synchronized (queue) {
+            long sequence = replayService.record(topic, routingKeys, payload);
+            update = new RealtimeUpdate(topic, entityKey, routingKeys, payload, sequence, replayService.getEpoch());
+            snapshotService.accept(update);
+            queue.pending.add(update);
+        }
+        drain(queue);
+        return update;
+    }
+
+    /**
+     * Sends a plain message to the subscribers of a destination connected to this node.
+     */
+    public void broadcastLocally(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+
+    /**
+     * Sends the queued updates of a topic unless another thread is already sending them. The
+     * queue is checked again after the flag is released, so an update queued while the previous
+     * drainer was finishing is not left behind.
+     */
+    private void drain(SendQueue queue) {
+        while (!queue.pending.isEmpty() && queue.draining.compareAndSet(false, true)) {
+            try {
+                RealtimeUpdate update;
+                while ((update = queue.pending.poll()) != null) {
+                    send(update);
+                }
+            } finally {
+                queue.draining.set(false);
+            }
+        }
+    }
+
+    private void send(RealtimeUpdate update) {
+        RealtimeTopic topic = update.getTopic();
+        try {
+            messagingTemplate.convertAndSend(topic.getBroadcastDestination(), update.getPayload(),
+                    update.getNativeHeaders());
+            sessionRouter.route(update);
+            sseStreams.publish(update);
+        } catch (RuntimeException e) {
+            // The update stays in the replay buffer, so clients can still recover it with a resume
+            log.warn("Failed to send {} update {}: {}", topic.getName(), update.getSequence(), e.getMessage());
+        }
+    }
+
+    /**
+     * Updates of a topic sequenced but not sent yet, and whether a thread is sending them.
+     */
+    private static final class SendQueue {
+
+        private final Queue<RealtimeUpdate> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+}
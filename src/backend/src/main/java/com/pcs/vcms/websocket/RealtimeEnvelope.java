@@ -0,0 +1,44 @@
+package com.pcs.vcms.websocket;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Real-time update as exchanged between nodes over the cluster fan-out exchange.
+ * Carries either a topic update, delivered through the receiving node's sequencing and
+ * routing, or a plain broadcast to a broker destination.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Data
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RealtimeEnvelope {
+
+    /** Unique id used for node-local deduplication */
+    private String messageId;
+
+    /** Node that published the update and already delivered it to its own sessions */
+    private String originNode;
+
+    /** Topic of the update, null for plain broadcasts */
+    private RealtimeTopic topic;
+
+    /** Broker destination of a plain broadcast, null for topic updates */
+    private String destination;
+
+    private String entityKey;
+
+    private Set<String> routingKeys;
+
+    private Object payload;
+
+    private long publishedAt;
+}
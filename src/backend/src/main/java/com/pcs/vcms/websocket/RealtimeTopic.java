@@ -0,0 +1,80 @@
+package com.pcs.vcms.websocket;
+
+/**
+ * Real-time notification topics published by the Vessel Call Management System.
+ * Each topic has a broadcast destination served by the message broker and a
+ * per-session user queue used for filtered delivery.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public enum RealtimeTopic {
+
+    VESSEL_CALLS("vessel-calls"),
+    BERTH_ALLOCATIONS("berth-allocations"),
+    SERVICE_BOOKINGS("service-bookings"),
+    CLEARANCES("clearances");
+
+    private final String name;
+
+    RealtimeTopic(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return broker destination every unfiltered subscriber receives
+     */
+    public String getBroadcastDestination() {
+        return "/topic/" + name;
+    }
+
+    /**
+     * @return user queue (relative to the user destination prefix) used for filtered delivery
+     */
+    public String getUserQueue() {
+        return "/queue/" + name;
+    }
+
+    /**
+     * @param name topic name, e.g. {@code berth-allocations}
+     * @return matching topic, or null if no topic has that name
+     */
+    public static RealtimeTopic fromName(String name) {
+        for (RealtimeTopic topic : values()) {
+            if (topic.name.equals(name)) {
+                return topic;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param destination destination of a SUBSCRIBE frame
+     * @return topic broadcast on the destination, or null if it is not a real-time topic
+     */
+    public static RealtimeTopic fromBroadcastDestination(String destination) {
+        for (RealtimeTopic topic : values()) {
+            if (topic.getBroadcastDestination().equals(destination)) {
+                return topic;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param destination user queue with the user destination prefix already stripped
+     * @return topic delivered on the queue, or null if it is not a real-time topic
+     */
+    public static RealtimeTopic fromUserQueue(String destination) {
+        for (RealtimeTopic topic : values()) {
+            if (topic.getUserQueue().equals(destination)) {
+                return topic;
+            }
+        }
+        return null;
+    }
+}
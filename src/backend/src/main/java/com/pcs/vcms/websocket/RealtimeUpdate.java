@@ -0,0 +1,78 @@
+package com.pcs.vcms.websocket;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sequenced real-time update as published on a {@link RealtimeTopic}.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class RealtimeUpdate {
+
+    /** STOMP MESSAGE header carrying the entity key of an update, used for conflation */
+    public static final String ENTITY_KEY_HEADER = "entity-key";
+
+    private final RealtimeTopic topic;
+    private final String entityKey;
+    private final Set<String> routingKeys;
+    private final Object payload;
+    private final long sequence;
+    private final String epoch;
+
+    public RealtimeUpdate(RealtimeTopic topic, String entityKey, Set<String> routingKeys,
+                          Object payload, long sequence, String epoch) {
+        this.topic = topic;
+        this.entityKey = entityKey;
+        this.routingKeys = routingKeys != null ? routingKeys : Collections.emptySet();
+        this.payload = payload;
+        this.sequence = sequence;
+        this.epoch = epoch;
+    }
+
+    public RealtimeTopic getTopic() {
+        return topic;
+    }
+
+    /**
+     * @return key of the entity whose state the update carries, or null if unknown
+     */
+    public String getEntityKey() {
+        return entityKey;
+    }
+
+    public Set<String> getRoutingKeys() {
+        return routingKeys;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return epoch the sequence number belongs to
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return native headers stamped on the broadcast message of the update
+     */
+    public Map<String, Object> getNativeHeaders() {
+        Map<String, Object> headers = new HashMap<>(4);
+        headers.put(SessionReplayService.SEQUENCE_HEADER, String.valueOf(sequence));
+        headers.put(SessionReplayService.EPOCH_HEADER, epoch);
+        if (entityKey != null) {
+            headers.put(ENTITY_KEY_HEADER, entityKey);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,129 @@
+package com.pcs.vcms.websocket;
+
+import com.pcs.vcms.entity.BerthAllocation;
+import com.pcs.vcms.entity.Clearance;
+import com.pcs.vcms.entity.ServiceBooking;
+import com.pcs.vcms.entity.VesselCall;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Builds the entity keys used to route real-time notifications to interested sessions.
+ * A notification is tagged with every key it is relevant to (vessel call, berth, agent, port)
+ * and a filtered subscription matches when it shares at least one key with it.
+ * Each update also has a single entity key identifying the state it carries, which lets
+ * slow consumers conflate successive updates of the same entity.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public final class RoutingKeys {
+
+    private static final String VESSEL_CALL_PREFIX = "vesselCall:";
+    private static final String BERTH_PREFIX = "berth:";
+    private static final String AGENT_PREFIX = "agent:";
+    private static final String PORT_PREFIX = "port:";
+    private static final String SERVICE_BOOKING_PREFIX = "serviceBooking:";
+    private static final String CLEARANCE_PREFIX = "clearance:";
+
+    private RoutingKeys() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    public static String vesselCall(Long vesselCallId) {
+        return VESSEL_CALL_PREFIX + vesselCallId;
+    }
+
+    public static String berth(Number berthId) {
+        return BERTH_PREFIX + berthId.longValue();
+    }
+
+    public static String agent(String agent) {
+        return AGENT_PREFIX + agent.toLowerCase();
+    }
+
+    public static String port(String portCode) {
+        return PORT_PREFIX + portCode.toUpperCase();
+    }
+
+    public static String serviceBooking(Long serviceBookingId) {
+        return SERVICE_BOOKING_PREFIX + serviceBookingId;
+    }
+
+    public static String clearance(Long clearanceId) {
+        return CLEARANCE_PREFIX + clearanceId;
+    }
+
+    /**
+     * Entity key of a berth allocation update. Allocations are keyed by berth so that
+     * conflation keeps the latest status of each berth.
+     */
+    public static String entityKey(BerthAllocation allocation) {
+        if (allocation.getBerth() != null && allocation.getBerth().getId() != null) {
+            return berth(allocation.getBerth().getId());
+        }
+        return null;
+    }
+
+    /**
+     * Routing keys for a vessel call update. The vessel owner acts as the agent key.
+     */
+    public static Set<String> forVesselCall(VesselCall vesselCall, String portCode) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(port(portCode));
+        addVesselCallKeys(keys, vesselCall);
+        return keys;
+    }
+
+    /**
+     * Routing keys for a berth allocation update, covering both the berth and the vessel call.
+     */
+    public static Set<String> forBerthAllocation(BerthAllocation allocation, String portCode) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(port(portCode));
+        if (allocation.getBerth() != null && allocation.getBerth().getId() != null) {
+            keys.add(berth(allocation.getBerth().getId()));
+        }
+        addVesselCallKeys(keys, allocation.getVesselCall());
+        return keys;
+    }
+
+    /**
+     * Routing keys for a service booking update. The booking creator acts as the agent key.
+     */
+    public static Set<String> forServiceBooking(ServiceBooking booking, String portCode) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(port(portCode));
+        addVesselCallKeys(keys, booking.getVesselCall());
+        if (booking.getCreatedBy() != null) {
+            keys.add(agent(booking.getCreatedBy()));
+        }
+        return keys;
+    }
+
+    /**
+     * Routing keys for a clearance update. The submitter acts as the agent key.
+     */
+    public static Set<String> forClearance(Clearance clearance, String portCode) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(port(portCode));
+        addVesselCallKeys(keys, clearance.getVesselCall());
+        if (clearance.getSubmittedBy() != null) {
+            keys.add(agent(clearance.getSubmittedBy()));
+        }
+        return keys;
+    }
+
+    private static void addVesselCallKeys(Set<String> keys, VesselCall vesselCall) {
+        if (vesselCall == null) {
+            return;
+        }
+        if (vesselCall.getId() != null) {
+            keys.add(vesselCall(vesselCall.getId()));
+        }
+        if (vesselCall.getVessel() != null && vesselCall.getVessel().getOwner() != null) {
+            keys.add(agent(vesselCall.getVessel().getOwner()));
+        }
+    }
+}
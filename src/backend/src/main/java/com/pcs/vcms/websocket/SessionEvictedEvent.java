@@ -0,0 +1,33 @@
+package com.pcs.vcms.websocket;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a WebSocket session is evicted after missing its heartbeats.
+ * Listeners release any per-session state they hold, as for a regular disconnect.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class SessionEvictedEvent extends ApplicationEvent {
+
+    private final String sessionId;
+    private final String username;
+
+    public SessionEvictedEvent(Object source, String sessionId, String username) {
+        super(source);
+        this.sessionId = sessionId;
+        this.username = username;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return user owning the session, or null for anonymous sessions
+     */
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,139 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the liveness of STOMP sessions on a {@link SessionTimingWheel}.
+ * Registered as an inbound channel interceptor: CONNECT starts tracking a session, every
+ * inbound frame (including client heartbeats) counts as activity and DISCONNECT stops
+ * tracking. Sessions silent past the eviction timeout are closed and a
+ * {@link SessionEvictedEvent} is published so per-session state is released.
+ * <p>
+ * Only sessions whose CONNECT frame offers client heartbeats are tracked. A client sending
+ * {@code heart-beat:0,...} or no header at all never sends a frame of its own once subscribed,
+ * so its silence says nothing about the connection; such sessions are left to the transport,
+ * which closes them when a send or the SockJS heartbeat fails.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class SessionLivenessMonitor implements ChannelInterceptor {
+
+    private final SessionTimingWheel timingWheel;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongSupplier clock;
+
+    @Autowired
+    public SessionLivenessMonitor(WebSocketSessionRegistry sessionRegistry,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${vcms.websocket.liveness.tick-ms:1000}") long tickMillis,
+                                  @Value("${vcms.websocket.liveness.idle-timeout-ms:20000}") long idleTimeoutMillis,
+                                  @Value("${vcms.websocket.liveness.evict-timeout-ms:60000}") long evictTimeoutMillis) {
+        this(sessionRegistry, eventPublisher, meterRegistry, tickMillis, idleTimeoutMillis, evictTimeoutMillis,
+                System::currentTimeMillis);
+    }
+
+    SessionLivenessMonitor(WebSocketSessionRegistry sessionRegistry,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           long tickMillis,
+                           long idleTimeoutMillis,
+                           long evictTimeoutMillis,
+                           LongSupplier clock) {
+        this.sessionRegistry = sessionRegistry;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.timingWheel = new SessionTimingWheel(tickMillis, idleTimeoutMillis, evictTimeoutMillis,
+                clock.getAsLong());
+
+        Gauge.builder("websocket.sessions", timingWheel, SessionTimingWheel::getLiveCount)
+                .description("Number of tracked WebSocket sessions by liveness state")
+                .tag("state", "live")
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions", timingWheel, SessionTimingWheel::getIdleCount)
+                .description("Number of tracked WebSocket sessions by liveness state")
+                .tag("state", "idle")
+                .register(meterRegistry);
+        FunctionCounter.builder("websocket.sessions.evicted", timingWheel, SessionTimingWheel::getEvictedCount)
+                .description("Number of WebSocket sessions evicted after missing heartbeats")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (sessionId == null || messageType == null) {
+            return message;
+        }
+
+        long now = clock.getAsLong();
+        if (messageType == SimpMessageType.CONNECT) {
+            if (StompHeaderAccessor.wrap(message).getHeartbeat()[0] <= 0) {
+                log.debug("WebSocket session {} sends no heartbeats, not tracking its liveness", sessionId);
+                return message;
+            }
+            Principal user = SimpMessageHeaderAccessor.getUser(message.getHeaders());
+            timingWheel.register(sessionId, user != null ? user.getName() : null, now);
+        } else if (messageType == SimpMessageType.DISCONNECT) {
+            timingWheel.remove(sessionId);
+        } else {
+            timingWheel.touch(sessionId, now);
+        }
+        return message;
+    }
+
+    /**
+     * Advances the timing wheel and evicts the sessions whose heartbeats stopped.
+     */
+    @Scheduled(fixedRateString = "${vcms.websocket.liveness.tick-ms:1000}")
+    public void evictExpiredSessions() {
+        List<SessionTimingWheel.SessionTimer> evicted = timingWheel.advance(clock.getAsLong());
+        for (SessionTimingWheel.SessionTimer session : evicted) {
+            log.info("Evicting WebSocket session {} of user {}, last seen at {}",
+                    session.getSessionId(), session.getUsername(), session.getLastSeen());
+            try {
+                sessionRegistry.close(session.getSessionId(), CloseStatus.SESSION_NOT_RELIABLE);
+                eventPublisher.publishEvent(
+                        new SessionEvictedEvent(this, session.getSessionId(), session.getUsername()));
+            } catch (Exception e) {
+                log.error("Failed to evict WebSocket session {}: {}", session.getSessionId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public int getLiveCount() {
+        return timingWheel.getLiveCount();
+    }
+
+    public int getIdleCount() {
+        return timingWheel.getIdleCount();
+    }
+
+    public long getEvictedCount() {
+        return timingWheel.getEvictedCount();
+    }
+}
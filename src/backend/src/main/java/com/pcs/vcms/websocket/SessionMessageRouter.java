@@ -0,0 +1,180 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivers notifications to the sessions holding a matching filtered subscription.
+ * Recipients are resolved through {@link SubscriptionRoutingIndex} and each one receives
+ * the update on its own user queue, targeted by session id.
+ * The payload is encoded once per negotiated {@link PayloadEncoding} and the bytes are
+ * shared by every session using that encoding. Sequenced updates carry their topic sequence
+ * and its epoch in the {@value SessionReplayService#SEQUENCE_HEADER} and
+ * {@value SessionReplayService#EPOCH_HEADER} headers.
+ * <p>
+ * Subscription acknowledgments are sent on their own {@value #ACK_QUEUE} user queue instead
+ * of the filtered topic queues, so they are neither subject to the topics' overflow policies
+ * nor mixed with the routed updates.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class SessionMessageRouter {
+
+    public static final String ACK_QUEUE = "/queue/subscription-acks";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageChannel clientOutboundChannel;
+    private final SubscriptionRoutingIndex routingIndex;
+    private final EncodingNegotiationInterceptor encodingNegotiation;
+    private final PayloadEncoder payloadEncoder;
+
+    private final Counter routedDeliveries;
+    private final DistributionSummary fanoutSize;
+
+    public SessionMessageRouter(SimpMessagingTemplate messagingTemplate,
+                                @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                SubscriptionRoutingIndex routingIndex,
+                                EncodingNegotiationInterceptor encodingNegotiation,
+                                PayloadEncoder payloadEncoder,
+                                MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.routingIndex = routingIndex;
+        this.encodingNegotiation = encodingNegotiation;
+        this.payloadEncoder = payloadEncoder;
+
+        this.routedDeliveries = Counter.builder("websocket.routed.deliveries")
+                .description("Number of filtered per-session deliveries")
+                .register(meterRegistry);
+        this.fanoutSize = DistributionSummary.builder("websocket.routed.fanout")
+                .description("Number of interested sessions per routed update")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Routes an update to every session whose filter matches one of its routing keys.
+     *
+     * @param update sequenced update
+     * @return number of sessions the update was delivered to
+     */
+    public int route(RealtimeUpdate update) {
+        RealtimeTopic topic = update.getTopic();
+        Set<String> sessionIds = routingIndex.resolve(topic, update.getRoutingKeys());
+        fanoutSize.record(sessionIds.size());
+        if (sessionIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<PayloadEncoding, byte[]> encoded = new EnumMap<>(PayloadEncoding.class);
+        Map<PayloadEncoding, Integer> deliveriesByEncoding = new EnumMap<>(PayloadEncoding.class);
+        int delivered = 0;
+        for (String sessionId : sessionIds) {
+            String username = routingIndex.getUsername(sessionId);
+            if (username == null) {
+                // Session disconnected after the index was resolved
+                continue;
+            }
+            PayloadEncoding encoding = encodingNegotiation.getEncoding(sessionId);
+            try {
+                byte[] body = encoded.computeIfAbsent(encoding, e -> payloadEncoder.encode(update.getPayload(), e));
+                sendToSession(sessionId, username, topic, encoding, body,
+                        update.getSequence(), update.getEpoch(), update.getEntityKey());
+                deliveriesByEncoding.merge(encoding, 1, Integer::sum);
+                delivered++;
+            } catch (Exception e) {
+                log.warn("Failed to route {} update to session {}: {}", topic.getName(), sessionId, e.getMessage());
+            }
+        }
+
+        // Every delivery beyond the first one of an encoding reused the encoded bytes
+        deliveriesByEncoding.forEach((encoding, count) -> payloadEncoder.recordReuse(encoding, count - 1));
+        routedDeliveries.increment(delivered);
+        return delivered;
+    }
+
+    /**
+     * Delivers a single message to one subscription of a session in its negotiated encoding.
+     * Used for replays and control messages that are not shared with other sessions. The
+     * message is sent straight to the subscription, so it reaches broadcast topic subscribers
+     * as well as user queue subscribers.
+     *
+     * @param sessionId WebSocket session id
+     * @param subscriptionId id of the subscription receiving the message
+     * @param destination destination the client subscribed to
+     * @param payload message payload
+     * @param sequence topic sequence number, or 0 for unsequenced control messages
+     * @param epoch epoch of the sequence number, null for control messages
+     */
+    public void deliver(String sessionId, String subscriptionId, String destination, Object payload,
+                        long sequence, String epoch) {
+        PayloadEncoding encoding = encodingNegotiation.getEncoding(sessionId);
+        SimpMessageHeaderAccessor accessor = createHeaders(sessionId, encoding, sequence, epoch, null);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        clientOutboundChannel.send(MessageBuilder.createMessage(payloadEncoder.encode(payload, encoding),
+                accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Acknowledges a subscription request to the session that sent it, in its negotiated
+     * encoding. Other sessions of the same user do not receive it.
+     *
+     * @param sessionId WebSocket session id
+     * @param username authenticated user owning the session
+     * @param ack acknowledgment payload
+     */
+    public void acknowledge(String sessionId, String username, Object ack) {
+        PayloadEncoding encoding = encodingNegotiation.getEncoding(sessionId);
+        SimpMessageHeaderAccessor accessor = createHeaders(sessionId, encoding, 0, null, null);
+        messagingTemplate.send(userDestination(username, ACK_QUEUE),
+                MessageBuilder.createMessage(payloadEncoder.encode(ack, encoding), accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Sends pre-encoded bytes to a single session, bypassing per-send message conversion.
+     */
+    private void sendToSession(String sessionId, String username, RealtimeTopic topic,
+                               PayloadEncoding encoding, byte[] body, long sequence, String epoch,
+                               String entityKey) {
+        SimpMessageHeaderAccessor accessor = createHeaders(sessionId, encoding, sequence, epoch, entityKey);
+        messagingTemplate.send(userDestination(username, topic.getUserQueue()), MessageBuilder.createMessage(body, accessor.getMessageHeaders()));
+    }
+
+    private String userDestination(String username, String queue) {
+        return messagingTemplate.getUserDestinationPrefix() + StringUtils.replace(username, "/", "%2F") + queue;
+    }
+
+    private static SimpMessageHeaderAccessor createHeaders(String sessionId, PayloadEncoding encoding,
+                                                           long sequence, String epoch, String entityKey) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType(encoding.getFrameContentType());
+        accessor.setNativeHeader(PayloadEncoding.ENCODING_HEADER, encoding.getToken());
+        if (sequence > 0) {
+            accessor.setNativeHeader(SessionReplayService.SEQUENCE_HEADER, String.valueOf(sequence));
+            accessor.setNativeHeader(SessionReplayService.EPOCH_HEADER, epoch);
+        }
+        if (entityKey != null) {
+            accessor.setNativeHeader(RealtimeUpdate.ENTITY_KEY_HEADER, entityKey);
+        }
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+}
@@ -0,0 +1,227 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sequences real-time updates per topic and replays missed updates to reconnecting clients.
+ * <p>
+ * Every published update is stamped with a monotonically increasing per-topic sequence number
+ * (the {@value #SEQUENCE_HEADER} header) and retained in a {@link TopicReplayBuffer}.
+ * Sequences are assigned by each node and restart with the process, so they are qualified by
+ * the node's {@value #EPOCH_HEADER}. A client resuming after a reconnect sends the last sequence
+ * it has seen and its epoch in the {@value #RESUME_HEADER} and {@value #RESUME_EPOCH_HEADER}
+ * headers of its SUBSCRIBE frame:
+ * <ul>
+ *   <li>on a broadcast topic, every retained update of the topic is replayed immediately;</li>
+ *   <li>on its user queue, the resume is held until the subscribe message registers the
+ *   session filter, so only matching updates are replayed.</li>
+ * </ul>
+ * Replays are sent straight to the resuming subscription, on the destination the client
+ * subscribed to, so broadcast topic subscribers receive them as well. When the requested
+ * sequence is no longer retained, or belongs to another epoch, the client receives a {@value #RESYNC_REQUIRED} control message and must reload
+ * the full state over REST. Live updates may interleave with a replay, so clients discard
+ * frames whose sequence they have already processed.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class SessionReplayService {
+
+    /** STOMP MESSAGE header carrying the topic sequence number of an update */
+    public static final String SEQUENCE_HEADER = "seq";
+
+    /** STOMP MESSAGE header carrying the epoch sequence numbers belong to */
+    public static final String EPOCH_HEADER = "seq-epoch";
+
+    /** STOMP SUBSCRIBE header carrying the last sequence received by a resuming client */
+    public static final String RESUME_HEADER = "resume-from";
+
+    /** STOMP SUBSCRIBE header carrying the epoch of the resume sequence */
+    public static final String RESUME_EPOCH_HEADER = "resume-epoch";
+
+    /** Control message type sent when missed updates are no longer retained */
+    public static final String RESYNC_REQUIRED = "RESYNC_REQUIRED";
+
+    private final SessionMessageRouter sessionRouter;
+    private final SubscriptionRoutingIndex routingIndex;
+    private final Map<RealtimeTopic, TopicReplayBuffer> buffers = new EnumMap<>(RealtimeTopic.class);
+    private final String epoch = UUID.randomUUID().toString();
+
+    // "<session id>|<topic>" -> resume waiting for the session filter
+    private final ConcurrentHashMap<String, PendingResume> pendingResumes = new ConcurrentHashMap<>();
+
+    private final Counter replayedMessages;
+    private final Counter resyncs;
+
+    public SessionReplayService(SessionMessageRouter sessionRouter,
+                                SubscriptionRoutingIndex routingIndex,
+                                MeterRegistry meterRegistry,
+                                @Value("${vcms.websocket.replay.capacity:1000}") int capacity,
+                                @Value("${vcms.websocket.replay.max-age-ms:300000}") long maxAgeMillis) {
+        this.sessionRouter = sessionRouter;
+        this.routingIndex = routingIndex;
+        for (RealtimeTopic topic : RealtimeTopic.values()) {
+            buffers.put(topic, new TopicReplayBuffer(capacity, maxAgeMillis));
+        }
+
+        this.replayedMessages = Counter.builder("websocket.replay.messages")
+                .description("Number of updates replayed to resuming sessions")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("websocket.replay.resyncs")
+                .description("Number of resumes that required a full resync")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assigns the next sequence number of a topic to an update and retains it for replay.
+     *
+     * @param topic topic of the update
+     * @param entityKeys routing keys of the update
+     * @param payload message payload, must not be modified afterwards
+     * @return sequence number of the update
+     */
+    public long record(RealtimeTopic topic, Set<String> entityKeys, Object payload) {
+        return buffers.get(topic).append(entityKeys, payload, System.currentTimeMillis());
+    }
+
+    /**
+     * Handles a resume request carried by a SUBSCRIBE frame.
+     *
+     * @param sessionId WebSocket session id
+     * @param subscriptionId id of the resuming subscription
+     * @param destination destination the client subscribed to
+     * @param topic topic being resumed
+     * @param fromSequence last sequence received by the client
+     * @param fromEpoch epoch of the sequence, null if the client did not send one
+     * @param filtered true if the subscription is the session's filtered user queue
+     */
+    public void requestResume(String sessionId, String subscriptionId, String destination, RealtimeTopic topic,
+                              long fromSequence, String fromEpoch, boolean filtered) {
+        PendingResume resume = new PendingResume(subscriptionId, destination, fromSequence, fromEpoch);
+        if (filtered) {
+            pendingResumes.put(pendingKey(sessionId, topic), resume);
+        } else {
+            replay(sessionId, topic, resume, false);
+        }
+    }
+
+    /**
+     * Runs the resume held for a session once its subscription to the topic is complete.
+     * Sessions that registered a filter only receive matching updates.
+     *
+     * @param sessionId WebSocket session id
+     * @param topic subscribed topic
+     */
+    public void resumePending(String sessionId, RealtimeTopic topic) {
+        PendingResume pending = pendingResumes.remove(pendingKey(sessionId, topic));
+        if (pending != null) {
+            replay(sessionId, topic, pending, routingIndex.isRegistered(sessionId, topic));
+        }
+    }
+
+    /**
+     * Drops resumes still held for a closed session.
+     *
+     * @param sessionId WebSocket session id
+     */
+    public void release(String sessionId) {
+        for (RealtimeTopic topic : RealtimeTopic.values()) {
+            pendingResumes.remove(pendingKey(sessionId, topic));
+        }
+    }
+
+    /**
+     * Reads the retained updates of a topic following a sequence number, for transports that
+     * replay on their own.
+     *
+     * @param topic topic to read
+     * @param fromSequence last sequence received by the client
+     * @return retained updates after the sequence, flagged as a gap if some were already evicted
+     */
+    public TopicReplayBuffer.ReplayWindow readAfter(RealtimeTopic topic, long fromSequence) {
+        return buffers.get(topic).readAfter(fromSequence, System.currentTimeMillis());
+    }
+
+    public long getLatestSequence(RealtimeTopic topic) {
+        return buffers.get(topic).getLatestSequence();
+    }
+
+    /**
+     * @return epoch of the sequence numbers assigned by this node
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    private void replay(String sessionId, RealtimeTopic topic, PendingResume resume, boolean filtered) {
+        long fromSequence = resume.fromSequence;
+        TopicReplayBuffer.ReplayWindow window = buffers.get(topic).readAfter(fromSequence, System.currentTimeMillis());
+        boolean foreignEpoch = resume.fromEpoch != null && !resume.fromEpoch.equals(epoch);
+        if (window.isGap() || foreignEpoch) {
+            log.info("Session {} cannot resume {} from sequence {} of epoch {}, oldest retained is {}",
+                    sessionId, topic.getName(), fromSequence, resume.fromEpoch, window.getOldestSequence());
+            sessionRouter.deliver(sessionId, resume.subscriptionId, resume.destination,
+                    createResyncMessage(topic, window), 0, null);
+            resyncs.increment();
+            return;
+        }
+
+        int replayed = 0;
+        for (TopicReplayBuffer.Entry entry : window.getEntries()) {
+            if (filtered && !routingIndex.matches(sessionId, topic, entry.getEntityKeys())) {
+                continue;
+            }
+            sessionRouter.deliver(sessionId, resume.subscriptionId, resume.destination,
+                    entry.getPayload(), entry.getSequence(), epoch);
+            replayed++;
+        }
+        replayedMessages.increment(replayed);
+        log.debug("Replayed {} {} updates to session {} from sequence {}",
+                replayed, topic.getName(), sessionId, fromSequence);
+    }
+
+    Map<String, Object> createResyncMessage(RealtimeTopic topic, TopicReplayBuffer.ReplayWindow window) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", RESYNC_REQUIRED);
+        message.put("topic", topic.getName());
+        message.put("oldestSequence", window.getOldestSequence());
+        message.put("latestSequence", window.getLatestSequence());
+        message.put("epoch", epoch);
+        message.put("timestamp", System.currentTimeMillis());
+        return message;
+    }
+
+    private static String pendingKey(String sessionId, RealtimeTopic topic) {
+        return sessionId + '|' + topic.getName();
+    }
+
+    /**
+     * Resume request waiting for the session filter to be registered.
+     */
+    private static class PendingResume {
+        private final String subscriptionId;
+        private final String destination;
+        private final long fromSequence;
+        private final String fromEpoch;
+
+        PendingResume(String subscriptionId, String destination, long fromSequence, String fromEpoch) {
+            this.subscriptionId = subscriptionId;
+            this.destination = destination;
+            this.fromSequence = fromSequence;
+            this.fromEpoch = fromEpoch;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.pcs.vcms.websocket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timing wheel tracking the liveness of WebSocket sessions.
+ * <p>
+ * A heartbeat only stamps the session's last-seen time, so it costs one map lookup and
+ * never moves the session between slots. Each tick visits the sessions whose deadline falls
+ * in that slot: sessions seen recently are re-armed for their new deadline, sessions silent
+ * for longer than the idle timeout are flagged idle, and sessions silent for longer than the
+ * eviction timeout are evicted. The wheel spans the eviction timeout, so every re-arm lands
+ * within one revolution and no session is ever scanned outside its own slot.
+ * <p>
+ * {@link #advance(long)} must be driven by a single thread; registration, heartbeats and
+ * removal are safe from any thread.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class SessionTimingWheel {
+
+    private final long tickMillis;
+    private final long idleTimeoutMillis;
+    private final long evictTimeoutMillis;
+    private final Queue<SessionTimer>[] slots;
+
+    private final ConcurrentHashMap<String, SessionTimer> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger idleSessions = new AtomicInteger();
+    private final AtomicLong evictedSessions = new AtomicLong();
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public SessionTimingWheel(long tickMillis, long idleTimeoutMillis, long evictTimeoutMillis, long now) {
+        if (tickMillis <= 0 || idleTimeoutMillis <= 0 || evictTimeoutMillis < idleTimeoutMillis) {
+            throw new IllegalArgumentException(
+                    "Timing wheel requires a positive tick and 0 < idle timeout <= eviction timeout");
+        }
+        this.tickMillis = tickMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.evictTimeoutMillis = evictTimeoutMillis;
+        this.slots = new Queue[(int) (evictTimeoutMillis / tickMillis) + 2];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Starts tracking a session, replacing any previous registration with the same id.
+     *
+     * @param sessionId WebSocket session id
+     * @param username user owning the session, may be null
+     * @param now current time in epoch millis
+     */
+    public void register(String sessionId, String username, long now) {
+        SessionTimer timer = new SessionTimer(sessionId, username, now);
+        SessionTimer previous = sessions.put(sessionId, timer);
+        if (previous != null) {
+            cancel(previous);
+        }
+        schedule(timer, now + idleTimeoutMillis);
+    }
+
+    /**
+     * Records activity of a session.
+     *
+     * @param sessionId WebSocket session id
+     * @param now current time in epoch millis
+     * @return false if the session is not tracked
+     */
+    public boolean touch(String sessionId, long now) {
+        SessionTimer timer = sessions.get(sessionId);
+        if (timer == null) {
+            return false;
+        }
+        timer.lastSeen = now;
+        if (timer.idle.get() && timer.idle.compareAndSet(true, false)) {
+            idleSessions.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Stops tracking a session that closed normally. Its timer is discarded lazily
+     * when its slot comes due.
+     *
+     * @param sessionId WebSocket session id
+     */
+    public void remove(String sessionId) {
+        SessionTimer timer = sessions.remove(sessionId);
+        if (timer != null) {
+            cancel(timer);
+        }
+    }
+
+    /**
+     * Processes every tick elapsed since the previous call.
+     *
+     * @param now current time in epoch millis
+     * @return sessions evicted during this call
+     */
+    public List<SessionTimer> advance(long now) {
+        long targetTick = now / tickMillis;
+        // After a long pause one revolution covers every slot
+        long tick = Math.max(currentTick, targetTick - slots.length);
+        List<SessionTimer> evicted = null;
+
+        while (tick < targetTick) {
+            tick++;
+            currentTick = tick;
+            Queue<SessionTimer> slot = slots[slotIndex(tick)];
+            SessionTimer timer;
+            while ((timer = slot.poll()) != null) {
+                if (expire(timer, now)) {
+                    if (evicted == null) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(timer);
+                }
+            }
+        }
+        return evicted != null ? evicted : Collections.emptyList();
+    }
+
+    /**
+     * @return username registered with the session, or null if it is not tracked
+     */
+    public String getUsername(String sessionId) {
+        SessionTimer timer = sessions.get(sessionId);
+        return timer != null ? timer.username : null;
+    }
+
+    public int getLiveCount() {
+        return Math.max(0, sessions.size() - idleSessions.get());
+    }
+
+    public int getIdleCount() {
+        return idleSessions.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedSessions.get();
+    }
+
+    /**
+     * Handles a timer whose slot came due.
+     *
+     * @return true if the session was evicted
+     */
+    private boolean expire(SessionTimer timer, long now) {
+        if (timer.cancelled) {
+            return false;
+        }
+        long lastSeen = timer.lastSeen;
+        long silence = now - lastSeen;
+
+        if (silence >= evictTimeoutMillis) {
+            if (sessions.remove(timer.sessionId, timer)) {
+                cancel(timer);
+                evictedSessions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+        if (silence >= idleTimeoutMillis) {
+            if (timer.idle.compareAndSet(false, true)) {
+                idleSessions.incrementAndGet();
+            }
+            schedule(timer, lastSeen + evictTimeoutMillis);
+        } else {
+            schedule(timer, lastSeen + idleTimeoutMillis);
+        }
+        return false;
+    }
+
+    private void schedule(SessionTimer timer, long deadline) {
+        long tick = Math.max((deadline + tickMillis - 1) / tickMillis, currentTick + 1);
+        // While catching up, never wrap around into the slot being drained
+        tick = Math.min(tick, currentTick + slots.length - 1);
+        slots[slotIndex(tick)].add(timer);
+    }
+
+    private void cancel(SessionTimer timer) {
+        timer.cancelled = true;
+        if (timer.idle.compareAndSet(true, false)) {
+            idleSessions.decrementAndGet();
+        }
+    }
+
+    private int slotIndex(long tick) {
+        return (int) (tick % slots.length);
+    }
+
+    /**
+     * Liveness state of a single session.
+     */
+    public static final class SessionTimer {
+        private final String sessionId;
+        private final String username;
+        private final AtomicBoolean idle = new AtomicBoolean();
+        private volatile long lastSeen;
+        private volatile boolean cancelled;
+
+        SessionTimer(String sessionId, String username, long lastSeen) {
+            this.sessionId = sessionId;
+            this.username = username;
+            this.lastSeen = lastSeen;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public long getLastSeen() {
+            return lastSeen;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the latest-state snapshot topics.
+ * <p>
+ * Every update delivered on this node replaces the entity's entry in the snapshot's latest-value
+ * map. A session subscribing to a snapshot destination immediately receives the whole map in a
+ * single {@value #SNAPSHOT_TYPE} frame on its subscription; afterwards the changes accumulated
+ * since the previous flush are broadcast once per interval ({@code vcms.websocket.snapshot.interval-ms})
+ * as a {@value #DELTA_TYPE} frame holding only the latest state of each changed entity. Frames
+ * carry a per-snapshot version, so clients merge a delta only if it is newer than their state.
+ * Bandwidth per dashboard is therefore bounded by the number of entities, not the update rate.
+ * <p>
+ * The full frame is sent from the inbound channel once the broker has handled the SUBSCRIBE, so
+ * the session already receives the deltas broadcast afterwards, and it is taken under the same
+ * per-snapshot lock as the flush: every change missing from the full frame reaches the session
+ * in a later delta. A delta may still overtake the full frame on the outbound channel, so clients
+ * keep the deltas received before it and apply those newer than its version.
+ * <p>
+ * Entities hold the DTO maps of the notifications. At startup the snapshots are seeded from the
+ * database by the cache warm-up, so the first subscribers do not get an empty state. Delta frames
+ * leave the broker as JSON and are re-encoded in each session's negotiated encoding by
+ * {@link BroadcastEncodingInterceptor}, like the full frames sent here.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class SnapshotService implements ExecutorChannelInterceptor {
+
+    public static final String SNAPSHOT_TYPE = "SNAPSHOT";
+    public static final String DELTA_TYPE = "SNAPSHOT_DELTA";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageChannel clientOutboundChannel;
+    private final EncodingNegotiationInterceptor encodingNegotiation;
+    private final PayloadEncoder payloadEncoder;
+
+    private final Map<SnapshotTopic, SnapshotState> snapshots = new EnumMap<>(SnapshotTopic.class);
+    private final Counter fullFrames;
+    private final Counter deltaFrames;
+    private final Counter conflatedUpdates;
+
+    public SnapshotService(SimpMessagingTemplate messagingTemplate,
+                           @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                           EncodingNegotiationInterceptor encodingNegotiation,
+                           PayloadEncoder payloadEncoder,
+                           MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.encodingNegotiation = encodingNegotiation;
+        this.payloadEncoder = payloadEncoder;
+
+        for (SnapshotTopic snapshot : SnapshotTopic.values()) {
+            SnapshotState state = new SnapshotState();
+            snapshots.put(snapshot, state);
+            Gauge.builder("websocket.snapshot.entities", state, SnapshotState::size)
+                    .description("Number of entities held in a snapshot")
+                    .tag("snapshot", snapshot.getName())
+                    .register(meterRegistry);
+        }
+        this.fullFrames = Counter.builder("websocket.snapshot.frames")
+                .description("Number of snapshot frames sent")
+                .tag("kind", "full")
+                .register(meterRegistry);
+        this.deltaFrames = Counter.builder("websocket.snapshot.frames")
+                .description("Number of snapshot frames sent")
+                .tag("kind", "delta")
+                .register(meterRegistry);
+        this.conflatedUpdates = Counter.builder("websocket.snapshot.conflated")
+                .description("Number of updates superseded before they were flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies a delivered update to the snapshot fed by its topic, if any.
+     *
+     * @param update update delivered on this node
+     */
+    public void accept(RealtimeUpdate update) {
+        SnapshotTopic snapshot = SnapshotTopic.fromSource(update.getTopic());
+        if (snapshot == null || update.getEntityKey() == null) {
+            return;
+        }
+        boolean removed = snapshot.isTerminal(statusOf(update.getPayload()));
+        if (snapshots.get(snapshot).apply(update.getEntityKey(), update.getPayload(), removed)) {
+            conflatedUpdates.increment();
+        }
+    }
+
+    /**
+     * Seeds a snapshot with an entity loaded from the database. Entities already updated since
+     * startup keep their newer state, and entities in a terminal status are not added.
+     *
+     * @param snapshot snapshot to seed
+     * @param entityKey key of the entity
+     * @param data DTO map of the entity
+     */
+    public void seed(SnapshotTopic snapshot, String entityKey, Map<String, Object> data) {
+        Object status = data.get("status");
+        if (snapshot.isTerminal(status != null ? status.toString() : null)) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", snapshot.getUpdateType());
+        payload.put("data", data);
+        payload.put("timestamp", LocalDateTime.now());
+        snapshots.get(snapshot).seed(entityKey, payload);
+    }
+
+    /**
+     * Broadcasts the changes of every snapshot since the previous flush.
+     */
+    @Scheduled(fixedRateString = "${vcms.websocket.snapshot.interval-ms:1000}")
+    public void flush() {
+        snapshots.forEach((snapshot, state) -> {
+            synchronized (state.sendLock) {
+                Map<String, Object> delta = state.drainChanges(snapshot);
+                if (delta != null) {
+                    messagingTemplate.convertAndSend(snapshot.getDestination(), delta);
+                    deltaFrames.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends the full state of a snapshot to a session once the broker has registered its
+     * subscription to it.
+     */
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        if (ex != null || !(handler instanceof AbstractBrokerMessageHandler)
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.SUBSCRIBE) {
+            return;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        SnapshotTopic snapshot = destination != null ? SnapshotTopic.fromDestination(destination) : null;
+        if (snapshot == null) {
+            return;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        PayloadEncoding encoding = encodingNegotiation.getEncoding(sessionId);
+
+        // Sent straight to the subscription so that only the new subscriber receives it
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders()));
+        headers.setDestination(snapshot.getDestination());
+        headers.setContentType(encoding.getFrameContentType());
+        headers.setNativeHeader(PayloadEncoding.ENCODING_HEADER, encoding.getToken());
+        headers.setLeaveMutable(true);
+
+        SnapshotState state = snapshots.get(snapshot);
+        synchronized (state.sendLock) {
+            byte[] body = payloadEncoder.encode(state.copy(snapshot), encoding);
+            clientOutboundChannel.send(MessageBuilder.createMessage(body, headers.getMessageHeaders()));
+        }
+        fullFrames.increment();
+        log.debug("Sent {} snapshot to session {}", snapshot.getName(), sessionId);
+    }
+
+    /**
+     * @param snapshot snapshot topic
+     * @return number of entities currently held in the snapshot
+     */
+    public int getEntityCount(SnapshotTopic snapshot) {
+        return snapshots.get(snapshot).size();
+    }
+
+    private static String statusOf(Object payload) {
+        if (!(payload instanceof Map)) {
+            return null;
+        }
+        Object data = ((Map<?, ?>) payload).get("data");
+        if (data instanceof Map) {
+            Object status = ((Map<?, ?>) data).get("status");
+            return status != null ? status.toString() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Latest-value map of one snapshot and the keys changed since the last flush.
+     */
+    private static final class SnapshotState {
+
+        /** Orders the full frames against the flushed deltas, apart from the state monitor */
+        private final Object sendLock = new Object();
+        private final Map<String, Object> latest = new HashMap<>();
+        private Map<String, Object> changed = new LinkedHashMap<>();
+        private final List<String> removedKeys = new ArrayList<>();
+        private long version;
+
+        /**
+         * @return true if the update superseded a change that was not flushed yet
+         */
+        synchronized boolean apply(String entityKey, Object payload, boolean removed) {
+            version++;
+            boolean superseded = changed.containsKey(entityKey) || removedKeys.contains(entityKey);
+            if (removed) {
+                latest.remove(entityKey);
+                changed.remove(entityKey);
+                if (!removedKeys.contains(entityKey)) {
+                    removedKeys.add(entityKey);
+                }
+            } else {
+                latest.put(entityKey, payload);
+                removedKeys.remove(entityKey);
+                changed.put(entityKey, payload);
+            }
+            return superseded;
+        }
+
+        synchronized void seed(String entityKey, Object payload) {
+            if (latest.containsKey(entityKey) || removedKeys.contains(entityKey)) {
+                return;
+            }
+            version++;
+            latest.put(entityKey, payload);
+            changed.put(entityKey, payload);
+        }
+
+        synchronized Map<String, Object> drainChanges(SnapshotTopic snapshot) {
+            if (changed.isEmpty() && removedKeys.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> frame = frame(DELTA_TYPE, snapshot, changed);
+            frame.put("removed", new ArrayList<>(removedKeys));
+            changed = new LinkedHashMap<>();
+            removedKeys.clear();
+            return frame;
+        }
+
+        synchronized Map<String, Object> copy(SnapshotTopic snapshot) {
+            return frame(SNAPSHOT_TYPE, snapshot, new LinkedHashMap<>(latest));
+        }
+
+        synchronized int size() {
+            return latest.size();
+        }
+
+        private Map<String, Object> frame(String type, SnapshotTopic snapshot, Map<String, Object> entities) {
+            Map<String, Object> frame = new HashMap<>();
+            frame.put("type", type);
+            frame.put("snapshot", snapshot.getName());
+            frame.put("version", version);
+            frame.put("entities", entities);
+            return frame;
+        }
+    }
+}
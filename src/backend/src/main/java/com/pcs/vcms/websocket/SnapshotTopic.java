@@ -0,0 +1,88 @@
+package com.pcs.vcms.websocket;
+
+import java.util.Set;
+
+/**
+ * Latest-state snapshot topics for dashboards.
+ * Each snapshot keeps the latest update of every entity of a source {@link RealtimeTopic};
+ * entities whose status becomes one of the snapshot's terminal statuses leave the snapshot.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public enum SnapshotTopic {
+
+    BERTHS("berths", RealtimeTopic.BERTH_ALLOCATIONS, "BERTH_UPDATE", Set.of()),
+    VESSEL_CALLS("vessel-calls", RealtimeTopic.VESSEL_CALLS, "VESSEL_UPDATE", Set.of("DEPARTED", "CANCELLED"));
+
+    /** Destination prefix shared by all snapshot topics */
+    public static final String DESTINATION_PREFIX = "/topic/snapshot/";
+
+    private final String name;
+    private final RealtimeTopic source;
+    private final String updateType;
+    private final Set<String> terminalStatuses;
+
+    SnapshotTopic(String name, RealtimeTopic source, String updateType, Set<String> terminalStatuses) {
+        this.name = name;
+        this.source = source;
+        this.updateType = updateType;
+        this.terminalStatuses = terminalStatuses;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RealtimeTopic getSource() {
+        return source;
+    }
+
+    /**
+     * @return notification type of the updates held in the snapshot
+     */
+    public String getUpdateType() {
+        return updateType;
+    }
+
+    /**
+     * @return broker destination the snapshot is published on
+     */
+    public String getDestination() {
+        return DESTINATION_PREFIX + name;
+    }
+
+    /**
+     * @param status status of an updated entity, may be null
+     * @return true if an entity in that status leaves the snapshot
+     */
+    public boolean isTerminal(String status) {
+        return status != null && terminalStatuses.contains(status);
+    }
+
+    /**
+     * @param topic real-time topic
+     * @return snapshot fed by the topic, or null if the topic has no snapshot
+     */
+    public static SnapshotTopic fromSource(RealtimeTopic topic) {
+        for (SnapshotTopic snapshot : values()) {
+            if (snapshot.source == topic) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param destination destination of a SUBSCRIBE frame
+     * @return snapshot published on the destination, or null if it is not a snapshot topic
+     */
+    public static SnapshotTopic fromDestination(String destination) {
+        for (SnapshotTopic snapshot : values()) {
+            if (snapshot.getDestination().equals(destination)) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,393 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events transport for the real-time topics, a one-way alternative to STOMP for
+ * integrations such as terminal operating systems and display boards.
+ * <p>
+ * Streams are fed by the same {@link RealtimeDispatcher} updates as WebSocket sessions. Each
+ * stream is an {@link SseEmitter} on an async servlet request, so an idle listener holds no
+ * thread, only its emitter and filter. Publishing only appends the event to each matching
+ * stream's bounded buffer, in sequence order; the payload is encoded once per update. Buffers
+ * are written to the clients by a shared drain pool ({@code vcms.sse.drain-threads}, with a
+ * bounded task queue), one batch per stream at a time, so a slow client never holds the
+ * dispatcher or the other streams. A stream whose buffer exceeds
+ * {@code vcms.sse.buffer.max-events} is completed; the client reconnects and resumes.
+ * <p>
+ * Event ids are {@code <epoch>/<sequence>}, so a client reconnecting with {@code Last-Event-ID}
+ * is replayed the updates it missed from the topic's replay buffer, or gets a {@code resync}
+ * event when they are no longer retained. A comment heartbeat detects dead connections.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class SseStreamService implements DisposableBean {
+
+    /** Event name of the message sent when a stream cannot be resumed */
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final char EVENT_ID_SEPARATOR = '/';
+    private static final int DRAIN_BATCH_SIZE = 64;
+
+    private final SessionReplayService replayService;
+    private final PayloadEncoder payloadEncoder;
+    private final long emitterTimeoutMillis;
+    private final int maxBufferedEvents;
+    private final Executor drainExecutor;
+
+    private final Map<RealtimeTopic, Set<SseStream>> streams = new EnumMap<>(RealtimeTopic.class);
+    private final Counter sentEvents;
+    private final Counter replayedEvents;
+    private final Counter resyncs;
+    private final Counter overflowedStreams;
+
+    @Autowired
+    public SseStreamService(SessionReplayService replayService,
+                            PayloadEncoder payloadEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${vcms.sse.timeout-ms:1800000}") long emitterTimeoutMillis,
+                            @Value("${vcms.sse.buffer.max-events:256}") int maxBufferedEvents,
+                            @Value("${vcms.sse.drain-threads:4}") int drainThreads,
+                            @Value("${vcms.sse.drain-queue-capacity:10000}") int drainQueueCapacity) {
+        this(replayService, payloadEncoder, meterRegistry, emitterTimeoutMillis, maxBufferedEvents,
+                createDrainExecutor(drainThreads, drainQueueCapacity));
+    }
+
+    SseStreamService(SessionReplayService replayService, PayloadEncoder payloadEncoder,
+                     MeterRegistry meterRegistry, long emitterTimeoutMillis, int maxBufferedEvents,
+                     Executor drainExecutor) {
+        this.replayService = replayService;
+        this.payloadEncoder = payloadEncoder;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxBufferedEvents = maxBufferedEvents;
+        this.drainExecutor = drainExecutor;
+
+        for (RealtimeTopic topic : RealtimeTopic.values()) {
+            Set<SseStream> topicStreams = ConcurrentHashMap.newKeySet();
+            streams.put(topic, topicStreams);
+            Gauge.builder("sse.streams.open", topicStreams, Set::size)
+                    .description("Number of open Server-Sent Events streams")
+                    .tag("topic", topic.getName())
+                    .register(meterRegistry);
+        }
+        this.sentEvents = Counter.builder("sse.events.sent")
+                .description("Number of events sent to Server-Sent Events streams")
+                .register(meterRegistry);
+        this.replayedEvents = Counter.builder("sse.events.replayed")
+                .description("Number of events replayed to resuming Server-Sent Events streams")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("sse.resyncs")
+                .description("Number of Server-Sent Events streams that could not be resumed")
+                .register(meterRegistry);
+        this.overflowedStreams = Counter.builder("sse.streams.overflow")
+                .description("Number of Server-Sent Events streams closed because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of a topic.
+     *
+     * @param topic topic to stream
+     * @param filter filter of the stream, null or empty to receive every update
+     * @param lastEventId id of the last event received before reconnecting, may be null
+     * @return emitter to return from the request handler
+     */
+    public SseEmitter open(RealtimeTopic topic, SubscriptionFilter filter, String lastEventId) {
+        SseEmitter emitter = createEmitter(emitterTimeoutMillis);
+        Set<String> routingKeys = filter != null ? filter.toRoutingKeys() : Collections.emptySet();
+        SseStream stream = new SseStream(topic, emitter, routingKeys);
+
+        Set<SseStream> topicStreams = streams.get(topic);
+        emitter.onCompletion(() -> topicStreams.remove(stream));
+        emitter.onTimeout(() -> topicStreams.remove(stream));
+        emitter.onError(e -> topicStreams.remove(stream));
+
+        // Registered before the replay window is read; live updates it already holds are skipped.
+        // The emitter is not handed to the request yet, so the replay is only buffered by it.
+        synchronized (stream) {
+            topicStreams.add(stream);
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                resume(topic, stream, lastEventId);
+            } else {
+                stream.lastSequence = replayService.getLatestSequence(topic);
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Queues an update delivered on this node to the matching streams of its topic.
+     * Called in sequence order by the dispatcher and never blocks on a client.
+     *
+     * @param update sequenced update
+     */
+    public void publish(RealtimeUpdate update) {
+        Set<SseStream> topicStreams = streams.get(update.getTopic());
+        if (topicStreams.isEmpty()) {
+            return;
+        }
+        String data = null;
+        for (SseStream stream : topicStreams) {
+            if (!stream.matches(update.getRoutingKeys())) {
+                continue;
+            }
+            if (data == null) {
+                data = new String(payloadEncoder.encode(update.getPayload(), PayloadEncoding.JSON),
+                        StandardCharsets.UTF_8);
+            }
+            stream.offer(update.getSequence(), data);
+        }
+    }
+
+    /**
+     * Sends a comment line to every stream so that connections closed by the client or an
+     * intermediary are detected and released.
+     */
+    @Scheduled(fixedRateString = "${vcms.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        streams.values().forEach(topicStreams -> topicStreams.forEach(SseStream::offerHeartbeat));
+    }
+
+    public int getOpenCount() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void destroy() {
+        streams.values().forEach(topicStreams -> topicStreams.forEach(stream -> stream.emitter.complete()));
+        if (drainExecutor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) drainExecutor).shutdown();
+        }
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void resume(RealtimeTopic topic, SseStream stream, String lastEventId) {
+        int separator = lastEventId.lastIndexOf(EVENT_ID_SEPARATOR);
+        String epoch = separator > 0 ? lastEventId.substring(0, separator) : null;
+        long fromSequence = parseSequence(lastEventId.substring(separator + 1));
+
+        TopicReplayBuffer.ReplayWindow window = replayService.readAfter(topic, Math.max(fromSequence, 0));
+        stream.lastSequence = window.getLatestSequence();
+        if (fromSequence < 0 || !replayService.getEpoch().equals(epoch) || window.isGap()) {
+            log.info("SSE stream cannot resume {} from event {}", topic.getName(), lastEventId);
+            try {
+                stream.emitter.send(SseEmitter.event()
+                        .name(RESYNC_EVENT)
+                        .data(replayService.createResyncMessage(topic, window), MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                stream.emitter.completeWithError(e);
+            }
+            resyncs.increment();
+            return;
+        }
+
+        int replayed = 0;
+        for (TopicReplayBuffer.Entry entry : window.getEntries()) {
+            if (stream.matches(entry.getEntityKeys())) {
+                String data = new String(payloadEncoder.encode(entry.getPayload(), PayloadEncoding.JSON),
+                        StandardCharsets.UTF_8);
+                try {
+                    stream.emitter.send(event(topic, entry.getSequence(), data));
+                } catch (IOException | IllegalStateException e) {
+                    stream.emitter.completeWithError(e);
+                    return;
+                }
+                replayed++;
+            }
+        }
+        replayedEvents.increment(replayed);
+    }
+
+    private SseEmitter.SseEventBuilder event(RealtimeTopic topic, long sequence, String data) {
+        return SseEmitter.event()
+                .id(replayService.getEpoch() + EVENT_ID_SEPARATOR + sequence)
+                .name(topic.getName())
+                .data(data, MediaType.APPLICATION_JSON);
+    }
+
+    private static long parseSequence(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Executor createDrainExecutor(int drainThreads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(drainThreads);
+        executor.setMaxPoolSize(drainThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("VcmsSseDrain-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Open stream with its filter, the last sequence it was queued and its pending events.
+     * Only one drain of a stream runs at a time, which keeps its events in order.
+     */
+    private final class SseStream {
+        private final RealtimeTopic topic;
+        private final SseEmitter emitter;
+        private final Set<String> routingKeys;
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long lastSequence;
+        private volatile boolean closed;
+        // Only accessed by the owner of the draining flag
+        private boolean completed;
+
+        private SseStream(RealtimeTopic topic, SseEmitter emitter, Set<String> routingKeys) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.routingKeys = routingKeys;
+        }
+
+        private boolean matches(Set<String> keys) {
+            if (routingKeys.isEmpty()) {
+                return true;
+            }
+            for (String key : keys) {
+                if (routingKeys.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void offer(long sequence, String data) {
+            synchronized (this) {
+                if (closed || sequence <= lastSequence) {
+                    // Closed, or already sent by the resume replay
+                    return;
+                }
+                lastSequence = sequence;
+                if (pending.size() >= maxBufferedEvents) {
+                    overflow();
+                    return;
+                }
+                pending.addLast(event(topic, sequence, data));
+            }
+            scheduleDrain();
+        }
+
+        private void offerHeartbeat() {
+            synchronized (this) {
+                // A stream with events pending is not idle; they detect a dead connection as well
+                if (closed || !pending.isEmpty()) {
+                    return;
+                }
+                pending.addLast(SseEmitter.event().comment("heartbeat"));
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Closes the stream once its buffer is full. The emitter is completed here only if no
+         * drain is writing to it; otherwise the drain completes it after its current write.
+         */
+        private void overflow() {
+            closed = true;
+            pending.clear();
+            streams.get(topic).remove(this);
+            overflowedStreams.increment();
+            log.warn("Closing slow SSE stream of {}: more than {} events pending", topic.getName(), maxBufferedEvents);
+            completeIfIdle();
+        }
+
+        private void completeIfIdle() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    if (!completed) {
+                        completed = true;
+                        emitter.complete();
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private synchronized SseEmitter.SseEventBuilder poll() {
+            return pending.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !pending.isEmpty();
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                drainExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                synchronized (this) {
+                    overflow();
+                }
+            }
+        }
+
+        /**
+         * Writes a bounded batch of events, then yields the drain thread to other streams.
+         */
+        private void drain() {
+            try {
+                for (int i = 0; i < DRAIN_BATCH_SIZE && !closed; i++) {
+                    SseEmitter.SseEventBuilder event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    emitter.send(event);
+                    sentEvents.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("SSE stream of {} closed: {}", topic.getName(), e.getMessage());
+                closed = true;
+                completed = true;
+                streams.get(topic).remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            if (closed) {
+                completeIfIdle();
+            } else if (hasPending()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
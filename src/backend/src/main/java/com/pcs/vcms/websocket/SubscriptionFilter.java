@@ -0,0 +1,70 @@
+package com.pcs.vcms.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Filter sent by a client with a subscription request to receive only the updates
+ * for the vessel calls, berths, agents or ports it is interested in.
+ * Criteria are OR-ed: an update matching any of them is delivered.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionFilter {
+
+    @Builder.Default
+    private Set<Long> vesselCallIds = new HashSet<>();
+
+    @Builder.Default
+    private Set<Long> berthIds = new HashSet<>();
+
+    @Builder.Default
+    private Set<String> agents = new HashSet<>();
+
+    @Builder.Default
+    private Set<String> ports = new HashSet<>();
+
+    /**
+     * @return true if the filter has no criteria and the client should use the broadcast topic
+     */
+    public boolean isEmpty() {
+        return isEmpty(vesselCallIds) && isEmpty(berthIds) && isEmpty(agents) && isEmpty(ports);
+    }
+
+    /**
+     * Converts the filter criteria into routing keys understood by {@link SubscriptionRoutingIndex}.
+     *
+     * @return routing keys matching this filter
+     */
+    public Set<String> toRoutingKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        if (vesselCallIds != null) {
+            vesselCallIds.forEach(id -> keys.add(RoutingKeys.vesselCall(id)));
+        }
+        if (berthIds != null) {
+            berthIds.forEach(id -> keys.add(RoutingKeys.berth(id)));
+        }
+        if (agents != null) {
+            agents.forEach(agent -> keys.add(RoutingKeys.agent(agent)));
+        }
+        if (ports != null) {
+            ports.forEach(port -> keys.add(RoutingKeys.port(port)));
+        }
+        return keys;
+    }
+
+    private static boolean isEmpty(Set<?> values) {
+        return values == null || values.isEmpty();
+    }
+}
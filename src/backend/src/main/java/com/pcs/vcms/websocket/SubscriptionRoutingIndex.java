@@ -0,0 +1,188 @@
+package com.pcs.vcms.websocket;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory routing index mapping entity keys to the WebSocket sessions interested in them.
+ * Resolving the recipients of an update costs one lookup per routing key of the update,
+ * so fan-out is proportional to the number of interested sessions rather than all sessions.
+ * Registrations and unregistrations of a session are applied atomically in the session map, so
+ * a disconnect racing a subscription never leaves keys indexed for a session the map no longer holds.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+public class SubscriptionRoutingIndex {
+
+    private static final char KEY_SEPARATOR = '|';
+
+    // "<topic>|<entity key>" -> session ids
+    private final ConcurrentHashMap<String, Set<String>> sessionsByKey = new ConcurrentHashMap<>();
+
+    // session id -> registered routes, kept for O(routes) cleanup on disconnect
+    private final ConcurrentHashMap<String, SessionRoutes> routesBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Registers (or replaces) the filter of a session for a topic.
+     *
+     * @param sessionId WebSocket session id
+     * @param username authenticated user owning the session
+     * @param topic topic the filter applies to
+     * @param entityKeys routing keys the session wants to receive
+     */
+    public void register(String sessionId, String username, RealtimeTopic topic, Set<String> entityKeys) {
+        Set<String> indexKeys = new HashSet<>();
+        for (String entityKey : entityKeys) {
+            indexKeys.add(indexKey(topic, entityKey));
+        }
+
+        // Runs atomically with other registrations and the unregistration of the same session
+        routesBySession.compute(sessionId, (id, routes) -> {
+            SessionRoutes target = routes != null ? routes : new SessionRoutes(username);
+            Set<String> previous;
+            synchronized (target) {
+                previous = target.keysByTopic.put(topic, indexKeys);
+            }
+            if (previous != null) {
+                previous.stream()
+                        .filter(key -> !indexKeys.contains(key))
+                        .forEach(key -> removeFromKey(key, sessionId));
+            }
+            for (String indexKey : indexKeys) {
+                sessionsByKey.compute(indexKey, (key, sessions) -> {
+                    Set<String> keySessions = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+                    keySessions.add(sessionId);
+                    return keySessions;
+                });
+            }
+            return target;
+        });
+    }
+
+    /**
+     * Resolves the sessions interested in an update tagged with the given routing keys.
+     *
+     * @param topic topic of the update
+     * @param entityKeys routing keys of the update
+     * @return ids of the sessions whose filter matches at least one key
+     */
+    public Set<String> resolve(RealtimeTopic topic, Collection<String> entityKeys) {
+        Set<String> sessions = null;
+        for (String entityKey : entityKeys) {
+            Set<String> matches = sessionsByKey.get(indexKey(topic, entityKey));
+            if (matches == null || matches.isEmpty()) {
+                continue;
+            }
+            if (sessions == null) {
+                sessions = new HashSet<>(matches);
+            } else {
+                sessions.addAll(matches);
+            }
+        }
+        return sessions != null ? sessions : Collections.emptySet();
+    }
+
+    /**
+     * @param sessionId WebSocket session id
+     * @return true if the session has a filter registered for the topic
+     */
+    public boolean isRegistered(String sessionId, RealtimeTopic topic) {
+        SessionRoutes routes = routesBySession.get(sessionId);
+        if (routes == null) {
+            return false;
+        }
+        synchronized (routes) {
+            return routes.keysByTopic.containsKey(topic);
+        }
+    }
+
+    /**
+     * @param sessionId WebSocket session id
+     * @param topic topic of the update
+     * @param entityKeys routing keys of the update
+     * @return true if the session's filter for the topic matches at least one key
+     */
+    public boolean matches(String sessionId, RealtimeTopic topic, Collection<String> entityKeys) {
+        SessionRoutes routes = routesBySession.get(sessionId);
+        if (routes == null) {
+            return false;
+        }
+        synchronized (routes) {
+            Set<String> registered = routes.keysByTopic.get(topic);
+            if (registered == null) {
+                return false;
+            }
+            for (String entityKey : entityKeys) {
+                if (registered.contains(indexKey(topic, entityKey))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @param sessionId WebSocket session id
+     * @return user owning the session, or null if the session has no filters
+     */
+    public String getUsername(String sessionId) {
+        SessionRoutes routes = routesBySession.get(sessionId);
+        return routes != null ? routes.username : null;
+    }
+
+    /**
+     * Removes every filter registered by a session.
+     *
+     * @param sessionId WebSocket session id
+     */
+    public void unregister(String sessionId) {
+        routesBySession.computeIfPresent(sessionId, (id, routes) -> {
+            synchronized (routes) {
+                routes.keysByTopic.values()
+                        .forEach(keys -> keys.forEach(key -> removeFromKey(key, sessionId)));
+                routes.keysByTopic.clear();
+            }
+            return null;
+        });
+    }
+
+    public int getSessionCount() {
+        return routesBySession.size();
+    }
+
+    public int getIndexedKeyCount() {
+        return sessionsByKey.size();
+    }
+
+    private void removeFromKey(String indexKey, String sessionId) {
+        sessionsByKey.computeIfPresent(indexKey, (key, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private static String indexKey(RealtimeTopic topic, String entityKey) {
+        return topic.getName() + KEY_SEPARATOR + entityKey;
+    }
+
+    /**
+     * Routes registered by a single session, grouped by topic.
+     */
+    private static class SessionRoutes {
+        private final String username;
+        private final Map<RealtimeTopic, Set<String>> keysByTopic = new EnumMap<>(RealtimeTopic.class);
+
+        SessionRoutes(String username) {
+            this.username = username;
+        }
+    }
+}
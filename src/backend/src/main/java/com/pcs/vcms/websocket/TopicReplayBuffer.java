@@ -0,0 +1,155 @@
+package com.pcs.vcms.websocket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bounded ring buffer of sequenced messages for a single topic.
+ * Retention is capped both by entry count and by age; sequence numbers are
+ * monotonically increasing and start at 1 for every buffer instance.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+public class TopicReplayBuffer {
+
+    private final Entry[] ring;
+    private final long maxAgeMillis;
+    private long nextSequence = 1;
+
+    public TopicReplayBuffer(int capacity, long maxAgeMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Replay buffer capacity must be positive");
+        }
+        this.ring = new Entry[capacity];
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Appends a message and assigns it the next sequence number.
+     *
+     * @param entityKeys routing keys of the message, used to filter replays
+     * @param payload message payload
+     * @param timestamp publication time in epoch millis
+     * @return sequence number of the message
+     */
+    public synchronized long append(Set<String> entityKeys, Object payload, long timestamp) {
+        long sequence = nextSequence++;
+        ring[slot(sequence)] = new Entry(sequence, timestamp, entityKeys, payload);
+        return sequence;
+    }
+
+    /**
+     * Reads every retained message published after the given sequence.
+     *
+     * @param fromSequence last sequence the client has seen
+     * @param now current time in epoch millis
+     * @return replay window, flagged as a gap when messages after fromSequence are no longer retained
+     */
+    public synchronized ReplayWindow readAfter(long fromSequence, long now) {
+        long latest = nextSequence - 1;
+        long oldest = oldestRetained(now);
+
+        // A sequence ahead of ours means the client saw a previous instance of this buffer
+        if (fromSequence > latest || fromSequence + 1 < oldest) {
+            return new ReplayWindow(Collections.emptyList(), true, oldest, latest);
+        }
+
+        List<Entry> entries = new ArrayList<>((int) (latest - fromSequence));
+        for (long sequence = fromSequence + 1; sequence <= latest; sequence++) {
+            entries.add(ring[slot(sequence)]);
+        }
+        return new ReplayWindow(entries, false, oldest, latest);
+    }
+
+    public synchronized long getLatestSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * First sequence still retained, after applying the size and age caps.
+     */
+    private long oldestRetained(long now) {
+        long oldest = Math.max(1, nextSequence - ring.length);
+        long cutoff = now - maxAgeMillis;
+        while (oldest < nextSequence && ring[slot(oldest)].getTimestamp() < cutoff) {
+            oldest++;
+        }
+        return oldest;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    /**
+     * Sequenced message held by the buffer.
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final long timestamp;
+        private final Set<String> entityKeys;
+        private final Object payload;
+
+        Entry(long sequence, long timestamp, Set<String> entityKeys, Object payload) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.entityKeys = entityKeys;
+            this.payload = payload;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Set<String> getEntityKeys() {
+            return entityKeys;
+        }
+
+        public Object getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * Result of a replay read.
+     */
+    public static final class ReplayWindow {
+        private final List<Entry> entries;
+        private final boolean gap;
+        private final long oldestSequence;
+        private final long latestSequence;
+
+        ReplayWindow(List<Entry> entries, boolean gap, long oldestSequence, long latestSequence) {
+            this.entries = entries;
+            this.gap = gap;
+            this.oldestSequence = oldestSequence;
+            this.latestSequence = latestSequence;
+        }
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * @return true if the client missed messages that are no longer retained and must resync
+         */
+        public boolean isGap() {
+            return gap;
+        }
+
+        public long getOldestSequence() {
+            return oldestSequence;
+        }
+
+        public long getLatestSequence() {
+            return latestSequence;
+        }
+    }
+}
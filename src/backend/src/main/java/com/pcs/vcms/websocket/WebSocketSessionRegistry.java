@@ -0,0 +1,82 @@
+package com.pcs.vcms.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the open WebSocket sessions of this node, keyed by the session id used in
+ * STOMP message headers. Installed as a handler decorator so that server-side components
+ * can close sessions they decide to evict; the decorator also puts every session behind its
+ * bounded outbound buffer.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Slf4j
+public class WebSocketSessionRegistry {
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final OutboundBufferManager outboundBuffers;
+
+    public WebSocketSessionRegistry(OutboundBufferManager outboundBuffers) {
+        this.outboundBuffers = outboundBuffers;
+    }
+
+    /**
+     * Wraps the STOMP handler so that sessions are registered while they are open.
+     *
+     * @param handler handler to decorate
+     * @return decorated handler
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                WebSocketSession buffered = outboundBuffers.decorate(session);
+                sessions.put(session.getId(), buffered);
+                super.afterConnectionEstablished(buffered);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                outboundBuffers.release(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Closes an open session. Closing ends the STOMP session, which releases its broker
+     * subscriptions and publishes the regular disconnect event.
+     *
+     * @param sessionId WebSocket session id
+     * @param status close status sent to the client
+     * @return false if the session is not open on this node
+     */
+    public boolean close(String sessionId, CloseStatus status) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.warn("Failed to close WebSocket session {}: {}", sessionId, e.getMessage());
+        }
+        return true;
+    }
+
+    public int getOpenCount() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,57 @@
+package com.pcs.vcms.websocket;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint reporting WebSocket session liveness, routing state and outbound buffer
+ * occupancy of this node. {@code /websocketsessions/{sessionId}} reports a single buffer.
+ *
+ * @version 1.0
+ * @since 2023-11-15
+ */
+@Component
+@Endpoint(id = "websocketsessions")
+public class WebSocketSessionsEndpoint {
+
+    private static final int FULLEST_BUFFERS_REPORTED = 10;
+
+    private final SessionLivenessMonitor livenessMonitor;
+    private final WebSocketSessionRegistry sessionRegistry;
+    private final SubscriptionRoutingIndex routingIndex;
+    private final OutboundBufferManager outboundBuffers;
+
+    public WebSocketSessionsEndpoint(SessionLivenessMonitor livenessMonitor,
+                                     WebSocketSessionRegistry sessionRegistry,
+                                     SubscriptionRoutingIndex routingIndex,
+                                     OutboundBufferManager outboundBuffers) {
+        this.livenessMonitor = livenessMonitor;
+        this.sessionRegistry = sessionRegistry;
+        this.routingIndex = routingIndex;
+        this.outboundBuffers = outboundBuffers;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sessions() {
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("open", sessionRegistry.getOpenCount());
+        sessions.put("live", livenessMonitor.getLiveCount());
+        sessions.put("idle", livenessMonitor.getIdleCount());
+        sessions.put("evicted", livenessMonitor.getEvictedCount());
+        sessions.put("filtered", routingIndex.getSessionCount());
+        sessions.put("indexedKeys", routingIndex.getIndexedKeyCount());
+        sessions.put("bufferedMessages", outboundBuffers.getBufferedMessages());
+        sessions.put("fullestBuffers", outboundBuffers.getFullestBuffers(FULLEST_BUFFERS_REPORTED));
+        return sessions;
+    }
+
+    @ReadOperation
+    public Map<String, Object> session(@Selector String sessionId) {
+        return outboundBuffers.getOccupancy(sessionId);
+    }
+}
@@ -0,0 +1,13 @@
+-- Audit events written in batches by the optional database audit sink
+CREATE TABLE audit_events (
+    id BIGSERIAL PRIMARY KEY,
+    event_time TIMESTAMP NOT NULL,
+    action VARCHAR(64) NOT NULL,
+    entity_type VARCHAR(64) NOT NULL,
+    entity_id VARCHAR(64),
+    actor VARCHAR(100),
+    details TEXT
+);
+
+CREATE INDEX idx_audit_events_entity ON audit_events (entity_type, entity_id);
+CREATE INDEX idx_audit_events_time ON audit_events (event_time);
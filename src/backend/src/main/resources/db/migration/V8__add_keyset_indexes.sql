@@ -0,0 +1,15 @@
+-- Indexes serving the keyset (cursor) list queries: every index ends with the full sort key
+-- including the id tie-breaker, so the next page starts with an index seek past the cursor
+-- instead of skipping the rows of all previous pages.
+
+-- Vessel calls by status, ordered by (eta, id)
+CREATE INDEX idx_vessel_calls_status_eta_id ON vessel_calls (status, eta, id);
+
+-- Vessel calls within an ETA range, ordered by (eta, id)
+CREATE INDEX idx_vessel_calls_eta_id ON vessel_calls (eta, id);
+
+-- Clearances by status, newest first by (submitted_at, id)
+CREATE INDEX idx_clearances_status_submitted_at_id ON clearances (status, submitted_at, id);
+
+-- Service bookings by type and status, ordered by (service_time, id)
+CREATE INDEX idx_service_bookings_type_status_time_id ON service_bookings (service_type, status, service_time, id);
@@ -0,0 +1,54 @@
+package com.pcs.vcms.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for recording failed operations in the audit trail.
+ */
+class AuditServiceTest {
+
+    private AuditWriter auditWriter;
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        auditWriter = mock(AuditWriter.class);
+        auditService = new AuditService(auditWriter);
+    }
+
+    @Test
+    @DisplayName("Should record the exception class and a single-line, truncated message")
+    void testRecordFailure_SanitizesMessage() {
+        String message = "Duplicate key\r\nCLEARANCE_APPROVED by admin " + "x".repeat(500);
+
+        auditService.recordFailure("PRE_ARRIVAL_SUBMISSION_FAILED", "PreArrivalNotification", 7L,
+                "vesselCallId=3", new IllegalStateException(message));
+
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditWriter).enqueue(event.capture());
+        String details = event.getValue().getDetails();
+        assertThat(details).startsWith("vesselCallId=3, error=IllegalStateException: Duplicate key CLEARANCE_APPROVED")
+                .doesNotContain("\r", "\n")
+                .endsWith("...");
+        assertThat(details).hasSizeLessThan(260);
+        assertThat(event.getValue().getEntityId()).isEqualTo("7");
+    }
+
+    @Test
+    @DisplayName("Should record the exception class alone when it has no message")
+    void testRecordFailure_NoMessage() {
+        auditService.recordFailure("PRE_ARRIVAL_ACCESS_FAILED", "PreArrivalNotification", null, null,
+                new NullPointerException());
+
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditWriter).enqueue(event.capture());
+        assertThat(event.getValue().getDetails()).isEqualTo("error=NullPointerException");
+    }
+}
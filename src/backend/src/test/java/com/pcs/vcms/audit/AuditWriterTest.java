@@ -0,0 +1,128 @@
+package com.pcs.vcms.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the asynchronous audit writer, its queue and its segment files.
+ */
+class AuditWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Nested
+    @DisplayName("Writer Tests")
+    class WriterTests {
+
+        @Test
+        @DisplayName("Should commit every enqueued event in order to segments and sinks")
+        void testEnqueue_CommitsInOrder() throws Exception {
+            List<AuditEvent> sunk = new CopyOnWriteArrayList<>();
+            AuditWriter writer = new AuditWriter(objectMapper, new SimpleMeterRegistry(), List.of(sunk::addAll),
+                    directory, 1024, 4096, 100, 64, 10, 50);
+            writer.afterPropertiesSet();
+
+            for (int i = 0; i < 500; i++) {
+                writer.enqueue(new AuditEvent(i, "CLEARANCE_SUBMITTED", "Clearance", String.valueOf(i), "agent", null));
+            }
+            writer.destroy();
+
+            List<String> ids = new ArrayList<>();
+            for (Path segment : segments()) {
+                for (byte[] record : AuditSegment.read(segment)) {
+                    ids.add(objectMapper.readTree(record).get("entityId").asText());
+                }
+            }
+            assertThat(segments()).hasSizeGreaterThan(1);
+            assertThat(ids).hasSize(500).startsWith("0", "1", "2").endsWith("499");
+            assertThat(sunk).hasSize(500);
+        }
+    }
+
+    @Nested
+    @DisplayName("Segment Tests")
+    class SegmentTests {
+
+        @Test
+        @DisplayName("Should delete the oldest segments beyond the retention limit")
+        void testEnqueue_DeletesOldestSegments() throws Exception {
+            Path previousRun = Files.createFile(directory.resolve("audit-1600000000000-00000.seg"));
+            Path unrelated = Files.createFile(directory.resolve("notes.txt"));
+            AuditWriter writer = new AuditWriter(objectMapper, new SimpleMeterRegistry(), List.of(),
+                    directory, 1024, 4096, 3, 64, 10, 50);
+            writer.afterPropertiesSet();
+
+            for (int i = 0; i < 500; i++) {
+                writer.enqueue(new AuditEvent(i, "CLEARANCE_SUBMITTED", "Clearance", String.valueOf(i), "agent", null));
+            }
+            writer.destroy();
+
+            List<Path> segments = segments();
+            assertThat(segments).hasSize(3).doesNotContain(previousRun);
+            List<byte[]> lastRecords = AuditSegment.read(segments.get(2));
+            assertThat(objectMapper.readTree(lastRecords.get(lastRecords.size() - 1)).get("entityId").asText())
+                    .isEqualTo("499");
+            assertThat(unrelated).exists();
+        }
+
+        @Test
+        @DisplayName("Should stop reading at a torn record")
+        void testRead_StopsAtTornRecord() throws Exception {
+            Path path = directory.resolve("torn.seg");
+            try (AuditSegment segment = AuditSegment.create(path, 1024)) {
+                segment.append("first".getBytes());
+                segment.append("second".getBytes());
+            }
+            byte[] data = Files.readAllBytes(path);
+            data[data.length - 1] ^= 1;
+            Files.write(path, data);
+
+            assertThat(AuditSegment.read(path)).extracting(String::new).containsExactly("first");
+        }
+    }
+
+    @Nested
+    @DisplayName("Queue Tests")
+    class QueueTests {
+
+        @Test
+        @DisplayName("Should reject offers when full and accept them again once drained")
+        void testOffer_RespectsCapacity() {
+            AuditQueue<Integer> queue = new AuditQueue<>(4);
+            for (int i = 0; i < 4; i++) {
+                assertThat(queue.offer(i)).isTrue();
+            }
+            assertThat(queue.offer(4)).isFalse();
+
+            List<Integer> drained = new ArrayList<>();
+            assertThat(queue.drainTo(drained, 2)).isEqualTo(2);
+            assertThat(queue.offer(4)).isTrue();
+            queue.drainTo(drained, 10);
+            assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+            assertThat(queue.isEmpty()).isTrue();
+        }
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for measuring the Redis cache sizes on one elected node.
+ */
+class CacheSizeSamplerTest {
+
+    private static final Duration INTERVAL = Duration.ofMinutes(1);
+
+    private final Map<String, String> sizesHash = new HashMap<>();
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private MeterRegistry meterRegistry;
+    private CacheSizeSampler sampler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(valueOperations.size(anyString())).thenReturn(90L);
+        doAnswer(invocation -> sizesHash.put(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(hashOperations).put(anyString(), any(), any());
+        when(hashOperations.entries(anyString())).thenAnswer(invocation -> new HashMap<Object, Object>(sizesHash));
+
+        Cursor<String> keys = mock(Cursor.class);
+        Iterator<String> iterator = List.of("vcms::vesselCalls::1", "vcms::vesselCalls::2").iterator();
+        when(keys.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(keys.next()).thenAnswer(invocation -> iterator.next());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(keys);
+
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<CacheManager> cacheManager = mock(ObjectProvider.class);
+        when(cacheManager.getObject()).thenReturn(new ConcurrentMapCacheManager("vesselCalls"));
+        sampler = new CacheSizeSampler(redisTemplate, cacheManager, 100_000, 50, INTERVAL, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Election Tests")
+    class ElectionTests {
+
+        @Test
+        @DisplayName("Should scan the caches and share the sizes when this node claims the run")
+        void testSample_ClaimedRunScans() {
+            when(valueOperations.setIfAbsent(anyString(), anyString(), eq(INTERVAL))).thenReturn(true);
+
+            sampler.sample();
+
+            assertThat(sizesHash).containsEntry("vesselCalls", "2:220:false");
+            assertThat(sampler.getSizes().get("vesselCalls").getEntries()).isEqualTo(2);
+            assertThat(meterRegistry.get("cache.estimated.bytes").tag("cache", "vesselCalls").gauge().value())
+                    .isEqualTo(220);
+        }
+
+        @Test
+        @DisplayName("Should export the sizes measured by another node without scanning")
+        void testSample_OtherNodeMeasures() {
+            when(valueOperations.setIfAbsent(anyString(), anyString(), eq(INTERVAL))).thenReturn(false);
+            sizesHash.put("vesselCalls", "100000:9000000:true");
+
+            sampler.sample();
+
+            verify(redisTemplate, never()).scan(any(ScanOptions.class));
+            CacheSizeSampler.CacheSize size = sampler.getSizes().get("vesselCalls");
+            assertThat(size.getEntries()).isEqualTo(100_000);
+            assertThat(size.getEstimatedBytes()).isEqualTo(9_000_000);
+            assertThat(size.isTruncated()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.dto.ClearanceDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for tag-based cache invalidation through the Redis set index.
+ */
+class CacheTagIndexTest {
+
+    private final Map<String, Set<String>> redisSets = new HashMap<>();
+    private final AtomicInteger pipelines = new AtomicInteger();
+
+    private Cache clearances;
+    private CacheTagIndex tagIndex;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(anyString())).thenAnswer(invocation ->
+                new LinkedHashSet<>(redisSets.getOrDefault(invocation.getArgument(0, String.class), Set.of())));
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        doAnswer(invocation -> {
+            Object[] args = invocation.getArguments();
+            Set<String> set = redisSets.computeIfAbsent((String) args[0], key -> new LinkedHashSet<>());
+            for (int i = 1; i < args.length; i++) {
+                set.add((String) args[i]);
+            }
+            return 1L;
+        }).when(connection).sAdd(anyString(), any(String[].class));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            pipelines.incrementAndGet();
+            invocation.getArgument(0, RedisCallback.class).doInRedis(connection);
+            return List.of();
+        });
+
+        CacheManager[] manager = new CacheManager[1];
+        ObjectProvider<CacheManager> managerProvider = mock(ObjectProvider.class);
+        when(managerProvider.getObject()).thenAnswer(invocation -> manager[0]);
+        tagIndex = new CacheTagIndex(redisTemplate, managerProvider, Duration.ofHours(1), new SimpleMeterRegistry());
+        manager[0] = new TwoTierCacheManager(new ConcurrentMapCacheManager("clearances"), Map.of(),
+                Map.of("clearances", CacheTags::forClearanceEntry), null, tagIndex, new SimpleMeterRegistry());
+        clearances = manager[0].getCache("clearances");
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should evict only the entries tagged with the changed clearance")
+        void testInvalidate_EvictsOnlyTaggedEntries() {
+            clearances.put(1L, clearance(1L, 10L));
+            clearances.put(2L, clearance(2L, 20L));
+            clearances.put("vesselCall:10", List.of(clearance(1L, 10L), clearance(3L, 10L)));
+            clearances.put("vesselCall:20", List.of(clearance(2L, 20L)));
+
+            tagIndex.invalidate(CacheTags.clearance(1L), CacheTags.vesselCall(10L));
+
+            assertThat(clearances.get(1L)).isNull();
+            assertThat(clearances.get("vesselCall:10")).isNull();
+            assertThat(clearances.get(2L)).isNotNull();
+            assertThat(clearances.get("vesselCall:20")).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should tag an empty vessel call list so a new clearance evicts it")
+        void testInvalidate_EvictsEmptyVesselCallList() {
+            clearances.put("vesselCall:30", List.of());
+
+            tagIndex.invalidate(CacheTags.vesselCall(30L));
+
+            assertThat(clearances.get("vesselCall:30")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep members indexed so an entry cached again during invalidation stays reachable")
+        void testInvalidate_KeepsMembersIndexed() {
+            clearances.put("vesselCall:30", List.of());
+            tagIndex.invalidate(CacheTags.vesselCall(30L));
+
+            // A concurrent read caches the list again; its SADD is a no-op for the existing member
+            clearances.put("vesselCall:30", List.of(clearance(4L, 30L)));
+            assertThat(redisSets.get("vcms::tags::vesselCall:30")).containsExactly("clearances|S|vesselCall:30");
+
+            tagIndex.invalidate(CacheTags.vesselCall(30L));
+            assertThat(clearances.get("vesselCall:30")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tagging Tests")
+    class TaggingTests {
+
+        @Test
+        @DisplayName("Should index an entry under all its tags in a single pipeline")
+        void testTag_PipelinesAllTags() {
+            tagIndex.tag("clearances", 5L, List.of(CacheTags.clearance(5L), CacheTags.vesselCall(50L)));
+
+            assertThat(pipelines.get()).isEqualTo(1);
+            assertThat(redisSets.get("vcms::tags::" + CacheTags.clearance(5L))).containsExactly("clearances|L|5");
+            assertThat(redisSets.get("vcms::tags::" + CacheTags.vesselCall(50L))).containsExactly("clearances|L|5");
+        }
+    }
+
+    private static ClearanceDTO clearance(Long id, Long vesselCallId) {
+        return ClearanceDTO.builder().id(id).vesselCallId(vesselCallId).build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.dto.ClearanceDTO;
+import com.pcs.vcms.dto.VesselCallDTO;
+import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.entity.Clearance.ClearanceType;
+import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the versioned Smile/LZ4 cache value format.
+ */
+class CacheValueSerializerTest {
+
+    private static final LocalDateTime ETA = LocalDateTime.of(2023, 11, 15, 6, 30);
+
+    private MeterRegistry meterRegistry;
+    private CacheValueSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        serializer = new CacheValueSerializer(1, 512, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Round Trip Tests")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("Should read back a DTO written without compression, smaller than JDK serialization")
+        void testSerialize_RoundTripsDto() {
+            VesselCallDTO vesselCall = vesselCall(1L);
+
+            byte[] bytes = serializer.serialize(vesselCall);
+
+            assertThat(bytes[0]).isEqualTo((byte) 1);
+            assertThat(bytes[1]).isZero();
+            assertThat(serializer.deserialize(bytes)).isEqualTo(vesselCall);
+            assertThat(bytes.length).isLessThan(new JdkSerializationRedisSerializer().serialize(vesselCall).length);
+        }
+
+        @Test
+        @DisplayName("Should compress large lists of DTOs and read them back")
+        void testSerialize_CompressesLargeValues() {
+            List<ClearanceDTO> clearances = LongStream.rangeClosed(1, 20)
+                    .mapToObj(CacheValueSerializerTest::clearance)
+                    .collect(Collectors.toCollection(ArrayList::new));
+
+            byte[] bytes = serializer.serialize(clearances);
+
+            assertThat(bytes[1]).isEqualTo(CacheValueSerializer.FLAG_LZ4);
+            assertThat(serializer.deserialize(bytes)).isEqualTo(clearances);
+            assertThat(meterRegistry.get("cache.value.compressed").counter().count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Collection Tests")
+    class CollectionTests {
+
+        @Test
+        @DisplayName("Should read back a list built with List.of")
+        void testSerialize_RoundTripsListOf() {
+            List<ClearanceDTO> clearances = List.of(clearance(1L), clearance(2L));
+
+            assertThat(serializer.deserialize(serializer.serialize(clearances))).isEqualTo(clearances);
+            assertThat(unreadable("incompatible")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should read back a list collected with Stream.toList")
+        void testSerialize_RoundTripsStreamToList() {
+            List<ClearanceDTO> clearances = LongStream.rangeClosed(1, 3)
+                    .mapToObj(CacheValueSerializerTest::clearance)
+                    .toList();
+
+            assertThat(serializer.deserialize(serializer.serialize(clearances))).isEqualTo(clearances);
+            assertThat(unreadable("incompatible")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should read back immutable and unmodifiable maps, sets and lists")
+        void testSerialize_RoundTripsImmutableCollections() {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("map", Map.of("wave_height", 1.5));
+            value.put("singleton", Map.of());
+            value.put("set", Set.of("CUSTOMS"));
+            value.put("unmodifiable", Collections.unmodifiableList(new ArrayList<>(List.of(1L, 2L))));
+            value.put("arrays", Arrays.asList("a", "b"));
+            value.put("empty", Collections.emptyList());
+            value.put("keys", new TreeMap<>(Map.of("b", 2, "a", 1)).keySet());
+
+            assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value);
+            assertThat(unreadable("incompatible")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should read back a cached page of DTOs taken from a Spring Data page")
+        void testSerialize_RoundTripsCachedPage() {
+            List<ClearanceDTO> clearances = List.of(clearance(1L), clearance(2L));
+            CachedPage page = new CachedPage("1:2", new PageImpl<>(clearances).getContent(), 2);
+
+            Object value = serializer.deserialize(serializer.serialize(page));
+
+            assertThat(value).isInstanceOf(CachedPage.class);
+            assertThat(((CachedPage) value).getContent()).isEqualTo(clearances);
+        }
+    }
+
+    @Nested
+    @DisplayName("Compatibility Tests")
+    class CompatibilityTests {
+
+        @Test
+        @DisplayName("Should read a value of another schema version as a miss")
+        void testDeserialize_OtherSchemaVersionIsMiss() {
+            byte[] bytes = new CacheValueSerializer(2, 512, new SimpleMeterRegistry()).serialize(vesselCall(1L));
+
+            assertThat(serializer.deserialize(bytes)).isNull();
+            assertThat(unreadable("schema_version")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should count a framework type outside the allowed packages as unreadable")
+        void testDeserialize_FrameworkTypeIsCounted() {
+            byte[] bytes = serializer.serialize(new PageImpl<>(List.of(clearance(1L))));
+
+            assertThat(serializer.deserialize(bytes)).isNull();
+            assertThat(unreadable("incompatible")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should read a legacy JDK-serialized value as a miss")
+        void testDeserialize_LegacyJdkValueIsMiss() {
+            byte[] bytes = new JdkSerializationRedisSerializer().serialize(vesselCall(1L));
+
+            assertThat(serializer.deserialize(bytes)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should read a corrupt value as a miss")
+        void testDeserialize_CorruptValueIsMiss() {
+            byte[] bytes = serializer.serialize(vesselCall(1L));
+            bytes[bytes.length / 2] ^= 0x7f;
+            bytes[bytes.length - 1] ^= 0x7f;
+
+            Object value = serializer.deserialize(bytes);
+
+            assertThat(value == null || value instanceof VesselCallDTO).isTrue();
+        }
+    }
+
+    private double unreadable(String reason) {
+        return meterRegistry.get("cache.value.unreadable").tag("reason", reason).counter().count();
+    }
+
+    private static VesselCallDTO vesselCall(long id) {
+        return VesselCallDTO.builder()
+                .id(id)
+                .vesselId(100 + id)
+                .vesselName("MSC Aurora")
+                .imoNumber("IMO9321483")
+                .callSign("ABC1234")
+                .status(VesselCallStatus.PLANNED)
+                .eta(ETA)
+                .etd(ETA.plusDays(2))
+                .createdAt(ETA.minusDays(3))
+                .updatedAt(ETA.minusDays(1))
+                .version(3)
+                .build();
+    }
+
+    private static ClearanceDTO clearance(long id) {
+        return ClearanceDTO.builder()
+                .id(id)
+                .vesselCallId(1L)
+                .vesselName("MSC Aurora")
+                .type(ClearanceType.CUSTOMS)
+                .status(ClearanceStatus.PENDING)
+                .referenceNumber("CUS-2023-" + id)
+                .submittedBy("agent-a")
+                .remarks("Awaiting cargo manifest review")
+                .submittedAt(ETA.minusHours(id))
+                .createdAt(ETA.minusHours(id))
+                .build();
+    }
+}
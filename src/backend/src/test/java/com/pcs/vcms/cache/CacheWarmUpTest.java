@@ -0,0 +1,130 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the startup cache warm-up and its readiness gating.
+ */
+class CacheWarmUpTest {
+
+    private final Set<Long> warmed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger concurrentPages = new AtomicInteger();
+    private final AtomicInteger maxConcurrentPages = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Nested
+    @DisplayName("Warm-Up Tests")
+    class WarmUpTests {
+
+        @Test
+        @DisplayName("Should load every page of every source with bounded concurrency")
+        void testStart_LoadsAllPages() throws Exception {
+            CacheWarmUp warmUp = createWarmUp(List.of(source("vesselCalls", 0, 95, 0), source("clearances", 1000, 42, 0)),
+                    2, Duration.ofSeconds(5));
+
+            warmUp.start().get(5, TimeUnit.SECONDS);
+
+            assertThat(warmed).hasSize(137);
+            assertThat(maxConcurrentPages.get()).isLessThanOrEqualTo(2);
+            assertThat(meterRegistry.get("cache.warmup.entries").tag("source", "vesselCalls").counter().count())
+                    .isEqualTo(95);
+            assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+            assertThat(warmUp.health().getDetails()).containsEntry("budgetExhausted", false);
+        }
+
+        @Test
+        @DisplayName("Should become ready with a partial warm-up once the budget has elapsed")
+        void testStart_StopsAtBudget() throws Exception {
+            CacheWarmUp warmUp = createWarmUp(List.of(source("vesselCalls", 0, 200, 50)), 1, Duration.ofMillis(120));
+
+            warmUp.start().get(5, TimeUnit.SECONDS);
+
+            assertThat(warmUp.isFinished()).isTrue();
+            assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+            assertThat(warmUp.health().getDetails()).containsEntry("budgetExhausted", true);
+            assertThat(warmed.size()).isLessThan(200);
+        }
+    }
+
+    @Nested
+    @DisplayName("Readiness Tests")
+    class ReadinessTests {
+
+        @Test
+        @DisplayName("Should report out of service until the warm-up has run")
+        void testHealth_OutOfServiceUntilFinished() {
+            CacheWarmUp warmUp = createWarmUp(List.of(source("berths", 0, 10, 0)), 1, Duration.ofSeconds(5));
+
+            assertThat(warmUp.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+            assertThat(warmUp.isFinished()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should report ready at once when the warm-up is disabled")
+        void testHealth_UpWhenDisabled() {
+            CacheWarmUp warmUp = new CacheWarmUp(List.of(source("berths", 0, 10, 0)),
+                    TransactionOperations.withoutTransaction(), meterRegistry, false, 1, 10, Duration.ofSeconds(5));
+
+            warmUp.start();
+
+            assertThat(warmUp.health().getStatus()).isEqualTo(Status.UP);
+            assertThat(warmed).isEmpty();
+        }
+    }
+
+    private CacheWarmUp createWarmUp(List<WarmUpSource<?>> sources, int concurrency, Duration budget) {
+        return new CacheWarmUp(sources, TransactionOperations.withoutTransaction(), meterRegistry, true,
+                concurrency, 10, budget);
+    }
+
+    /**
+     * Source of {@code count} ids starting at {@code firstId}, taking {@code pageDelayMillis} per page.
+     */
+    private WarmUpSource<Long> source(String name, long firstId, int count, long pageDelayMillis) {
+        List<Long> ids = LongStream.range(firstId, firstId + count).boxed().collect(Collectors.toList());
+        return WarmUpSource.of(name, pageable -> page(ids, pageable, pageDelayMillis), warmed::add);
+    }
+
+    private Page<Long> page(List<Long> ids, Pageable pageable, long delayMillis) {
+        int concurrent = concurrentPages.incrementAndGet();
+        maxConcurrentPages.accumulateAndGet(concurrent, Math::max);
+        try {
+            Thread.sleep(delayMillis);
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            return new PageImpl<>(ids.subList(from, to), pageable, ids.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } finally {
+            concurrentPages.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.pcs.vcms.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for sampling the hottest keys of every cache.
+ */
+class HotKeySamplerTest {
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Should rank keys by reads, hottest first")
+        void testTop_RanksByReads() {
+            HotKeySampler sampler = new HotKeySampler(1, 10);
+            read(sampler, "vesselCalls", 41L, 30);
+            read(sampler, "vesselCalls", 42L, 5);
+            read(sampler, "vesselCalls", 43L, 12);
+            read(sampler, "clearances", 7L, 3);
+
+            List<HotKeySampler.HotKey> top = sampler.top("vesselCalls", 2);
+
+            assertThat(top).extracting(HotKeySampler.HotKey::getKey).containsExactly("41", "43");
+            assertThat(top).extracting(HotKeySampler.HotKey::getEstimatedReads).containsExactly(30L, 12L);
+            assertThat(sampler.top(10)).containsOnlyKeys("clearances", "vesselCalls");
+        }
+
+        @Test
+        @DisplayName("Should keep the hot keys when many cold keys exceed the capacity")
+        void testTop_KeepsHotKeysBeyondCapacity() {
+            HotKeySampler sampler = new HotKeySampler(1, 8);
+            for (int round = 0; round < 50; round++) {
+                read(sampler, "vesselCalls", 1L, 10);
+                read(sampler, "vesselCalls", 2L, 5);
+                read(sampler, "vesselCalls", 1000L + round, 1);
+            }
+
+            List<HotKeySampler.HotKey> top = sampler.top("vesselCalls", 2);
+
+            assertThat(top).extracting(HotKeySampler.HotKey::getKey).containsExactly("1", "2");
+            assertThat(top.get(0).getEstimatedReads()).isEqualTo(500);
+            assertThat(sampler.top("vesselCalls", 100)).hasSize(8);
+        }
+
+        @Test
+        @DisplayName("Should scale sampled counts up by the sample rate")
+        void testTop_ScalesSampledReads() {
+            HotKeySampler sampler = new HotKeySampler(0.1, 10);
+            read(sampler, "vesselCalls", 41L, 100_000);
+
+            long estimated = sampler.top("vesselCalls", 1).get(0).getEstimatedReads();
+
+            assertThat(estimated).isBetween(90_000L, 110_000L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Decay Tests")
+    class DecayTests {
+
+        @Test
+        @DisplayName("Should halve counts and drop keys no longer read")
+        void testDecay_HalvesCounts() {
+            HotKeySampler sampler = new HotKeySampler(1, 10);
+            read(sampler, "vesselCalls", 41L, 8);
+            read(sampler, "vesselCalls", 42L, 1);
+
+            sampler.decay();
+
+            assertThat(sampler.top("vesselCalls", 10)).extracting(HotKeySampler.HotKey::getEstimatedReads)
+                    .containsExactly(4L);
+        }
+
+        @Test
+        @DisplayName("Should record nothing at a zero sample rate and reject rates above one")
+        void testRecord_HonoursSampleRate() {
+            HotKeySampler sampler = new HotKeySampler(0, 10);
+            read(sampler, "vesselCalls", 41L, 100);
+
+            assertThat(sampler.top("vesselCalls", 10)).isEmpty();
+            assertThatThrownBy(() -> new HotKeySampler(1.5, 10)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static void read(HotKeySampler sampler, String cacheName, Object key, int times) {
+        for (int i = 0; i < times; i++) {
+            sampler.record(cacheName, key);
+        }
+    }
+}
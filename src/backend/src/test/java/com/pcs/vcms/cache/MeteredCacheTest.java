@@ -0,0 +1,120 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the cache meters recorded as seen by the callers of a cache.
+ */
+class MeteredCacheTest {
+
+    private static final String CACHE_NAME = "vesselCalls";
+
+    private MeterRegistry meterRegistry;
+    private HotKeySampler hotKeys;
+    private MeteredCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hotKeys = new HotKeySampler(1, 10);
+        cache = new MeteredCache(new ConcurrentMapCache(CACHE_NAME), hotKeys, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Read Tests")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Should count hits and misses of plain reads and sample their keys")
+        void testGet_CountsHitsAndMisses() {
+            cache.put(41L, "call-41");
+
+            assertThat(cache.get(41L)).isNotNull();
+            assertThat(cache.get(41L, String.class)).isEqualTo("call-41");
+            assertThat(cache.get(42L)).isNull();
+
+            assertThat(count("cache.gets", "result", "hit")).isEqualTo(2);
+            assertThat(count("cache.gets", "result", "miss")).isEqualTo(1);
+            assertThat(hotKeys.top(CACHE_NAME, 1)).extracting(HotKeySampler.HotKey::getKey).containsExactly("41");
+        }
+
+        @Test
+        @DisplayName("Should count a read that runs the loader as a timed miss")
+        void testGet_TimesLoads() {
+            assertThat(cache.get(41L, () -> "call-41")).isEqualTo("call-41");
+            assertThat(cache.get(41L, () -> "reloaded")).isEqualTo("call-41");
+
+            assertThat(count("cache.gets", "result", "miss")).isEqualTo(1);
+            assertThat(count("cache.gets", "result", "hit")).isEqualTo(1);
+            assertThat(loadTimer("success").count()).isEqualTo(1);
+            assertThat(loadTimer("failure").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should count a failed load as a miss and time it as a failure")
+        void testGet_TimesFailedLoads() {
+            assertThatThrownBy(() -> cache.get(41L, () -> {
+                throw new IllegalStateException("database unavailable");
+            })).isInstanceOf(Cache.ValueRetrievalException.class);
+
+            assertThat(count("cache.gets", "result", "miss")).isEqualTo(1);
+            assertThat(loadTimer("failure").count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Write Tests")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Should count puts and explicit removals")
+        void testPutAndEvict_CountsWrites() {
+            cache.put(41L, "call-41");
+            cache.putIfAbsent(41L, "ignored");
+            cache.putIfAbsent(42L, "call-42");
+            cache.evict(41L);
+            assertThat(cache.evictIfPresent(99L)).isFalse();
+            cache.clear();
+
+            assertThat(count("cache.puts")).isEqualTo(2);
+            assertThat(count("cache.removals")).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should wrap every cache of a metered manager")
+        void testManager_WrapsEveryCache() {
+            SimpleCacheManager l2Manager = new SimpleCacheManager();
+            l2Manager.setCaches(List.of(new ConcurrentMapCache(CACHE_NAME)));
+            l2Manager.afterPropertiesSet();
+            TwoTierCacheManager manager = new TwoTierCacheManager(l2Manager, Collections.emptyMap(),
+                    Collections.emptyMap(), null, mock(CacheTagIndex.class), meterRegistry)
+                    .metered(hotKeys);
+
+            assertThat(manager.getCache(CACHE_NAME)).isInstanceOf(MeteredCache.class);
+        }
+    }
+
+    private double count(String meterName, String... tags) {
+        return meterRegistry.get(meterName).tag("cache", CACHE_NAME).tags(tags).counter().count();
+    }
+
+    private Timer loadTimer(String result) {
+        return meterRegistry.get("cache.load.duration").tags("cache", CACHE_NAME, "result", result).timer();
+    }
+}
@@ -0,0 +1,182 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.datasource.ReadYourWrites;
+import com.pcs.vcms.datasource.Replica;
+import com.pcs.vcms.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for caching paged query results validated against query generations.
+ */
+class PagedQueryCacheTest {
+
+    private static final String QUERY = "vesselCalls.byStatus";
+    private static final List<String> DEPENDS_ON = List.of("vessel_calls:status:ARRIVED");
+
+    private final ConcurrentMapCache sharedCache = new ConcurrentMapCache("pagedQueries");
+    private final AtomicReference<String> generation = new AtomicReference<>("1700000000000");
+    private final AtomicInteger queries = new AtomicInteger();
+
+    private QueryGenerations generations;
+    private MeterRegistry meterRegistry;
+    private PagedQueryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        generations = mock(QueryGenerations.class);
+        when(generations.stamp(anyCollection())).thenAnswer(invocation -> generation.get());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PagedQueryCache(sharedCache, generations, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should serve a repeated page request from the cache, total included")
+        void testGet_ServesCurrentPage() {
+            Pageable pageable = PageRequest.of(1, 2, Sort.by("eta"));
+
+            Page<String> first = cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> query(pageable));
+            Page<String> second = cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> query(pageable));
+
+            assertThat(queries.get()).isEqualTo(1);
+            assertThat(second.getContent()).isEqualTo(first.getContent());
+            assertThat(second.getTotalElements()).isEqualTo(5);
+            assertThat(second.getPageable()).isEqualTo(pageable);
+            assertThat(count("hit")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should run the query again once a write bumped its generation")
+        void testGet_RerunsOutdatedPage() {
+            Pageable pageable = PageRequest.of(0, 2);
+            cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> query(pageable));
+
+            generation.set("1700000000001");
+            cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> query(pageable));
+            cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> query(pageable));
+
+            assertThat(queries.get()).isEqualTo(2);
+            assertThat(count("outdated")).isEqualTo(1);
+            assertThat(count("hit")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should cache pages and parameters separately")
+        void testGet_KeysByParametersAndPage() {
+            cache.get(QUERY, "ARRIVED", PageRequest.of(0, 2), DEPENDS_ON, () -> query(PageRequest.of(0, 2)));
+            cache.get(QUERY, "ARRIVED", PageRequest.of(1, 2), DEPENDS_ON, () -> query(PageRequest.of(1, 2)));
+            cache.get(QUERY, "PLANNED", PageRequest.of(0, 2), DEPENDS_ON, () -> query(PageRequest.of(0, 2)));
+
+            assertThat(queries.get()).isEqualTo(3);
+            assertThat(count("miss")).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    @DisplayName("Availability Tests")
+    class AvailabilityTests {
+
+        @Test
+        @DisplayName("Should run the query uncached when the generations cannot be read")
+        void testGet_BypassesWhenRedisIsDown() {
+            when(generations.stamp(anyCollection())).thenThrow(new RedisConnectionFailureException("down"));
+            Pageable pageable = PageRequest.of(0, 2);
+
+            Page<String> page = cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> query(pageable));
+
+            assertThat(page.getContent()).hasSize(2);
+            assertThat(sharedCache.getNativeCache()).isEmpty();
+            assertThat(count("bypassed")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Replica Tests")
+    class ReplicaTests {
+
+        @AfterEach
+        void tearDown() {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        @Test
+        @DisplayName("Should cache a page read from the primary rather than a lagging replica")
+        void testGet_LoadsFromPrimaryDespiteLaggingReplica() throws SQLException {
+            Connection primaryConnection = mock(Connection.class);
+            DataSource replicaDataSource = dataSource(mock(Connection.class));
+            Replica laggingReplica = mock(Replica.class);
+            when(laggingReplica.getName()).thenReturn("replica-0");
+            when(laggingReplica.getDataSource()).thenReturn(replicaDataSource);
+            when(laggingReplica.isAvailable()).thenReturn(true);
+            DataSource routing = new ReplicaRoutingDataSource(dataSource(primaryConnection), List.of(laggingReplica),
+                new ReadYourWrites(false), meterRegistry);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            Pageable pageable = PageRequest.of(0, 2);
+
+            Page<String> page = cache.get(QUERY, "ARRIVED", pageable, DEPENDS_ON, () -> {
+                try {
+                    return routing.getConnection() == primaryConnection
+                        ? new PageImpl<>(List.of("call-0", "call-1"), pageable, 6)
+                        : query(pageable);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThat(page.getContent()).containsExactly("call-0", "call-1");
+            CachedPage cached = (CachedPage) sharedCache.get(QUERY + "|ARRIVED|0|2|UNSORTED").get();
+            assertThat(cached.getContent()).isEqualTo(List.of("call-0", "call-1"));
+            assertThat(cached.getTotalElements()).isEqualTo(6);
+        }
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private Page<String> query(Pageable pageable) {
+        queries.incrementAndGet();
+        List<String> all = List.of("call-1", "call-2", "call-3", "call-4", "call-5");
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("cache.paged.queries")
+                .tags("query", QUERY, "outcome", outcome)
+                .counter()
+                .count();
+    }
+}
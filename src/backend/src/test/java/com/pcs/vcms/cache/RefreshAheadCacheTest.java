@@ -0,0 +1,218 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for serving external data refresh-ahead with a staleness indicator.
+ */
+class RefreshAheadCacheTest {
+
+    private static final String CACHE_NAME = "portTraffic";
+    private static final Duration REFRESH_AFTER = Duration.ofSeconds(30);
+    private static final Duration STALE_AFTER = Duration.ofSeconds(120);
+
+    private final ConcurrentMapCache sharedCache = new ConcurrentMapCache(CACHE_NAME);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Runnable> pendingRefreshes = new ArrayList<>();
+    private final Executor refreshExecutor = pendingRefreshes::add;
+
+    private MutableClock clock;
+    private MeterRegistry meterRegistry;
+    private RefreshAheadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2023-11-15T06:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RefreshAheadCache(sharedCache, REFRESH_AFTER, STALE_AFTER, refreshExecutor, null, clock,
+                meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Read Tests")
+    class ReadTests {
+
+        @Test
+        @DisplayName("Should load a cold key and serve it fresh")
+        void testGet_LoadsColdKey() {
+            CachedValue<String> value = cache.get("port", () -> load("traffic-1"), () -> "fallback");
+
+            assertThat(value.getValue()).isEqualTo("traffic-1");
+            assertThat(value.getAge()).isZero();
+            assertThat(value.isStale()).isFalse();
+            assertThat(value.isFallback()).isFalse();
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(readCount("loaded")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should serve a young entry without reloading it")
+        void testGet_ServesFreshEntry() {
+            cache.get("port", () -> load("traffic-1"), () -> "fallback");
+            clock.advance(Duration.ofSeconds(10));
+
+            CachedValue<String> value = cache.get("port", () -> load("traffic-2"), () -> "fallback");
+
+            assertThat(value.getValue()).isEqualTo("traffic-1");
+            assertThat(value.getAge()).isEqualTo(Duration.ofSeconds(10));
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(pendingRefreshes).isEmpty();
+            assertThat(readCount("fresh")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should serve the cached value at once and reload it in the background")
+        void testGet_RefreshesAhead() {
+            cache.get("port", () -> load("traffic-1"), () -> "fallback");
+            clock.advance(Duration.ofSeconds(45));
+
+            CachedValue<String> value = cache.get("port", () -> load("traffic-2"), () -> "fallback");
+            CachedValue<String> again = cache.get("port", () -> load("traffic-2"), () -> "fallback");
+
+            assertThat(value.getValue()).isEqualTo("traffic-1");
+            assertThat(value.isStale()).isFalse();
+            assertThat(again.getValue()).isEqualTo("traffic-1");
+            assertThat(pendingRefreshes).hasSize(1);
+
+            runPendingRefreshes();
+
+            CachedValue<String> refreshed = cache.get("port", () -> load("traffic-3"), () -> "fallback");
+            assertThat(refreshed.getValue()).isEqualTo("traffic-2");
+            assertThat(refreshed.getAge()).isZero();
+            assertThat(loads.get()).isEqualTo(2);
+            assertThat(refreshCount("success")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should evict values written before the cache was used for refresh-ahead")
+        void testGet_EvictsLegacyValue() {
+            sharedCache.put("port", "legacy-traffic");
+
+            CachedValue<String> value = cache.get("port", () -> load("traffic-1"), () -> "fallback");
+
+            assertThat(value.getValue()).isEqualTo("traffic-1");
+            assertThat(sharedCache.get("port").get()).isInstanceOf(RefreshAheadEntry.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Upstream Failure Tests")
+    class UpstreamFailureTests {
+
+        @Test
+        @DisplayName("Should keep the cached value and flag it stale when refreshes keep failing")
+        void testGet_KeepsValueWhenRefreshFails() {
+            cache.get("port", () -> load("traffic-1"), () -> "fallback");
+
+            clock.advance(Duration.ofSeconds(60));
+            cache.get("port", RefreshAheadCacheTest::failingLoad, () -> "fallback");
+            runPendingRefreshes();
+
+            clock.advance(Duration.ofSeconds(90));
+            CachedValue<String> value = cache.get("port", RefreshAheadCacheTest::failingLoad, () -> "fallback");
+
+            assertThat(value.getValue()).isEqualTo("traffic-1");
+            assertThat(value.getAge()).isEqualTo(Duration.ofSeconds(150));
+            assertThat(value.isStale()).isTrue();
+            assertThat(value.isFallback()).isFalse();
+            assertThat(refreshCount("failure")).isEqualTo(1);
+            assertThat(readCount("stale")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should serve the fallback when a cold key cannot be loaded")
+        void testGet_ServesFallbackOnColdFailure() {
+            CachedValue<String> value = cache.get("port", RefreshAheadCacheTest::failingLoad, () -> "fallback");
+
+            assertThat(value.getValue()).isEqualTo("fallback");
+            assertThat(value.isStale()).isTrue();
+            assertThat(value.isFallback()).isTrue();
+            assertThat(sharedCache.get("port")).isNull();
+            assertThat(readCount("fallback")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not cache an empty upstream response")
+        void testGet_DoesNotCacheNull() {
+            CachedValue<String> value = cache.get("port", () -> null, () -> null);
+
+            assertThat(value.getValue()).isNull();
+            assertThat(value.isFallback()).isTrue();
+            assertThat(sharedCache.get("port")).isNull();
+        }
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private static String failingLoad() {
+        throw new IllegalStateException("VTS unavailable");
+    }
+
+    private void runPendingRefreshes() {
+        List<Runnable> refreshes = new ArrayList<>(pendingRefreshes);
+        pendingRefreshes.clear();
+        refreshes.forEach(Runnable::run);
+    }
+
+    private double readCount(String outcome) {
+        return meterRegistry.get("cache.refresh.ahead.reads")
+                .tags("cache", CACHE_NAME, "outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private double refreshCount(String outcome) {
+        return meterRegistry.get("cache.refresh.ahead.refreshes")
+                .tags("cache", CACHE_NAME, "outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
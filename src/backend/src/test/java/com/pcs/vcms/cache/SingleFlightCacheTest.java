@@ -0,0 +1,185 @@
+package com.pcs.vcms.cache;
+
+import com.pcs.vcms.datasource.PrimaryReads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for coalescing concurrent cache misses on this node and across nodes.
+ */
+class SingleFlightCacheTest {
+
+    private static final String CACHE_NAME = "vesselPositions";
+
+    private final ConcurrentMapCache sharedCache = new ConcurrentMapCache(CACHE_NAME);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Nested
+    @DisplayName("Local Coalescing Tests")
+    class LocalCoalescingTests {
+
+        @Test
+        @DisplayName("Should load a key once when many threads miss it concurrently")
+        void testGet_CoalescesConcurrentMisses() throws Exception {
+            SingleFlightCache cache = new SingleFlightCache(sharedCache, null, Duration.ZERO, meterRegistry);
+            CountDownLatch release = new CountDownLatch(1);
+            int callers = 8;
+            ExecutorService executor = Executors.newFixedThreadPool(callers);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < callers; i++) {
+                    results.add(executor.submit(() -> cache.get("IMO9321483", () -> {
+                        loads.incrementAndGet();
+                        release.await(5, TimeUnit.SECONDS);
+                        return "position";
+                    })));
+                }
+                awaitInFlight(cache);
+                Thread.sleep(50);
+                release.countDown();
+
+                for (Future<String> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("position");
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(sharedCache.get("IMO9321483").get()).isEqualTo("position");
+            assertThat(count("loaded")).isEqualTo(1);
+            assertThat(count("loaded") + count("coalesced_local")).isLessThanOrEqualTo(callers);
+            assertThat(cache.getInFlightCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should return null results without caching them")
+        void testGet_DoesNotCacheNull() {
+            SingleFlightCache cache = new SingleFlightCache(sharedCache, null, Duration.ZERO, meterRegistry);
+
+            assertThat((String) cache.get("IMO9321483", this::loadNull)).isNull();
+            assertThat((String) cache.get("IMO9321483", this::loadNull)).isNull();
+
+            assertThat(loads.get()).isEqualTo(2);
+            assertThat(sharedCache.get("IMO9321483")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should load with the reads on the primary")
+        void testGet_LoadsFromPrimary() {
+            SingleFlightCache cache = new SingleFlightCache(sharedCache, null, Duration.ZERO, meterRegistry);
+
+            Boolean primary = cache.get("IMO9321483", PrimaryReads::isRequested);
+
+            assertThat(primary).isTrue();
+            assertThat(PrimaryReads.isRequested()).isFalse();
+        }
+
+        private String loadNull() {
+            loads.incrementAndGet();
+            return null;
+        }
+    }
+
+    @Nested
+    @DisplayName("Cross-Node Tests")
+    class CrossNodeTests {
+
+        @Test
+        @DisplayName("Should use the value another node loaded while holding the lock")
+        void testGet_WaitsForRemoteLoader() throws Exception {
+            SingleFlightCache cache = new SingleFlightCache(sharedCache, lockHeldElsewhere(),
+                    Duration.ofSeconds(2), meterRegistry);
+
+            ExecutorService otherNode = Executors.newSingleThreadExecutor();
+            try {
+                otherNode.submit(() -> {
+                    Thread.sleep(100);
+                    sharedCache.put("IMO9321483", "remote-position");
+                    return null;
+                });
+
+                String value = cache.get("IMO9321483", () -> {
+                    loads.incrementAndGet();
+                    return "local-position";
+                });
+
+                assertThat(value).isEqualTo("remote-position");
+            } finally {
+                otherNode.shutdownNow();
+            }
+            assertThat(loads.get()).isZero();
+            assertThat(count("coalesced_remote")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should load anyway once the lock wait has elapsed")
+        void testGet_LoadsAfterLockWait() {
+            SingleFlightCache cache = new SingleFlightCache(sharedCache, lockHeldElsewhere(),
+                    Duration.ofMillis(60), meterRegistry);
+
+            String value = cache.get("IMO9321483", () -> {
+                loads.incrementAndGet();
+                return "local-position";
+            });
+
+            assertThat(value).isEqualTo("local-position");
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(count("lock_timeout")).isEqualTo(1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CacheLoadLock lockHeldElsewhere() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        return new CacheLoadLock(redisTemplate, Duration.ofSeconds(10));
+    }
+
+    private static void awaitInFlight(SingleFlightCache cache) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.getInFlightCount() == 0) {
+            assertThat(System.nanoTime()).as("no load started in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("cache.singleflight.requests")
+                .tags("cache", CACHE_NAME, "outcome", outcome)
+                .counter()
+                .count();
+    }
+}
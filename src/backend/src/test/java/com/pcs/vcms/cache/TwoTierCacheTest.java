@@ -0,0 +1,115 @@
+package com.pcs.vcms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the Caffeine L1 / Redis L2 near cache and its cross-node invalidation.
+ */
+class TwoTierCacheTest {
+
+    private static final String CACHE_NAME = "vesselCalls";
+
+    private final ConcurrentMapCache sharedL2 = new ConcurrentMapCache(CACHE_NAME);
+    private final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+    private MeterRegistry nodeAMetrics;
+    private TwoTierCache nodeA;
+    private TwoTierCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeAMetrics = new SimpleMeterRegistry();
+        nodeA = new TwoTierCache(CACHE_NAME, sharedL2, 100, Duration.ofMinutes(1), bus(nodeAMetrics), nodeAMetrics);
+        MeterRegistry nodeBMetrics = new SimpleMeterRegistry();
+        nodeB = new TwoTierCache(CACHE_NAME, sharedL2, 100, Duration.ofMinutes(1), bus(nodeBMetrics), nodeBMetrics);
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should serve repeated reads from L1 and count L1 and L2 hits separately")
+        void testGet_ServesFromL1AfterL2Hit() {
+            sharedL2.put(1L, "call-1");
+
+            assertThat(nodeA.get(1L).get()).isEqualTo("call-1");
+            assertThat(nodeA.get(1L).get()).isEqualTo("call-1");
+            assertThat(nodeA.get(2L)).isNull();
+
+            assertThat(count("l1", "hit")).isEqualTo(1);
+            assertThat(count("l1", "miss")).isEqualTo(2);
+            assertThat(count("l2", "hit")).isEqualTo(1);
+            assertThat(count("l2", "miss")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should drop the L1 copy on other nodes when an entry is evicted")
+        void testEvict_InvalidatesOtherNodes() {
+            nodeA.put(1L, "call-1");
+            assertThat(nodeB.get(1L).get()).isEqualTo("call-1");
+
+            nodeA.evict(1L);
+
+            assertThat(nodeB.get(1L)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should serve the new value on other nodes after an update")
+        void testPut_RefreshesOtherNodes() {
+            nodeA.put(1L, "call-1");
+            assertThat(nodeB.get(1L).get()).isEqualTo("call-1");
+
+            nodeA.put(1L, "call-1-berthed");
+
+            assertThat(nodeB.get(1L).get()).isEqualTo("call-1-berthed");
+            assertThat(nodeA.get(1L).get()).isEqualTo("call-1-berthed");
+        }
+    }
+
+    private double count(String tier, String result) {
+        return nodeAMetrics.get("cache.tier.gets").tags("cache", CACHE_NAME, "tier", tier, "result", result)
+                .counter().count();
+    }
+
+    /**
+     * Creates a bus whose published messages are delivered to every bus, as Redis pub/sub would.
+     */
+    private CacheInvalidationBus bus(MeterRegistry meterRegistry) {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        doAnswer(invocation -> {
+            byte[] body = invocation.getArgument(1, String.class).getBytes(StandardCharsets.UTF_8);
+            for (CacheInvalidationBus bus : buses) {
+                bus.onMessage(new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), body),
+                        null);
+            }
+            return 1L;
+        }).when(redisTemplate).convertAndSend(anyString(), anyString());
+        CacheInvalidationBus bus = new CacheInvalidationBus(redisTemplate, meterRegistry);
+        buses.add(bus);
+        return bus;
+    }
+}
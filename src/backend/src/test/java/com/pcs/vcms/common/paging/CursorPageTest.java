@@ -0,0 +1,150 @@
+package com.pcs.vcms.common.paging;
+
+import com.pcs.vcms.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for signed keyset cursors and the pages continued by them.
+ */
+class CursorPageTest {
+
+    private static final String SCOPE = "vesselCalls.byStatus/PLANNED";
+    private static final LocalDateTime ETA = LocalDateTime.of(2023, 11, 15, 8, 30, 0, 123_456_000);
+
+    private final CursorCodec codec = new CursorCodec("cursor-secret".getBytes(StandardCharsets.UTF_8));
+
+    @Nested
+    @DisplayName("Cursor Tests")
+    class CursorTests {
+
+        @Test
+        @DisplayName("Should read back the position of an encoded cursor")
+        void testDecode_RoundTrip() {
+            String token = codec.encode(new KeysetCursor(ETA, 42L), SCOPE);
+
+            assertThat(token).matches("[A-Za-z0-9_-]+");
+            assertThat(codec.decode(token, SCOPE)).isEqualTo(new KeysetCursor(ETA, 42L));
+        }
+
+        @Test
+        @DisplayName("Should start at the first page without a cursor")
+        void testDecode_FirstPage() {
+            assertThat(codec.decode(null, SCOPE)).isNull();
+            assertThat(codec.decode("", SCOPE)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor issued for other filters or altered")
+        void testDecode_RejectsForeignAndMalformedCursors() {
+            String token = codec.encode(new KeysetCursor(ETA, 42L), SCOPE);
+            String altered = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("0|not-a-date|42".getBytes());
+
+            assertThatThrownBy(() -> codec.decode(token, "vesselCalls.byStatus/ARRIVED"))
+                .isInstanceOf(ValidationException.class);
+            assertThatThrownBy(() -> codec.decode(altered, SCOPE))
+                .isInstanceOf(ValidationException.class);
+            assertThatThrownBy(() -> codec.decode("%%%", SCOPE))
+                .isInstanceOf(ValidationException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor whose position was changed under its signature")
+        void testDecode_RejectsTamperedPosition() {
+            String decoded = decode(codec.encode(new KeysetCursor(ETA, 42L), SCOPE));
+            String tampered = encode(decoded.replace("|42|", "|41|"));
+
+            assertThatThrownBy(() -> codec.decode(tampered, SCOPE))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Cursor does not belong to this query");
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor signed with another secret")
+        void testDecode_RejectsOtherSecret() {
+            CursorCodec other = new CursorCodec("other-secret".getBytes(StandardCharsets.UTF_8));
+            String token = other.encode(new KeysetCursor(ETA, 42L), SCOPE);
+
+            assertThatThrownBy(() -> codec.decode(token, SCOPE))
+                .isInstanceOf(ValidationException.class);
+        }
+
+        @Test
+        @DisplayName("Should accept cursors across nodes sharing the configured secret")
+        void testDecode_SharedSecret() {
+            String token = new CursorCodec("shared").encode(new KeysetCursor(ETA, 42L), SCOPE);
+
+            assertThat(new CursorCodec("shared").decode(token, SCOPE)).isEqualTo(new KeysetCursor(ETA, 42L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Page Tests")
+    class PageTests {
+
+        @Test
+        @DisplayName("Should trim the look-ahead row and continue after the last row of the page")
+        void testOf_ContinuesAfterLastRow() {
+            List<Row> rows = rows(3);
+
+            CursorPage<Long> page = CursorPage.of(rows, 2, codec, SCOPE, Row::cursor, Row::id, null);
+
+            assertThat(page.getContent()).containsExactly(1L, 2L);
+            assertThat(page.isHasNext()).isTrue();
+            assertThat(page.getTotalElements()).isNull();
+            assertThat(codec.decode(page.getNextCursor(), SCOPE)).isEqualTo(rows.get(1).cursor());
+        }
+
+        @Test
+        @DisplayName("Should end on a page without a look-ahead row and report a requested total")
+        void testOf_LastPage() {
+            CursorPage<Long> page = CursorPage.of(rows(2), 2, codec, SCOPE, Row::cursor, Row::id, 2L);
+
+            assertThat(page.getContent()).containsExactly(1L, 2L);
+            assertThat(page.isHasNext()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+            assertThat(page.getTotalElements()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("Should fetch one row more than the page size")
+        void testFetchLimit_LooksAheadOneRow() {
+            assertThat(CursorPage.fetchLimit(20).getPageSize()).isEqualTo(21);
+            assertThat(CursorPage.fetchLimit(20).getOffset()).isZero();
+        }
+    }
+
+    private static String decode(String token) {
+        return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Row> rows(int count) {
+        List<Row> rows = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            // Rows 2 and 3 share their ETA, so the id breaks the tie
+            rows.add(new Row(id, ETA.plusHours(id / 2)));
+        }
+        return rows;
+    }
+
+    private record Row(long id, LocalDateTime eta) {
+        KeysetCursor cursor() {
+            return new KeysetCursor(eta, id);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.pcs.vcms.common.tracking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the fixed-memory notification delivery tracker.
+ */
+class NotificationDeliveryTrackerTest {
+
+    private static final int CAPACITY = 64;
+    private static final int WINDOW_SECONDS = 10;
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDeliveryTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new NotificationDeliveryTracker(meterRegistry, CAPACITY, WINDOW_SECONDS, 1000, clock::get);
+    }
+
+    @Nested
+    @DisplayName("Delivery Tracking Tests")
+    class DeliveryTrackingTests {
+
+        @Test
+        @DisplayName("Should record delivery latency and outcome counts")
+        void testTrackDelivery_RecordsOutcomes() {
+            long delivered = tracker.nextTrackingId();
+            long failed = tracker.nextTrackingId();
+            tracker.trackDeliveryStart(delivered);
+            tracker.trackDeliveryStart(failed);
+            assertThat(tracker.getInFlightCount()).isEqualTo(2);
+
+            advanceMillis(5);
+            tracker.trackDeliverySuccess(delivered);
+            tracker.trackDeliveryFailure(failed, "broker unavailable");
+
+            assertThat(tracker.getInFlightCount()).isZero();
+            assertThat(tracker.getStats().getSuccessCount()).isEqualTo(1);
+            assertThat(tracker.getStats().getFailureRate()).isEqualTo(0.5);
+            assertThat(meterRegistry.get("notification.delivery.latency").timer().count()).isEqualTo(2);
+            assertThat(meterRegistry.get("notification.delivery.latency").timer()
+                    .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(10.0);
+        }
+
+        @Test
+        @DisplayName("Should count a restart of a tracked delivery as a retry")
+        void testTrackDeliveryStart_CountsRetries() {
+            long trackingId = tracker.nextTrackingId();
+            tracker.trackDeliveryStart(trackingId);
+            tracker.trackDeliveryFailure(trackingId, "timeout");
+            tracker.trackDeliveryStart(trackingId);
+            tracker.trackDeliverySuccess(trackingId);
+
+            assertThat(tracker.getRetryCount(trackingId)).isEqualTo(1);
+            assertThat(tracker.getStats().getRetryCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should report the state and failure reason of a delivery")
+        void testGetState_ReportsOutcome() {
+            long trackingId = tracker.nextTrackingId();
+            assertThat(tracker.getState(trackingId)).isEqualTo(NotificationDeliveryTracker.DeliveryState.UNKNOWN);
+
+            tracker.trackDeliveryStart(trackingId);
+            assertThat(tracker.getState(trackingId)).isEqualTo(NotificationDeliveryTracker.DeliveryState.IN_FLIGHT);
+
+            tracker.trackDeliveryFailure(trackingId, "IllegalStateException");
+            assertThat(tracker.getState(trackingId)).isEqualTo(NotificationDeliveryTracker.DeliveryState.FAILED);
+            assertThat(tracker.getFailureReason(trackingId)).isEqualTo("IllegalStateException");
+
+            tracker.trackDeliveryStart(trackingId);
+            tracker.trackDeliverySuccess(trackingId);
+            assertThat(tracker.getState(trackingId)).isEqualTo(NotificationDeliveryTracker.DeliveryState.DELIVERED);
+            assertThat(tracker.getFailureReason(trackingId)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should drop outcomes older than the rolling window")
+        void testGetStats_RollsWindow() {
+            long trackingId = tracker.nextTrackingId();
+            tracker.trackDeliveryStart(trackingId);
+            tracker.trackDeliveryFailure(trackingId, "timeout");
+
+            advanceMillis(TimeUnit.SECONDS.toMillis(WINDOW_SECONDS));
+
+            assertThat(tracker.getStats().getFailureCount()).isZero();
+            assertThat(tracker.getStats().getFailureRate()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction Tests")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("Should stay bounded when far more deliveries than its capacity are tracked")
+        void testTrackDeliveryStart_ReclaimsSlots() {
+            for (int i = 0; i < CAPACITY * 100; i++) {
+                long trackingId = tracker.nextTrackingId();
+                tracker.trackDeliveryStart(trackingId);
+                if (i % 2 == 0) {
+                    tracker.trackDeliverySuccess(trackingId);
+                }
+                advanceMillis(100);
+            }
+
+            assertThat(tracker.getInFlightCount()).isBetween(1, CAPACITY);
+            assertThat(meterRegistry.get("notification.delivery.outcomes").tag("outcome", "expired")
+                    .counter().count()).isPositive();
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
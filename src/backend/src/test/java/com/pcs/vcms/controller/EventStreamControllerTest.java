@@ -0,0 +1,63 @@
+package com.pcs.vcms.controller;
+
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.SseStreamService;
+import com.pcs.vcms.websocket.SubscriptionFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the topic mappings and filter handling of the event stream endpoints.
+ */
+class EventStreamControllerTest {
+
+    private SseStreamService streamService;
+    private EventStreamController controller;
+
+    @BeforeEach
+    void setUp() {
+        streamService = mock(SseStreamService.class);
+        controller = new EventStreamController(streamService);
+    }
+
+    @Nested
+    @DisplayName("Topic Mapping Tests")
+    class TopicMappingTests {
+
+        @Test
+        @DisplayName("Should open a stream of the topic of each mapping")
+        void testStream_OpensMappedTopic() {
+            controller.streamVesselCalls(null, null, null, null, null);
+            controller.streamBerthAllocations(null, null, null, null, null);
+            controller.streamServiceBookings(null, null, null, null, null);
+            controller.streamClearances(null, null, null, null, null);
+
+            for (RealtimeTopic topic : RealtimeTopic.values()) {
+                verify(streamService).open(eq(topic), any(SubscriptionFilter.class), eq(null));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should pass the filter and Last-Event-ID to the stream")
+    void testStream_FilterAndLastEventId() {
+        controller.streamVesselCalls(Set.of(7L), null, Set.of("maersk"), null, "epoch/12");
+
+        ArgumentCaptor<SubscriptionFilter> filter = ArgumentCaptor.forClass(SubscriptionFilter.class);
+        verify(streamService).open(eq(RealtimeTopic.VESSEL_CALLS), filter.capture(), eq("epoch/12"));
+        assertThat(filter.getValue().getVesselCallIds()).containsExactly(7L);
+        assertThat(filter.getValue().getAgents()).containsExactly("maersk");
+        assertThat(filter.getValue().getBerthIds()).isEmpty();
+    }
+}
@@ -0,0 +1,96 @@
+package com.pcs.vcms.controller;
+
+import com.pcs.vcms.config.SecurityConfig;
+import com.pcs.vcms.security.JwtAuthenticationFilter;
+import com.pcs.vcms.security.JwtTokenProvider;
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.SseStreamService;
+import com.pcs.vcms.websocket.SubscriptionFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that each event stream requires the roles of the matching STOMP subscription.
+ */
+@WebMvcTest(EventStreamController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+class EventStreamSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SseStreamService streamService;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @ParameterizedTest
+    @CsvSource({
+        "vessel-calls, SERVICE_PROVIDER",
+        "berth-allocations, SERVICE_PROVIDER",
+        "berth-allocations, CUSTOMS",
+        "service-bookings, PORT_AUTHORITY",
+        "clearances, VESSEL_AGENT",
+        "clearances, SERVICE_PROVIDER"
+    })
+    @DisplayName("Should forbid a stream to a role that cannot subscribe to its topic")
+    void testStream_DisallowedRoleForbidden(String topic, String role) throws Exception {
+        mockMvc.perform(get("/api/v1/stream/" + topic).with(user("user").roles(role)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(streamService);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "vessel-calls, VESSEL_CALLS, VESSEL_AGENT",
+        "berth-allocations, BERTH_ALLOCATIONS, PORT_AUTHORITY",
+        "service-bookings, SERVICE_BOOKINGS, SERVICE_PROVIDER",
+        "clearances, CLEARANCES, CUSTOMS"
+    })
+    @DisplayName("Should open a stream for a role that can subscribe to its topic")
+    void testStream_AllowedRoleOpensStream(String path, RealtimeTopic topic, String role) throws Exception {
+        when(streamService.open(eq(topic), any(SubscriptionFilter.class), isNull())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/stream/" + path).with(user("user").roles(role)))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"unknown", "VESSEL-CALLS", "queue/vessel-calls"})
+    @WithMockUser(roles = "PORT_AUTHORITY")
+    @DisplayName("Should not find a stream of a path that is not a topic name")
+    void testStream_UnknownTopicNotFound(String topic) throws Exception {
+        mockMvc.perform(get("/api/v1/stream/" + topic))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(streamService);
+    }
+
+    @Test
+    @DisplayName("Should require authentication to open a stream")
+    void testStream_AnonymousUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/stream/vessel-calls"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -103,7 +103,7 @@ class ServiceBookingControllerTest {
         List<ServiceBookingDTO> bookings = Arrays.asList(testBookingDTO);
         Page<ServiceBookingDTO> page = new PageImpl<>(bookings);
 
-        when(serviceBookingService.getServiceBookingsForVesselCall(eq(100L), any(PageRequest.class)))
+        when(serviceBookingService.getServiceBookingsByVesselCall(eq(100L), any(PageRequest.class)))
                 .thenReturn(page);
 
         mockMvc.perform(get("/api/v1/service-bookings/vessel-call/100")
@@ -113,7 +113,7 @@ class ServiceBookingControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(1))
                 .andExpect(jsonPath("$.totalElements").value(1));
 
-        verify(serviceBookingService).getServiceBookingsForVesselCall(eq(100L), any(PageRequest.class));
+        verify(serviceBookingService).getServiceBookingsByVesselCall(eq(100L), any(PageRequest.class));
     }
 
     @Test
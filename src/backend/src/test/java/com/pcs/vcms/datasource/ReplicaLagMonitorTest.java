@@ -0,0 +1,77 @@
+package com.pcs.vcms.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for taking lagging or disconnected read replicas out of the rotation.
+ */
+class ReplicaLagMonitorTest {
+
+    @Test
+    @DisplayName("Should keep a streaming replica within the allowed lag in the rotation")
+    void testCheck_StreamingReplicaAvailable() throws SQLException {
+        Replica replica = replica(120.0);
+
+        new ReplicaLagMonitor(List.of(replica), 1000, new SimpleMeterRegistry()).check();
+
+        assertThat(replica.isAvailable()).isTrue();
+        assertThat(replica.getLagMillis()).isEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("Should take a replica lagging beyond the allowed lag out of the rotation")
+    void testCheck_LaggingReplicaUnavailable() throws SQLException {
+        Replica replica = replica(5000.0);
+
+        new ReplicaLagMonitor(List.of(replica), 1000, new SimpleMeterRegistry()).check();
+
+        assertThat(replica.isAvailable()).isFalse();
+        assertThat(replica.getLagMillis()).isEqualTo(5000);
+    }
+
+    @Test
+    @DisplayName("Should take a replica whose WAL receiver is not streaming out of the rotation")
+    void testCheck_DisconnectedReplicaUnavailable() throws SQLException {
+        Replica replica = replica(null);
+        replica.update(0, true);
+
+        new ReplicaLagMonitor(List.of(replica), 1000, new SimpleMeterRegistry()).check();
+
+        assertThat(replica.isAvailable()).isFalse();
+        assertThat(replica.getLagMillis()).isEqualTo(-1);
+    }
+
+    /**
+     * @param lag lag returned by the lag query, null when the replica is not streaming
+     */
+    private static Replica replica(Double lag) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(1);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.getDouble(1)).thenReturn(lag != null ? lag : 0);
+        when(resultSet.wasNull()).thenReturn(lag == null);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return new Replica("replica-0", dataSource);
+    }
+}
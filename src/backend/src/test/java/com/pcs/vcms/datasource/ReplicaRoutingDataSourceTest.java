@@ -0,0 +1,173 @@
+package com.pcs.vcms.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for routing read-only transactions to the read replicas.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private Connection primaryConnection;
+    private Connection firstReplicaConnection;
+    private Connection secondReplicaConnection;
+    private Replica firstReplica;
+    private Replica secondReplica;
+    private MeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primaryConnection = mock(Connection.class);
+        firstReplicaConnection = mock(Connection.class);
+        secondReplicaConnection = mock(Connection.class);
+        firstReplica = new Replica("replica-0", dataSource(firstReplicaConnection));
+        secondReplica = new Replica("replica-1", dataSource(secondReplicaConnection));
+        firstReplica.update(10, true);
+        secondReplica.update(20, true);
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReplicaRoutingDataSource(dataSource(primaryConnection),
+            List.of(firstReplica, secondReplica), new ReadYourWrites(true), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Nested
+    @DisplayName("Routing Tests")
+    class RoutingTests {
+
+        @Test
+        @DisplayName("Should send read-write transactions to the primary")
+        void testGetConnection_WriteGoesToPrimary() throws SQLException {
+            beginTransaction(false);
+
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+            assertThat(count("write")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should spread read-only transactions over the replicas")
+        void testGetConnection_ReadsRoundRobin() throws SQLException {
+            beginTransaction(true);
+
+            assertThat(List.of(dataSource.getConnection(), dataSource.getConnection(), dataSource.getConnection()))
+                .containsExactly(firstReplicaConnection, secondReplicaConnection, firstReplicaConnection);
+            assertThat(count("replica_read")).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should skip a lagging replica and fall back to the primary when all lag")
+        void testGetConnection_SkipsLaggingReplicas() throws SQLException {
+            beginTransaction(true);
+            firstReplica.update(60_000, false);
+
+            assertThat(dataSource.getConnection()).isSameAs(secondReplicaConnection);
+            assertThat(dataSource.getConnection()).isSameAs(secondReplicaConnection);
+
+            secondReplica.update(-1, false);
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+            assertThat(count("fallback_read")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should send read-only transactions to the primary without replicas")
+        void testGetConnection_NoReplicasFallsBackToPrimary() throws SQLException {
+            ReplicaRoutingDataSource primaryOnly = new ReplicaRoutingDataSource(dataSource(primaryConnection),
+                List.of(), new ReadYourWrites(true), meterRegistry);
+            beginTransaction(true);
+
+            assertThat(primaryOnly.getConnection()).isSameAs(primaryConnection);
+            assertThat(count("fallback_read")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should send the reads of a cache load to the primary")
+        void testGetConnection_PrimaryReadsGoToPrimary() throws SQLException {
+            beginTransaction(true);
+
+            Connection connection = PrimaryReads.get(() -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThat(connection).isSameAs(primaryConnection);
+            assertThat(dataSource.getConnection()).isSameAs(firstReplicaConnection);
+            assertThat(count("primary_read")).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Read-Your-Writes Tests")
+    class ReadYourWritesTests {
+
+        @Test
+        @DisplayName("Should keep a request on the primary once its write committed")
+        void testGetConnection_StickyAfterCommittedWrite() throws SQLException {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            beginTransaction(false);
+            dataSource.getConnection();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertThat(dataSource.getConnection()).isSameAs(firstReplicaConnection);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+            assertThat(count("sticky_read")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should not keep work outside a request on the primary")
+        void testGetConnection_NotStickyOutsideRequest() throws SQLException {
+            beginTransaction(false);
+            dataSource.getConnection();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertThat(dataSource.getConnection()).isSameAs(firstReplicaConnection);
+        }
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static DataSource dataSource(Connection connection) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private double count(String route) {
+        return meterRegistry.get("datasource.routes").tag("route", route).counter().count();
+    }
+}
@@ -0,0 +1,84 @@
+package com.pcs.vcms.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for quantising positions into geohash weather tiles.
+ */
+class GeoTileTest {
+
+    @Nested
+    @DisplayName("Encoding Tests")
+    class EncodingTests {
+
+        @Test
+        @DisplayName("Should encode positions to their standard geohash")
+        void testOf_EncodesGeohash() {
+            assertThat(GeoTile.of(57.64911, 10.40744, 11).getHash()).isEqualTo("u4pruydqqvj");
+            assertThat(GeoTile.of(51.9225, 4.47917, 5).getHash()).isEqualTo("u15pm");
+        }
+
+        @Test
+        @DisplayName("Should put berths 50 m apart in the same tile")
+        void testOf_SharesTileBetweenNearbyPositions() {
+            GeoTile berth = GeoTile.of(51.9000, 4.4000, 5);
+            GeoTile neighbour = GeoTile.of(51.9004, 4.4003, 5);
+
+            assertThat(neighbour).isEqualTo(berth);
+            assertThat(GeoTile.of(berth.getCenterLatitude(), berth.getCenterLongitude(), 5)).isEqualTo(berth);
+        }
+
+        @Test
+        @DisplayName("Should not map swapped coordinates to the same tile")
+        void testOf_DistinguishesSwappedCoordinates() {
+            assertThat(GeoTile.of(10, 20, 5)).isNotEqualTo(GeoTile.of(20, 10, 5));
+        }
+
+        @Test
+        @DisplayName("Should reject a precision outside 1 to 12")
+        void testOf_RejectsInvalidPrecision() {
+            assertThatThrownBy(() -> GeoTile.of(51.9, 4.4, 0)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> GeoTile.of(51.9, 4.4, 13)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Area Coverage Tests")
+    class AreaCoverageTests {
+
+        @Test
+        @DisplayName("Should cover every position of the area with distinct tiles")
+        void testCovering_CoversArea() {
+            List<GeoTile> tiles = GeoTile.covering(51.85, 3.95, 51.98, 4.55, 5, 256);
+
+            assertThat(tiles).doesNotHaveDuplicates();
+            for (double latitude = 51.85; latitude <= 51.98; latitude += 0.01) {
+                for (double longitude = 3.95; longitude <= 4.55; longitude += 0.01) {
+                    assertThat(tiles).contains(GeoTile.of(latitude, longitude, 5));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should return a single tile for an area inside one tile")
+        void testCovering_SingleTile() {
+            assertThat(GeoTile.covering(51.9000, 4.4000, 51.9004, 4.4003, 5, 256))
+                    .containsExactly(GeoTile.of(51.9000, 4.4000, 5));
+        }
+
+        @Test
+        @DisplayName("Should reject an area needing more tiles than allowed")
+        void testCovering_RejectsTooManyTiles() {
+            assertThatThrownBy(() -> GeoTile.covering(51.0, 3.0, 53.0, 6.0, 6, 256))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("more than 256");
+        }
+    }
+}
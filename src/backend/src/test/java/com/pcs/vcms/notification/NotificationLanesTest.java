@@ -0,0 +1,177 @@
+package com.pcs.vcms.notification;
+
+import com.pcs.vcms.websocket.RealtimeTopic;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the notification priority lanes and their token buckets.
+ */
+class NotificationLanesTest {
+
+    private NotificationLanes lanes;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (lanes != null) {
+            lanes.destroy();
+        }
+    }
+
+    @Nested
+    @DisplayName("Lane Tests")
+    class LaneTests {
+
+        @Test
+        @DisplayName("Should deliver express notifications while the best-effort lane is saturated")
+        void testSubmit_ExpressNotDelayedByBestEffort() throws Exception {
+            Map<NotificationLane, NotificationLanes.LaneSettings> settings = new EnumMap<>(NotificationLane.class);
+            settings.put(NotificationLane.EXPRESS, new NotificationLanes.LaneSettings(1000, 10, 10, 1, 100));
+            settings.put(NotificationLane.BEST_EFFORT, new NotificationLanes.LaneSettings(1000, 10, 2, 1, 2000));
+            lanes = new NotificationLanes(settings, Map.of(RealtimeTopic.CLEARANCES.getName(), NotificationLane.EXPRESS),
+                    new SimpleMeterRegistry());
+
+            CountDownLatch release = new CountDownLatch(1);
+            assertThat(lanes.submit(NotificationLane.BEST_EFFORT, () -> await(release))).isTrue();
+            int accepted = 0;
+            for (int i = 0; i < 10; i++) {
+                if (lanes.submit(NotificationLane.BEST_EFFORT, () -> { })) {
+                    accepted++;
+                }
+            }
+
+            CountDownLatch delivered = new CountDownLatch(1);
+            assertThat(lanes.submit(lanes.laneFor(RealtimeTopic.CLEARANCES), delivered::countDown)).isTrue();
+
+            assertThat(delivered.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(accepted).isEqualTo(2);
+            assertThat(lanes.laneFor(RealtimeTopic.BERTH_ALLOCATIONS)).isEqualTo(NotificationLane.BEST_EFFORT);
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("Should run express deliveries on the caller when the express queue is full")
+        void testSubmit_ExpressRunsOnCallerWhenFull() throws Exception {
+            Map<NotificationLane, NotificationLanes.LaneSettings> settings = new EnumMap<>(NotificationLane.class);
+            settings.put(NotificationLane.EXPRESS, new NotificationLanes.LaneSettings(1000, 10, 1, 1, 100));
+            settings.put(NotificationLane.BEST_EFFORT, new NotificationLanes.LaneSettings(1000, 10, 1, 1, 2000));
+            lanes = new NotificationLanes(settings, Map.of(), new SimpleMeterRegistry());
+
+            CountDownLatch release = new CountDownLatch(1);
+            lanes.submit(NotificationLane.EXPRESS, () -> await(release));
+            lanes.submit(NotificationLane.EXPRESS, () -> { });
+
+            Thread caller = Thread.currentThread();
+            boolean[] ranOnCaller = new boolean[1];
+            assertThat(lanes.submit(NotificationLane.EXPRESS, () -> ranOnCaller[0] = Thread.currentThread() == caller))
+                    .isTrue();
+            assertThat(ranOnCaller[0]).isTrue();
+            release.countDown();
+        }
+    }
+
+    @Nested
+    @DisplayName("Partition Tests")
+    class PartitionTests {
+
+        @Test
+        @DisplayName("Should deliver the notifications of each entity in submission order across workers")
+        void testSubmit_KeepsEntityOrder() throws Exception {
+            lanes = new NotificationLanes(settings(new NotificationLanes.LaneSettings(1_000_000, 1000, 4000, 4, 100)),
+                    Map.of(), new SimpleMeterRegistry());
+
+            Map<String, List<Integer>> delivered = new ConcurrentHashMap<>();
+            CountDownLatch done = new CountDownLatch(2000);
+            for (int i = 0; i < 100; i++) {
+                for (int entity = 0; entity < 20; entity++) {
+                    String key = "vesselCall:" + entity;
+                    int order = i;
+                    assertThat(lanes.submit(NotificationLane.EXPRESS, key, () -> {
+                        delivered.computeIfAbsent(key, k -> new ArrayList<>()).add(order);
+                        done.countDown();
+                    })).isTrue();
+                }
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(delivered).hasSize(20);
+            delivered.values().forEach(orders -> assertThat(orders).hasSize(100).isSorted());
+        }
+
+        @Test
+        @DisplayName("Should hold back an ordered express delivery instead of running it ahead of its entity")
+        void testSubmit_OrderedExpressWaitsWhenFull() throws Exception {
+            lanes = new NotificationLanes(settings(new NotificationLanes.LaneSettings(1000, 10, 1, 1, 100)),
+                    Map.of(), new SimpleMeterRegistry());
+
+            CountDownLatch release = new CountDownLatch(1);
+            List<String> delivered = new ArrayList<>();
+            lanes.submit(NotificationLane.EXPRESS, "clearance:1", () -> await(release));
+            lanes.submit(NotificationLane.EXPRESS, "clearance:1", () -> delivered.add("first"));
+
+            AtomicBoolean submitted = new AtomicBoolean();
+            Thread caller = new Thread(() -> submitted.set(
+                    lanes.submit(NotificationLane.EXPRESS, "clearance:1", () -> delivered.add("second"))));
+            caller.start();
+            caller.join(200);
+            assertThat(caller.isAlive()).isTrue();
+
+            release.countDown();
+            caller.join(5000);
+            assertThat(submitted.get()).isTrue();
+            lanes.destroy();
+            assertThat(delivered).containsExactly("first", "second");
+        }
+    }
+
+    @Nested
+    @DisplayName("Token Bucket Tests")
+    class TokenBucketTests {
+
+        @Test
+        @DisplayName("Should hand out the burst immediately and then space reservations at the rate")
+        void testReserve_SpacesReservationsAfterBurst() {
+            AtomicLong clock = new AtomicLong();
+            TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+
+            assertThat(bucket.reserve()).isZero();
+            assertThat(bucket.reserve()).isZero();
+            assertThat(bucket.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+            assertThat(bucket.reserve()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            assertThat(bucket.reserve()).isZero();
+        }
+    }
+
+    private static Map<NotificationLane, NotificationLanes.LaneSettings> settings(
+            NotificationLanes.LaneSettings express) {
+        Map<NotificationLane, NotificationLanes.LaneSettings> settings = new EnumMap<>(NotificationLane.class);
+        settings.put(NotificationLane.EXPRESS, express);
+        settings.put(NotificationLane.BEST_EFFORT, new NotificationLanes.LaneSettings(1000, 10, 10, 1, 2000));
+        return settings;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
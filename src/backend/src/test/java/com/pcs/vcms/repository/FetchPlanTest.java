@@ -0,0 +1,184 @@
+package com.pcs.vcms.repository;
+
+import com.pcs.vcms.entity.Berth;
+import com.pcs.vcms.entity.Berth.BerthStatus;
+import com.pcs.vcms.entity.BerthAllocation;
+import com.pcs.vcms.entity.BerthAllocation.BerthAllocationStatus;
+import com.pcs.vcms.entity.ServiceBooking;
+import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
+import com.pcs.vcms.entity.ServiceBooking.ServiceType;
+import com.pcs.vcms.entity.Vessel;
+import com.pcs.vcms.entity.VesselCall;
+import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of queries of the reads whose results are converted to DTOs. Each test loads
+ * several rows with distinct vessel calls, vessels and berths and touches every association the
+ * conversion touches; anything above one statement is an N+1 regression of the fetch plan.
+ */
+@DataJpaTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pcs.vcms.repository.QueryCounter")
+@ActiveProfiles("test")
+class FetchPlanTest {
+
+    private static final int ROWS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BerthAllocationRepository berthAllocationRepository;
+
+    @Autowired
+    private ServiceBookingRepository serviceBookingRepository;
+
+    private Long firstAllocationId;
+    private Long firstBookingId;
+    private Long firstVesselCallId;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            Vessel vessel = entityManager.persist(Vessel.builder()
+                .imoNumber(String.valueOf(9000000 + i))
+                .name("Vessel " + i)
+                .build());
+            VesselCall vesselCall = entityManager.persist(VesselCall.builder()
+                .vessel(vessel)
+                .callSign("CALL" + i)
+                .status(VesselCallStatus.PLANNED)
+                .eta(now)
+                .etd(now.plusDays(1))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+            Berth berth = entityManager.persist(Berth.builder()
+                .name("Berth " + i)
+                .length(300.0)
+                .depth(15.0)
+                .status(BerthStatus.AVAILABLE)
+                .build());
+            BerthAllocation allocation = entityManager.persist(BerthAllocation.builder()
+                .vesselCall(vesselCall)
+                .berth(berth)
+                .startTime(now.plusHours(i))
+                .endTime(now.plusHours(i + 1))
+                .status(BerthAllocationStatus.SCHEDULED)
+                .build());
+            ServiceBooking booking = entityManager.persist(ServiceBooking.builder()
+                .vesselCall(vesselCall)
+                .serviceType(ServiceType.PILOTAGE)
+                .status(ServiceStatus.REQUESTED)
+                .quantity(1)
+                .serviceTime(now.plusHours(i))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+            if (i == 0) {
+                firstAllocationId = allocation.getId();
+                firstBookingId = booking.getId();
+                firstVesselCallId = vesselCall.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Nested
+    @DisplayName("Berth Allocation Fetch Plan Tests")
+    class BerthAllocationTests {
+
+        @Test
+        @DisplayName("Should load allocations by status with vessel and berth in one query")
+        void testFindByStatus_SingleQuery() {
+            int queries = QueryCounter.count(() -> berthAllocationRepository
+                .findByStatus(BerthAllocationStatus.SCHEDULED)
+                .forEach(FetchPlanTest::touch));
+
+            assertThat(queries).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should load an allocation with vessel and berth in one query")
+        void testFindById_SingleQuery() {
+            int queries = QueryCounter.count(() -> berthAllocationRepository.findById(firstAllocationId)
+                .ifPresent(FetchPlanTest::touch));
+
+            assertThat(queries).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should load the allocation of a vessel call with vessel and berth in one query")
+        void testFindByVesselCall_SingleQuery() {
+            int queries = QueryCounter.count(() -> berthAllocationRepository.findByVesselCall_Id(firstVesselCallId)
+                .ifPresent(FetchPlanTest::touch));
+
+            assertThat(queries).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Service Booking Fetch Plan Tests")
+    class ServiceBookingTests {
+
+        @Test
+        @DisplayName("Should load active bookings with vessel call and vessel in one query per page")
+        void testFindActiveBookings_SingleQuery() {
+            // The page is smaller than the rows, so its total is counted separately
+            int queries = QueryCounter.count(() -> serviceBookingRepository
+                .findActiveBookings(PageRequest.of(0, ROWS - 1))
+                .forEach(FetchPlanTest::touch));
+
+            assertThat(queries).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should load a booking with vessel call and vessel in one query")
+        void testFindByIdAndNotDeleted_SingleQuery() {
+            int queries = QueryCounter.count(() -> serviceBookingRepository.findByIdAndNotDeleted(firstBookingId)
+                .ifPresent(FetchPlanTest::touch));
+
+            assertThat(queries).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should load the bookings of a vessel call with vessel in one query")
+        void testFindByVesselCallId_SingleQuery() {
+            int queries = QueryCounter.count(() -> assertThat(serviceBookingRepository
+                .findByVesselCallId(firstVesselCallId))
+                .hasSize(1)
+                .allSatisfy(FetchPlanTest::touch));
+
+            assertThat(queries).isEqualTo(1);
+        }
+    }
+
+    /**
+     * Reads what {@code BerthAllocationServiceImpl.convertToDTO} reads.
+     */
+    private static void touch(BerthAllocation allocation) {
+        assertThat(allocation.getVesselCall().getVessel().getName()).isNotNull();
+        assertThat(allocation.getBerth().getName()).isNotNull();
+    }
+
+    /**
+     * Reads what {@code ServiceBookingMapper.toDTO} reads.
+     */
+    private static void touch(ServiceBooking booking) {
+        assertThat(booking.getVesselCall().getVessel().getName()).isNotNull();
+    }
+}
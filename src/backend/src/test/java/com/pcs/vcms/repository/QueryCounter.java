@@ -0,0 +1,31 @@
+package com.pcs.vcms.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared on the current thread.
+ * Registered through {@code hibernate.session_factory.statement_inspector} in tests that pin
+ * the number of queries of a read, so a fetch plan regressing into N+1 fails the build.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Runs the action and counts the statements it prepares.
+     *
+     * @param action the work to measure
+     * @return number of statements prepared by the action
+     */
+    public static int count(Runnable action) {
+        int before = COUNT.get()[0];
+        action.run();
+        return COUNT.get()[0] - before;
+    }
+}
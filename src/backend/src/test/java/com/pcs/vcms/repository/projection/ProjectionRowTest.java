@@ -0,0 +1,60 @@
+package com.pcs.vcms.repository.projection;
+
+import com.pcs.vcms.dto.ClearanceDTO;
+import com.pcs.vcms.dto.ServiceBookingDTO;
+import com.pcs.vcms.dto.VesselCallDTO;
+import com.pcs.vcms.entity.Clearance.ClearanceStatus;
+import com.pcs.vcms.entity.Clearance.ClearanceType;
+import com.pcs.vcms.entity.ServiceBooking.ServiceStatus;
+import com.pcs.vcms.entity.ServiceBooking.ServiceType;
+import com.pcs.vcms.entity.VesselCall.VesselCallStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the list row projections and their conversion to DTOs.
+ */
+class ProjectionRowTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2023, 11, 15, 8, 0);
+
+    @Test
+    @DisplayName("Should carry every vessel call row column into the DTO")
+    void testVesselCallRow_ToDTO() {
+        VesselCallRow row = new VesselCallRow(1L, 2L, "Ever Given", "IMO9811000", "H3RC",
+                VesselCallStatus.ARRIVED, T0, T0.plusDays(1), T0.plusHours(1), null,
+                T0.minusDays(3), T0.minusDays(1));
+
+        VesselCallDTO dto = row.toDTO();
+
+        assertThat(dto).usingRecursiveComparison().ignoringFields("version").isEqualTo(row);
+        assertThat(dto.getVersion()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should carry every clearance row column into the DTO")
+    void testClearanceRow_ToDTO() {
+        ClearanceRow row = new ClearanceRow(1L, 2L, "Ever Given", ClearanceType.CUSTOMS,
+                ClearanceStatus.APPROVED, "CLR-0001", "agent", "officer", "cleared",
+                T0, T0.plusHours(2), T0.plusDays(7), T0.minusDays(1), T0.plusHours(2));
+
+        ClearanceDTO dto = row.toDTO();
+
+        assertThat(dto).usingRecursiveComparison().isEqualTo(row);
+    }
+
+    @Test
+    @DisplayName("Should carry every service booking row column into the DTO")
+    void testServiceBookingRow_ToDTO() {
+        ServiceBookingRow row = new ServiceBookingRow(1L, 2L, "Ever Given", ServiceType.PILOTAGE,
+                ServiceStatus.CONFIRMED, 2, T0.plusDays(1), "two pilots", T0.minusDays(1), T0);
+
+        ServiceBookingDTO dto = row.toDTO();
+
+        assertThat(dto).usingRecursiveComparison().isEqualTo(row);
+    }
+}
@@ -1,11 +1,13 @@
 package com.pcs.vcms.service;
 
+import com.pcs.vcms.cache.CacheTagIndex;
 import com.pcs.vcms.dto.ClearanceDTO;
 import com.pcs.vcms.entity.Clearance;
 import com.pcs.vcms.entity.Clearance.ClearanceStatus;
 import com.pcs.vcms.entity.Clearance.ClearanceType;
 import com.pcs.vcms.entity.VesselCall;
 import com.pcs.vcms.repository.ClearanceRepository;
+import com.pcs.vcms.repository.projection.ClearanceRow;
 import com.pcs.vcms.security.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -48,6 +50,9 @@ class ClearanceServiceTest {
     @Mock
     private SecurityContext securityContext;
 
+    @Mock
+    private CacheTagIndex cacheTagIndex;
+
     @InjectMocks
     private ClearanceServiceImpl clearanceService;
 
@@ -179,10 +184,11 @@ class ClearanceServiceTest {
         @Test
         @DisplayName("Should retrieve clearances by vessel call")
         void testGetClearancesByVesselCall() {
-            List<Clearance> clearances = new ArrayList<>();
-            clearances.add(testClearance);
+            ClearanceRow row = new ClearanceRow(TEST_ID, 1L, "Test Vessel", ClearanceType.CUSTOMS,
+                    ClearanceStatus.PENDING, "CLR-0001", "agent", null, null,
+                    LocalDateTime.now(), null, null, LocalDateTime.now(), LocalDateTime.now());
 
-            when(clearanceRepository.findByVesselCallId(anyLong())).thenReturn(clearances);
+            when(clearanceRepository.findRowsByVesselCallId(anyLong())).thenReturn(List.of(row));
 
             List<ClearanceDTO> result = clearanceService.getClearancesByVesselCall(1L);
 
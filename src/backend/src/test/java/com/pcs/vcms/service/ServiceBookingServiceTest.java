@@ -1,6 +1,8 @@
 package com.pcs.vcms.service;
 
 import com.pcs.vcms.audit.AuditService;
+import com.pcs.vcms.cache.PagedQueryCache;
+import com.pcs.vcms.cache.QueryGenerations;
 import com.pcs.vcms.dto.ServiceBookingDTO;
 import com.pcs.vcms.entity.ServiceBooking;
 import com.pcs.vcms.entity.ServiceBooking.ServiceType;
@@ -48,6 +50,12 @@ class ServiceBookingServiceTest {
     @Mock
     private RetryTemplate retryTemplate;
 
+    @Mock
+    private PagedQueryCache pagedQueryCache;
+
+    @Mock
+    private QueryGenerations queryGenerations;
+
     @InjectMocks
     private ServiceBookingServiceImpl serviceBookingService;
 
@@ -1,5 +1,7 @@
 package com.pcs.vcms.service;
 
+import com.pcs.vcms.cache.PagedQueryCache;
+import com.pcs.vcms.cache.QueryGenerations;
 import com.pcs.vcms.dto.VesselCallDTO;
 import com.pcs.vcms.entity.Vessel;
 import com.pcs.vcms.entity.VesselCall;
@@ -10,6 +12,7 @@ import com.pcs.vcms.exception.ValidationException;
 import com.pcs.vcms.mapper.VesselCallMapper;
 import com.pcs.vcms.repository.VesselCallRepository;
 import com.pcs.vcms.repository.VesselRepository;
+import com.pcs.vcms.repository.projection.VesselCallRow;
 import com.pcs.vcms.security.SecurityContext;
 import com.pcs.vcms.service.notification.NotificationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +33,7 @@ import org.springframework.security.access.AccessDeniedException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -54,6 +58,12 @@ class VesselCallServiceTest {
     @Mock
     private SecurityContext securityContext;
 
+    @Mock
+    private PagedQueryCache pagedQueryCache;
+
+    @Mock
+    private QueryGenerations queryGenerations;
+
     @InjectMocks
     private VesselCallServiceImpl vesselCallService;
 
@@ -66,6 +76,10 @@ class VesselCallServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Run paged queries uncached
+        lenient().when(pagedQueryCache.get(any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+
         testVessel = Vessel.builder()
                 .id(1L)
                 .imoNumber("1234567")
@@ -196,12 +210,14 @@ class VesselCallServiceTest {
             LocalDateTime startDate = LocalDateTime.now();
             LocalDateTime endDate = startDate.plusDays(7);
             PageRequest pageRequest = PageRequest.of(0, 10);
-            Page<VesselCall> vesselCallPage = new PageImpl<>(List.of(testVesselCall));
+            VesselCallRow row = new VesselCallRow(1L, 1L, testVessel.getName(), testVessel.getImoNumber(),
+                    testVesselCallDTO.getCallSign(), VesselCallStatus.PLANNED, startDate.plusDays(1),
+                    startDate.plusDays(2), null, null, startDate, startDate);
+            Page<VesselCallRow> rowPage = new PageImpl<>(List.of(row));
             
             when(securityContext.hasPermission("VESSEL_CALL_READ")).thenReturn(true);
-            when(vesselCallRepository.findByEtaBetween(startDate, endDate, pageRequest))
-                    .thenReturn(vesselCallPage);
-            when(vesselCallMapper.toDTO(testVesselCall)).thenReturn(testVesselCallDTO);
+            when(vesselCallRepository.findRowsByEtaBetween(startDate, endDate, pageRequest))
+                    .thenReturn(rowPage);
 
             // When
             Page<VesselCallDTO> result = vesselCallService.findByDateRange(startDate, endDate, pageRequest);
@@ -0,0 +1,301 @@
+package com.pcs.vcms.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pcs.vcms.entity.WebhookSubscription;
+import com.pcs.vcms.repository.WebhookSubscriptionRepository;
+import com.pcs.vcms.websocket.RealtimeTopic;
+import com.pcs.vcms.websocket.RealtimeUpdate;
+import com.pcs.vcms.websocket.RoutingKeys;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for webhook batching, concurrency limits and retries against a local stand-in receiver.
+ */
+class WebhookDispatcherTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final long SUBSCRIPTION_ID = 7L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToReturn = new AtomicInteger();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final AtomicLong responseDelayMillis = new AtomicLong();
+    private final InMemoryRetryStore retryStore = new InMemoryRetryStore();
+
+    private HttpServer receiver;
+    private ExecutorService receiverExecutor;
+    private WebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        receiverExecutor = Executors.newFixedThreadPool(8);
+        receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.setExecutor(receiverExecutor);
+        receiver.createContext("/hook", exchange -> {
+            int concurrent = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(concurrent, Math::max);
+            try {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                String signature = exchange.getRequestHeaders().getFirst(WebhookDispatcher.SIGNATURE_HEADER);
+                sleep(responseDelayMillis.get());
+                int status = 200;
+                if (failuresToReturn.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    status = 503;
+                } else if (!("sha256=" + WebhookDispatcher.sign(SECRET, body)).equals(signature)) {
+                    status = 401;
+                } else {
+                    receivedBodies.add(body);
+                }
+                exchange.sendResponseHeaders(status, -1);
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                concurrentRequests.decrementAndGet();
+                exchange.close();
+            }
+        });
+        receiver.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+        receiver.stop(0);
+        receiverExecutor.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("Batching Tests")
+    class BatchingTests {
+
+        @Test
+        @DisplayName("Should group updates into signed batches no larger than the max batch size")
+        void testPublish_BatchesUpToMaxSize() throws Exception {
+            dispatcher = createDispatcher(10, 50, 2);
+
+            for (int i = 0; i < 25; i++) {
+                dispatcher.publish(update(RealtimeTopic.VESSEL_CALLS, i, "agent-a"));
+            }
+            dispatcher.publish(update(RealtimeTopic.BERTH_ALLOCATIONS, 99, "agent-a"));
+            dispatcher.publish(update(RealtimeTopic.CLEARANCES, 100, "agent-b"));
+
+            awaitTrue(() -> eventCount() == 25);
+            assertThat(receivedBodies).hasSizeLessThanOrEqualTo(4);
+            for (String body : receivedBodies) {
+                assertThat(objectMapper.readTree(body).get("events").size()).isLessThanOrEqualTo(10);
+            }
+        }
+
+        @Test
+        @DisplayName("Should keep at most the configured number of requests in flight per endpoint")
+        void testPublish_RespectsEndpointConcurrency() throws Exception {
+            dispatcher = createDispatcher(1, 0, 2);
+            responseDelayMillis.set(50);
+
+            for (int i = 0; i < 12; i++) {
+                dispatcher.publish(update(RealtimeTopic.CLEARANCES, i, "agent-a"));
+            }
+
+            awaitTrue(() -> eventCount() == 12);
+            assertThat(maxConcurrentRequests.get()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Endpoint Guard Tests")
+    class EndpointGuardTests {
+
+        @Test
+        @DisplayName("Should not call an endpoint that resolves to an internal address")
+        void testPublish_SkipsInternalEndpoint() throws Exception {
+            dispatcher = createDispatcher(5, 0, 1, new WebhookEndpointValidator());
+
+            dispatcher.publish(update(RealtimeTopic.VESSEL_CALLS, 1, "agent-a"));
+
+            awaitTrue(() -> retryStore.size() == 1);
+            assertThat(receivedBodies).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should deliver the payload as it was when the update was published")
+        void testPublish_CopiesPayload() throws Exception {
+            dispatcher = createDispatcher(10, 100, 1);
+            Map<String, Object> payload = new HashMap<>(Map.of("status", "PLANNED"));
+
+            dispatcher.publish(new RealtimeUpdate(RealtimeTopic.VESSEL_CALLS, "vesselCall:1",
+                    Set.of(RoutingKeys.agent("agent-a")), payload, 1, "epoch"));
+            payload.put("status", "DEPARTED");
+
+            awaitTrue(() -> eventCount() == 1);
+            JsonNode event = objectMapper.readTree(receivedBodies.get(0)).get("events").get(0);
+            assertThat(event.get("payload").get("status").asText()).isEqualTo("PLANNED");
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry Tests")
+    class RetryTests {
+
+        @Test
+        @DisplayName("Should store failed batches and redeliver them from the retry queue")
+        void testRetryDue_RedeliversFailedBatch() throws Exception {
+            dispatcher = createDispatcher(5, 0, 1);
+            failuresToReturn.set(1);
+
+            dispatcher.publish(update(RealtimeTopic.VESSEL_CALLS, 1, "agent-a"));
+            awaitTrue(() -> retryStore.size() == 1);
+            assertThat(receivedBodies).isEmpty();
+
+            retryStore.makeAllDue();
+            dispatcher.retryDue();
+
+            awaitTrue(() -> eventCount() == 1);
+            awaitTrue(() -> retryStore.size() == 0);
+        }
+    }
+
+    private WebhookDispatcher createDispatcher(int maxBatchSize, long lingerMillis, int maxConcurrency) {
+        return createDispatcher(maxBatchSize, lingerMillis, maxConcurrency, new WebhookEndpointValidator(true));
+    }
+
+    private WebhookDispatcher createDispatcher(int maxBatchSize, long lingerMillis, int maxConcurrency,
+                                               WebhookEndpointValidator endpointValidator) {
+        WebhookSubscriptionRepository repository = mock(WebhookSubscriptionRepository.class);
+        when(repository.findByActiveTrue()).thenReturn(List.of(WebhookSubscription.builder()
+                .id(SUBSCRIPTION_ID)
+                .agent("agent-a")
+                .endpointUrl("http://127.0.0.1:" + receiver.getAddress().getPort() + "/hook")
+                .secret(SECRET)
+                .topics("vessel-calls,clearances")
+                .active(true)
+                .build()));
+        WebhookRegistry registry = new WebhookRegistry(repository);
+        registry.refresh();
+        return new WebhookDispatcher(registry, retryStore, endpointValidator, objectMapper, new SimpleMeterRegistry(),
+                new WebhookDispatcher.Settings(maxBatchSize, lingerMillis, maxConcurrency, 1000,
+                        1000, 2000, 5, 10, 100, 10, 2));
+    }
+
+    private static RealtimeUpdate update(RealtimeTopic topic, long sequence, String agent) {
+        return new RealtimeUpdate(topic, "vesselCall:" + sequence,
+                Set.of(RoutingKeys.agent(agent), RoutingKeys.port("TEST")),
+                Map.of("id", sequence), sequence, "epoch");
+    }
+
+    private int eventCount() {
+        int count = 0;
+        for (String body : receivedBodies) {
+            try {
+                JsonNode events = objectMapper.readTree(body).get("events");
+                count += events.size();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return count;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retry store keeping batches in memory.
+     */
+    private static final class InMemoryRetryStore implements WebhookRetryStore {
+        private final Map<Long, Object[]> rows = new ConcurrentHashMap<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public void save(WebhookBatch batch, long nextAttemptAt, String error) {
+            long id = ids.incrementAndGet();
+            rows.put(id, new Object[] {new WebhookBatch(id, batch.getSubscriptionId(), batch.getBody(),
+                    batch.getEventCount(), batch.getAttempts()), nextAttemptAt});
+        }
+
+        @Override
+        public synchronized List<WebhookBatch> claimDue(int limit, long leaseMillis) {
+            long now = System.currentTimeMillis();
+            List<WebhookBatch> due = new ArrayList<>();
+            for (Iterator<Object[]> it = rows.values().iterator(); it.hasNext() && due.size() < limit; ) {
+                Object[] row = it.next();
+                if ((long) row[1] <= now) {
+                    row[1] = now + leaseMillis;
+                    due.add((WebhookBatch) row[0]);
+                }
+            }
+            return due;
+        }
+
+        @Override
+        public void delete(long id) {
+            rows.remove(id);
+        }
+
+        @Override
+        public void reschedule(long id, int attempts, long nextAttemptAt, String error) {
+            Object[] row = rows.get(id);
+            WebhookBatch batch = (WebhookBatch) row[0];
+            row[0] = new WebhookBatch(id, batch.getSubscriptionId(), batch.getBody(), batch.getEventCount(), attempts);
+            row[1] = nextAttemptAt;
+        }
+
+        @Override
+        public void markDead(long id, int attempts, String error) {
+            rows.remove(id);
+        }
+
+        private void makeAllDue() {
+            rows.values().forEach(row -> row[1] = 0L);
+        }
+
+        private int size() {
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pcs.vcms.webhook;
+
+import com.pcs.vcms.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the webhook endpoint checks that guard against server-side request forgery.
+ */
+class WebhookEndpointValidatorTest {
+
+    private final WebhookEndpointValidator validator = new WebhookEndpointValidator();
+
+    @Test
+    @DisplayName("Should accept an https endpoint on a public address")
+    void testValidate_PublicHttpsEndpoint() {
+        assertThat(validator.validate("https://93.184.216.34/hooks/vcms"))
+                .isEqualTo(URI.create("https://93.184.216.34/hooks/vcms"));
+    }
+
+    @Test
+    @DisplayName("Should reject plain http endpoints")
+    void testValidate_RejectsHttp() {
+        assertThatThrownBy(() -> validator.validate("http://93.184.216.34/hooks/vcms"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("https");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "https://127.0.0.1/hook",
+            "https://localhost/hook",
+            "https://169.254.169.254/latest/meta-data",
+            "https://10.0.0.5/hook",
+            "https://172.16.3.4/hook",
+            "https://192.168.1.10/hook",
+            "https://100.64.0.1/hook",
+            "https://0.0.0.0/hook",
+            "https://[::1]/hook",
+            "https://[fd00::1]/hook",
+            "https://[fe80::1]/hook",
+            "https://[::ffff:127.0.0.1]/hook"
+    })
+    @DisplayName("Should reject endpoints resolving to internal addresses")
+    void testValidate_RejectsInternalAddresses(String endpointUrl) {
+        assertThatThrownBy(() -> validator.validate(endpointUrl))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("internal address");
+    }
+
+    @Test
+    @DisplayName("Should reject malformed endpoint URLs")
+    void testValidate_RejectsMalformedUrl() {
+        assertThatThrownBy(() -> validator.validate("https://bad host/hook"))
+                .isInstanceOf(ValidationException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the re-encoding of broker fan-out frames.
+ */
+class BroadcastEncodingInterceptorTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private EncodingNegotiationInterceptor encodingNegotiation;
+    private BroadcastEncodingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        encodingNegotiation = new EncodingNegotiationInterceptor();
+        encodingNegotiation.preSend(EncodingNegotiationInterceptorTest.connect("binary-1", "cbor", true), null);
+        encodingNegotiation.preSend(EncodingNegotiationInterceptorTest.connect("binary-2", "cbor", true), null);
+        interceptor = new BroadcastEncodingInterceptor(encodingNegotiation,
+                new PayloadEncoder(jsonMapper, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    @DisplayName("Should re-encode a broadcast frame for a session that negotiated CBOR")
+    @SuppressWarnings("unchecked")
+    void testPreSend_ReencodesForBinarySession() throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(Map.of("id", 7, "status", "ARRIVED"));
+
+        Message<?> sent = interceptor.preSend(brokerFrame("binary-1", json), null);
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent);
+        assertThat(headers.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        assertThat(headers.getFirstNativeHeader(PayloadEncoding.ENCODING_HEADER)).isEqualTo("cbor");
+        assertThat(headers.getFirstNativeHeader(SessionReplayService.SEQUENCE_HEADER)).isEqualTo("3");
+        Map<String, Object> decoded = new ObjectMapper(new CBORFactory()).readValue((byte[]) sent.getPayload(), Map.class);
+        assertThat(decoded).containsEntry("id", 7).containsEntry("status", "ARRIVED");
+    }
+
+    @Test
+    @DisplayName("Should encode a broadcast once for every session sharing an encoding")
+    void testPreSend_EncodesOncePerBroadcast() throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(Map.of("id", 7));
+
+        Object first = interceptor.preSend(brokerFrame("binary-1", json), null).getPayload();
+        Object second = interceptor.preSend(brokerFrame("binary-2", json), null).getPayload();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should leave JSON sessions and already encoded frames untouched")
+    void testPreSend_LeavesOtherFramesAlone() throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(Map.of("id", 7));
+        Message<byte[]> jsonSession = brokerFrame("text-1", json);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("binary-1");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(PayloadEncoding.ENCODING_HEADER, "cbor");
+        Message<byte[]> encoded = MessageBuilder.createMessage(new byte[]{1, 2}, accessor.getMessageHeaders());
+
+        assertThat(interceptor.preSend(jsonSession, null)).isSameAs(jsonSession);
+        assertThat(interceptor.preSend(encoded, null)).isSameAs(encoded);
+    }
+
+    private static Message<byte[]> brokerFrame(String sessionId, byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination("/topic/vessel-calls");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(SessionReplayService.SEQUENCE_HEADER, "3");
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,127 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the delivery of updates received from other nodes.
+ */
+class ClusterFanoutListenerTest {
+
+    private static final String LOCAL_NODE = "node-a";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private RealtimeDispatcher dispatcher;
+    private ClusterFanoutListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = mock(RealtimeDispatcher.class);
+        ClusterFanoutPublisher publisher = mock(ClusterFanoutPublisher.class);
+        when(publisher.getNodeId()).thenReturn(LOCAL_NODE);
+        listener = new ClusterFanoutListener(dispatcher, publisher, objectMapper, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Origin Tests")
+    class OriginTests {
+
+        @Test
+        @DisplayName("Should ignore updates this node published itself")
+        void testOnMessage_OwnUpdate() throws Exception {
+            listener.onMessage(message(update("m-1", LOCAL_NODE)));
+
+            verifyNoInteractions(dispatcher);
+            assertThat(meterRegistry.counter("websocket.cluster.received").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should deliver an update from another node locally exactly once")
+        void testOnMessage_ForeignUpdate() throws Exception {
+            listener.onMessage(message(update("m-1", "node-b")));
+
+            verify(dispatcher, times(1)).deliverLocally(eq(RealtimeTopic.VESSEL_CALLS), eq("vessel-call:7"),
+                    eq(Set.of("vessel-call:7", "berth:2")), any());
+            verify(dispatcher, never()).dispatch(any(), any(), any(), any());
+            verify(dispatcher, never()).broadcastLocally(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("Should deliver a plain broadcast from another node to its destination")
+        void testOnMessage_ForeignBroadcast() throws Exception {
+            RealtimeEnvelope envelope = RealtimeEnvelope.builder()
+                    .messageId("m-1")
+                    .originNode("node-b")
+                    .destination("/topic/system")
+                    .payload(Map.of("type", "MAINTENANCE"))
+                    .build();
+
+            listener.onMessage(message(envelope));
+
+            verify(dispatcher).broadcastLocally(eq("/topic/system"), eq(Map.of("type", "MAINTENANCE")));
+            verify(dispatcher, never()).deliverLocally(any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Deduplication Tests")
+    class DeduplicationTests {
+
+        @Test
+        @DisplayName("Should deliver a redelivered message id only once")
+        void testOnMessage_DuplicateId() throws Exception {
+            listener.onMessage(message(update("m-1", "node-b")));
+            listener.onMessage(message(update("m-1", "node-b")));
+            listener.onMessage(message(update("m-2", "node-b")));
+
+            verify(dispatcher, times(2)).deliverLocally(any(), any(), any(), any());
+            assertThat(meterRegistry.counter("websocket.cluster.duplicates").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should drop unreadable messages without delivering them")
+        void testOnMessage_Unreadable() {
+            listener.onMessage(new Message("not json".getBytes(), new MessageProperties()));
+
+            verifyNoInteractions(dispatcher);
+        }
+    }
+
+    private static RealtimeEnvelope update(String messageId, String originNode) {
+        return RealtimeEnvelope.builder()
+                .messageId(messageId)
+                .originNode(originNode)
+                .topic(RealtimeTopic.VESSEL_CALLS)
+                .entityKey("vessel-call:7")
+                .routingKeys(Set.of("vessel-call:7", "berth:2"))
+                .payload(Map.of("id", 7, "status", "ARRIVED"))
+                .publishedAt(System.currentTimeMillis())
+                .build();
+    }
+
+    private Message message(RealtimeEnvelope envelope) throws Exception {
+        return new Message(objectMapper.writeValueAsBytes(envelope), new MessageProperties());
+    }
+}
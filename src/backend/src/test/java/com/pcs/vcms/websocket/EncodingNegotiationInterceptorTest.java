@@ -0,0 +1,82 @@
+package com.pcs.vcms.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the negotiation of session payload encodings at STOMP CONNECT.
+ */
+class EncodingNegotiationInterceptorTest {
+
+    private EncodingNegotiationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new EncodingNegotiationInterceptor();
+    }
+
+    @Nested
+    @DisplayName("Connect Tests")
+    class ConnectTests {
+
+        @Test
+        @DisplayName("Should grant a binary encoding on a binary-capable connection")
+        void testPreSend_BinaryConnection() {
+            interceptor.preSend(connect("s1", "cbor", true), null);
+
+            assertThat(interceptor.getEncoding("s1")).isEqualTo(PayloadEncoding.CBOR);
+        }
+
+        @Test
+        @DisplayName("Should keep JSON on a connection that cannot carry binary frames")
+        void testPreSend_TextConnection() {
+            interceptor.preSend(connect("s1", "smile,cbor", false), null);
+
+            assertThat(interceptor.getEncoding("s1")).isEqualTo(PayloadEncoding.JSON);
+        }
+
+        @Test
+        @DisplayName("Should default to JSON for sessions without an accept header or unknown to the interceptor")
+        void testGetEncoding_Default() {
+            interceptor.preSend(connect("s1", null, true), null);
+
+            assertThat(interceptor.getEncoding("s1")).isEqualTo(PayloadEncoding.JSON);
+            assertThat(interceptor.getEncoding("unknown")).isEqualTo(PayloadEncoding.JSON);
+        }
+    }
+
+    @Test
+    @DisplayName("Should release the encoding of a disconnected session")
+    void testPreSend_Disconnect() {
+        interceptor.preSend(connect("s1", "cbor", true), null);
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId("s1");
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+
+        assertThat(interceptor.getEncoding("s1")).isEqualTo(PayloadEncoding.JSON);
+    }
+
+    static Message<byte[]> connect(String sessionId, String acceptHeader, boolean binaryFrames) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(EncodingNegotiationInterceptor.BINARY_FRAMES_ATTRIBUTE, binaryFrames);
+        accessor.setSessionAttributes(attributes);
+        if (acceptHeader != null) {
+            accessor.setNativeHeader(PayloadEncoding.ACCEPT_HEADER, acceptHeader);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
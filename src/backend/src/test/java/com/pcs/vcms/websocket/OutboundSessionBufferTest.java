@@ -0,0 +1,140 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the bounded per-session outbound buffer and its overflow policies.
+ */
+class OutboundSessionBufferTest {
+
+    private static final int MAX_MESSAGES = 3;
+
+    private final Queue<Runnable> drainTasks = new ArrayDeque<>();
+    private WebSocketSession delegate;
+    private OutboundBufferManager manager;
+    private OutboundSessionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        Map<RealtimeTopic, OverflowPolicy> policies = new EnumMap<>(RealtimeTopic.class);
+        policies.put(RealtimeTopic.VESSEL_CALLS, OverflowPolicy.CONFLATE);
+        policies.put(RealtimeTopic.BERTH_ALLOCATIONS, OverflowPolicy.CONFLATE);
+        policies.put(RealtimeTopic.SERVICE_BOOKINGS, OverflowPolicy.DROP_OLDEST);
+        policies.put(RealtimeTopic.CLEARANCES, OverflowPolicy.DISCONNECT);
+
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("s1");
+        when(delegate.isOpen()).thenReturn(true);
+        // Drain tasks are held back to simulate a client that is not reading
+        manager = new OutboundBufferManager(drainTasks::add, MAX_MESSAGES, 1 << 20, policies,
+                OverflowPolicy.DISCONNECT, new SimpleMeterRegistry());
+        buffer = (OutboundSessionBuffer) manager.decorate(delegate);
+    }
+
+    @Nested
+    @DisplayName("Overflow Policy Tests")
+    class OverflowPolicyTests {
+
+        @Test
+        @DisplayName("Should keep only the latest queued update per entity on conflated topics")
+        void testSendMessage_ConflatesPerEntity() throws Exception {
+            buffer.sendMessage(frame("/topic/berth-allocations", "berth\\c1", "a"));
+            buffer.sendMessage(frame("/topic/berth-allocations", "berth\\c2", "b"));
+            buffer.sendMessage(frame("/topic/berth-allocations", "berth\\c1", "c"));
+
+            assertThat(buffer.getBufferedMessages()).isEqualTo(2);
+            assertThat(buffer.getConflatedMessages()).isEqualTo(1);
+            assertThat(drainAndCollectBodies()).containsExactly("c", "b");
+        }
+
+        @Test
+        @DisplayName("Should drop the oldest update when a drop-oldest topic overflows")
+        void testSendMessage_DropsOldest() throws Exception {
+            for (int i = 1; i <= 5; i++) {
+                buffer.sendMessage(frame("/topic/service-bookings", null, "m" + i));
+            }
+
+            assertThat(buffer.getBufferedMessages()).isEqualTo(MAX_MESSAGES);
+            assertThat(buffer.getDroppedMessages()).isEqualTo(2);
+            assertThat(drainAndCollectBodies()).containsExactly("m3", "m4", "m5");
+        }
+
+        @Test
+        @DisplayName("Should disconnect the session when a disconnect topic overflows")
+        void testSendMessage_DisconnectsOnOverflow() throws Exception {
+            for (int i = 1; i <= MAX_MESSAGES; i++) {
+                buffer.sendMessage(frame("/user/queue/clearances", null, "m" + i));
+            }
+
+            assertThatThrownBy(() -> buffer.sendMessage(frame("/user/queue/clearances", null, "m4")))
+                    .isInstanceOf(SessionLimitExceededException.class);
+            assertThat(buffer.getBufferedMessages()).isZero();
+            assertThat(manager.getBufferedMessages()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should never drop control frames")
+        void testSendMessage_KeepsControlFrames() throws Exception {
+            buffer.sendMessage(new TextMessage("RECEIPT\nreceipt-id:1\n\n\u0000"));
+            for (int i = 1; i <= 4; i++) {
+                buffer.sendMessage(frame("/topic/service-bookings", null, "m" + i));
+            }
+
+            assertThat(drainAndCollectBodies()).containsExactly("", "m3", "m4");
+        }
+
+        @Test
+        @DisplayName("Should never drop subscription acknowledgments")
+        void testSendMessage_KeepsSubscriptionAcks() throws Exception {
+            buffer.sendMessage(frame("/user" + SessionMessageRouter.ACK_QUEUE, null, "ack"));
+            for (int i = 1; i <= 4; i++) {
+                buffer.sendMessage(frame("/topic/service-bookings", null, "m" + i));
+            }
+
+            assertThat(drainAndCollectBodies()).containsExactly("ack", "m3", "m4");
+        }
+    }
+
+    private List<String> drainAndCollectBodies() throws Exception {
+        while (!drainTasks.isEmpty()) {
+            drainTasks.poll().run();
+        }
+        ArgumentCaptor<WebSocketMessage<?>> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(delegate, atLeastOnce()).sendMessage(sent.capture());
+        return sent.getAllValues().stream()
+                .map(message -> ((TextMessage) message).getPayload())
+                .map(payload -> payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1))
+                .collect(Collectors.toList());
+    }
+
+    private static TextMessage frame(String destination, String entityKey, String body) {
+        StringBuilder frame = new StringBuilder("MESSAGE\ndestination:").append(destination).append('\n');
+        if (entityKey != null) {
+            frame.append(RealtimeUpdate.ENTITY_KEY_HEADER).append(':').append(entityKey).append('\n');
+        }
+        return new TextMessage(frame.append('\n').append(body).append('\u0000').toString());
+    }
+}
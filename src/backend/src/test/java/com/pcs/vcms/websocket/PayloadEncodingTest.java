@@ -0,0 +1,62 @@
+package com.pcs.vcms.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MimeTypeUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for payload encoding negotiation.
+ */
+class PayloadEncodingTest {
+
+    @Nested
+    @DisplayName("Negotiation Tests")
+    class NegotiationTests {
+
+        @Test
+        @DisplayName("Should pick the first supported encoding in the client's order of preference")
+        void testNegotiate_ClientPreferenceOrder() {
+            assertThat(PayloadEncoding.negotiate("smile,cbor,json", true)).isEqualTo(PayloadEncoding.SMILE);
+            assertThat(PayloadEncoding.negotiate("cbor,smile", true)).isEqualTo(PayloadEncoding.CBOR);
+        }
+
+        @Test
+        @DisplayName("Should ignore whitespace and case in the accept header")
+        void testNegotiate_LenientParsing() {
+            assertThat(PayloadEncoding.negotiate("  CBOR , json", true)).isEqualTo(PayloadEncoding.CBOR);
+        }
+
+        @Test
+        @DisplayName("Should skip unknown encodings and fall back to JSON when none is known")
+        void testNegotiate_UnknownEncodings() {
+            assertThat(PayloadEncoding.negotiate("msgpack, cbor", true)).isEqualTo(PayloadEncoding.CBOR);
+            assertThat(PayloadEncoding.negotiate("msgpack,protobuf", true)).isEqualTo(PayloadEncoding.JSON);
+            assertThat(PayloadEncoding.negotiate(",,", true)).isEqualTo(PayloadEncoding.JSON);
+        }
+
+        @Test
+        @DisplayName("Should fall back to JSON without an accept header")
+        void testNegotiate_NoHeader() {
+            assertThat(PayloadEncoding.negotiate(null, true)).isEqualTo(PayloadEncoding.JSON);
+            assertThat(PayloadEncoding.negotiate(" ", true)).isEqualTo(PayloadEncoding.JSON);
+        }
+
+        @Test
+        @DisplayName("Should refuse binary encodings on transports without binary frames")
+        void testNegotiate_TextOnlyTransport() {
+            assertThat(PayloadEncoding.negotiate("cbor,smile", false)).isEqualTo(PayloadEncoding.JSON);
+            assertThat(PayloadEncoding.negotiate("cbor,json", false)).isEqualTo(PayloadEncoding.JSON);
+        }
+    }
+
+    @Test
+    @DisplayName("Should declare binary bodies as octet-stream frames")
+    void testGetFrameContentType() {
+        assertThat(PayloadEncoding.CBOR.getFrameContentType()).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        assertThat(PayloadEncoding.SMILE.getFrameContentType()).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        assertThat(PayloadEncoding.JSON.getFrameContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+    }
+}
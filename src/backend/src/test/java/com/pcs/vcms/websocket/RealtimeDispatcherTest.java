@@ -0,0 +1,169 @@
+package com.pcs.vcms.websocket;
+
+import com.pcs.vcms.webhook.WebhookDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for local delivery and cluster publication of real-time updates.
+ */
+class RealtimeDispatcherTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private SessionReplayService replayService;
+    private SessionMessageRouter sessionRouter;
+    private SnapshotService snapshotService;
+    private SseStreamService sseStreams;
+    private ClusterFanoutPublisher clusterFanout;
+    private WebhookDispatcher webhooks;
+    private RealtimeDispatcher dispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        sessionRouter = mock(SessionMessageRouter.class);
+        replayService = new SessionReplayService(sessionRouter, new SubscriptionRoutingIndex(),
+                new SimpleMeterRegistry(), 100, 60_000);
+        snapshotService = mock(SnapshotService.class);
+        sseStreams = mock(SseStreamService.class);
+        clusterFanout = mock(ClusterFanoutPublisher.class);
+        webhooks = mock(WebhookDispatcher.class);
+        ObjectProvider<ClusterFanoutPublisher> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(clusterFanout);
+        dispatcher = new RealtimeDispatcher(messagingTemplate, replayService, sessionRouter, snapshotService,
+                sseStreams, provider, webhooks);
+    }
+
+    @Nested
+    @DisplayName("Dispatch Tests")
+    class DispatchTests {
+
+        @Test
+        @DisplayName("Should deliver locally, then publish once to the cluster and to webhooks")
+        void testDispatch_PublishesOnce() {
+            Map<String, Object> payload = Map.of("id", 7);
+
+            RealtimeUpdate update = dispatcher.dispatch(RealtimeTopic.VESSEL_CALLS, "vessel-call:7",
+                    Set.of("vessel-call:7"), payload);
+
+            assertThat(update.getSequence()).isEqualTo(1);
+            assertThat(update.getEpoch()).isEqualTo(replayService.getEpoch());
+            verify(messagingTemplate).convertAndSend("/topic/vessel-calls", (Object) payload, update.getNativeHeaders());
+            verify(sessionRouter).route(update);
+            verify(snapshotService).accept(update);
+            verify(sseStreams).publish(update);
+            verify(clusterFanout).publishUpdate(RealtimeTopic.VESSEL_CALLS, "vessel-call:7",
+                    Set.of("vessel-call:7"), payload);
+            verify(webhooks).publish(update);
+        }
+
+        @Test
+        @DisplayName("Should not republish updates received from other nodes")
+        void testDeliverLocally_DoesNotRepublish() {
+            RealtimeUpdate update = dispatcher.deliverLocally(RealtimeTopic.CLEARANCES, "clearance:3",
+                    Set.of("vessel-call:7"), Map.of("id", 3));
+
+            verify(sessionRouter).route(update);
+            verify(clusterFanout, never()).publishUpdate(any(), any(), any(), any());
+            verify(webhooks, never()).publish(any());
+        }
+
+        @Test
+        @DisplayName("Should stamp every topic with its own sequence")
+        void testDeliverLocally_SequencesPerTopic() {
+            dispatcher.deliverLocally(RealtimeTopic.CLEARANCES, "clearance:1", Set.of(), Map.of());
+            dispatcher.deliverLocally(RealtimeTopic.CLEARANCES, "clearance:2", Set.of(), Map.of());
+            RealtimeUpdate other = dispatcher.deliverLocally(RealtimeTopic.BERTH_ALLOCATIONS, "berth:1",
+                    Set.of(), Map.of());
+
+            assertThat(other.getSequence()).isEqualTo(1);
+            assertThat(replayService.getLatestSequence(RealtimeTopic.CLEARANCES)).isEqualTo(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand concurrent updates of a topic to the broker in sequence order")
+    void testDeliverLocally_ConcurrentOrdering() throws Exception {
+        List<Long> brokerOrder = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Map<String, Object> headers = invocation.getArgument(2);
+            brokerOrder.add(Long.parseLong((String) headers.get(SessionReplayService.SEQUENCE_HEADER)));
+            return null;
+        }).when(messagingTemplate).convertAndSend(eq("/topic/vessel-calls"), any(Object.class), anyMap());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2_000; i++) {
+            int id = i;
+            executor.execute(() -> dispatcher.deliverLocally(RealtimeTopic.VESSEL_CALLS, "vessel-call:" + id,
+                    Set.of(), Map.of("id", id)));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(brokerOrder).hasSize(2_000).isSorted();
+        ArgumentCaptor<RealtimeUpdate> routed = ArgumentCaptor.forClass(RealtimeUpdate.class);
+        verify(sessionRouter, times(2_000)).route(routed.capture());
+        assertThat(routed.getAllValues()).extracting(RealtimeUpdate::getSequence).isSorted();
+    }
+
+    @Test
+    @DisplayName("Should queue an update instead of waiting while another publisher sends the topic")
+    void testDeliverLocally_DoesNotWaitForSlowSend() throws Exception {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> sseOrder = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            RealtimeUpdate update = invocation.getArgument(0);
+            if (update.getSequence() == 1) {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            sseOrder.add(update.getSequence());
+            return null;
+        }).when(sseStreams).publish(any(RealtimeUpdate.class));
+
+        Thread slow = new Thread(() -> dispatcher.deliverLocally(RealtimeTopic.VESSEL_CALLS, "vessel-call:1",
+                Set.of(), Map.of("id", 1)));
+        slow.start();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Returns while the first update is still being sent, and is applied to the snapshot already
+        RealtimeUpdate queued = dispatcher.deliverLocally(RealtimeTopic.VESSEL_CALLS, "vessel-call:2",
+                Set.of(), Map.of("id", 2));
+        assertThat(queued.getSequence()).isEqualTo(2);
+        verify(snapshotService).accept(queued);
+        verify(sessionRouter, never()).route(queued);
+
+        release.countDown();
+        slow.join(5000);
+        assertThat(sseOrder).containsExactly(1L, 2L);
+        verify(sessionRouter).route(queued);
+    }
+}
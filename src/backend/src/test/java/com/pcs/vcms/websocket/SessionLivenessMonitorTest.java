@@ -0,0 +1,112 @@
+package com.pcs.vcms.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for evicting STOMP sessions whose heartbeats stopped.
+ */
+class SessionLivenessMonitorTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private WebSocketSessionRegistry sessionRegistry;
+    private ApplicationEventPublisher eventPublisher;
+    private SessionLivenessMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        sessionRegistry = mock(WebSocketSessionRegistry.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        // 1s ticks, idle after 20s, evicted after 60s
+        monitor = new SessionLivenessMonitor(sessionRegistry, eventPublisher, new SimpleMeterRegistry(),
+                1_000, 20_000, 60_000, now::get);
+    }
+
+    @Test
+    @DisplayName("Should keep a silent subscriber open when it did not offer client heartbeats")
+    void testEvict_SilentSubscriberWithoutHeartbeatStaysOpen() {
+        monitor.preSend(connect("s1", 0, 10_000), channel);
+        monitor.preSend(subscribe("s1"), channel);
+
+        advance(180_000);
+
+        verify(sessionRegistry, never()).close(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        assertThat(monitor.getEvictedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should evict a session that offered client heartbeats and stopped sending them")
+    void testEvict_SilentSessionWithHeartbeatEvicted() {
+        monitor.preSend(connect("s1", 10_000, 10_000), channel);
+        monitor.preSend(subscribe("s1"), channel);
+
+        advance(61_000);
+
+        verify(sessionRegistry).close("s1", CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(monitor.getEvictedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a session open while its heartbeats keep arriving")
+    void testEvict_HeartbeatingSessionStaysOpen() {
+        monitor.preSend(connect("s1", 10_000, 10_000), channel);
+
+        for (int i = 0; i < 18; i++) {
+            advance(10_000);
+            monitor.preSend(heartbeat("s1"), channel);
+        }
+
+        verify(sessionRegistry, never()).close(any(), any());
+        assertThat(monitor.getLiveCount()).isEqualTo(1);
+    }
+
+    private void advance(long millis) {
+        for (long elapsed = 0; elapsed < millis; elapsed += 1_000) {
+            now.addAndGet(1_000);
+            monitor.evictExpiredSessions();
+        }
+    }
+
+    private static Message<byte[]> connect(String sessionId, long clientInterval, long serverInterval) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setHeartbeat(clientInterval, serverInterval);
+        return message(accessor, sessionId);
+    }
+
+    private static Message<byte[]> subscribe(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination("/topic/vessel-calls");
+        accessor.setSubscriptionId("sub-0");
+        return message(accessor, sessionId);
+    }
+
+    private static Message<byte[]> heartbeat(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.createForHeartbeat();
+        return message(accessor, sessionId);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor, String sessionId) {
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,111 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Unit tests for the replay of missed updates to resuming subscriptions.
+ */
+class SessionReplayServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpMessagingTemplate messagingTemplate;
+    private MessageChannel clientOutboundChannel;
+    private SubscriptionRoutingIndex routingIndex;
+    private SessionReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        clientOutboundChannel = mock(MessageChannel.class);
+        routingIndex = new SubscriptionRoutingIndex();
+        SessionMessageRouter sessionRouter = new SessionMessageRouter(messagingTemplate, clientOutboundChannel,
+                routingIndex, new EncodingNegotiationInterceptor(),
+                new PayloadEncoder(objectMapper, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        replayService = new SessionReplayService(sessionRouter, routingIndex, new SimpleMeterRegistry(), 100, 60_000);
+    }
+
+    @Nested
+    @DisplayName("Broadcast Subscription Tests")
+    class BroadcastSubscriptionTests {
+
+        @Test
+        @DisplayName("Should replay missed updates to the topic subscription the client resumed")
+        void testRequestResume_ReplaysToSubscription() throws Exception {
+            replayService.record(RealtimeTopic.VESSEL_CALLS, Set.of("vessel-call:1"), Map.of("id", 1));
+            replayService.record(RealtimeTopic.VESSEL_CALLS, Set.of("vessel-call:2"), Map.of("id", 2));
+            replayService.record(RealtimeTopic.VESSEL_CALLS, Set.of("vessel-call:3"), Map.of("id", 3));
+
+            replayService.requestResume("s1", "sub-4", "/topic/vessel-calls", RealtimeTopic.VESSEL_CALLS,
+                    1, replayService.getEpoch(), false);
+
+            List<Message<?>> sent = captureSent(2);
+            SimpMessageHeaderAccessor first = SimpMessageHeaderAccessor.wrap(sent.get(0));
+            assertThat(first.getSessionId()).isEqualTo("s1");
+            assertThat(first.getSubscriptionId()).isEqualTo("sub-4");
+            assertThat(first.getDestination()).isEqualTo("/topic/vessel-calls");
+            assertThat(first.getFirstNativeHeader(SessionReplayService.SEQUENCE_HEADER)).isEqualTo("2");
+            assertThat(objectMapper.readValue((byte[]) sent.get(1).getPayload(), Map.class)).containsEntry("id", 3);
+            verifyNoInteractions(messagingTemplate);
+        }
+
+        @Test
+        @DisplayName("Should send the resync request to the subscription when the epoch changed")
+        void testRequestResume_ForeignEpoch() throws Exception {
+            replayService.record(RealtimeTopic.BERTH_ALLOCATIONS, Set.of("berth:1"), Map.of("id", 1));
+
+            replayService.requestResume("s1", "sub-1", "/topic/berth-allocations", RealtimeTopic.BERTH_ALLOCATIONS,
+                    1, "previous-epoch", false);
+
+            Message<?> sent = captureSent(1).get(0);
+            assertThat(SimpMessageHeaderAccessor.wrap(sent).getSubscriptionId()).isEqualTo("sub-1");
+            assertThat(objectMapper.readValue((byte[]) sent.getPayload(), Map.class))
+                    .containsEntry("type", SessionReplayService.RESYNC_REQUIRED);
+        }
+    }
+
+    @Test
+    @DisplayName("Should hold a user queue resume until the filter is registered and replay only matching updates")
+    void testResumePending_FilteredReplay() {
+        replayService.record(RealtimeTopic.CLEARANCES, Set.of("vessel-call:1"), Map.of("id", 1));
+        replayService.record(RealtimeTopic.CLEARANCES, Set.of("vessel-call:2"), Map.of("id", 2));
+
+        replayService.requestResume("s1", "sub-2", "/user/queue/clearances", RealtimeTopic.CLEARANCES,
+                0, replayService.getEpoch(), true);
+        verifyNoInteractions(clientOutboundChannel);
+
+        routingIndex.register("s1", "agent", RealtimeTopic.CLEARANCES, Set.of("vessel-call:2"));
+        replayService.resumePending("s1", RealtimeTopic.CLEARANCES);
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(captureSent(1).get(0));
+        assertThat(headers.getDestination()).isEqualTo("/user/queue/clearances");
+        assertThat(headers.getFirstNativeHeader(SessionReplayService.SEQUENCE_HEADER)).isEqualTo("2");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Message<?>> captureSent(int count) {
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel, times(count)).send(captor.capture());
+        return captor.getAllValues();
+    }
+}
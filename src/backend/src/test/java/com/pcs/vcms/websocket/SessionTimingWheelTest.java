@@ -0,0 +1,105 @@
+package com.pcs.vcms.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the session liveness timing wheel.
+ */
+class SessionTimingWheelTest {
+
+    private static final long START = 1_000_000;
+
+    private SessionTimingWheel timingWheel;
+
+    @BeforeEach
+    void setUp() {
+        // 1s ticks, idle after 20s, evicted after 60s
+        timingWheel = new SessionTimingWheel(1_000, 20_000, 60_000, START);
+    }
+
+    @Nested
+    @DisplayName("Liveness Tests")
+    class LivenessTests {
+
+        @Test
+        @DisplayName("Should keep sessions that keep sending heartbeats live")
+        void testAdvance_HeartbeatKeepsSessionLive() {
+            timingWheel.register("s1", "agent1", START);
+
+            for (long now = START; now <= START + 180_000; now += 5_000) {
+                timingWheel.touch("s1", now);
+                assertThat(timingWheel.advance(now)).isEmpty();
+            }
+
+            assertThat(timingWheel.getLiveCount()).isEqualTo(1);
+            assertThat(timingWheel.getIdleCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should flag silent sessions idle and bring them back on heartbeat")
+        void testAdvance_IdleAndRecovered() {
+            timingWheel.register("s1", "agent1", START);
+
+            timingWheel.advance(START + 25_000);
+            assertThat(timingWheel.getIdleCount()).isEqualTo(1);
+            assertThat(timingWheel.getLiveCount()).isZero();
+
+            timingWheel.touch("s1", START + 26_000);
+            assertThat(timingWheel.getIdleCount()).isZero();
+            assertThat(timingWheel.getLiveCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction Tests")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("Should evict only sessions silent past the eviction timeout")
+        void testAdvance_EvictsSilentSessions() {
+            timingWheel.register("silent", "agent1", START);
+            timingWheel.register("active", "agent2", START);
+
+            for (long now = START + 1_000; now <= START + 61_000; now += 1_000) {
+                timingWheel.touch("active", now);
+                if (now < START + 60_000) {
+                    assertThat(timingWheel.advance(now)).isEmpty();
+                }
+            }
+
+            assertThat(timingWheel.advance(START + 61_000))
+                    .extracting(SessionTimingWheel.SessionTimer::getSessionId)
+                    .containsExactly("silent");
+            assertThat(timingWheel.getEvictedCount()).isEqualTo(1);
+            assertThat(timingWheel.getLiveCount()).isEqualTo(1);
+            assertThat(timingWheel.getIdleCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not evict sessions removed on disconnect")
+        void testAdvance_RemovedSessionNotEvicted() {
+            timingWheel.register("s1", "agent1", START);
+            timingWheel.advance(START + 25_000);
+            timingWheel.remove("s1");
+
+            assertThat(timingWheel.advance(START + 120_000)).isEmpty();
+            assertThat(timingWheel.getIdleCount()).isZero();
+            assertThat(timingWheel.getEvictedCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should evict after a pause longer than a full revolution")
+        void testAdvance_CatchesUpAfterLongPause() {
+            timingWheel.register("s1", "agent1", START);
+
+            assertThat(timingWheel.advance(START + 600_000))
+                    .extracting(SessionTimingWheel.SessionTimer::getSessionId)
+                    .containsExactly("s1");
+        }
+    }
+}
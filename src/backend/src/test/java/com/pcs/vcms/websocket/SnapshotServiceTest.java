@@ -0,0 +1,232 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the latest-state snapshot topics.
+ */
+class SnapshotServiceTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private MessageChannel clientOutboundChannel;
+    private SnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        clientOutboundChannel = mock(MessageChannel.class);
+        snapshotService = new SnapshotService(messagingTemplate, clientOutboundChannel,
+                new EncodingNegotiationInterceptor(), new PayloadEncoder(new ObjectMapper(), new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
+
+    @Nested
+    @DisplayName("Conflation Tests")
+    class ConflationTests {
+
+        @Test
+        @DisplayName("Should flush only the latest state of each changed entity")
+        @SuppressWarnings("unchecked")
+        void testFlush_ConflatesUpdates() {
+            snapshotService.accept(berthUpdate("berth:1", "a"));
+            snapshotService.accept(berthUpdate("berth:1", "b"));
+            snapshotService.accept(berthUpdate("berth:2", "c"));
+
+            snapshotService.flush();
+
+            ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+            verify(messagingTemplate).convertAndSend(eq("/topic/snapshot/berths"), frame.capture());
+            Map<String, Object> delta = (Map<String, Object>) frame.getValue();
+            assertThat(delta.get("type")).isEqualTo(SnapshotService.DELTA_TYPE);
+            assertThat(delta.get("version")).isEqualTo(3L);
+            assertThat((Map<String, Object>) delta.get("entities"))
+                    .containsExactly(Map.entry("berth:1", "b"), Map.entry("berth:2", "c"));
+        }
+
+        @Test
+        @DisplayName("Should not broadcast when nothing changed since the last flush")
+        void testFlush_SkipsUnchangedSnapshots() {
+            snapshotService.accept(berthUpdate("berth:1", "a"));
+            snapshotService.flush();
+            snapshotService.flush();
+
+            verify(messagingTemplate).convertAndSend(eq("/topic/snapshot/berths"), any(Object.class));
+            verify(messagingTemplate, never()).convertAndSend(eq("/topic/snapshot/vessel-calls"), any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should remove vessel calls that reach a terminal status")
+        @SuppressWarnings("unchecked")
+        void testAccept_RemovesTerminalEntities() {
+            snapshotService.accept(vesselCallUpdate("vesselCall:7", "AT_BERTH"));
+            snapshotService.accept(vesselCallUpdate("vesselCall:7", "DEPARTED"));
+
+            snapshotService.flush();
+
+            ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+            verify(messagingTemplate).convertAndSend(eq("/topic/snapshot/vessel-calls"), frame.capture());
+            Map<String, Object> delta = (Map<String, Object>) frame.getValue();
+            assertThat((Map<String, Object>) delta.get("entities")).isEmpty();
+            assertThat((List<String>) delta.get("removed")).containsExactly("vesselCall:7");
+            assertThat(snapshotService.getEntityCount(SnapshotTopic.VESSEL_CALLS)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Seeding Tests")
+    class SeedingTests {
+
+        @Test
+        @DisplayName("Should add seeded entities to the snapshot in the notification shape")
+        @SuppressWarnings("unchecked")
+        void testSeed_AddsEntities() {
+            snapshotService.seed(SnapshotTopic.VESSEL_CALLS, "vesselCall:7", Map.of("id", 7, "status", "AT_BERTH"));
+            snapshotService.seed(SnapshotTopic.VESSEL_CALLS, "vesselCall:8", Map.of("id", 8, "status", "CANCELLED"));
+
+            snapshotService.flush();
+
+            ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+            verify(messagingTemplate).convertAndSend(eq("/topic/snapshot/vessel-calls"), frame.capture());
+            Map<String, Object> entities = (Map<String, Object>) ((Map<String, Object>) frame.getValue()).get("entities");
+            assertThat(entities).containsOnlyKeys("vesselCall:7");
+            Map<String, Object> entity = (Map<String, Object>) entities.get("vesselCall:7");
+            assertThat(entity).containsEntry("type", "VESSEL_UPDATE")
+                    .containsEntry("data", Map.of("id", 7, "status", "AT_BERTH"));
+        }
+
+        @Test
+        @DisplayName("Should keep the state of entities updated since startup")
+        @SuppressWarnings("unchecked")
+        void testSeed_KeepsNewerState() {
+            snapshotService.accept(vesselCallUpdate("vesselCall:7", "ARRIVED"));
+            snapshotService.seed(SnapshotTopic.VESSEL_CALLS, "vesselCall:7", Map.of("status", "PLANNED"));
+
+            snapshotService.flush();
+
+            ArgumentCaptor<Object> frame = ArgumentCaptor.forClass(Object.class);
+            verify(messagingTemplate).convertAndSend(eq("/topic/snapshot/vessel-calls"), frame.capture());
+            Map<String, Object> entities = (Map<String, Object>) ((Map<String, Object>) frame.getValue()).get("entities");
+            assertThat((Map<String, Object>) entities.get("vesselCall:7"))
+                    .containsEntry("data", Map.of("status", "ARRIVED"));
+            assertThat(snapshotService.getEntityCount(SnapshotTopic.VESSEL_CALLS)).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Subscription Tests")
+    class SubscriptionTests {
+
+        @Test
+        @DisplayName("Should send the full state to a new subscriber only")
+        void testAfterMessageHandled_SendsFullState() {
+            snapshotService.accept(berthUpdate("berth:1", "a"));
+            snapshotService.accept(berthUpdate("berth:2", "b"));
+
+            snapshotService.afterMessageHandled(subscribe("s1", "/topic/snapshot/berths"), mock(MessageChannel.class),
+                    mock(SimpleBrokerMessageHandler.class), null);
+
+            ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+            verify(clientOutboundChannel).send(sent.capture());
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(sent.getValue());
+            assertThat(headers.getSessionId()).isEqualTo("s1");
+            assertThat(headers.getSubscriptionId()).isEqualTo("sub-0");
+            assertThat(new String((byte[]) sent.getValue().getPayload()))
+                    .contains("\"type\":\"SNAPSHOT\"")
+                    .contains("\"berth:1\":\"a\"")
+                    .contains("\"berth:2\":\"b\"");
+        }
+
+        @Test
+        @DisplayName("Should not send the full state before the broker handled the subscription")
+        void testAfterMessageHandled_WaitsForBroker() {
+            snapshotService.afterMessageHandled(subscribe("s1", "/topic/snapshot/berths"), mock(MessageChannel.class),
+                    mock(MessageHandler.class), null);
+            snapshotService.afterMessageHandled(subscribe("s1", "/topic/snapshot/berths"), mock(MessageChannel.class),
+                    mock(SimpleBrokerMessageHandler.class), new IllegalStateException("rejected"));
+
+            verify(clientOutboundChannel, never()).send(any());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should deliver every change made after the full state to the new subscriber")
+        void testAfterMessageHandled_SubscriberGetsLaterDeltas() {
+            List<Message<?>> received = new ArrayList<>();
+            MessageChannel outbound = (message, timeout) -> received.add(message);
+            ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+            ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+            SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel,
+                    List.of("/topic"));
+            broker.start();
+            SnapshotService service = new SnapshotService(new SimpMessagingTemplate(brokerChannel), outbound,
+                    new EncodingNegotiationInterceptor(), new PayloadEncoder(new ObjectMapper(), new SimpleMeterRegistry()),
+                    new SimpleMeterRegistry());
+            inbound.addInterceptor(service);
+            service.accept(berthUpdate("berth:1", "a"));
+            service.flush();
+            StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+            connect.setSessionId("s1");
+            inbound.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+            received.clear();
+
+            inbound.send(subscribe("s1", "/topic/snapshot/berths"));
+            service.accept(berthUpdate("berth:2", "b"));
+            service.flush();
+
+            assertThat(received).hasSize(2);
+            assertThat(new String((byte[]) received.get(0).getPayload()))
+                    .contains("\"type\":\"SNAPSHOT\"")
+                    .contains("\"version\":1");
+            assertThat(SimpMessageHeaderAccessor.getSessionId(received.get(1).getHeaders())).isEqualTo("s1");
+            assertThat((Map<String, Object>) received.get(1).getPayload())
+                    .containsEntry("type", "SNAPSHOT_DELTA")
+                    .containsEntry("version", 2L)
+                    .containsEntry("entities", Map.of("berth:2", "b"));
+        }
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static RealtimeUpdate berthUpdate(String entityKey, Object payload) {
+        return new RealtimeUpdate(RealtimeTopic.BERTH_ALLOCATIONS, entityKey, Set.of(entityKey), payload, 1, "e");
+    }
+
+    private static RealtimeUpdate vesselCallUpdate(String entityKey, String status) {
+        Map<String, Object> payload = Map.of("type", "VESSEL_UPDATE", "data", Map.of("status", status));
+        return new RealtimeUpdate(RealtimeTopic.VESSEL_CALLS, entityKey, Set.of(entityKey), payload, 1, "e");
+    }
+}
@@ -0,0 +1,259 @@
+package com.pcs.vcms.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the Server-Sent Events streams: resume, filtering and slow clients.
+ */
+class SseStreamServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SessionReplayService replayService;
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private ExecutorService drainPool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        replayService = new SessionReplayService(mock(SessionMessageRouter.class), new SubscriptionRoutingIndex(),
+                meterRegistry, 100, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(emitter -> emitter.release.countDown());
+        if (drainPool != null) {
+            drainPool.shutdownNow();
+        }
+    }
+
+    @Nested
+    @DisplayName("Resume Tests")
+    class ResumeTests {
+
+        @Test
+        @DisplayName("Should replay the updates missed since the Last-Event-ID")
+        void testOpen_ResumesFromLastEventId() {
+            SseStreamService service = createService(Runnable::run, 16);
+            publish(service, "vesselCall:1");
+            publish(service, "vesselCall:2");
+            publish(service, "vesselCall:3");
+
+            service.open(RealtimeTopic.VESSEL_CALLS, null, replayService.getEpoch() + "/1");
+
+            assertThat(emitters.get(0).events).hasSize(2);
+            assertThat(emitters.get(0).events.get(0)).contains("id:" + replayService.getEpoch() + "/2")
+                    .contains("\"key\":\"vesselCall:2\"");
+            assertThat(emitters.get(0).events.get(1)).contains("/3");
+        }
+
+        @Test
+        @DisplayName("Should not send a replayed update again when it is published live")
+        void testPublish_SkipsReplayedSequences() {
+            SseStreamService service = createService(Runnable::run, 16);
+            RealtimeUpdate first = publish(service, "vesselCall:1");
+            service.open(RealtimeTopic.VESSEL_CALLS, null, replayService.getEpoch() + "/0");
+
+            service.publish(first);
+            publish(service, "vesselCall:2");
+
+            assertThat(emitters.get(0).events).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should send a resync event for an id of another epoch or an unreadable id")
+        void testOpen_ResyncsForeignEpoch() {
+            SseStreamService service = createService(Runnable::run, 16);
+            publish(service, "vesselCall:1");
+
+            service.open(RealtimeTopic.VESSEL_CALLS, null, "previous-epoch/1");
+            service.open(RealtimeTopic.VESSEL_CALLS, null, "garbage");
+
+            assertThat(emitters).allSatisfy(emitter -> assertThat(emitter.events).singleElement()
+                    .satisfies(event -> assertThat(event).contains("event:" + SseStreamService.RESYNC_EVENT)));
+            assertThat(meterRegistry.counter("sse.resyncs").count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should only stream live updates without a Last-Event-ID")
+        void testOpen_WithoutLastEventId() {
+            SseStreamService service = createService(Runnable::run, 16);
+            publish(service, "vesselCall:1");
+
+            service.open(RealtimeTopic.VESSEL_CALLS, null, null);
+            publish(service, "vesselCall:2");
+
+            assertThat(emitters.get(0).events).singleElement()
+                    .satisfies(event -> assertThat(event).contains("vesselCall:2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Filter Tests")
+    class FilterTests {
+
+        @Test
+        @DisplayName("Should send a filtered stream only the updates sharing one of its keys")
+        void testPublish_FilteredStream() {
+            SseStreamService service = createService(Runnable::run, 16);
+            service.open(RealtimeTopic.VESSEL_CALLS, SubscriptionFilter.builder().vesselCallIds(Set.of(2L)).build(), null);
+            service.open(RealtimeTopic.VESSEL_CALLS, new SubscriptionFilter(), null);
+
+            publish(service, "vesselCall:1");
+            publish(service, "vesselCall:2");
+
+            assertThat(emitters.get(0).events).singleElement()
+                    .satisfies(event -> assertThat(event).contains("vesselCall:2"));
+            assertThat(emitters.get(1).events).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should apply the filter to the replayed updates as well")
+        void testOpen_FiltersReplay() {
+            SseStreamService service = createService(Runnable::run, 16);
+            publish(service, "vesselCall:1");
+            publish(service, "vesselCall:2");
+
+            service.open(RealtimeTopic.VESSEL_CALLS, SubscriptionFilter.builder().vesselCallIds(Set.of(1L)).build(),
+                    replayService.getEpoch() + "/0");
+
+            assertThat(emitters.get(0).events).singleElement()
+                    .satisfies(event -> assertThat(event).contains("vesselCall:1"));
+        }
+
+        @Test
+        @DisplayName("Should not send updates of other topics")
+        void testPublish_OtherTopic() {
+            SseStreamService service = createService(Runnable::run, 16);
+            service.open(RealtimeTopic.CLEARANCES, null, null);
+
+            publish(service, "vesselCall:1");
+
+            assertThat(emitters.get(0).events).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Slow Client Tests")
+    class SlowClientTests {
+
+        @Test
+        @DisplayName("Should close a stream whose buffer overflows without holding the publisher or other streams")
+        void testPublish_ClosesSlowStream() throws Exception {
+            drainPool = Executors.newFixedThreadPool(2);
+            SseStreamService service = createService(drainPool, 4);
+            service.open(RealtimeTopic.VESSEL_CALLS, null, null);
+            service.open(RealtimeTopic.VESSEL_CALLS, null, null);
+            RecordingEmitter slow = emitters.get(0);
+            RecordingEmitter fast = emitters.get(1);
+            slow.blocking = true;
+
+            for (int i = 1; i <= 10; i++) {
+                publish(service, "vesselCall:" + i);
+                // The fast client keeps up while the slow one holds a drain thread
+                int sent = i;
+                awaitCondition(() -> fast.events.size() == sent);
+            }
+
+            assertThat(service.getOpenCount()).isEqualTo(1);
+            assertThat(meterRegistry.counter("sse.streams.overflow").count()).isEqualTo(1);
+
+            slow.release.countDown();
+            awaitCondition(() -> slow.completed);
+            assertThat(slow.events.size()).isLessThan(10);
+        }
+
+        @Test
+        @DisplayName("Should send heartbeats only to idle streams")
+        void testHeartbeat_IdleStreams() {
+            SseStreamService service = createService(Runnable::run, 16);
+            service.open(RealtimeTopic.BERTH_ALLOCATIONS, null, null);
+
+            service.heartbeat();
+
+            assertThat(emitters.get(0).events).singleElement()
+                    .satisfies(event -> assertThat(event).startsWith(":heartbeat"));
+        }
+    }
+
+    private SseStreamService createService(Executor drainExecutor, int maxBufferedEvents) {
+        return new SseStreamService(replayService, new PayloadEncoder(new ObjectMapper(), meterRegistry),
+                meterRegistry, 60_000, maxBufferedEvents, drainExecutor) {
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private RealtimeUpdate publish(SseStreamService service, String entityKey) {
+        Map<String, Object> payload = Map.of("key", entityKey);
+        long sequence = replayService.record(RealtimeTopic.VESSEL_CALLS, Set.of(entityKey), payload);
+        RealtimeUpdate update = new RealtimeUpdate(RealtimeTopic.VESSEL_CALLS, entityKey, Set.of(entityKey),
+                payload, sequence, replayService.getEpoch());
+        service.publish(update);
+        return update;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Emitter recording the events sent to it; a blocking emitter stands for a client that
+     * stopped reading, holding the sending thread until it is released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blocking;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blocking) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.pcs.vcms.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the in-memory subscription routing index.
+ */
+class SubscriptionRoutingIndexTest {
+
+    private SubscriptionRoutingIndex routingIndex;
+
+    @BeforeEach
+    void setUp() {
+        routingIndex = new SubscriptionRoutingIndex();
+    }
+
+    @Nested
+    @DisplayName("Resolve Tests")
+    class ResolveTests {
+
+        @Test
+        @DisplayName("Should resolve only sessions sharing a routing key with the update")
+        void testResolve_MatchingSessionsOnly() {
+            routingIndex.register("s1", "agent1", RealtimeTopic.VESSEL_CALLS, Set.of(RoutingKeys.vesselCall(1L)));
+            routingIndex.register("s2", "agent2", RealtimeTopic.VESSEL_CALLS, Set.of(RoutingKeys.vesselCall(2L)));
+            routingIndex.register("s3", "agent3", RealtimeTopic.VESSEL_CALLS, Set.of(RoutingKeys.port("NLRTM")));
+
+            Set<String> sessions = routingIndex.resolve(RealtimeTopic.VESSEL_CALLS,
+                    List.of(RoutingKeys.port("nlrtm"), RoutingKeys.vesselCall(1L)));
+
+            assertThat(sessions).containsExactlyInAnyOrder("s1", "s3");
+        }
+
+        @Test
+        @DisplayName("Should keep filters of different topics apart")
+        void testResolve_TopicIsolation() {
+            routingIndex.register("s1", "agent1", RealtimeTopic.BERTH_ALLOCATIONS, Set.of(RoutingKeys.berth(7)));
+
+            assertThat(routingIndex.resolve(RealtimeTopic.VESSEL_CALLS, List.of(RoutingKeys.berth(7)))).isEmpty();
+            assertThat(routingIndex.resolve(RealtimeTopic.BERTH_ALLOCATIONS, List.of(RoutingKeys.berth(7L))))
+                    .containsExactly("s1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Registration Lifecycle Tests")
+    class LifecycleTests {
+
+        @Test
+        @DisplayName("Should replace the previous filter of a session for the same topic")
+        void testRegister_ReplacesFilter() {
+            routingIndex.register("s1", "agent1", RealtimeTopic.VESSEL_CALLS, Set.of(RoutingKeys.vesselCall(1L)));
+            routingIndex.register("s1", "agent1", RealtimeTopic.VESSEL_CALLS, Set.of(RoutingKeys.vesselCall(2L)));
+
+            assertThat(routingIndex.resolve(RealtimeTopic.VESSEL_CALLS, List.of(RoutingKeys.vesselCall(1L)))).isEmpty();
+            assertThat(routingIndex.resolve(RealtimeTopic.VESSEL_CALLS, List.of(RoutingKeys.vesselCall(2L))))
+                    .containsExactly("s1");
+            assertThat(routingIndex.getIndexedKeyCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should release every index entry of a session on unregister")
+        void testUnregister_ReleasesKeys() {
+            routingIndex.register("s1", "agent1", RealtimeTopic.VESSEL_CALLS, Set.of(RoutingKeys.vesselCall(1L)));
+            routingIndex.register("s1", "agent1", RealtimeTopic.CLEARANCES, Set.of(RoutingKeys.agent("agent1")));
+
+            routingIndex.unregister("s1");
+
+            assertThat(routingIndex.getSessionCount()).isZero();
+            assertThat(routingIndex.getIndexedKeyCount()).isZero();
+            assertThat(routingIndex.getUsername("s1")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should keep the index consistent when a disconnect races a registration")
+        void testUnregister_RacingRegister() throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                for (int i = 0; i < 500; i++) {
+                    String sessionId = "s" + i;
+                    CountDownLatch start = new CountDownLatch(1);
+                    Future<?> register = executor.submit(() -> {
+                        start.await();
+                        routingIndex.register(sessionId, "agent1", RealtimeTopic.VESSEL_CALLS,
+                                Set.of(RoutingKeys.vesselCall(1L), RoutingKeys.port("NLRTM")));
+                        return null;
+                    });
+                    Future<?> unregister = executor.submit(() -> {
+                        start.await();
+                        routingIndex.unregister(sessionId);
+                        return null;
+                    });
+                    start.countDown();
+                    register.get();
+                    unregister.get();
+
+                    // Either the registration survived in full or it left nothing behind
+                    boolean registered = routingIndex.getUsername(sessionId) != null;
+                    assertThat(routingIndex.resolve(RealtimeTopic.VESSEL_CALLS, List.of(RoutingKeys.vesselCall(1L))))
+                            .isEqualTo(registered ? Set.of(sessionId) : Set.of());
+                    routingIndex.unregister(sessionId);
+                    assertThat(routingIndex.getIndexedKeyCount()).isZero();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
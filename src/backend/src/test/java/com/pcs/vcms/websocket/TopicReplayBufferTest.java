@@ -0,0 +1,89 @@
+package com.pcs.vcms.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the bounded per-topic replay buffer.
+ */
+class TopicReplayBufferTest {
+
+    private static final Set<String> KEYS = Set.of(RoutingKeys.vesselCall(1L));
+
+    @Nested
+    @DisplayName("Replay Tests")
+    class ReplayTests {
+
+        @Test
+        @DisplayName("Should replay every update after the resume sequence in order")
+        void testReadAfter_ReturnsMissedUpdates() {
+            TopicReplayBuffer buffer = new TopicReplayBuffer(10, 60_000);
+            for (int i = 1; i <= 5; i++) {
+                assertThat(buffer.append(KEYS, "update-" + i, 1_000)).isEqualTo(i);
+            }
+
+            TopicReplayBuffer.ReplayWindow window = buffer.readAfter(2, 1_000);
+
+            assertThat(window.isGap()).isFalse();
+            assertThat(window.getEntries())
+                    .extracting(TopicReplayBuffer.Entry::getPayload)
+                    .containsExactly("update-3", "update-4", "update-5");
+        }
+
+        @Test
+        @DisplayName("Should return an empty window for an up-to-date client")
+        void testReadAfter_UpToDate() {
+            TopicReplayBuffer buffer = new TopicReplayBuffer(10, 60_000);
+            buffer.append(KEYS, "update-1", 1_000);
+
+            TopicReplayBuffer.ReplayWindow window = buffer.readAfter(1, 1_000);
+
+            assertThat(window.isGap()).isFalse();
+            assertThat(window.getEntries()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Resync Tests")
+    class ResyncTests {
+
+        @Test
+        @DisplayName("Should report a gap once missed updates were overwritten")
+        void testReadAfter_GapBeyondCapacity() {
+            TopicReplayBuffer buffer = new TopicReplayBuffer(3, 60_000);
+            for (int i = 1; i <= 6; i++) {
+                buffer.append(KEYS, "update-" + i, 1_000);
+            }
+
+            assertThat(buffer.readAfter(2, 1_000).isGap()).isTrue();
+            assertThat(buffer.readAfter(3, 1_000).getEntries()).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("Should report a gap once missed updates expired")
+        void testReadAfter_GapBeyondMaxAge() {
+            TopicReplayBuffer buffer = new TopicReplayBuffer(10, 1_000);
+            buffer.append(KEYS, "update-1", 1_000);
+            buffer.append(KEYS, "update-2", 5_000);
+
+            TopicReplayBuffer.ReplayWindow window = buffer.readAfter(0, 5_500);
+
+            assertThat(window.isGap()).isTrue();
+            assertThat(window.getOldestSequence()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should report a gap for a sequence issued by a previous instance")
+        void testReadAfter_SequenceAhead() {
+            TopicReplayBuffer buffer = new TopicReplayBuffer(10, 60_000);
+            buffer.append(KEYS, "update-1", 1_000);
+
+            assertThat(buffer.readAfter(42, 1_000).isGap()).isTrue();
+        }
+    }
+}